@@ -92,12 +92,14 @@ public class ControllerGenerator {
 		source.append("        if (mappedRoomId == null || !mappedRoomId.equals(roomId)) return;\n\n");
 
 		source.append("        String action = (String) payload.get(\"action\");\n");
+		// steps: 한 번에 되돌릴/다시 적용할 작업 수 (기본 1)
+		source.append("        int steps = payload.get(\"steps\") instanceof Number ? ((Number) payload.get(\"steps\")).intValue() : 1;\n");
 		source.append("        if (\"undo\".equalsIgnoreCase(action)) {\n");
-		source.append("            historyService.undo(roomId);\n");
+		source.append("            historyService.undo(roomId, steps);\n");
 		source.append("            return;\n");
 		source.append("        }\n");
 		source.append("        if (\"redo\".equalsIgnoreCase(action)) {\n");
-		source.append("            historyService.redo(roomId);\n");
+		source.append("            historyService.redo(roomId, steps);\n");
 		source.append("            return;\n");
 		source.append("        }\n\n");
 
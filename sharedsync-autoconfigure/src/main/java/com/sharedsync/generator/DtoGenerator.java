@@ -2,6 +2,7 @@ package com.sharedsync.generator;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -38,6 +39,7 @@ public class DtoGenerator {
                 + writeDtoFields(cacheInfo)
                 + writeConstructors(cacheInfo)
                 + writeIdGetter(cacheInfo)
+                + writeEqualsAndHashCode(cacheInfo)
                 + writeReflectionCacheAndHelpers(cacheInfo)
                 + writeFromEntityMethod(cacheInfo)
                 + writeToEntityMethodUsingProcessor(cacheInfo)
@@ -375,11 +377,14 @@ public class DtoGenerator {
             sb.append("            } catch (Exception ignored) {\n");
             sb.append("                // fall back to field/method based extraction\n");
             sb.append("            }\n");
-            sb.append("            if (!jakarta.persistence.Persistence.getPersistenceUtil().isLoaded(").append(var).append(", \"").append(fname).append("\")) {\n");
-            sb.append("                return null;\n");
-            sb.append("            }\n");
             sb.append("            Object rel = FIELD_").append(up).append(".get(").append(var).append(");\n");
             sb.append("            if (rel == null) return null;\n");
+            // A LAZY to-one holds an uninitialized proxy that already knows the foreign key;
+            // read it from the proxy instead of initializing it (or returning null as if unset).
+            sb.append("            if (rel instanceof org.hibernate.proxy.HibernateProxy proxy) {\n");
+            sb.append("                Object idObj = proxy.getHibernateLazyInitializer().getIdentifier();\n");
+            sb.append("                return idObj == null ? null : (").append(elemIdType).append(") idObj;\n");
+            sb.append("            }\n");
             sb.append("            try {\n");
             sb.append("                Object idObj = METHOD_GETID_").append(up).append(".invoke(rel);\n");
             sb.append("                return idObj == null ? null : (").append(elemIdType).append(") idObj;\n");
@@ -485,69 +490,21 @@ public class DtoGenerator {
     // ==========================================
     private static String writeConstructors(CacheInformation cacheInfo) {
         StringBuilder sb = new StringBuilder();
+        List<DtoField> fields = dtoFields(cacheInfo);
 
         // no-arg
         sb.append("    public ").append(cacheInfo.getDtoClassName()).append("() { }\n\n");
 
-        // build parameter list in same order as fromEntity (id first, then entity fields excluding id)
-        StringBuilder params = new StringBuilder();
-        List<FieldInfo> fields = cacheInfo.getEntityFields();
-        // first param: id
-        params.append(cacheInfo.getIdType()).append(" ").append(cacheInfo.getIdName());
-
-        for (FieldInfo fieldInfo : fields) {
-            if (fieldInfo.getName().equals(cacheInfo.getIdName()) || fieldInfo.isIgnored()) continue;
-
-            RelatedEntity matched = cacheInfo.getRelatedEntities().stream()
-                    .filter(re -> isSameEntity(fieldInfo, re))
-                    .findFirst()
-                    .orElse(null);
-
-            if (matched != null && (fieldInfo.isManyToOne() || fieldInfo.isOneToOne())) {
-                String fkFieldName = matched.getCacheEntityIdName();
-                String fkFieldType = Generator.denormalizeType(matched.getEntityIdType(), matched.getEntityIdOriginalType());
-                params.append(", ").append(fkFieldType).append(" ").append(fkFieldName);
-
-            } else if (matched != null && (fieldInfo.isOneToMany() || fieldInfo.isManyToMany())){
-                String collectionType = fieldInfo.getCollectionPath().split("\\.")[fieldInfo.getCollectionPath().split("\\.").length -1];
-                String fkFieldNames = matched.getCacheEntityIdName()+"s";
-                String fkFieldType = collectionType + "<" + Generator.denormalizeType(matched.getEntityIdType(), matched.getEntityIdOriginalType()) + ">";
-                params.append(", ").append(fkFieldType).append(" ").append(fkFieldNames);
-
-            } else {
-                String dtoFieldType = Generator.denormalizeType(fieldInfo.getType(), fieldInfo.getOriginalType());
-                params.append(", ").append(dtoFieldType).append(" ").append(fieldInfo.getName());
-            }
+        // all-args: same order as the fields (id first)
+        List<String> params = new ArrayList<>();
+        for (DtoField field : fields) {
+            params.add(field.type() + " " + field.name());
         }
-
-        // all-args constructor signature
-        sb.append("    public ").append(cacheInfo.getDtoClassName()).append("(").append(params.toString()).append(") {\n");
-
-        // assignments
-        // first assignment: id
-        sb.append("        this.").append(cacheInfo.getIdName()).append(" = ").append(cacheInfo.getIdName()).append(";\n");
-
-        for (FieldInfo fieldInfo : fields) {
-            if (fieldInfo.getName().equals(cacheInfo.getIdName()) || fieldInfo.isIgnored()) continue;
-
-            RelatedEntity matched = cacheInfo.getRelatedEntities().stream()
-                    .filter(re -> isSameEntity(fieldInfo, re))
-                    .findFirst()
-                    .orElse(null);
-
-            if (matched != null && (fieldInfo.isManyToOne() || fieldInfo.isOneToOne())) {
-                String fkFieldName = matched.getCacheEntityIdName();
-                sb.append("        this.").append(fkFieldName).append(" = ").append(fkFieldName).append(";\n");
-            }
-            else if(matched != null && (fieldInfo.isOneToMany() || fieldInfo.isManyToMany())){
-                String fkFieldNames = matched.getCacheEntityIdName()+"s";
-                sb.append("        this.").append(fkFieldNames).append(" = ").append(fkFieldNames).append(";\n");
-            }
-            else {
-                sb.append("        this.").append(fieldInfo.getName()).append(" = ").append(fieldInfo.getName()).append(";\n");
-            }
+        sb.append("    public ").append(cacheInfo.getDtoClassName()).append("(")
+                .append(String.join(", ", params)).append(") {\n");
+        for (DtoField field : fields) {
+            sb.append("        this.").append(field.name()).append(" = ").append(field.name()).append(";\n");
         }
-
         sb.append("    }\n\n");
 
         return sb.toString();
@@ -571,74 +528,95 @@ public class DtoGenerator {
 
 
     // ==========================================
-    // DTO Fields
+    // equals / hashCode (필드 단위 비교, 히스토리 충돌 검사용)
     // ==========================================
-    private static String writeDtoFields(CacheInformation cacheInfo) {
-        StringBuilder fields = new StringBuilder();
+    private static String writeEqualsAndHashCode(CacheInformation cacheInfo) {
+        StringBuilder sb = new StringBuilder();
+        String dtoName = cacheInfo.getDtoClassName();
+        List<String> names = dtoFields(cacheInfo).stream().map(DtoField::name).toList();
+
+        sb.append("    @Override\n");
+        sb.append("    public boolean equals(Object o) {\n");
+        sb.append("        if (this == o) return true;\n");
+        sb.append("        if (o == null || getClass() != o.getClass()) return false;\n");
+        sb.append("        ").append(dtoName).append(" other = (").append(dtoName).append(") o;\n");
+        sb.append("        return ");
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append("\n                && ");
+            }
+            sb.append("java.util.Objects.deepEquals(this.").append(names.get(i))
+                    .append(", other.").append(names.get(i)).append(")");
+        }
+        sb.append(";\n");
+        sb.append("    }\n\n");
 
-        fields.append("    @CacheId\n");
-        fields.append("    private ")
-            .append(cacheInfo.getIdType())
-                .append(" ")
-                .append(cacheInfo.getIdName())
-                .append(";\n");
+        sb.append("    @Override\n");
+        sb.append("    public int hashCode() {\n");
+        sb.append("        return java.util.Arrays.deepHashCode(new Object[] { ")
+                .append(String.join(", ", names)).append(" });\n");
+        sb.append("    }\n\n");
 
-        for (FieldInfo fieldInfo : cacheInfo.getEntityFields()) {
+        return sb.toString();
+    }
 
+    /**
+     * A field of the generated DTO: the id first, then one per non-ignored entity field
+     * (to-one relations become the related id, to-many relations a collection of ids).
+     * Fields, constructor parameters and equals/hashCode are all generated from this list.
+     */
+    private record DtoField(String name, String type, List<String> annotations) {
+    }
+
+    private static List<DtoField> dtoFields(CacheInformation cacheInfo) {
+        List<DtoField> fields = new ArrayList<>();
+        fields.add(new DtoField(cacheInfo.getIdName(), cacheInfo.getIdType(), List.of("@CacheId")));
+
+        for (FieldInfo fieldInfo : cacheInfo.getEntityFields()) {
             if (fieldInfo.getName().equals(cacheInfo.getIdName()) || fieldInfo.isIgnored()) continue;
 
-            // ManyToOne / OneToOne
             RelatedEntity matched = cacheInfo.getRelatedEntities().stream()
                     .filter(re -> isSameEntity(fieldInfo, re))
                     .findFirst()
                     .orElse(null);
 
-            if (matched != null && (fieldInfo.isManyToOne() || fieldInfo.isOneToOne())) {
-                String fkFieldName = matched.getCacheEntityIdName();
-                String fkFieldType = Generator.denormalizeType(matched.getEntityIdType(), matched.getEntityIdOriginalType());
-
-                if (matched.getTableName() != null) {
-                    fields.append("    @TableName(\"").append(matched.getTableName()).append("\")\n");
-                }
+            List<String> annotations = new ArrayList<>();
+            if (matched != null && matched.getTableName() != null
+                    && (fieldInfo.isManyToOne() || fieldInfo.isOneToOne() || fieldInfo.isOneToMany() || fieldInfo.isManyToMany())) {
+                annotations.add("@TableName(\"" + matched.getTableName() + "\")");
+            }
 
+            if (matched != null && (fieldInfo.isManyToOne() || fieldInfo.isOneToOne())) {
+                // ManyToOne / OneToOne
                 if (matched.isCacheEntity()) {
-                    fields.append("    @ParentId(")
-                            .append(Generator.removePath(matched.getEntityPath()))
-                            .append(".class)\n");
+                    annotations.add("@ParentId(" + Generator.removePath(matched.getEntityPath()) + ".class)");
                 }
-
-                fields.append("    private ")
-                    .append(fkFieldType)
-                        .append(" ")
-                        .append(fkFieldName)
-                        .append(";\n");
-
-            }
-            else if(matched != null && (fieldInfo.isOneToMany() || fieldInfo.isManyToMany())){
-                String collectionType = fieldInfo.getCollectionPath().split("\\.")[fieldInfo.getCollectionPath().split("\\.").length -1];
-                String fkFieldNames = matched.getCacheEntityIdName()+"s";
+                String fkFieldType = Generator.denormalizeType(matched.getEntityIdType(), matched.getEntityIdOriginalType());
+                fields.add(new DtoField(matched.getCacheEntityIdName(), fkFieldType, annotations));
+            } else if (matched != null && (fieldInfo.isOneToMany() || fieldInfo.isManyToMany())) {
+                String[] collectionPath = fieldInfo.getCollectionPath().split("\\.");
+                String collectionType = collectionPath[collectionPath.length - 1];
                 String fkFieldType = collectionType + "<" + Generator.denormalizeType(matched.getEntityIdType(), matched.getEntityIdOriginalType()) + ">";
-
-                if (matched.getTableName() != null) {
-                    fields.append("    @TableName(\"").append(matched.getTableName()).append("\")\n");
-                }
-                fields.append("    private ")
-                    .append(fkFieldType)
-                        .append(" ")
-                        .append(fkFieldNames)
-                        .append(";\n");
-
-            }
-            else {
+                fields.add(new DtoField(matched.getCacheEntityIdName() + "s", fkFieldType, annotations));
+            } else {
                 String dtoFieldType = Generator.denormalizeType(fieldInfo.getType(), fieldInfo.getOriginalType());
-                fields.append("    private ")
-                    .append(dtoFieldType)
-                        .append(" ")
-                        .append(fieldInfo.getName())
-                        .append(";\n");
+                fields.add(new DtoField(fieldInfo.getName(), dtoFieldType, List.of()));
             }
         }
+        return fields;
+    }
 
+    // ==========================================
+    // DTO Fields
+    // ==========================================
+    private static String writeDtoFields(CacheInformation cacheInfo) {
+        StringBuilder fields = new StringBuilder();
+        for (DtoField field : dtoFields(cacheInfo)) {
+            for (String annotation : field.annotations()) {
+                fields.append("    ").append(annotation).append("\n");
+            }
+            fields.append("    private ").append(field.type()).append(" ").append(field.name()).append(";\n");
+        }
         fields.append("\n");
         return fields.toString();
     }
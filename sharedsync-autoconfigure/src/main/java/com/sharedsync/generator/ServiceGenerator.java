@@ -172,15 +172,14 @@ public class ServiceGenerator {
 		source.append("            .map(").append(cacheBean).append("::findDtoById)\n");
 		source.append("            .collect(java.util.stream.Collectors.toList());\n\n");
 
+		// 히스토리를 남길 때는 하위 트리를 한 번만 읽으며 삭제와 히스토리 수집을 함께 처리
 		source.append("        java.util.List<com.sharedsync.shared.history.HistoryAction> subActions = new java.util.ArrayList<>();\n");
-		source.append("        if (!com.sharedsync.shared.history.HistoryService.isSkipHistory()) {\n");
-		source.append("            for (").append(idType).append(" id : ids) {\n");
-		source.append("                subActions.addAll(").append(cacheBean).append(".collectCascadedHistory(id));\n");
-		source.append("            }\n");
-		source.append("        }\n\n");
-
 		source.append("        if (!ids.isEmpty()) {\n");
-		source.append("            ").append(cacheBean).append(".deleteAllById(ids);\n");
+		source.append("            if (com.sharedsync.shared.history.HistoryService.isSkipHistory()) {\n");
+		source.append("                ").append(cacheBean).append(".deleteAllById(ids);\n");
+		source.append("            } else {\n");
+		source.append("                subActions = ").append(cacheBean).append(".deleteAllByIdWithHistory(ids);\n");
+		source.append("            }\n");
 		source.append("        }\n");
 
 		source.append("        recordHistory(request, com.sharedsync.shared.history.HistoryAction.Type.DELETE, before, null, subActions);\n");
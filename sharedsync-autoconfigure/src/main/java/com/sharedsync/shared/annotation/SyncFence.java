@@ -0,0 +1,16 @@
+package com.sharedsync.shared.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 루트 엔티티의 방 동기화 펜싱 토큰 컬럼 (Long/long 필드).
+ * 방을 DB에 반영할 때 같은 트랜잭션에서 이 컬럼을 임대 토큰으로 조건부 갱신(기존 값보다 클 때만)하므로,
+ * 임대를 잃은 노드의 늦은 커밋은 DB에서 거부됩니다. 캐시 값으로 덮어쓰지 않습니다. (@IgnoreShared와 같이 보존)
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SyncFence {
+}
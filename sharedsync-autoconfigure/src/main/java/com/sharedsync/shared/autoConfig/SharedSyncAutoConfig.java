@@ -9,10 +9,14 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import com.sharedsync.shared.config.RedisConfig;
 import com.sharedsync.shared.config.RedisSyncConfig;
 import com.sharedsync.shared.config.SharedWebSocketConfig;
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.properties.SharedSyncHistoryProperties;
 import com.sharedsync.shared.properties.SharedSyncWebSocketProperties;
 
 @Configuration
-@EnableConfigurationProperties(SharedSyncWebSocketProperties.class)
+@EnableConfigurationProperties({SharedSyncWebSocketProperties.class, SharedSyncCacheProperties.class,
+        SharedSyncDatabaseSyncProperties.class, SharedSyncHistoryProperties.class})
 @EnableScheduling
 @Import({RedisConfig.class, RedisSyncConfig.class, SharedWebSocketConfig.class})
 @ComponentScan(basePackages = {"sharedsync", "com.sharedsync"})
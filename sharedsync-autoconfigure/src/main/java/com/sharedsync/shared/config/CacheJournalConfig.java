@@ -0,0 +1,51 @@
+package com.sharedsync.shared.config;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.repository.CacheMutationJournal;
+import com.sharedsync.shared.sync.CacheSyncService;
+
+/**
+ * 캐시 변경 저널 설정.
+ * sharedsync.cache.journal.enabled=true 이고 캐시 타입이 memory 또는 file 일 때만 활성화됩니다.
+ *
+ * 사용법:
+ *    sharedsync:
+ *      cache:
+ *        journal:
+ *          enabled: true
+ *          directory: ./sharedsync-journal
+ *
+ * 편집 내용을 로컬 파일에 먼저 기록하므로,
+ * 방이 비어 DB에 동기화되기 전에 서버가 비정상 종료되어도 재시작 시 DB에 반영됩니다.
+ *
+ * Redis 캐시는 여러 노드가 함께 쓰므로 한 노드의 저널을 재생하면 다른 노드의 최신 편집을 덮어쓸 수 있어
+ * 지원하지 않습니다. (Redis 자체의 영속화와 outbox를 사용하세요)
+ */
+@Configuration
+@ConditionalOnExpression("${sharedsync.cache.journal.enabled:false} && '${sharedsync.cache.type:memory}' != 'redis'")
+public class CacheJournalConfig {
+
+    @Bean
+    public CacheMutationJournal cacheMutationJournal(SharedSyncCacheProperties cacheProperties,
+            SharedSyncDatabaseSyncProperties syncProperties,
+            CacheSyncService cacheSyncService,
+            PlatformTransactionManager transactionManager) {
+        SharedSyncCacheProperties.Journal journal = cacheProperties.getJournal();
+        Path directory = Path.of(journal.getDirectory());
+        System.out.println("[SharedSync] Cache mutation journal enabled: " + directory.toAbsolutePath());
+        return new CacheMutationJournal(
+                directory,
+                journal.getSyncInterval(),
+                syncProperties.getBatchSize(),
+                cacheSyncService::orderParentFirst,
+                transactionManager);
+    }
+}
@@ -0,0 +1,45 @@
+package com.sharedsync.shared.config;
+
+import java.nio.file.Path;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
+import com.sharedsync.shared.repository.FileLogCacheStore;
+
+/**
+ * 파일 기반(로그 구조) 캐시 설정.
+ * sharedsync.cache.type=file 일 때만 활성화됩니다.
+ *
+ * 사용법:
+ *    sharedsync:
+ *      cache:
+ *        type: file
+ *        file:
+ *          directory: ./sharedsync-cache
+ *
+ * 단일 인스턴스 환경에서 Redis 없이 캐시를 디스크에 영속화합니다.
+ * 서버가 비정상 종료되어도 DB에 아직 반영되지 않은 변경이 재시작 후 복원됩니다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharedsync.cache.type", havingValue = "file")
+public class FileCacheConfig {
+
+    @Bean(name = "globalCacheStore")
+    @Primary
+    @SuppressWarnings("rawtypes")
+    public FileLogCacheStore fileLogCacheStore(SharedSyncCacheProperties cacheProperties) {
+        SharedSyncCacheProperties.File file = cacheProperties.getFile();
+        Path directory = Path.of(file.getDirectory());
+        System.out.println("[SharedSync] Using file-backed cache store: " + directory.toAbsolutePath());
+        return new FileLogCacheStore<>(
+                directory,
+                file.getSyncInterval(),
+                file.getCompactionInterval(),
+                file.getCompactionRatio(),
+                file.getCompactionMinBytes());
+    }
+}
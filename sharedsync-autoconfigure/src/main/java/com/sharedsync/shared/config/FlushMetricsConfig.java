@@ -0,0 +1,44 @@
+package com.sharedsync.shared.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sharedsync.shared.sync.DatabaseFlushExecutor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 방 DB 플러시 지표 설정. Micrometer가 클래스패스에 있을 때만 등록합니다.
+ * sharedsync.flush.pending / running: 대기 중 / 실행 중인 방 플러시 수
+ * sharedsync.flush.completed / failed: 끝난 / 실패한 방 플러시 누계
+ * sharedsync.flush.duration: 방 플러시 소요 시간 (실패 포함)
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class FlushMetricsConfig {
+
+    @Bean
+    public MeterBinder sharedSyncFlushMetrics(ObjectProvider<DatabaseFlushExecutor> flushExecutor) {
+        return registry -> flushExecutor.ifAvailable(executor -> {
+            Gauge.builder("sharedsync.flush.pending", executor, DatabaseFlushExecutor::getPendingCount)
+                    .register(registry);
+            Gauge.builder("sharedsync.flush.running", executor, DatabaseFlushExecutor::getRunningCount)
+                    .register(registry);
+            FunctionCounter.builder("sharedsync.flush.completed", executor, DatabaseFlushExecutor::getCompletedCount)
+                    .register(registry);
+            FunctionCounter.builder("sharedsync.flush.failed", executor, DatabaseFlushExecutor::getFailedCount)
+                    .register(registry);
+            FunctionTimer.builder("sharedsync.flush.duration", executor,
+                            DatabaseFlushExecutor::getFinishedCount,
+                            DatabaseFlushExecutor::getTotalDurationMillis, TimeUnit.MILLISECONDS)
+                    .register(registry);
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.sharedsync.shared.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+
+/**
+ * 캐시 → DB 동기화가 JDBC 배치로 실행되고, 캐시 로딩 시 연관을 묶어서 읽도록 Hibernate 기본 설정을 채웁니다.
+ * 애플리케이션에서 spring.jpa.properties.hibernate.* 로 직접 지정한 값이 있으면 그대로 둡니다.
+ *
+ * 참고: IDENTITY 전략의 ID는 INSERT 배치가 되지 않습니다 (UPDATE는 배치됨).
+ */
+@Configuration
+@ConditionalOnClass(HibernatePropertiesCustomizer.class)
+public class HibernateBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sharedSyncBatchingCustomizer(SharedSyncDatabaseSyncProperties syncProperties) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", syncProperties.getBatchSize());
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            // 컬렉션/지연 연관을 엔티티마다 따로 읽지 않고 IN 쿼리로 묶어서 읽음 (@BatchSize 기본값)
+            if (syncProperties.getFetchBatchSize() > 0) {
+                properties.putIfAbsent("hibernate.default_batch_fetch_size", syncProperties.getFetchBatchSize());
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.sharedsync.shared.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import com.sharedsync.shared.history.HistoryStore;
+import com.sharedsync.shared.history.InMemoryHistoryStore;
+import com.sharedsync.shared.history.InMemoryRoomTimeline;
+import com.sharedsync.shared.history.RedisHistoryStore;
+import com.sharedsync.shared.history.RedisRoomTimeline;
+import com.sharedsync.shared.history.RoomTimeline;
+import com.sharedsync.shared.properties.SharedSyncHistoryProperties;
+
+/**
+ * undo/redo 히스토리 저장소 설정.
+ * Redis 캐시를 쓰면 노드 간에 공유되는 Redis 저장소를, 아니면 단일 노드용 인메모리 저장소를 사용합니다.
+ * 방 단위 작업 로그(RoomTimeline)는 sharedsync.history.timeline.enabled=true 일 때만 등록하며,
+ * 세션 스택에는 순번만 남으므로 방 크기 한도(max-bytes-per-room)와 ttl을 작업 로그에도 적용합니다.
+ */
+@Configuration
+public class HistoryConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sharedsync.cache.type", havingValue = "redis")
+    public HistoryStore redisHistoryStore(
+            @Qualifier("sharedSyncRedisConnectionFactory") RedisConnectionFactory connectionFactory,
+            SharedSyncHistoryProperties historyProperties) {
+        System.out.println("[SharedSync] Using Redis history store");
+        return new RedisHistoryStore(connectionFactory, historyProperties.getMaxEntries(),
+                historyProperties.getMaxBytesPerSession(), historyProperties.getMaxBytesPerRoom(),
+                historyProperties.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${sharedsync.cache.type:memory}' != 'redis'")
+    public HistoryStore inMemoryHistoryStore(SharedSyncHistoryProperties historyProperties) {
+        System.out.println("[SharedSync] Using InMemory history store");
+        return new InMemoryHistoryStore(historyProperties.getMaxEntries(),
+                historyProperties.getMaxBytesPerSession(), historyProperties.getMaxBytesPerRoom(),
+                historyProperties.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnExpression("${sharedsync.history.timeline.enabled:false} && '${sharedsync.cache.type:memory}' == 'redis'")
+    public RoomTimeline redisRoomTimeline(
+            @Qualifier("sharedSyncRedisConnectionFactory") RedisConnectionFactory connectionFactory,
+            SharedSyncHistoryProperties historyProperties) {
+        System.out.println("[SharedSync] Using Redis room timeline");
+        return new RedisRoomTimeline(connectionFactory, historyProperties.getMaxBytesPerRoom(),
+                historyProperties.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnExpression("${sharedsync.history.timeline.enabled:false} && '${sharedsync.cache.type:memory}' != 'redis'")
+    public RoomTimeline inMemoryRoomTimeline(SharedSyncHistoryProperties historyProperties) {
+        System.out.println("[SharedSync] Using InMemory room timeline");
+        return new InMemoryRoomTimeline(historyProperties.getMaxBytesPerRoom(), historyProperties.getTtl());
+    }
+}
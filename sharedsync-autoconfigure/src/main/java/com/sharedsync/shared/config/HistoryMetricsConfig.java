@@ -0,0 +1,52 @@
+package com.sharedsync.shared.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sharedsync.shared.history.HistoryStore;
+import com.sharedsync.shared.history.RoomTimeline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 히스토리 보관량 지표 설정. Micrometer가 클래스패스에 있을 때만 등록합니다.
+ * sharedsync.history.retained.bytes: 보관 중인 기록 크기 (집계하는 저장소만)
+ * sharedsync.history.evicted.bytes: 한도/만료로 버린 기록 크기 누계
+ * sharedsync.history.timeline.retained.bytes / evicted.bytes: 방 작업 로그의 같은 지표 (작업 로그를 쓸 때만)
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+public class HistoryMetricsConfig {
+
+    @Bean
+    public MeterBinder sharedSyncHistoryMetrics(ObjectProvider<HistoryStore> historyStore,
+            ObjectProvider<RoomTimeline> roomTimeline) {
+        return registry -> {
+            historyStore.ifAvailable(store -> {
+                if (store.retainedBytes() >= 0) {
+                    Gauge.builder("sharedsync.history.retained.bytes", store, HistoryStore::retainedBytes)
+                            .baseUnit("bytes")
+                            .register(registry);
+                }
+                FunctionCounter.builder("sharedsync.history.evicted.bytes", store, HistoryStore::evictedBytes)
+                        .baseUnit("bytes")
+                        .register(registry);
+            });
+            roomTimeline.ifAvailable(timeline -> {
+                if (timeline.retainedBytes() >= 0) {
+                    Gauge.builder("sharedsync.history.timeline.retained.bytes", timeline, RoomTimeline::retainedBytes)
+                            .baseUnit("bytes")
+                            .register(registry);
+                }
+                FunctionCounter.builder("sharedsync.history.timeline.evicted.bytes", timeline,
+                                RoomTimeline::evictedBytes)
+                        .baseUnit("bytes")
+                        .register(registry);
+            });
+        };
+    }
+}
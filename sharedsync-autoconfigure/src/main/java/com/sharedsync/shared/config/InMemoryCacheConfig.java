@@ -1,12 +1,18 @@
 package com.sharedsync.shared.config;
 
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
 import com.sharedsync.shared.repository.CacheStore;
+import com.sharedsync.shared.repository.InMemoryCacheSnapshotter;
 import com.sharedsync.shared.repository.InMemoryCacheStore;
 
 /**
@@ -21,6 +27,13 @@ import com.sharedsync.shared.repository.InMemoryCacheStore;
  * 
  * 인메모리 캐시는 단일 인스턴스 환경에 적합합니다.
  * 다중 인스턴스/분산 환경에서는 Redis를 사용하세요.
+ *
+ * 재시작 시 캐시를 복원하려면 스냅샷을 활성화합니다:
+ *    sharedsync:
+ *      cache:
+ *        snapshot:
+ *          enabled: true
+ *          directory: ./sharedsync-snapshot
  */
 @Configuration
 public class InMemoryCacheConfig {
@@ -37,6 +50,22 @@ public class InMemoryCacheConfig {
         return new InMemoryCacheStore<>();
     }
 
+    /**
+     * 인메모리 캐시 스냅샷/복원 (sharedsync.cache.snapshot.enabled=true)
+     * 빈 생성 시 디스크에서 캐시를 복원하므로 웹소켓 연결을 받기 전에 복원이 끝납니다.
+     */
+    @Bean
+    @ConditionalOnExpression("'${sharedsync.cache.type:memory}' == 'memory' && ${sharedsync.cache.snapshot.enabled:false}")
+    @SuppressWarnings("rawtypes")
+    public InMemoryCacheSnapshotter inMemoryCacheSnapshotter(@Qualifier("globalCacheStore") CacheStore cacheStore,
+            SharedSyncCacheProperties cacheProperties) {
+        Path directory = Path.of(cacheProperties.getSnapshot().getDirectory());
+        System.out.println("[SharedSync] InMemory cache snapshot enabled: " + directory.toAbsolutePath());
+        InMemoryCacheSnapshotter snapshotter = new InMemoryCacheSnapshotter((InMemoryCacheStore<?>) cacheStore, directory);
+        snapshotter.start();
+        return snapshotter;
+    }
+
     /**
      * Redis 연결이 없고 cache type도 지정되지 않은 경우 폴백으로 InMemory 사용
      * RedisConnectionFactory가 없을 때만 활성화
@@ -0,0 +1,60 @@
+package com.sharedsync.shared.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.sync.CacheOutbox;
+import com.sharedsync.shared.sync.InMemoryCacheOutbox;
+import com.sharedsync.shared.sync.RedisStreamCacheOutbox;
+
+/**
+ * DB 반영 아웃박스 설정.
+ * sharedsync.sync.outbox.enabled=true 일 때만 활성화됩니다.
+ *
+ * 웹소켓 노드와 DB 반영(persister) 노드를 분리하려면 (Redis 캐시 필요):
+ *    # 웹소켓 노드
+ *    sharedsync:
+ *      sync:
+ *        outbox:
+ *          enabled: true
+ *          consume: false
+ *
+ *    # application-persister.yml (spring.profiles.active=persister)
+ *    sharedsync:
+ *      sync:
+ *        outbox:
+ *          enabled: true
+ *          consume: true
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharedsync.sync.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "sharedsync.cache.type", havingValue = "redis")
+    public CacheOutbox redisStreamCacheOutbox(
+            @Qualifier("sharedSyncRedisConnectionFactory") RedisConnectionFactory connectionFactory,
+            SharedSyncDatabaseSyncProperties syncProperties) {
+        SharedSyncDatabaseSyncProperties.Outbox outbox = syncProperties.getOutbox();
+        System.out.println("[SharedSync] Using Redis Stream outbox: " + outbox.getStreamKey()
+                + " (group=" + outbox.getConsumerGroup() + ", consume=" + outbox.isConsume() + ")");
+        return new RedisStreamCacheOutbox(connectionFactory, outbox);
+    }
+
+    @Bean
+    @ConditionalOnExpression("'${sharedsync.cache.type:memory}' != 'redis'")
+    public CacheOutbox inMemoryCacheOutbox(SharedSyncDatabaseSyncProperties syncProperties) {
+        // 프로세스 내부 큐는 다른 노드가 읽을 수 없으므로, 소비하지 않으면 방 플러시가 DB에 반영되지 않음
+        if (!syncProperties.getOutbox().isConsume()) {
+            throw new IllegalStateException("인메모리 아웃박스는 sharedsync.sync.outbox.consume=true 에서만 사용할 수 있습니다."
+                    + " 소비 노드를 분리하려면 sharedsync.cache.type=redis 를 사용하세요.");
+        }
+        System.out.println("[SharedSync] Using in-process outbox");
+        return new InMemoryCacheOutbox();
+    }
+}
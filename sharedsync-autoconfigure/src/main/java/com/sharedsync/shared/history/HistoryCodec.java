@@ -0,0 +1,496 @@
+package com.sharedsync.shared.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sharedsync.shared.annotation.CacheId;
+import com.sharedsync.shared.dto.CacheDto;
+
+/**
+ * HistoryAction ↔ HistoryStore 바이트 변환.
+ *
+ * 포맷: [byte MAGIC][action]
+ * action: [byte type][string entityName][string dtoClassName][string eventId][long timestamp][int schema]
+ *         [before][after][int subActionCount][action...]
+ * - 생성/삭제는 DTO 스냅샷 목록을 필드 순서대로 값만 기록합니다. (필드 이름, 타입 정보 없음)
+ * - 수정은 DTO마다 ID와 바뀐 필드의 [필드 번호][이전 값][이후 값]만 기록합니다.
+ *   읽을 때 현재 캐시 상태에 패치를 적용해 before/after DTO를 만들므로, HistoryService의 상태 비교는 바뀐 필드 기준이 됩니다.
+ * - schema는 DTO 필드 이름으로 계산한 해시이며, DTO 구조가 바뀐 뒤의 오래된 항목은 읽지 않습니다.
+ *
+ * MAGIC으로 시작하지 않는 항목은 이전 버전이 기록한 타입 정보 포함 JSON으로 읽습니다.
+ * 방 작업 로그(RoomTimeline)를 쓰면 세션 스택에는 [byte POINTER_MAGIC][long seq] 형태의 순번만 저장합니다.
+ */
+final class HistoryCodec {
+
+    /**
+     * 수정 패치를 전체 DTO로 되돌릴 때 사용하는 현재 캐시 상태 조회
+     */
+    interface StateLookup {
+        CacheDto<?> find(Class<?> dtoClass, Object id);
+    }
+
+    private static final byte MAGIC = (byte) 0xB7;
+    private static final byte POINTER_MAGIC = (byte) 0xB8;
+    private static final byte ENTRY_PATCH = 0;
+    private static final byte ENTRY_FULL = 1;
+
+    private static final ObjectMapper LEGACY_MAPPER = createLegacyMapper();
+    private static final ObjectMapper VALUE_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    private HistoryCodec() {
+    }
+
+    private static ObjectMapper createLegacyMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return objectMapper;
+    }
+
+    /**
+     * DTO 구조가 바뀌어 더 이상 읽을 수 없는 항목
+     */
+    private static final class SchemaMismatchException extends Exception {
+        SchemaMismatchException() {
+            super(null, null, false, false);
+        }
+    }
+
+    static byte[] encode(HistoryAction action) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            writeAction(out, action);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("히스토리 DTO 필드를 읽을 수 없습니다", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] pointer(long seq) {
+        return ByteBuffer.allocate(1 + Long.BYTES).put(POINTER_MAGIC).putLong(seq).array();
+    }
+
+    static boolean isPointer(byte[] bytes) {
+        return bytes != null && bytes.length == 1 + Long.BYTES && bytes[0] == POINTER_MAGIC;
+    }
+
+    static long seqOf(byte[] pointer) {
+        return ByteBuffer.wrap(pointer, 1, Long.BYTES).getLong();
+    }
+
+    /**
+     * @return DTO 구조가 바뀌어 읽을 수 없는 항목이면 null
+     */
+    static HistoryAction decode(byte[] bytes, StateLookup lookup) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return decodeLegacy(bytes);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return readAction(in, lookup);
+        } catch (SchemaMismatchException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("히스토리 DTO를 만들 수 없습니다", e);
+        }
+    }
+
+    private static HistoryAction decodeLegacy(byte[] bytes) {
+        try {
+            return (HistoryAction) LEGACY_MAPPER.readValue(bytes, Object.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==== 쓰기 ====
+
+    private static void writeAction(DataOutput out, HistoryAction action) throws IOException, IllegalAccessException {
+        out.writeByte(action.getType().ordinal());
+        writeString(out, action.getEntityName());
+        writeString(out, action.getDtoClassName());
+        writeString(out, action.getEventId());
+        out.writeLong(action.getTimestamp());
+
+        List<Field> fields = fieldsOf(dtoClassOf(action));
+        out.writeInt(schemaOf(fields));
+        if (action.getType() == HistoryAction.Type.UPDATE) {
+            writeSnapshots(out, fields, null);
+            writeUpdates(out, fields, action.getBeforeData(), action.getAfterData());
+        } else {
+            writeSnapshots(out, fields, action.getBeforeData());
+            writeSnapshots(out, fields, action.getAfterData());
+        }
+
+        List<HistoryAction> subActions = action.getSubActions();
+        out.writeInt(subActions == null ? -1 : subActions.size());
+        if (subActions != null) {
+            for (HistoryAction subAction : subActions) {
+                writeAction(out, subAction);
+            }
+        }
+    }
+
+    private static void writeSnapshots(DataOutput out, List<Field> fields, List<? extends CacheDto<?>> dtos)
+            throws IOException, IllegalAccessException {
+        out.writeInt(dtos == null ? -1 : dtos.size());
+        if (dtos == null) {
+            return;
+        }
+        for (CacheDto<?> dto : dtos) {
+            out.writeBoolean(dto != null);
+            if (dto != null) {
+                for (Field field : fields) {
+                    writeValue(out, field, field.get(dto));
+                }
+            }
+        }
+    }
+
+    private static void writeUpdates(DataOutput out, List<Field> fields, List<? extends CacheDto<?>> before,
+            List<? extends CacheDto<?>> after) throws IOException, IllegalAccessException {
+        out.writeInt(after == null ? -1 : after.size());
+        if (after == null) {
+            return;
+        }
+        Map<Object, CacheDto<?>> beforeById = new HashMap<>();
+        if (before != null) {
+            for (CacheDto<?> dto : before) {
+                if (dto != null) {
+                    beforeById.put(dto.getId(), dto);
+                }
+            }
+        }
+        Field idField = idFieldOf(fields);
+        for (CacheDto<?> dto : after) {
+            CacheDto<?> previous = dto != null ? beforeById.get(dto.getId()) : null;
+            if (previous == null || idField == null) {
+                out.writeByte(ENTRY_FULL);
+                out.writeBoolean(dto != null);
+                if (dto != null) {
+                    for (Field field : fields) {
+                        writeValue(out, field, field.get(dto));
+                    }
+                }
+                continue;
+            }
+            out.writeByte(ENTRY_PATCH);
+            writeValue(out, idField, idField.get(dto));
+            List<Integer> changed = new ArrayList<>();
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (!Objects.deepEquals(field.get(previous), field.get(dto))) {
+                    changed.add(i);
+                }
+            }
+            out.writeShort(changed.size());
+            for (int index : changed) {
+                Field field = fields.get(index);
+                out.writeShort(index);
+                writeValue(out, field, field.get(previous));
+                writeValue(out, field, field.get(dto));
+            }
+        }
+    }
+
+    private static void writeValue(DataOutput out, Field field, Object value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) {
+            return;
+        }
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (type == Integer.class || type == int.class) {
+            out.writeInt((Integer) value);
+        } else if (type == Long.class || type == long.class) {
+            out.writeLong((Long) value);
+        } else if (type == Double.class || type == double.class) {
+            out.writeDouble((Double) value);
+        } else if (type == Float.class || type == float.class) {
+            out.writeFloat((Float) value);
+        } else if (type == Boolean.class || type == boolean.class) {
+            out.writeBoolean((Boolean) value);
+        } else if (type == Short.class || type == short.class) {
+            out.writeShort((Short) value);
+        } else if (type == Byte.class || type == byte.class) {
+            out.writeByte((Byte) value);
+        } else if (type == Character.class || type == char.class) {
+            out.writeChar((Character) value);
+        } else {
+            writeBytes(out, VALUE_MAPPER.writeValueAsBytes(value));
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // ==== 읽기 ====
+
+    private static HistoryAction readAction(DataInput in, StateLookup lookup)
+            throws IOException, ReflectiveOperationException, SchemaMismatchException {
+        HistoryAction.Type type = HistoryAction.Type.values()[in.readByte()];
+        String entityName = readString(in);
+        String dtoClassName = readString(in);
+        String eventId = readString(in);
+        long timestamp = in.readLong();
+
+        Class<?> dtoClass = dtoClassName != null ? loadClass(dtoClassName) : null;
+        List<Field> fields = fieldsOf(dtoClass);
+        if (in.readInt() != schemaOf(fields)) {
+            throw new SchemaMismatchException();
+        }
+
+        List<CacheDto<?>> before = readSnapshots(in, dtoClass, fields);
+        List<CacheDto<?>> after;
+        if (type == HistoryAction.Type.UPDATE) {
+            before = new ArrayList<>();
+            after = readUpdates(in, dtoClass, fields, before, lookup);
+        } else {
+            after = readSnapshots(in, dtoClass, fields);
+        }
+
+        int subCount = in.readInt();
+        List<HistoryAction> subActions = null;
+        if (subCount >= 0) {
+            subActions = new ArrayList<>(subCount);
+            for (int i = 0; i < subCount; i++) {
+                subActions.add(readAction(in, lookup));
+            }
+        }
+
+        return HistoryAction.builder()
+                .type(type)
+                .entityName(entityName)
+                .dtoClassName(dtoClassName)
+                .beforeData(before)
+                .afterData(after)
+                .subActions(subActions)
+                .eventId(eventId)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static List<CacheDto<?>> readSnapshots(DataInput in, Class<?> dtoClass, List<Field> fields)
+            throws IOException, ReflectiveOperationException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<CacheDto<?>> dtos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            dtos.add(in.readBoolean() ? readSnapshot(in, dtoClass, fields) : null);
+        }
+        return dtos;
+    }
+
+    private static CacheDto<?> readSnapshot(DataInput in, Class<?> dtoClass, List<Field> fields)
+            throws IOException, ReflectiveOperationException {
+        CacheDto<?> dto = newInstance(dtoClass);
+        for (Field field : fields) {
+            field.set(dto, readValue(in, field));
+        }
+        return dto;
+    }
+
+    private static List<CacheDto<?>> readUpdates(DataInput in, Class<?> dtoClass, List<Field> fields,
+            List<CacheDto<?>> before, StateLookup lookup) throws IOException, ReflectiveOperationException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        Field idField = idFieldOf(fields);
+        List<CacheDto<?>> after = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.readByte() == ENTRY_FULL) {
+                after.add(in.readBoolean() ? readSnapshot(in, dtoClass, fields) : null);
+                continue;
+            }
+            Object id = readValue(in, idField);
+            CacheDto<?> current = lookup != null ? lookup.find(dtoClass, id) : null;
+            CacheDto<?> previousDto = current != null ? copyOf(current, fields) : newInstance(dtoClass);
+            CacheDto<?> nextDto = current != null ? copyOf(current, fields) : newInstance(dtoClass);
+            idField.set(previousDto, id);
+            idField.set(nextDto, id);
+
+            int changed = in.readShort();
+            for (int c = 0; c < changed; c++) {
+                Field field = fields.get(in.readShort());
+                field.set(previousDto, readValue(in, field));
+                field.set(nextDto, readValue(in, field));
+            }
+            before.add(previousDto);
+            after.add(nextDto);
+        }
+        return after;
+    }
+
+    private static Object readValue(DataInput in, Field field) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return new String(readBytes(in), StandardCharsets.UTF_8);
+        } else if (type == Integer.class || type == int.class) {
+            return in.readInt();
+        } else if (type == Long.class || type == long.class) {
+            return in.readLong();
+        } else if (type == Double.class || type == double.class) {
+            return in.readDouble();
+        } else if (type == Float.class || type == float.class) {
+            return in.readFloat();
+        } else if (type == Boolean.class || type == boolean.class) {
+            return in.readBoolean();
+        } else if (type == Short.class || type == short.class) {
+            return in.readShort();
+        } else if (type == Byte.class || type == byte.class) {
+            return in.readByte();
+        } else if (type == Character.class || type == char.class) {
+            return in.readChar();
+        }
+        return VALUE_MAPPER.readValue(readBytes(in), VALUE_MAPPER.constructType(field.getGenericType()));
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? new String(readBytes(in), StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] readBytes(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    // ==== DTO 필드 ====
+
+    private static Class<?> dtoClassOf(HistoryAction action) {
+        for (List<? extends CacheDto<?>> dtos : Arrays.asList(action.getBeforeData(), action.getAfterData())) {
+            if (dtos != null) {
+                for (CacheDto<?> dto : dtos) {
+                    if (dto != null) {
+                        return dto.getClass();
+                    }
+                }
+            }
+        }
+        if (action.getDtoClassName() == null) {
+            return null;
+        }
+        try {
+            return loadClass(action.getDtoClassName());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Class<?> loadClass(String className) throws ClassNotFoundException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return Class.forName(className, false, loader != null ? loader : HistoryCodec.class.getClassLoader());
+    }
+
+    /**
+     * 이름순으로 정렬한 DTO 인스턴스 필드 (노드마다 같은 순서를 보장)
+     */
+    private static List<Field> fieldsOf(Class<?> dtoClass) {
+        if (dtoClass == null) {
+            return List.of();
+        }
+        return FIELDS.computeIfAbsent(dtoClass, clazz -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            fields.sort(Comparator.comparing(Field::getName));
+            return List.copyOf(fields);
+        });
+    }
+
+    private static int schemaOf(List<Field> fields) {
+        int hash = 1;
+        for (Field field : fields) {
+            hash = 31 * hash + field.getName().hashCode();
+            hash = 31 * hash + field.getType().getName().hashCode();
+        }
+        return hash;
+    }
+
+    private static Field idFieldOf(List<Field> fields) {
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(CacheId.class)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static CacheDto<?> newInstance(Class<?> dtoClass) throws ReflectiveOperationException {
+        Constructor<?> constructor = dtoClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return (CacheDto<?>) constructor.newInstance();
+    }
+
+    private static CacheDto<?> copyOf(CacheDto<?> source, List<Field> fields) throws ReflectiveOperationException {
+        CacheDto<?> copy = newInstance(source.getClass());
+        for (Field field : fields) {
+            field.set(copy, field.get(source));
+        }
+        return copy;
+    }
+}
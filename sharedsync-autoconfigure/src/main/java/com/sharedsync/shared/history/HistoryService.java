@@ -1,27 +1,39 @@
 package com.sharedsync.shared.history;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.simp.SimpAttributesContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.sharedsync.shared.dto.CacheDto;
+import com.sharedsync.shared.properties.SharedSyncHistoryProperties;
 import com.sharedsync.shared.repository.AutoCacheRepository;
 import com.sharedsync.shared.sync.RedisSyncService;
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
 @Service
+@Slf4j
 public class HistoryService {
 
     @Autowired(required = false)
-    @Qualifier("presenceRedis")
-    private RedisTemplate<String, Object> redisTemplate;
+    private HistoryStore historyStore;
 
     @Autowired
     private List<AutoCacheRepository<?, ?, ?>> repositories;
@@ -32,6 +44,28 @@ public class HistoryService {
     @Autowired
     private com.fasterxml.jackson.databind.ObjectMapper objectMapper;
 
+    @Autowired(required = false)
+    private RoomTimeline roomTimeline;
+
+    @Autowired
+    private SharedSyncHistoryProperties historyProperties;
+
+    // 작업 로그 항목 종류: [byte 종류][작업] 또는 [byte 종류][long 대상 순번]
+    private static final byte TIMELINE_ACTION = 0;
+    private static final byte TIMELINE_UNDO = 1;
+    private static final byte TIMELINE_REDO = 2;
+
+    /**
+     * 방 전체를 읽는 체크포인트는 편집 요청 스레드가 아니라 이 스레드에서 방마다 하나씩 실행합니다.
+     */
+    private final ExecutorService checkpointExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sharedsync-history-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<String> checkpointsPending = ConcurrentHashMap.newKeySet();
+
+    private static final Map<Class<?>, Boolean> FIELD_EQUALS = new ConcurrentHashMap<>();
     private static final ThreadLocal<Boolean> SKIP_HISTORY = ThreadLocal.withInitial(() -> false);
 
     public static void setSkipHistory(boolean skip) {
@@ -50,109 +84,188 @@ public class HistoryService {
         }
     }
 
-    private static final String UNDO_PREFIX = "history:undo:";
-    private static final String REDO_PREFIX = "history:redo:";
-    private static final int MAX_HISTORY = 50;
-
     public boolean isSupported() {
-        return redisTemplate != null;
+        return historyStore != null;
     }
 
     public void record(String rootId, HistoryAction action) {
         String sessionId = getCurrentSessionId();
         if (!isSupported() || rootId == null || sessionId == null) return;
 
-        String undoKey = UNDO_PREFIX + rootId + ":" + sessionId;
-        String redoKey = REDO_PREFIX + rootId + ":" + sessionId;
-
-        redisTemplate.opsForList().leftPush(undoKey, action);
-        redisTemplate.opsForList().trim(undoKey, 0, MAX_HISTORY - 1);
-        redisTemplate.delete(redoKey);
+        historyStore.record(rootId, sessionId, toStackEntry(rootId, action));
     }
 
     public HistoryAction undo(String rootId) {
-        String sessionId = getCurrentSessionId();
-        HistoryAction action = popUndo(rootId, sessionId);
-        if (action == null) return null;
-
-        setSkipHistory(true);
-        try {
-            boolean success = applyInverse(action);
-            if (success) {
-                pushRedo(rootId, sessionId, action);
-                publishChange(rootId, action, true);
-                return action;
-            }
-            return null;
-        } finally {
-            setSkipHistory(false);
-        }
+        List<HistoryAction> applied = undo(rootId, 1);
+        return applied.isEmpty() ? null : applied.get(0);
     }
 
     public HistoryAction redo(String rootId) {
+        List<HistoryAction> applied = redo(rootId, 1);
+        return applied.isEmpty() ? null : applied.get(0);
+    }
+
+    /**
+     * 최근 작업을 최대 steps개까지 한 번에 되돌립니다.
+     * @return 되돌린 작업 (최근 작업이 앞)
+     */
+    public List<HistoryAction> undo(String rootId, int steps) {
+        return step(rootId, steps, true);
+    }
+
+    /**
+     * 되돌린 작업을 최대 steps개까지 한 번에 다시 적용합니다.
+     * @return 다시 적용한 작업 (먼저 적용한 작업이 앞)
+     */
+    public List<HistoryAction> redo(String rootId, int steps) {
+        return step(rootId, steps, false);
+    }
+
+    /**
+     * 스택에서 작업을 한 번에 꺼내 차례로 적용합니다.
+     * 현재 상태가 기록과 달라 적용할 수 없는 작업에서 멈추며, 그 작업은 버리고 시도하지 않은 작업은 스택에 되돌려 놓습니다.
+     * 적용한 작업들의 변경 내용은 엔티티별 최종 상태로 합친 뒤, 엔티티/동작별로 묶어 한 번씩만 전송합니다.
+     */
+    private List<HistoryAction> step(String rootId, int steps, boolean isUndo) {
         String sessionId = getCurrentSessionId();
-        HistoryAction action = popRedo(rootId, sessionId);
-        if (action == null) return null;
+        if (!isSupported() || rootId == null || sessionId == null || steps <= 0) return List.of();
+
+        HistoryStore.Stack from = isUndo ? HistoryStore.Stack.UNDO : HistoryStore.Stack.REDO;
+        HistoryStore.Stack to = isUndo ? HistoryStore.Stack.REDO : HistoryStore.Stack.UNDO;
+        int count = Math.min(steps, Math.max(1, historyProperties.getMaxEntries()));
+        // 먼저 반대쪽 스택으로 옮겨 두므로 다른 노드가 같은 작업을 동시에 꺼내지 않음
+        List<byte[]> moved = historyStore.move(rootId, sessionId, from, count);
 
+        List<HistoryAction> applied = new ArrayList<>();
+        Map<String, PendingChange> changes = new LinkedHashMap<>();
+        int next = 0;
         setSkipHistory(true);
         try {
-            boolean success = applyAction(action);
-            if (success) {
-                pushUndo(rootId, sessionId, action);
-                publishChange(rootId, action, false);
-                return action;
+            while (next < moved.size()) {
+                byte[] stored = moved.get(next);
+                HistoryAction action = fromStackEntry(rootId, stored);
+                if (action == null) break;
+
+                boolean success = isUndo ? applyInverse(action) : applyAction(action);
+                if (!success) break;
+                next++;
+                applied.add(action);
+                appendStep(rootId, stored, isUndo);
+                collectChanges(changes, action, isUndo);
             }
-            return null;
         } finally {
             setSkipHistory(false);
+            if (next < moved.size()) {
+                // 적용하지 못한 작업은 버리고, 시도하지 않은 작업은 원래 스택으로 되돌림
+                historyStore.restore(rootId, sessionId, from, moved.size() - next - 1, 1);
+            }
         }
-    }
-
-    private void publishChange(String rootId, HistoryAction action, boolean isUndo) {
-        if (redisSyncService == null || action.getEntityName() == null) return;
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("entity", action.getEntityName());
-        response.put("eventId", action.getEventId() == null ? "" : action.getEventId());
-        response.put("isUndoRedo", true);
+        publishChanges(rootId, changes.values());
+        return applied;
+    }
 
-        HistoryAction.Type type = action.getType();
-        String broadcastAction;
-        Object data;
+    /**
+     * 한 번의 undo/redo 동안 엔티티 하나가 거친 변경을 합친 결과.
+     * 처음 변경 전에 있었는지와 마지막 변경 후 있는지만 보고 전송할 동작을 정하므로,
+     * 여러 작업에 걸친 수정/삭제/생성 순서가 섞여도 클라이언트는 캐시와 같은 최종 상태를 받습니다.
+     */
+    private static final class PendingChange {
+        private final String entity;
+        private final String eventId;
+        private final boolean existedBefore;
+        private boolean exists;
+        private CacheDto<?> dto;
+
+        PendingChange(String entity, String eventId, boolean existedBefore) {
+            this.entity = entity;
+            this.eventId = eventId;
+            this.existedBefore = existedBefore;
+        }
 
-        if (isUndo) {
-            broadcastAction = switch (type) {
-                case CREATE -> "DELETE";
-                case UPDATE -> "UPDATE";
-                case DELETE -> "CREATE";
-            };
-            data = switch (type) {
-                case CREATE -> action.getAfterData();
-                case UPDATE -> action.getBeforeData();
-                case DELETE -> action.getBeforeData();
-            };
-        } else {
-            broadcastAction = type.name();
-            data = switch (type) {
-                case CREATE -> action.getAfterData();
-                case UPDATE -> action.getAfterData();
-                case DELETE -> action.getAfterData();
-            };
+        /**
+         * @return 전송할 동작 (전과 후 모두 없으면 null)
+         */
+        String broadcastAction() {
+            if (exists) {
+                return existedBefore ? "update" : "create";
+            }
+            return existedBefore ? "delete" : null;
         }
+    }
 
-        response.put("action", broadcastAction.toLowerCase());
-        String payloadKey = action.getEntityName().toLowerCase() + "s";
-        response.put(payloadKey, data);
+    private void collectChanges(Map<String, PendingChange> changes, HistoryAction action, boolean isUndo) {
+        if (action.getEntityName() != null) {
+            HistoryAction.Type type = action.getType();
+            HistoryAction.Type applied;
+            List<? extends CacheDto<?>> data;
+
+            if (isUndo) {
+                applied = switch (type) {
+                    case CREATE -> HistoryAction.Type.DELETE;
+                    case UPDATE -> HistoryAction.Type.UPDATE;
+                    case DELETE -> HistoryAction.Type.CREATE;
+                };
+                data = switch (type) {
+                    case CREATE -> action.getAfterData();
+                    case UPDATE -> action.getBeforeData();
+                    case DELETE -> action.getBeforeData();
+                };
+            } else {
+                applied = type;
+                // 삭제 작업은 afterData가 없으므로 지운 대상(beforeData)으로 ID를 알림
+                data = type == HistoryAction.Type.DELETE ? action.getBeforeData() : action.getAfterData();
+            }
 
-        redisSyncService.publish("/topic/" + rootId, response);
+            if (data != null) {
+                for (CacheDto<?> dto : data) {
+                    if (dto == null) {
+                        continue;
+                    }
+                    PendingChange change = changes.computeIfAbsent(action.getEntityName() + ":" + dto.getId(),
+                            key -> new PendingChange(action.getEntityName(),
+                                    action.getEventId() == null ? "" : action.getEventId(),
+                                    applied != HistoryAction.Type.CREATE));
+                    change.exists = applied != HistoryAction.Type.DELETE;
+                    change.dto = dto;
+                }
+            }
+        }
 
         if (action.getSubActions() != null) {
             for (HistoryAction subAction : action.getSubActions()) {
-                publishChange(rootId, subAction, isUndo);
+                collectChanges(changes, subAction, isUndo);
             }
         }
     }
 
+    /**
+     * 엔티티별 최종 상태를 엔티티/동작별로 묶어 한 번씩 전송합니다.
+     */
+    private void publishChanges(String rootId, Collection<PendingChange> changes) {
+        if (redisSyncService == null) return;
+
+        Map<String, List<PendingChange>> grouped = new LinkedHashMap<>();
+        for (PendingChange change : changes) {
+            String action = change.broadcastAction();
+            if (action != null) {
+                grouped.computeIfAbsent(change.entity + ":" + action, key -> new ArrayList<>()).add(change);
+            }
+        }
+
+        for (List<PendingChange> group : grouped.values()) {
+            PendingChange first = group.get(0);
+            Map<String, Object> response = new HashMap<>();
+            response.put("entity", first.entity);
+            response.put("eventId", first.eventId);
+            response.put("isUndoRedo", true);
+            response.put("action", first.broadcastAction());
+            response.put(first.entity.toLowerCase() + "s", group.stream().map(change -> change.dto).toList());
+
+            redisSyncService.publish("/topic/" + rootId, response);
+        }
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private boolean applyInverse(HistoryAction action) {
         AutoCacheRepository repo = findRepository(action.getDtoClassName());
@@ -235,9 +348,16 @@ public class HistoryService {
         return success;
     }
 
+    /**
+     * 생성된 DTO는 필드 단위 equals로 비교하고, equals가 없는 DTO만 JSON으로 비교합니다.
+     */
     private boolean isSameState(Object current, Object expected) {
-        if (current == null && expected == null) return true;
+        if (current == expected) return true;
         if (current == null || expected == null) return false;
+        if (current.getClass() != expected.getClass()) return false;
+        if (FIELD_EQUALS.computeIfAbsent(current.getClass(), HistoryService::declaresEquals)) {
+            return current.equals(expected);
+        }
         try {
             return objectMapper.writeValueAsString(current).equals(objectMapper.writeValueAsString(expected));
         } catch (Exception e) {
@@ -245,6 +365,14 @@ public class HistoryService {
         }
     }
 
+    private static boolean declaresEquals(Class<?> type) {
+        try {
+            return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     private List<?> extractIds(List<? extends CacheDto<?>> dtos) {
         if (dtos == null) return java.util.Collections.emptyList();
         return dtos.stream()
@@ -260,29 +388,292 @@ public class HistoryService {
                 .orElse(null);
     }
 
+    /**
+     * 수정 패치를 복원할 때 기준이 되는 현재 캐시 상태
+     */
+    private CacheDto<?> findCurrentState(Class<?> dtoClass, Object id) {
+        AutoCacheRepository<?, ?, ?> repo = findRepository(dtoClass.getName());
+        return repo != null ? (CacheDto<?>) repo.findDtoByIdUnchecked(id) : null;
+    }
+
     public HistoryAction popUndo(String rootId, String sessionId) {
         if (!isSupported() || rootId == null || sessionId == null) return null;
-        return (HistoryAction) redisTemplate.opsForList().leftPop(UNDO_PREFIX + rootId + ":" + sessionId);
+        return fromStackEntry(rootId, historyStore.pop(rootId, sessionId, HistoryStore.Stack.UNDO));
     }
 
     public void pushUndo(String rootId, String sessionId, HistoryAction action) {
         if (!isSupported() || rootId == null || sessionId == null) return;
-        redisTemplate.opsForList().leftPush(UNDO_PREFIX + rootId + ":" + sessionId, action);
+        historyStore.push(rootId, sessionId, HistoryStore.Stack.UNDO, toStackEntry(rootId, action));
     }
 
     public HistoryAction popRedo(String rootId, String sessionId) {
         if (!isSupported() || rootId == null || sessionId == null) return null;
-        return (HistoryAction) redisTemplate.opsForList().leftPop(REDO_PREFIX + rootId + ":" + sessionId);
+        return fromStackEntry(rootId, historyStore.pop(rootId, sessionId, HistoryStore.Stack.REDO));
     }
 
     public void pushRedo(String rootId, String sessionId, HistoryAction action) {
         if (!isSupported() || rootId == null || sessionId == null) return;
-        redisTemplate.opsForList().leftPush(REDO_PREFIX + rootId + ":" + sessionId, action);
+        historyStore.push(rootId, sessionId, HistoryStore.Stack.REDO, toStackEntry(rootId, action));
     }
 
     public void clearHistory(String rootId, String sessionId) {
         if (!isSupported() || rootId == null || sessionId == null) return;
-        redisTemplate.delete(UNDO_PREFIX + rootId + ":" + sessionId);
-        redisTemplate.delete(REDO_PREFIX + rootId + ":" + sessionId);
+        historyStore.clear(rootId, sessionId);
+    }
+
+    // ==== 방 작업 로그 (sharedsync.history.timeline) ====
+
+    /**
+     * 세션 스택에 넣을 항목. 작업 로그를 쓰면 작업을 로그에 기록하고 순번만 반환합니다.
+     */
+    private byte[] toStackEntry(String rootId, HistoryAction action) {
+        byte[] encoded = HistoryCodec.encode(action);
+        if (roomTimeline == null) {
+            return encoded;
+        }
+        byte[] entry = new byte[encoded.length + 1];
+        entry[0] = TIMELINE_ACTION;
+        System.arraycopy(encoded, 0, entry, 1, encoded.length);
+        return HistoryCodec.pointer(appendToTimeline(rootId, entry));
+    }
+
+    /**
+     * undo/redo로 적용한 작업을 로그에 순번 참조로 남깁니다. (세션 스택은 원래 순번을 그대로 가리킴)
+     */
+    private void appendStep(String rootId, byte[] stored, boolean isUndo) {
+        if (roomTimeline == null || !HistoryCodec.isPointer(stored)) {
+            return;
+        }
+        byte[] entry = new byte[1 + Long.BYTES];
+        entry[0] = isUndo ? TIMELINE_UNDO : TIMELINE_REDO;
+        System.arraycopy(stored, 1, entry, 1, Long.BYTES);
+        appendToTimeline(rootId, entry);
+    }
+
+    private long appendToTimeline(String rootId, byte[] entry) {
+        long seq = roomTimeline.append(rootId, entry);
+
+        SharedSyncHistoryProperties.Timeline settings = historyProperties.getTimeline();
+        int interval = Math.max(1, settings.getCheckpointInterval());
+        if (seq % interval == 0 && checkpointsPending.add(rootId)) {
+            int retainEntries = Math.max(interval, settings.getRetainEntries());
+            try {
+                checkpointExecutor.execute(() -> {
+                    try {
+                        checkpoint(rootId, seq, retainEntries);
+                    } finally {
+                        checkpointsPending.remove(rootId);
+                    }
+                });
+            } catch (RuntimeException e) {
+                checkpointsPending.remove(rootId);
+                log.warn("[History] Failed to schedule checkpoint rootId={} at seq={}: {}", rootId, seq, e.getMessage());
+            }
+        }
+        return seq;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpointExecutor.shutdownNow();
+    }
+
+    private HistoryAction fromStackEntry(String rootId, byte[] stored) {
+        if (stored == null || !HistoryCodec.isPointer(stored)) {
+            return HistoryCodec.decode(stored, this::findCurrentState);
+        }
+        if (roomTimeline == null) {
+            return null;
+        }
+        // 방 크기 한도나 만료로 지워진 작업이면 더 이상 되돌릴 수 없음
+        byte[] entry = roomTimeline.get(rootId, HistoryCodec.seqOf(stored));
+        return entry == null || entry[0] != TIMELINE_ACTION ? null
+                : HistoryCodec.decode(withoutKind(entry), this::findCurrentState);
+    }
+
+    /**
+     * 체크포인트 스레드에서 방 상태를 저장하고 오래된 작업을 지웁니다.
+     * 방을 읽는 동안에도 편집이 이어지므로 스냅샷에는 seq 이후 작업이 일부 반영되어 있을 수 있지만,
+     * 작업은 값을 덮어쓰는 형태라 readTimeline이 seq 이후 작업을 다시 적용해도 같은 상태가 됩니다.
+     * 세션 스택이 아직 가리키는 작업은 보관 개수를 넘어도 남깁니다. (방 크기 한도와 ttl로만 버려짐)
+     */
+    private void checkpoint(String rootId, long seq, int retainEntries) {
+        try {
+            HistoryAction snapshot = snapshotRoom(rootId);
+            if (snapshot != null) {
+                long retainFromSeq = Math.min(seq - retainEntries + 1, oldestReferencedSeq(rootId));
+                roomTimeline.checkpoint(rootId, seq, HistoryCodec.encode(snapshot), retainFromSeq);
+            }
+        } catch (RuntimeException e) {
+            // 체크포인트 실패는 작업 기록에 영향을 주지 않음 (다음 주기에 다시 시도)
+            log.warn("[History] Failed to checkpoint rootId={} at seq={}: {}", rootId, seq, e.getMessage());
+        }
+    }
+
+    /**
+     * 방의 세션 스택이 가리키는 가장 오래된 순번 (없으면 Long.MAX_VALUE)
+     */
+    private long oldestReferencedSeq(String rootId) {
+        long oldest = Long.MAX_VALUE;
+        if (historyStore == null) {
+            return oldest;
+        }
+        for (byte[] stored : historyStore.entries(rootId)) {
+            if (HistoryCodec.isPointer(stored)) {
+                oldest = Math.min(oldest, HistoryCodec.seqOf(stored));
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * 캐시에 있는 방 전체 상태를 루트 DTO의 CREATE 작업(하위 타입별 DTO는 subActions)으로 만듭니다.
+     */
+    private HistoryAction snapshotRoom(String rootId) {
+        AutoCacheRepository<?, ?, ?> rootRepository = repositories.stream()
+                .filter(repo -> !repo.isParentIdFieldPresent())
+                .findFirst()
+                .orElse(null);
+        if (rootRepository == null) {
+            return null;
+        }
+        CacheDto<?> rootDto = (CacheDto<?>) rootRepository.findDtoByIdUnchecked(rootId);
+        if (rootDto == null) {
+            return null;
+        }
+
+        Map<AutoCacheRepository<?, ?, ?>, List<CacheDto<?>>> collected = new LinkedHashMap<>();
+        Map<AutoCacheRepository<?, ?, ?>, Set<Object>> level = new LinkedHashMap<>();
+        level.put(rootRepository, Set.of(rootDto.getId()));
+        for (int depth = 0; !level.isEmpty() && depth <= repositories.size(); depth++) {
+            Map<AutoCacheRepository<?, ?, ?>, Set<Object>> nextLevel = new LinkedHashMap<>();
+            for (Map.Entry<AutoCacheRepository<?, ?, ?>, Set<Object>> entry : level.entrySet()) {
+                for (AutoCacheRepository<?, ?, ?> childRepo : repositories) {
+                    if (childRepo == entry.getKey() || !childRepo.isParentEntityOf(entry.getKey().getEntityType())) {
+                        continue;
+                    }
+                    for (Object parentId : entry.getValue()) {
+                        for (Object child : childRepo.findDtoListByParentIdUnchecked(parentId)) {
+                            if (child == null) continue;
+                            CacheDto<?> dto = (CacheDto<?>) child;
+                            collected.computeIfAbsent(childRepo, key -> new ArrayList<>()).add(dto);
+                            nextLevel.computeIfAbsent(childRepo, key -> new LinkedHashSet<>()).add(dto.getId());
+                        }
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+
+        List<HistoryAction> children = new ArrayList<>();
+        collected.forEach((repo, dtos) -> children.add(HistoryAction.builder()
+                .type(HistoryAction.Type.CREATE)
+                .entityName(repo.getEntityType().getSimpleName())
+                .dtoClassName(repo.getDtoClass().getName())
+                .afterData(dtos)
+                .timestamp(System.currentTimeMillis())
+                .build()));
+        return HistoryAction.builder()
+                .type(HistoryAction.Type.CREATE)
+                .entityName(rootRepository.getEntityType().getSimpleName())
+                .dtoClassName(rootRepository.getDtoClass().getName())
+                .afterData(List.of(rootDto))
+                .subActions(children)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    /**
+     * 방의 마지막 체크포인트와 그 이후 작업을 읽습니다. 작업 로그를 쓰지 않으면 null.
+     * 수정 작업은 바뀐 필드만 기록되어 있으므로, 체크포인트부터 작업을 차례로 적용한 상태에 패치를 붙여 전체 DTO로 만듭니다.
+     */
+    public TimelineReplay readTimeline(String rootId) {
+        if (roomTimeline == null || rootId == null) return null;
+        RoomTimeline.Checkpoint checkpoint = roomTimeline.latestCheckpoint(rootId);
+        long fromSeq = checkpoint != null ? checkpoint.seq() : 0L;
+        HistoryAction state = checkpoint != null ? HistoryCodec.decode(checkpoint.snapshot(), null) : null;
+
+        ReplayState replay = new ReplayState();
+        if (state != null) {
+            replay.apply(state, false);
+        }
+        List<TimelineReplay.Event> events = new ArrayList<>();
+        Map<Long, byte[]> actions = new HashMap<>();
+        for (RoomTimeline.Entry entry : roomTimeline.readAfter(rootId, fromSeq)) {
+            byte kind = entry.data()[0];
+            byte[] encoded;
+            if (kind == TIMELINE_ACTION) {
+                encoded = withoutKind(entry.data());
+                actions.put(entry.seq(), encoded);
+            } else {
+                // undo/redo는 대상 작업의 순번만 기록되어 있음 (체크포인트 이전 작업이면 로그에서 다시 읽음)
+                long target = ByteBuffer.wrap(entry.data(), 1, Long.BYTES).getLong();
+                encoded = actions.computeIfAbsent(target, seq -> {
+                    byte[] stored = roomTimeline.get(rootId, seq);
+                    return stored == null || stored[0] != TIMELINE_ACTION ? null : withoutKind(stored);
+                });
+            }
+            if (encoded == null) {
+                continue;
+            }
+            // undo/redo도 그 시점의 상태에 다시 패치를 붙여야 사이에 바뀐 다른 필드가 남음
+            replay.missed = false;
+            HistoryAction action = HistoryCodec.decode(encoded, replay);
+            if (action != null) {
+                boolean reverted = kind == TIMELINE_UNDO;
+                events.add(new TimelineReplay.Event(entry.seq(), reverted, !replay.missed, action));
+                replay.apply(action, reverted);
+            }
+        }
+        return new TimelineReplay(fromSeq, state, events);
+    }
+
+    /**
+     * 체크포인트부터 작업을 적용해 가며 만드는 방 상태. 수정 패치를 전체 DTO로 되돌릴 때 조회합니다.
+     */
+    private static final class ReplayState implements HistoryCodec.StateLookup {
+        private final Map<Class<?>, Map<String, CacheDto<?>>> dtos = new HashMap<>();
+        private boolean missed;
+
+        @Override
+        public CacheDto<?> find(Class<?> dtoClass, Object id) {
+            CacheDto<?> dto = dtos.getOrDefault(dtoClass, Map.of()).get(String.valueOf(id));
+            if (dto == null) {
+                missed = true;
+            }
+            return dto;
+        }
+
+        void apply(HistoryAction action, boolean reverted) {
+            List<? extends CacheDto<?>> removed = switch (action.getType()) {
+                case CREATE -> reverted ? action.getAfterData() : null;
+                case DELETE -> reverted ? null : action.getBeforeData();
+                default -> null;
+            };
+            List<? extends CacheDto<?>> stored = switch (action.getType()) {
+                case CREATE -> reverted ? null : action.getAfterData();
+                case DELETE -> reverted ? action.getBeforeData() : null;
+                default -> reverted ? action.getBeforeData() : action.getAfterData();
+            };
+            if (removed != null) {
+                removed.stream().filter(Objects::nonNull).forEach(dto -> {
+                    Map<String, CacheDto<?>> byId = dtos.get(dto.getClass());
+                    if (byId != null) {
+                        byId.remove(String.valueOf(dto.getId()));
+                    }
+                });
+            }
+            if (stored != null) {
+                stored.stream().filter(Objects::nonNull).forEach(dto ->
+                        dtos.computeIfAbsent(dto.getClass(), key -> new HashMap<>()).put(String.valueOf(dto.getId()), dto));
+            }
+            if (action.getSubActions() != null) {
+                action.getSubActions().forEach(subAction -> apply(subAction, reverted));
+            }
+        }
+    }
+
+    private static byte[] withoutKind(byte[] entry) {
+        return Arrays.copyOfRange(entry, 1, entry.length);
     }
 }
@@ -0,0 +1,55 @@
+package com.sharedsync.shared.history;
+
+import java.util.List;
+
+/**
+ * 세션별 undo/redo 스택 저장소.
+ * 작업은 직렬화된 바이트로 저장하며, 스택마다 가장 최근 작업이 맨 위에 옵니다.
+ */
+public interface HistoryStore {
+
+    enum Stack {
+        UNDO, REDO
+    }
+
+    /**
+     * 새 작업을 undo 스택에 쌓고 redo 스택을 비웁니다. 보관 한도를 넘는 오래된 작업은 버립니다.
+     */
+    void record(String rootId, String sessionId, byte[] action);
+
+    byte[] pop(String rootId, String sessionId, Stack stack);
+
+    void push(String rootId, String sessionId, Stack stack, byte[] action);
+
+    /**
+     * from 스택 맨 위에서 최대 count개를 꺼내 반대쪽 스택 맨 위로 한 번에 옮깁니다.
+     * @return 옮긴 작업 (from 스택에서 위에 있던 작업이 앞)
+     */
+    List<byte[]> move(String rootId, String sessionId, Stack from, int count);
+
+    /**
+     * move로 옮긴 작업 중 반대쪽 스택 맨 위의 returned개를 from 스택으로 되돌리고, 그 아래 discarded개를 버립니다.
+     */
+    void restore(String rootId, String sessionId, Stack from, int returned, int discarded);
+
+    void clear(String rootId, String sessionId);
+
+    /**
+     * 방의 모든 세션 undo/redo 스택에 남은 작업. (방 작업 로그를 정리할 때 아직 가리키는 순번을 찾는 데 사용)
+     */
+    List<byte[]> entries(String rootId);
+
+    /**
+     * 저장소가 보관 중인 기록 크기 (바이트). 집계하지 않는 저장소는 -1
+     */
+    default long retainedBytes() {
+        return -1;
+    }
+
+    /**
+     * 한도나 만료 때문에 버린 기록 크기 누계 (바이트, 이 노드에서 처리한 것만)
+     */
+    default long evictedBytes() {
+        return 0;
+    }
+}
@@ -0,0 +1,249 @@
+package com.sharedsync.shared.history;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 단일 노드용 히스토리 저장소.
+ * 세션마다 undo/redo 링 버퍼를 두고, 개수(maxEntries), 세션 크기(maxBytesPerSession), 방 전체 크기(maxBytesPerRoom)
+ * 한도를 넘으면 기록하는 세션의 가장 오래된 기록부터 버립니다. ttl 동안 쓰이지 않은 세션 기록은 통째로 버립니다.
+ */
+public class InMemoryHistoryStore implements HistoryStore {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final int maxEntries;
+    private final long maxBytesPerSession;
+    private final long maxBytesPerRoom;
+    private final long ttlMillis;
+    private final Map<String, SessionHistory> sessions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> roomBytes = new ConcurrentHashMap<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong evictedBytes = new AtomicLong();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    public InMemoryHistoryStore(int maxEntries, long maxBytesPerSession, long maxBytesPerRoom, long ttlSeconds) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytesPerSession = Math.max(1, maxBytesPerSession);
+        this.maxBytesPerRoom = Math.max(1, maxBytesPerRoom);
+        this.ttlMillis = Math.max(0, ttlSeconds) * 1000;
+    }
+
+    private static final class SessionHistory {
+        final String rootId;
+        final ArrayDeque<byte[]> undo = new ArrayDeque<>();
+        final ArrayDeque<byte[]> redo = new ArrayDeque<>();
+        long bytes;
+        long lastAccess = System.currentTimeMillis();
+        boolean removed;
+
+        SessionHistory(String rootId) {
+            this.rootId = rootId;
+        }
+
+        ArrayDeque<byte[]> of(Stack stack) {
+            return stack == Stack.UNDO ? undo : redo;
+        }
+    }
+
+    private static String key(String rootId, String sessionId) {
+        return rootId + ":" + sessionId;
+    }
+
+    private SessionHistory session(String rootId, String sessionId) {
+        return sessions.computeIfAbsent(key(rootId, sessionId), k -> new SessionHistory(rootId));
+    }
+
+    @Override
+    public void record(String rootId, String sessionId, byte[] action) {
+        sweepExpired();
+        SessionHistory history = session(rootId, sessionId);
+        synchronized (history) {
+            while (!history.redo.isEmpty()) {
+                account(history, -history.redo.pollFirst().length);
+            }
+            push(history, Stack.UNDO, action);
+        }
+    }
+
+    @Override
+    public byte[] pop(String rootId, String sessionId, Stack stack) {
+        SessionHistory history = sessions.get(key(rootId, sessionId));
+        if (history == null) {
+            return null;
+        }
+        synchronized (history) {
+            byte[] action = history.of(stack).pollFirst();
+            if (action != null) {
+                account(history, -action.length);
+            }
+            return action;
+        }
+    }
+
+    @Override
+    public List<byte[]> move(String rootId, String sessionId, Stack from, int count) {
+        SessionHistory history = sessions.get(key(rootId, sessionId));
+        if (history == null) {
+            return List.of();
+        }
+        synchronized (history) {
+            List<byte[]> moved = new ArrayList<>();
+            ArrayDeque<byte[]> source = history.of(from);
+            while (moved.size() < count && !source.isEmpty()) {
+                byte[] action = source.pollFirst();
+                account(history, -action.length);
+                push(history, opposite(from), action);
+                moved.add(action);
+            }
+            return moved;
+        }
+    }
+
+    @Override
+    public void restore(String rootId, String sessionId, Stack from, int returned, int discarded) {
+        SessionHistory history = sessions.get(key(rootId, sessionId));
+        if (history == null) {
+            return;
+        }
+        synchronized (history) {
+            ArrayDeque<byte[]> target = history.of(opposite(from));
+            for (int i = 0; i < returned && !target.isEmpty(); i++) {
+                byte[] action = target.pollFirst();
+                account(history, -action.length);
+                push(history, from, action);
+            }
+            for (int i = 0; i < discarded && !target.isEmpty(); i++) {
+                account(history, -target.pollFirst().length);
+            }
+        }
+    }
+
+    private static Stack opposite(Stack stack) {
+        return stack == Stack.UNDO ? Stack.REDO : Stack.UNDO;
+    }
+
+    @Override
+    public void push(String rootId, String sessionId, Stack stack, byte[] action) {
+        SessionHistory history = session(rootId, sessionId);
+        synchronized (history) {
+            push(history, stack, action);
+        }
+    }
+
+    private void push(SessionHistory history, Stack stack, byte[] action) {
+        if (history.removed) {
+            return; // 만료/정리와 겹친 기록은 버림
+        }
+        history.lastAccess = System.currentTimeMillis();
+        if (action.length > maxBytesPerSession || action.length > maxBytesPerRoom) {
+            evictedBytes.addAndGet(action.length); // 한도보다 큰 작업은 보관하지 않음
+            return;
+        }
+        ArrayDeque<byte[]> target = history.of(stack);
+        target.addFirst(action);
+        account(history, action.length);
+
+        while (target.size() > maxEntries) {
+            evict(history, target);
+        }
+        // 크기 한도를 넘으면 오래된 undo부터, 그래도 넘으면 오래된 redo를 버림 (방금 넣은 작업은 남김)
+        while (history.bytes > maxBytesPerSession || roomBytes(history.rootId) > maxBytesPerRoom) {
+            ArrayDeque<byte[]> victim = history.undo.size() > (target == history.undo ? 1 : 0) ? history.undo
+                    : history.redo.size() > (target == history.redo ? 1 : 0) ? history.redo : null;
+            if (victim == null) {
+                break;
+            }
+            evict(history, victim);
+        }
+    }
+
+    private void evict(SessionHistory history, ArrayDeque<byte[]> stack) {
+        byte[] discarded = stack.pollLast();
+        account(history, -discarded.length);
+        evictedBytes.addAndGet(discarded.length);
+    }
+
+    private void account(SessionHistory history, long delta) {
+        history.bytes += delta;
+        roomBytes.computeIfAbsent(history.rootId, key -> new AtomicLong()).addAndGet(delta);
+        retainedBytes.addAndGet(delta);
+    }
+
+    private long roomBytes(String rootId) {
+        AtomicLong bytes = roomBytes.get(rootId);
+        return bytes != null ? bytes.get() : 0L;
+    }
+
+    @Override
+    public void clear(String rootId, String sessionId) {
+        SessionHistory history = sessions.remove(key(rootId, sessionId));
+        if (history != null) {
+            discard(history, false);
+        }
+    }
+
+    @Override
+    public List<byte[]> entries(String rootId) {
+        List<byte[]> result = new ArrayList<>();
+        for (SessionHistory history : sessions.values()) {
+            if (!history.rootId.equals(rootId)) {
+                continue;
+            }
+            synchronized (history) {
+                result.addAll(history.undo);
+                result.addAll(history.redo);
+            }
+        }
+        return result;
+    }
+
+    private void discard(SessionHistory history, boolean expired) {
+        synchronized (history) {
+            if (history.removed) {
+                return;
+            }
+            history.removed = true;
+            if (expired) {
+                evictedBytes.addAndGet(history.bytes);
+            }
+            account(history, -history.bytes);
+            history.undo.clear();
+            history.redo.clear();
+        }
+        roomBytes.computeIfPresent(history.rootId, (key, bytes) -> bytes.get() <= 0 ? null : bytes);
+    }
+
+    /**
+     * ttl 동안 쓰이지 않은 세션 기록을 버립니다. (기록 시 최대 1분에 한 번 확인)
+     */
+    private void sweepExpired() {
+        long now = System.currentTimeMillis();
+        if (ttlMillis <= 0 || now - lastSweep < Math.min(ttlMillis, SWEEP_INTERVAL_MILLIS)) {
+            return;
+        }
+        lastSweep = now;
+        sessions.entrySet().removeIf(entry -> {
+            SessionHistory history = entry.getValue();
+            if (now - history.lastAccess < ttlMillis) {
+                return false;
+            }
+            discard(history, true);
+            return true;
+        });
+    }
+
+    @Override
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    @Override
+    public long evictedBytes() {
+        return evictedBytes.get();
+    }
+}
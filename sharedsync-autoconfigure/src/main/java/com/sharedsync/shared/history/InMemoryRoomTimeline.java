@@ -0,0 +1,173 @@
+package com.sharedsync.shared.history;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 단일 노드용 방 작업 로그.
+ * 방의 작업 크기 합계가 maxBytesPerRoom을 넘으면 가장 오래된 작업부터 버리고 (방금 넣은 작업은 남김),
+ * ttl 동안 쓰이지 않은 방의 로그는 통째로 버립니다.
+ */
+public class InMemoryRoomTimeline implements RoomTimeline {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final long maxBytesPerRoom;
+    private final long ttlMillis;
+    private final Map<String, RoomLog> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong evictedBytes = new AtomicLong();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    public InMemoryRoomTimeline(long maxBytesPerRoom, long ttlSeconds) {
+        this.maxBytesPerRoom = Math.max(1, maxBytesPerRoom);
+        this.ttlMillis = Math.max(0, ttlSeconds) * 1000;
+    }
+
+    private static final class RoomLog {
+        final TreeMap<Long, byte[]> entries = new TreeMap<>();
+        long lastSeq;
+        long bytes;
+        long lastAccess = System.currentTimeMillis();
+        boolean removed;
+        Checkpoint checkpoint;
+    }
+
+    @Override
+    public long append(String rootId, byte[] entry) {
+        sweepExpired();
+        while (true) {
+            RoomLog log = rooms.computeIfAbsent(rootId, key -> new RoomLog());
+            synchronized (log) {
+                if (log.removed) {
+                    continue; // 만료/정리와 겹치면 새 로그에 기록
+                }
+                return append(log, entry);
+            }
+        }
+    }
+
+    /**
+     * log를 잠근 상태에서 호출: 작업을 넣고 크기 한도를 넘으면 오래된 작업부터 버립니다.
+     */
+    private long append(RoomLog log, byte[] entry) {
+        long seq = ++log.lastSeq;
+        log.entries.put(seq, entry);
+        log.lastAccess = System.currentTimeMillis();
+        account(log, entry.length);
+        while (log.bytes > maxBytesPerRoom && log.entries.size() > 1) {
+            long freed = log.entries.pollFirstEntry().getValue().length;
+            account(log, -freed);
+            evictedBytes.addAndGet(freed);
+        }
+        return seq;
+    }
+
+    @Override
+    public byte[] get(String rootId, long seq) {
+        RoomLog log = rooms.get(rootId);
+        if (log == null) {
+            return null;
+        }
+        synchronized (log) {
+            return log.entries.get(seq);
+        }
+    }
+
+    @Override
+    public List<Entry> readAfter(String rootId, long afterSeq) {
+        RoomLog log = rooms.get(rootId);
+        if (log == null) {
+            return List.of();
+        }
+        synchronized (log) {
+            List<Entry> result = new ArrayList<>();
+            log.entries.tailMap(afterSeq, false).forEach((seq, data) -> result.add(new Entry(seq, data)));
+            return result;
+        }
+    }
+
+    @Override
+    public void checkpoint(String rootId, long seq, byte[] snapshot, long retainFromSeq) {
+        RoomLog log = rooms.computeIfAbsent(rootId, key -> new RoomLog());
+        synchronized (log) {
+            if (log.checkpoint == null || log.checkpoint.seq() < seq) {
+                log.checkpoint = new Checkpoint(seq, snapshot);
+            }
+            Map<Long, byte[]> pruned = log.entries.headMap(retainFromSeq, false);
+            pruned.values().forEach(entry -> account(log, -entry.length));
+            pruned.clear();
+        }
+    }
+
+    @Override
+    public Checkpoint latestCheckpoint(String rootId) {
+        RoomLog log = rooms.get(rootId);
+        if (log == null) {
+            return null;
+        }
+        synchronized (log) {
+            return log.checkpoint;
+        }
+    }
+
+    @Override
+    public void clear(String rootId) {
+        RoomLog log = rooms.remove(rootId);
+        if (log != null) {
+            discard(log, false);
+        }
+    }
+
+    private void discard(RoomLog log, boolean expired) {
+        synchronized (log) {
+            if (log.removed) {
+                return;
+            }
+            log.removed = true;
+            if (expired) {
+                evictedBytes.addAndGet(log.bytes);
+            }
+            account(log, -log.bytes);
+            log.entries.clear();
+        }
+    }
+
+    private void account(RoomLog log, long delta) {
+        log.bytes += delta;
+        retainedBytes.addAndGet(delta);
+    }
+
+    /**
+     * ttl 동안 쓰이지 않은 방의 로그를 버립니다. (기록 시 최대 1분에 한 번 확인)
+     */
+    private void sweepExpired() {
+        long now = System.currentTimeMillis();
+        if (ttlMillis <= 0 || now - lastSweep < Math.min(ttlMillis, SWEEP_INTERVAL_MILLIS)) {
+            return;
+        }
+        lastSweep = now;
+        rooms.entrySet().removeIf(entry -> {
+            RoomLog log = entry.getValue();
+            if (now - log.lastAccess < ttlMillis) {
+                return false;
+            }
+            discard(log, true);
+            return true;
+        });
+    }
+
+    @Override
+    public long retainedBytes() {
+        return retainedBytes.get();
+    }
+
+    @Override
+    public long evictedBytes() {
+        return evictedBytes.get();
+    }
+}
@@ -0,0 +1,246 @@
+package com.sharedsync.shared.history;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * 여러 노드가 공유하는 Redis 리스트 기반 히스토리 저장소.
+ * 키: history:undo:{rootId}:{sessionId}, history:redo:{rootId}:{sessionId} (맨 앞이 최근 작업),
+ *     history:bytes:{rootId} (세션별 기록 크기 해시), history:total:{rootId} (방 기록 크기 합계),
+ *     history:sessions:{rootId} (score = 마지막으로 쓴 시각인 세션 sorted set)
+ * 방의 키는 {rootId} 해시 태그로 같은 슬롯에 두고, 스크립트가 쓰는 키는 모두 KEYS로 넘깁니다. (Cluster/프록시 호환)
+ * 기록과 스택 간 이동은 Lua 스크립트 한 번으로 실행하므로 다른 노드의 요청과 섞이지 않습니다. (LMOVE, Redis 6.2 이상)
+ * 개수/크기 한도는 같은 스크립트 안에서 가장 오래된 기록부터 버려 맞추고, ttl이 있으면 쓸 때마다 만료 시간을 갱신합니다.
+ * 방 크기 한도를 넘어도 버리는 것은 기록하는 세션의 기록뿐입니다.
+ * ttl 동안 쓰이지 않아 스택이 만료된 세션은 sorted set에서 찾아 방 합계에서 뺍니다. (다른 세션의 키를 조회하지 않음)
+ */
+public class RedisHistoryStore implements HistoryStore {
+
+    private static final String UNDO_PREFIX = "history:undo:";
+    private static final String REDO_PREFIX = "history:redo:";
+    private static final String BYTES_PREFIX = "history:bytes:";
+    private static final String TOTAL_PREFIX = "history:total:";
+    private static final String SESSIONS_PREFIX = "history:sessions:";
+
+    // KEYS[1] = undo, KEYS[2] = redo, KEYS[3] = 크기 해시, KEYS[4] = 방 합계, KEYS[5] = 세션 sorted set
+    // ARGV[1] = 세션, ARGV[2] = 최대 개수, ARGV[3] = 세션 최대 크기, ARGV[4] = 방 최대 크기, ARGV[5] = ttl(초),
+    // ARGV[6] = 현재 시각(밀리초)
+    private static final String PRELUDE =
+            "local undo, redo, bytes, total, sessions, field = KEYS[1], KEYS[2], KEYS[3], KEYS[4], KEYS[5], ARGV[1] "
+                    + "local maxEntries, maxSession, maxRoom, ttl = tonumber(ARGV[2]), tonumber(ARGV[3]), tonumber(ARGV[4]), tonumber(ARGV[5]) "
+                    + "local now = tonumber(ARGV[6]) "
+                    + "local stacks = {undo, redo} "
+                    + "local function forget(session) "
+                    + "redis.call('decrby', total, tonumber(redis.call('hget', bytes, session) or '0')) "
+                    + "redis.call('hdel', bytes, session) redis.call('zrem', sessions, session) end "
+                    // ttl 동안 쓰이지 않은 세션은 스택도 만료되었으므로 합계에서 뺌
+                    + "if ttl > 0 then for _, session in ipairs(redis.call('zrangebyscore', sessions, '-inf', now - ttl * 1000)) "
+                    + "do forget(session) end end "
+                    + "if redis.call('exists', undo, redo) == 0 then forget(field) end "
+                    + "local initial = tonumber(redis.call('hget', bytes, field) or '0') "
+                    + "local used = initial "
+                    + "local others = tonumber(redis.call('get', total) or '0') - initial "
+                    + "local evicted = 0 "
+                    + "local function drop(key) local item = redis.call('rpop', key) "
+                    + "used = used - #item evicted = evicted + #item end "
+                    // 개수 한도 → 세션 크기 → 방 크기 순으로 맞춤 (방금 넣은 작업은 남김)
+                    + "local function fit(target) "
+                    + "while redis.call('llen', target) > maxEntries do drop(target) end "
+                    + "while used > maxSession or used + others > maxRoom do "
+                    + "if redis.call('llen', undo) > (target == undo and 1 or 0) then drop(undo) "
+                    + "elseif redis.call('llen', redo) > (target == redo and 1 or 0) then drop(redo) "
+                    + "else break end end end "
+                    + "local function finish() "
+                    + "if used > 0 then redis.call('hset', bytes, field, used) redis.call('zadd', sessions, now, field) "
+                    + "else redis.call('hdel', bytes, field) redis.call('zrem', sessions, field) end "
+                    + "if used ~= initial then redis.call('incrby', total, used - initial) end "
+                    + "if ttl > 0 then for _, key in ipairs(KEYS) do redis.call('expire', key, ttl) end end end ";
+
+    // ARGV[7] = 스택 (1 = undo, 2 = redo), ARGV[8] = 작업, ARGV[9] = 반대 스택 비우기 여부 / 반환: 버린 바이트
+    private static final RedisScript<Long> PUSH = new DefaultRedisScript<>(PRELUDE
+            + "local target = stacks[tonumber(ARGV[7])] local action = ARGV[8] "
+            + "if ARGV[9] == '1' then local other = target == undo and redo or undo "
+            + "for _, item in ipairs(redis.call('lrange', other, 0, -1)) do used = used - #item end "
+            + "redis.call('del', other) end "
+            + "if #action > maxSession or #action > maxRoom then evicted = evicted + #action "
+            + "else redis.call('lpush', target, action) used = used + #action fit(target) end "
+            + "finish() return evicted",
+            Long.class);
+    // ARGV[7] = 스택 / 반환: 꺼낸 작업
+    private static final RedisScript<byte[]> POP = new DefaultRedisScript<>(PRELUDE
+            + "local item = redis.call('lpop', stacks[tonumber(ARGV[7])]) "
+            + "if item then used = used - #item end finish() return item",
+            byte[].class);
+    // ARGV[7] = 꺼낼 스택, ARGV[8] = 옮길 개수 / 반환: 옮긴 작업들 + 마지막에 버린 바이트
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MOVE = new DefaultRedisScript<>(PRELUDE
+            + "local from = stacks[tonumber(ARGV[7])] local to = from == undo and redo or undo local moved = {} "
+            + "for i = 1, tonumber(ARGV[8]) do "
+            + "local item = redis.call('lmove', from, to, 'LEFT', 'LEFT') "
+            + "if not item then break end "
+            + "moved[#moved + 1] = item end "
+            + "if #moved > 0 then fit(to) end "
+            + "finish() moved[#moved + 1] = tostring(evicted) return moved",
+            List.class);
+    // ARGV[7] = 꺼냈던 스택, ARGV[8] = 되돌릴 개수, ARGV[9] = 버릴 개수
+    private static final RedisScript<Long> RESTORE = new DefaultRedisScript<>(PRELUDE
+            + "local from = stacks[tonumber(ARGV[7])] local to = from == undo and redo or undo "
+            + "for i = 1, tonumber(ARGV[8]) do redis.call('lmove', to, from, 'LEFT', 'LEFT') end "
+            + "for i = 1, tonumber(ARGV[9]) do local item = redis.call('lpop', to) "
+            + "if item then used = used - #item end end "
+            + "finish() return evicted",
+            Long.class);
+    // 세션 기록 삭제: 스택, 크기 항목, sorted set 항목을 지우고 방 합계에서 뺌
+    private static final RedisScript<Long> CLEAR = new DefaultRedisScript<>(
+            "local used = tonumber(redis.call('hget', KEYS[3], ARGV[1]) or '0') "
+                    + "redis.call('del', KEYS[1], KEYS[2]) redis.call('hdel', KEYS[3], ARGV[1]) "
+                    + "redis.call('zrem', KEYS[5], ARGV[1]) "
+                    + "if used > 0 then redis.call('decrby', KEYS[4], used) end return used",
+            Long.class);
+
+    private final RedisTemplate<String, byte[]> template;
+    private final int maxEntries;
+    private final long maxBytesPerSession;
+    private final long maxBytesPerRoom;
+    private final long ttlSeconds;
+    private final AtomicLong evictedBytes = new AtomicLong();
+
+    public RedisHistoryStore(RedisConnectionFactory connectionFactory, int maxEntries,
+                             long maxBytesPerSession, long maxBytesPerRoom, long ttlSeconds) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.template = template;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxBytesPerSession = Math.max(1, maxBytesPerSession);
+        this.maxBytesPerRoom = Math.max(1, maxBytesPerRoom);
+        this.ttlSeconds = Math.max(0, ttlSeconds);
+    }
+
+    private static String tag(String rootId) {
+        return "{" + rootId + "}";
+    }
+
+    private static String key(Stack stack, String rootId, String sessionId) {
+        return (stack == Stack.UNDO ? UNDO_PREFIX : REDO_PREFIX) + tag(rootId) + ":" + sessionId;
+    }
+
+    private static List<String> keys(String rootId, String sessionId) {
+        return List.of(key(Stack.UNDO, rootId, sessionId), key(Stack.REDO, rootId, sessionId),
+                BYTES_PREFIX + tag(rootId), TOTAL_PREFIX + tag(rootId), SESSIONS_PREFIX + tag(rootId));
+    }
+
+    @Override
+    public void record(String rootId, String sessionId, byte[] action) {
+        Long evicted = runScript(PUSH, keys(rootId, sessionId), args(sessionId, stack(Stack.UNDO), action, number(1)));
+        countEvicted(evicted);
+    }
+
+    @Override
+    public byte[] pop(String rootId, String sessionId, Stack stack) {
+        return runScript(POP, keys(rootId, sessionId), args(sessionId, stack(stack)));
+    }
+
+    @Override
+    public List<byte[]> move(String rootId, String sessionId, Stack from, int count) {
+        List<byte[]> result = runScript(MOVE, keys(rootId, sessionId), args(sessionId, stack(from), number(count)));
+        if (result == null || result.isEmpty()) {
+            return List.of();
+        }
+        countEvicted(Long.parseLong(new String(result.get(result.size() - 1), StandardCharsets.UTF_8)));
+        return result.subList(0, result.size() - 1);
+    }
+
+    @Override
+    public void restore(String rootId, String sessionId, Stack from, int returned, int discarded) {
+        runScript(RESTORE, keys(rootId, sessionId), args(sessionId, stack(from), number(returned), number(discarded)));
+    }
+
+    @Override
+    public void push(String rootId, String sessionId, Stack stack, byte[] action) {
+        Long evicted = runScript(PUSH, keys(rootId, sessionId), args(sessionId, stack(stack), action, number(0)));
+        countEvicted(evicted);
+    }
+
+    @Override
+    public void clear(String rootId, String sessionId) {
+        runScript(CLEAR, keys(rootId, sessionId), sessionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 세션 sorted set에 남은 세션의 스택을 읽습니다. (스택이 만료된 세션은 빈 목록)
+     */
+    @Override
+    public List<byte[]> entries(String rootId) {
+        List<byte[]> result = new ArrayList<>();
+        Set<byte[]> members = template.opsForZSet().range(SESSIONS_PREFIX + tag(rootId), 0, -1);
+        if (members == null) {
+            return result;
+        }
+        for (byte[] member : members) {
+            String sessionId = new String(member, StandardCharsets.UTF_8);
+            for (Stack stack : Stack.values()) {
+                List<byte[]> items = template.opsForList().range(key(stack, rootId, sessionId), 0, -1);
+                if (items != null) {
+                    result.addAll(items);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long evictedBytes() {
+        return evictedBytes.get();
+    }
+
+    private void countEvicted(Long bytes) {
+        if (bytes != null && bytes > 0) {
+            evictedBytes.addAndGet(bytes);
+        }
+    }
+
+    /**
+     * 공통 인자(세션, 한도, ttl, 현재 시각) 뒤에 스크립트별 인자를 붙입니다.
+     */
+    private byte[][] args(String sessionId, byte[]... extra) {
+        byte[][] args = new byte[6 + extra.length][];
+        args[0] = sessionId.getBytes(StandardCharsets.UTF_8);
+        args[1] = number(maxEntries);
+        args[2] = number(maxBytesPerSession);
+        args[3] = number(maxBytesPerRoom);
+        args[4] = number(ttlSeconds);
+        args[5] = number(System.currentTimeMillis());
+        System.arraycopy(extra, 0, args, 6, extra.length);
+        return args;
+    }
+
+    private static byte[] stack(Stack stack) {
+        return number(stack == Stack.UNDO ? 1 : 2);
+    }
+
+    /**
+     * 작업 바이트를 그대로 인자로 넘기고, 목록 결과도 바이트 그대로 받습니다.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> T runScript(RedisScript script, List<String> keys, byte[]... args) {
+        return (T) template.execute(script, RedisSerializer.byteArray(), (RedisSerializer) RedisSerializer.byteArray(),
+                keys, (Object[]) args);
+    }
+
+    private static byte[] number(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package com.sharedsync.shared.history;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * 여러 노드가 공유하는 Redis 방 작업 로그.
+ * 키: timeline:seq:{rootId} (순번 카운터), timeline:log:{rootId} (score = 순번인 sorted set),
+ *     timeline:checkpoint:{rootId} ([8바이트 순번][스냅샷]), timeline:bytes:{rootId} (로그 크기 합계)
+ * 방의 키는 {rootId} 해시 태그로 같은 슬롯에 두고, 기록과 정리는 모든 키를 KEYS로 넘기는 Lua 스크립트 한 번으로 실행합니다.
+ * sorted set 멤버는 같은 내용의 작업이 겹치지 않도록 앞에 8바이트 순번을 붙여 저장합니다.
+ * 로그 크기가 방 한도를 넘으면 가장 오래된 작업부터 버리고, ttl이 있으면 쓸 때마다 만료 시간을 갱신합니다.
+ */
+public class RedisRoomTimeline implements RoomTimeline {
+
+    private static final String SEQ_PREFIX = "timeline:seq:";
+    private static final String LOG_PREFIX = "timeline:log:";
+    private static final String CHECKPOINT_PREFIX = "timeline:checkpoint:";
+    private static final String BYTES_PREFIX = "timeline:bytes:";
+
+    // KEYS[1] = 순번, KEYS[2] = 로그, KEYS[3] = 체크포인트, KEYS[4] = 크기 / ARGV[1] = ttl(초)
+    private static final String PRELUDE =
+            "local seqKey, logKey, checkpointKey, bytesKey = KEYS[1], KEYS[2], KEYS[3], KEYS[4] "
+                    + "local ttl = tonumber(ARGV[1]) "
+                    + "local function be64(n) local b = {} for i = 8, 1, -1 do b[i] = string.char(n % 256) "
+                    + "n = math.floor(n / 256) end return table.concat(b) end "
+                    + "local function seqOf(s) local n = 0 for i = 1, 8 do n = n * 256 + string.byte(s, i) end return n end "
+                    + "local function touch() if ttl > 0 then for _, key in ipairs(KEYS) do "
+                    + "if redis.call('exists', key) == 1 then redis.call('expire', key, ttl) end end end end ";
+
+    // ARGV[2] = 작업, ARGV[3] = 방 최대 크기 / 반환: {순번, 버린 바이트}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> APPEND = new DefaultRedisScript<>(PRELUDE
+            + "local seq = redis.call('incr', seqKey) local member = be64(seq) .. ARGV[2] "
+            + "redis.call('zadd', logKey, seq, member) "
+            + "local used = redis.call('incrby', bytesKey, #member) local evicted = 0 "
+            + "while used > tonumber(ARGV[3]) and redis.call('zcard', logKey) > 1 do "
+            + "local oldest = redis.call('zpopmin', logKey) "
+            + "used = redis.call('decrby', bytesKey, #oldest[1]) evicted = evicted + #oldest[1] end "
+            + "touch() return {seq, evicted}",
+            List.class);
+    // ARGV[2] = 체크포인트([8바이트 순번][스냅샷]), ARGV[3] = 남길 첫 순번
+    private static final RedisScript<Long> CHECKPOINT = new DefaultRedisScript<>(PRELUDE
+            + "local current = redis.call('get', checkpointKey) "
+            + "if not current or #current < 8 or seqOf(current) < seqOf(ARGV[2]) then "
+            + "redis.call('set', checkpointKey, ARGV[2]) end "
+            + "local bound = '(' .. ARGV[3] local freed = 0 "
+            + "for _, member in ipairs(redis.call('zrangebyscore', logKey, '-inf', bound)) do freed = freed + #member end "
+            + "if freed > 0 then redis.call('zremrangebyscore', logKey, '-inf', bound) "
+            + "redis.call('decrby', bytesKey, freed) end "
+            + "touch() return freed",
+            Long.class);
+
+    private final RedisTemplate<String, byte[]> template;
+    private final long maxBytesPerRoom;
+    private final long ttlSeconds;
+    private final AtomicLong evictedBytes = new AtomicLong();
+
+    public RedisRoomTimeline(RedisConnectionFactory connectionFactory, long maxBytesPerRoom, long ttlSeconds) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        this.template = template;
+        this.maxBytesPerRoom = Math.max(1, maxBytesPerRoom);
+        this.ttlSeconds = Math.max(0, ttlSeconds);
+    }
+
+    private static String tag(String rootId) {
+        return "{" + rootId + "}";
+    }
+
+    private static List<String> keys(String rootId) {
+        return List.of(SEQ_PREFIX + tag(rootId), LOG_PREFIX + tag(rootId), CHECKPOINT_PREFIX + tag(rootId),
+                BYTES_PREFIX + tag(rootId));
+    }
+
+    @Override
+    public long append(String rootId, byte[] entry) {
+        List<?> result = runScript(APPEND, keys(rootId), number(ttlSeconds), entry, number(maxBytesPerRoom));
+        if (result == null || result.size() < 2) {
+            return 0L;
+        }
+        long evicted = ((Number) result.get(1)).longValue();
+        if (evicted > 0) {
+            evictedBytes.addAndGet(evicted);
+        }
+        return ((Number) result.get(0)).longValue();
+    }
+
+    @Override
+    public byte[] get(String rootId, long seq) {
+        Set<byte[]> members = template.opsForZSet().rangeByScore(LOG_PREFIX + tag(rootId), seq, seq);
+        if (members == null || members.isEmpty()) {
+            return null;
+        }
+        return withoutSeq(members.iterator().next());
+    }
+
+    @Override
+    public List<Entry> readAfter(String rootId, long afterSeq) {
+        Set<byte[]> members = template.opsForZSet().rangeByScore(LOG_PREFIX + tag(rootId), afterSeq + 1,
+                Double.POSITIVE_INFINITY);
+        if (members == null) {
+            return List.of();
+        }
+        List<Entry> result = new ArrayList<>(members.size());
+        for (byte[] member : members) {
+            result.add(new Entry(ByteBuffer.wrap(member).getLong(), withoutSeq(member)));
+        }
+        return result;
+    }
+
+    @Override
+    public void checkpoint(String rootId, long seq, byte[] snapshot, long retainFromSeq) {
+        runScript(CHECKPOINT, keys(rootId), number(ttlSeconds), withSeq(seq, snapshot), number(retainFromSeq));
+    }
+
+    @Override
+    public Checkpoint latestCheckpoint(String rootId) {
+        byte[] stored = template.opsForValue().get(CHECKPOINT_PREFIX + tag(rootId));
+        if (stored == null || stored.length < Long.BYTES) {
+            return null;
+        }
+        return new Checkpoint(ByteBuffer.wrap(stored).getLong(), withoutSeq(stored));
+    }
+
+    @Override
+    public void clear(String rootId) {
+        template.delete(keys(rootId));
+    }
+
+    @Override
+    public long evictedBytes() {
+        return evictedBytes.get();
+    }
+
+    /**
+     * 작업 바이트를 그대로 인자로 넘깁니다.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> T runScript(RedisScript script, List<String> keys, byte[]... args) {
+        return (T) template.execute(script, RedisSerializer.byteArray(), (RedisSerializer) RedisSerializer.byteArray(),
+                keys, (Object[]) args);
+    }
+
+    private static byte[] number(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] withSeq(long seq, byte[] data) {
+        return ByteBuffer.allocate(Long.BYTES + data.length).putLong(seq).put(data).array();
+    }
+
+    private static byte[] withoutSeq(byte[] stored) {
+        return Arrays.copyOfRange(stored, Long.BYTES, stored.length);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sharedsync.shared.history;
+
+import java.util.List;
+
+/**
+ * 방(rootId) 단위 작업 로그 저장소.
+ * 작업마다 방 안에서 증가하는 순번(seq)을 붙여 기록하고, 주기적으로 방 전체 상태를 체크포인트로 남긴 뒤
+ * 보관 범위를 벗어난 오래된 작업을 지웁니다. 세션별 undo/redo 스택은 작업 대신 순번만 가리킵니다.
+ * 방마다 작업 크기 합계가 한도를 넘으면 가장 오래된 작업부터 버리고, ttl 동안 쓰이지 않은 방의 로그는 만료됩니다.
+ */
+public interface RoomTimeline {
+
+    record Entry(long seq, byte[] data) {
+    }
+
+    record Checkpoint(long seq, byte[] snapshot) {
+    }
+
+    /**
+     * @return 기록한 작업의 순번 (1부터 시작)
+     */
+    long append(String rootId, byte[] entry);
+
+    /**
+     * @return 보관 범위를 벗어나 지워졌으면 null
+     */
+    byte[] get(String rootId, long seq);
+
+    /**
+     * afterSeq보다 뒤의 작업을 순번 순으로 반환합니다.
+     */
+    List<Entry> readAfter(String rootId, long afterSeq);
+
+    /**
+     * seq 시점의 방 상태를 체크포인트로 저장하고, retainFromSeq보다 앞선 작업을 지웁니다.
+     */
+    void checkpoint(String rootId, long seq, byte[] snapshot, long retainFromSeq);
+
+    Checkpoint latestCheckpoint(String rootId);
+
+    void clear(String rootId);
+
+    /**
+     * 보관 중인 작업 크기 (바이트). 집계하지 않는 저장소는 -1
+     */
+    default long retainedBytes() {
+        return -1;
+    }
+
+    /**
+     * 크기 한도 때문에 버린 작업 크기 누계 (바이트, 이 노드에서 처리한 것만)
+     */
+    default long evictedBytes() {
+        return 0;
+    }
+}
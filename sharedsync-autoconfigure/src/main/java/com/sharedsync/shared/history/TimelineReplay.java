@@ -0,0 +1,23 @@
+package com.sharedsync.shared.history;
+
+import java.util.List;
+
+/**
+ * 방 상태 복원용 데이터: 마지막 체크포인트와 그 이후의 작업들.
+ *
+ * @param checkpointSeq 체크포인트 순번 (체크포인트가 없으면 0)
+ * @param checkpoint 체크포인트 시점의 방 전체 상태. 루트 DTO의 CREATE 작업이며, 하위 타입별 DTO는 subActions에 담깁니다.
+ *                   체크포인트는 작업 기록 직후의 캐시에서 만들므로 바로 뒤의 작업 일부가 이미 반영되어 있을 수 있습니다.
+ * @param events checkpointSeq 이후의 작업. 수정 작업의 before/after는 체크포인트부터 앞선 작업을 적용한 상태에
+ *               바뀐 필드를 붙인 전체 DTO입니다.
+ */
+public record TimelineReplay(long checkpointSeq, HistoryAction checkpoint, List<Event> events) {
+
+    /**
+     * @param reverted undo로 되돌린 작업이면 true
+     * @param complete false이면 체크포인트가 없거나 체크포인트에 없던 엔티티를 수정한 작업으로,
+     *                 해당 DTO에는 ID와 바뀐 필드만 채워져 있습니다. (채워지지 않은 필드의 null은 값이 아님)
+     */
+    public record Event(long seq, boolean reverted, boolean complete, HistoryAction action) {
+    }
+}
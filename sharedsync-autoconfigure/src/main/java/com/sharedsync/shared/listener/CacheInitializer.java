@@ -4,11 +4,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import com.sharedsync.shared.dto.CacheDto;
 import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.repository.CacheRecovery;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 public class CacheInitializer {
 
     private final ApplicationContext context;
+    private final ObjectProvider<CacheRecovery> cacheRecoveries;
 
     // 전체 AutoCacheRepository 저장
     private Map<Class<?>, AutoCacheRepository<?, ?, ?>> cacheMap;
@@ -46,7 +49,13 @@ public class CacheInitializer {
             return;
         }
 
-        loadRecursively(rootRepo, rootId);
+        // 디스크에서 복원된 방은 DB에 아직 반영되지 않은 변경을 포함하므로 다시 로딩하지 않음
+        if (rootRepo.findDtoByIdUnchecked(rootId) != null
+                && cacheRecoveries.stream().anyMatch(recovery -> recovery.claimRestoredRoot(rootId))) {
+            return;
+        }
+
+        AutoCacheRepository.runAsSystemOperation(() -> loadRecursively(rootRepo, rootId));
     }
 
     /**
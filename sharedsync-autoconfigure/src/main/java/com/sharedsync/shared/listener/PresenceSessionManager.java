@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -15,7 +16,10 @@ import com.sharedsync.shared.presence.core.UserProvider;
 import com.sharedsync.shared.properties.SharedSyncAuthProperties;
 import com.sharedsync.shared.properties.SharedSyncPresenceProperties;
 import com.sharedsync.shared.storage.PresenceStorage;
-import com.sharedsync.shared.sync.CacheSyncService;
+import com.sharedsync.shared.sync.DatabaseFlushExecutor;
+import com.sharedsync.shared.sync.OutboxPersister;
+import com.sharedsync.shared.sync.OutboxPublisher;
+import com.sharedsync.shared.sync.RoomFlushRouter;
 
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -33,8 +37,11 @@ public class PresenceSessionManager {
     private final PresenceStorage presenceStorage;
     private final PresenceBroadcaster presenceBroadcaster;
     private final UserProvider userProvider;        
-    private final CacheInitializer cacheInitializer;
-    private final CacheSyncService cacheSyncService;
+    private final RoomInitializationCoordinator roomInitializationCoordinator;
+    private final DatabaseFlushExecutor databaseFlushExecutor;
+    private final RoomFlushRouter roomFlushRouter;
+    private final ObjectProvider<OutboxPublisher> outboxPublisher;
+    private final ObjectProvider<OutboxPersister> outboxPersister;
     private final HistoryService historyService;
     private final PresenceRootResolver presenceRootResolver;
     private final SharedSyncAuthProperties authProperties;
@@ -55,11 +62,6 @@ public class PresenceSessionManager {
 
         localSessions.add(sessionId);
 
-        if (!presenceStorage.hasTracker(rootId)) {
-            log.info("[PresenceManager] Initializing hierarchy for rootId={}", rootId);
-            cacheInitializer.initializeHierarchy(rootId);
-        }
-
         Map<String, Object> userInfo = presenceStorage.getUserInfoByUserId(userId);
         if (userInfo == null || userInfo.isEmpty()) {
             log.debug("[PresenceManager] UserInfo not found in cache for userId={}, fetching from provider", userId);
@@ -69,7 +71,15 @@ public class PresenceSessionManager {
             }
         }
 
-        presenceStorage.insertTracker(rootId, sessionId, userId, DEFAULT_INDEX);
+        // 방이 비어 있으면 노드 전체에서 한 번만 로딩하고, 로딩이 끝난 뒤 트래커에 등록
+        final String trackerUserId = userId;
+        try {
+            roomInitializationCoordinator.initializeOnce(rootId,
+                    () -> presenceStorage.insertTracker(rootId, sessionId, trackerUserId, DEFAULT_INDEX));
+        } catch (RuntimeException e) {
+            localSessions.remove(sessionId);
+            throw e;
+        }
         presenceStorage.mapSessionToRoot(sessionId, rootId, presenceProperties.getSessionTimeout());
         presenceStorage.addActiveSession(userId, sessionId);
         
@@ -125,16 +135,16 @@ public class PresenceSessionManager {
         }
     }
 
+    /**
+     * 방 DB 동기화를 담당 노드의 플러시 실행기에 맡깁니다. 퇴장 처리 스레드는 DB 작업을 기다리지 않습니다.
+     */
     private void syncToDatabaseIfLocked(String rootId) {
-        if (presenceStorage.acquireSyncLock(rootId)) {
-            try {
-                if (!presenceStorage.hasTracker(rootId)) {
-                    cacheSyncService.syncToDatabase(rootId);
-                }
-            } finally {
-                presenceStorage.releaseSyncLock(rootId);
-            }
+        // 아웃박스를 사용하면 persister가 대신 반영 (발행 실패 시 담당 노드가 반영)
+        OutboxPublisher publisher = outboxPublisher.getIfAvailable();
+        if (publisher != null && publisher.publishRoomFlush(rootId)) {
+            return;
         }
+        roomFlushRouter.requestFlush(rootId);
     }
 
     private void broadcastUpdate(String rootId, String action, String userId) {
@@ -241,6 +251,7 @@ public class PresenceSessionManager {
      */
     @PreDestroy
     public void cleanup() {
+        long deadline = databaseFlushExecutor.shutdownDeadline();
         log.info("Cleaning up {} local presence sessions before shutdown...", localSessions.size());
         for (String sessionId : localSessions) {
             try {
@@ -250,5 +261,11 @@ public class PresenceSessionManager {
             }
         }
         localSessions.clear();
+
+        // 인메모리 아웃박스에 남은 방 플러시 요청을 꺼내 실행
+        outboxPersister.ifAvailable(persister -> persister.drain(deadline));
+
+        // 비워진 방들의 플러시는 병렬로 진행되며, 종료 마감 시간까지 기다림
+        databaseFlushExecutor.awaitIdle(deadline);
     }
 }
\ No newline at end of file
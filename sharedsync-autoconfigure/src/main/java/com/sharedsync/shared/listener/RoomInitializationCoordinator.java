@@ -0,0 +1,150 @@
+package com.sharedsync.shared.listener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.properties.SharedSyncPresenceProperties;
+import com.sharedsync.shared.storage.PresenceStorage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 방(rootId) 최초 로딩을 단일 실행(single-flight)으로 보장합니다.
+ *
+ * - 같은 JVM 안의 동시 입장 요청은 방별 CompletableFuture 하나를 공유하며 로딩이 끝날 때까지 대기합니다.
+ * - 여러 노드 사이에서는 PresenceStorage의 init lock(Redis 임대)을 잡은 한 노드만 로딩하고,
+ *   나머지 노드는 임대가 해제될 때까지 대기한 뒤 이미 채워진 캐시를 그대로 사용합니다.
+ * - 로더는 로딩하는 동안 임대를 주기적으로 연장하므로 로딩이 길어져도 다른 노드가 끼어들지 않습니다.
+ *   로더가 죽어 임대가 만료되면 대기 중인 노드가 임대를 다시 잡아 이어서 로딩합니다.
+ * - 대기 시간(initLockTimeout)이 지나도록 로딩이 끝나지 않으면 임대 없이 로딩하지 않고 입장을 실패시킵니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomInitializationCoordinator {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final PresenceStorage presenceStorage;
+    private final CacheInitializer cacheInitializer;
+    private final SharedSyncPresenceProperties presenceProperties;
+
+    // rootId -> 현재 JVM에서 진행 중인 로딩
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sharedsync-init-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 방이 아직 로딩되지 않았다면 정확히 한 번만 로딩한 뒤 onReady를 실행합니다.
+     * 로더는 임대를 해제하기 전에 onReady(트래커 등록)를 실행하므로,
+     * 임대 해제를 확인한 다른 노드는 항상 트래커가 존재하는 상태를 보게 됩니다.
+     */
+    public void initializeOnce(String rootId, Runnable onReady) {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(Math.max(1, presenceProperties.getInitLockTimeout()));
+        long deadline = System.currentTimeMillis() + ttlMillis;
+
+        while (true) {
+            if (presenceStorage.hasTracker(rootId)) {
+                onReady.run();
+                return;
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                // 로더가 살아 있으면서 끝나지 않는 상황: 임대 없이 로딩하면 중복 로딩되므로 입장을 실패시킴
+                log.warn("[RoomInit] Timed out waiting for room load: rootId={}", rootId);
+                throw new IllegalStateException("방 초기화 대기 시간이 초과되었습니다: " + rootId);
+            }
+
+            CompletableFuture<Void> loading = new CompletableFuture<>();
+            CompletableFuture<Void> existing = inFlight.putIfAbsent(rootId, loading);
+            if (existing != null) {
+                awaitLocal(rootId, existing, deadline);
+                continue;
+            }
+
+            try {
+                long token = presenceStorage.acquireInitLock(rootId, ttlMillis);
+                if (token != 0) {
+                    ScheduledFuture<?> renewal = scheduleRenewal(rootId, token, ttlMillis);
+                    try {
+                        if (!presenceStorage.hasTracker(rootId)) {
+                            log.info("[RoomInit] Initializing hierarchy for rootId={}", rootId);
+                            cacheInitializer.initializeHierarchy(rootId);
+                        }
+                        onReady.run();
+                        return;
+                    } finally {
+                        renewal.cancel(false);
+                        presenceStorage.releaseInitLock(rootId, token);
+                    }
+                }
+                log.debug("[RoomInit] Another node is loading rootId={}, waiting", rootId);
+                awaitRemote(rootId, deadline);
+            } finally {
+                inFlight.remove(rootId, loading);
+                loading.complete(null);
+            }
+        }
+    }
+
+    private ScheduledFuture<?> scheduleRenewal(String rootId, long token, long ttlMillis) {
+        long renewEvery = Math.max(1, ttlMillis / 3);
+        return leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!presenceStorage.renewInitLock(rootId, token, ttlMillis)) {
+                    log.warn("[RoomInit] Lost init lock: rootId={}, token={}", rootId, token);
+                }
+            } catch (RuntimeException e) {
+                log.warn("[RoomInit] Failed to renew init lock: rootId={}: {}", rootId, e.getMessage());
+            }
+        }, renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    private void awaitLocal(String rootId, CompletableFuture<Void> loading, long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            loading.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // 상위 루프에서 트래커 상태를 다시 확인
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("방 초기화 대기 중 인터럽트되었습니다: " + rootId, e);
+        }
+    }
+
+    private void awaitRemote(String rootId, long deadline) {
+        while (presenceStorage.isInitLocked(rootId)
+                && !presenceStorage.hasTracker(rootId)
+                && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("방 초기화 대기 중 인터럽트되었습니다: " + rootId, e);
+            }
+        }
+    }
+}
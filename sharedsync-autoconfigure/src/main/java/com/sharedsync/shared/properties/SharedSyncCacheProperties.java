@@ -0,0 +1,154 @@
+package com.sharedsync.shared.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sharedsync.cache")
+public class SharedSyncCacheProperties {
+
+    /**
+     * 캐시 저장소 타입 (memory, redis, file)
+     */
+    private String type = "memory";
+
+    /**
+     * 인메모리 캐시 스냅샷 설정
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * 파일 기반(로그 구조) 캐시 설정 (type=file)
+     */
+    private File file = new File();
+
+    /**
+     * 캐시 변경 저널(로컬 write-ahead log) 설정
+     */
+    private Journal journal = new Journal();
+
+    /**
+     * 임시 ID 별칭 설정
+     */
+    private Alias alias = new Alias();
+
+    /**
+     * 캐시 미스 시 DB 조회(read-through) 설정
+     */
+    private ReadThrough readThrough = new ReadThrough();
+
+    @Getter
+    @Setter
+    public static class Snapshot {
+        /**
+         * 인메모리 캐시를 디스크에 스냅샷 + 델타 로그로 저장하고, 재시작 시 복원할지 여부
+         */
+        private boolean enabled = false;
+
+        /**
+         * 스냅샷과 델타 로그를 저장할 디렉터리
+         */
+        private String directory = "./sharedsync-snapshot";
+
+        /**
+         * 주기적 스냅샷 간격 (단위: 초)
+         */
+        private long interval = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class File {
+        /**
+         * 캐시 로그 파일을 저장할 디렉터리
+         */
+        private String directory = "./sharedsync-cache";
+
+        /**
+         * 로그 fsync 주기 (단위: 밀리초). 0이면 모든 쓰기마다 fsync합니다.
+         */
+        private long syncInterval = 1000;
+
+        /**
+         * 컴팩션 필요 여부 점검 주기 (단위: 초)
+         */
+        private long compactionInterval = 60;
+
+        /**
+         * 전체 로그 중 더 이상 참조되지 않는 레코드의 비율이 이 값을 넘으면 컴팩션합니다.
+         */
+        private double compactionRatio = 0.5;
+
+        /**
+         * 참조되지 않는 레코드의 크기가 이 값(단위: 바이트) 미만이면 컴팩션하지 않습니다.
+         */
+        private long compactionMinBytes = 8 * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+        /**
+         * 캐시 변경을 로컬 파일에 기록하고, 비정상 종료 후 재시작 시 DB에 반영할지 여부
+         * (memory, file 캐시에서만 동작하며 redis에서는 무시됩니다)
+         */
+        private boolean enabled = false;
+
+        /**
+         * 저널과 체크포인트를 저장할 디렉터리
+         */
+        private String directory = "./sharedsync-journal";
+
+        /**
+         * 저널 fsync 주기 (단위: 밀리초).
+         * 0이면 편집마다 fsync 완료를 기다리며, 동시에 들어온 기록은 한 번의 fsync로 묶습니다.
+         */
+        private long syncInterval = 0;
+
+        /**
+         * 체크포인트를 기록하고 지난 저널을 정리하는 주기 (단위: 초)
+         */
+        private long checkpointInterval = 300;
+    }
+
+    @Getter
+    @Setter
+    public static class Alias {
+        /**
+         * 하위 캐시에 남은 임시 부모 ID를 영속 ID로 정리하는 주기 (단위: 초)
+         */
+        private long compactionInterval = 30;
+
+        /**
+         * 한 번에 정리할 최대 별칭 수 (타입별, 0이면 전부)
+         */
+        private int compactionBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class ReadThrough {
+        /**
+         * findById / findDtoById / findDtosByParentId 가 캐시에 없을 때 DB에서 읽어 캐시에 채울지 여부
+         */
+        private boolean enabled = false;
+
+        /**
+         * DB에도 없던 ID를 다시 조회하지 않고 "없음"으로 응답하는 시간 (단위: 초, 0이면 기억하지 않음)
+         */
+        private long negativeTtl = 5;
+
+        /**
+         * 방을 열지 않은 채 read-through로 채운 항목을 캐시에 두는 시간 (단위: 초, 0이면 방 플러시 외에는 내리지 않음)
+         */
+        private long ttl = 300;
+
+        /**
+         * ttl이 지난 read-through 항목을 정리하는 주기 (단위: 초)
+         */
+        private long evictionInterval = 60;
+    }
+}
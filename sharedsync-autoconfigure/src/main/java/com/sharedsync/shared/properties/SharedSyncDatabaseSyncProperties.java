@@ -0,0 +1,167 @@
+package com.sharedsync.shared.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sharedsync.sync")
+public class SharedSyncDatabaseSyncProperties {
+
+    /**
+     * 동기화 시 한 번에 flush 할 엔티티 수.
+     * hibernate.jdbc.batch_size가 설정되지 않았다면 이 값을 기본값으로 사용합니다.
+     */
+    private int batchSize = 50;
+
+    /**
+     * DB에서 방을 로딩할 때 컬렉션/지연 연관을 한 번에 묶어서 읽을 엔티티 수
+     * (hibernate.default_batch_fetch_size가 설정되지 않았다면 이 값을 사용, 0이면 설정하지 않음)
+     */
+    private int fetchBatchSize = 100;
+
+    /**
+     * 방 동기화 방식 (stateful, stateless).
+     * stateless는 StatelessSession으로 INSERT/UPDATE만 실행해 영속성 컨텍스트(find, merge, dirty checking) 비용 없이 씁니다.
+     * 매우 큰 방의 플러시 시간과 힙 사용을 줄일 때 사용합니다.
+     */
+    private String mode = "stateful";
+
+    /**
+     * 캐시 변경분을 주기적으로 DB에 반영하는 write-behind 설정
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 방이 비었을 때의 DB 동기화(플러시) 실행 설정
+     */
+    private Flush flush = new Flush();
+
+    /**
+     * 캐시 변경을 아웃박스(Redis Stream / 인메모리 큐)로 발행하고 별도 소비자가 DB에 반영하는 설정
+     */
+    private Outbox outbox = new Outbox();
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        /**
+         * 방이 비기 전에도 변경된 엔티티를 주기적으로 DB에 반영할지 여부
+         */
+        private boolean enabled = false;
+
+        /**
+         * 플러시 주기 (단위: 초)
+         */
+        private long interval = 10;
+
+        /**
+         * 마지막 플러시 이후 변경 건수가 이 값에 도달하면 주기를 기다리지 않고 플러시합니다.
+         * 0이면 주기적으로만 플러시합니다.
+         */
+        private int threshold = 500;
+
+        /**
+         * 한 트랜잭션에서 반영할 최대 엔티티 수
+         */
+        private int batchSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Flush {
+        /**
+         * 동시에 DB에 반영할 수 있는 방의 수. 방마다 DB 커넥션을 하나씩 사용하므로
+         * 커넥션 풀 크기보다 작게 설정해야 합니다.
+         */
+        private int parallelism = 4;
+
+        /**
+         * 서버 종료 시 남은 플러시를 기다리는 최대 시간 (단위: 초).
+         * 종료 유예 시간(graceful shutdown timeout)보다 짧게 설정해야 합니다.
+         */
+        private long shutdownTimeout = 25;
+
+        /**
+         * 방 DB 동기화 임대(lease) 유효 시간 (단위: 초).
+         * 동기화 중에는 1/3 주기로 갱신하며, 커밋 직전에 임대(펜싱 토큰)를 잃었으면 롤백합니다.
+         */
+        private long leaseTimeout = 30;
+
+        /**
+         * 이 노드의 플러시 담당 ID. 비어 있으면 기동 시 임의로 생성합니다.
+         */
+        private String nodeId = "";
+
+        /**
+         * 일관된 해싱(consistent hashing) 링에 노드마다 배치할 가상 노드 수
+         */
+        private int virtualNodes = 64;
+
+        /**
+         * 노드 등록 갱신 및 담당 방의 대기 중인 플러시 요청 확인 주기 (단위: 초)
+         */
+        private long sweepInterval = 2;
+
+        /**
+         * 이 시간(초) 동안 등록을 갱신하지 않은 노드는 링에서 빠지고 담당 방이 다른 노드로 넘어갑니다.
+         */
+        private long nodeTimeout = 15;
+
+        /**
+         * 실패한 방 플러시를 다시 시도하기까지 기다리는 최대 시간 (단위: 초).
+         * 대기 목록에 남겨 두고 sweep-interval부터 실패할 때마다 두 배씩 늘립니다.
+         */
+        private long retryMaxBackoff = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        /**
+         * 캐시 변경과 방 플러시 요청을 아웃박스로 발행할지 여부.
+         * 활성화하면 마지막 사용자가 나간 노드가 직접 DB에 반영하지 않고 소비자에게 맡깁니다.
+         */
+        private boolean enabled = false;
+
+        /**
+         * 이 노드에서 아웃박스를 소비해 DB에 반영할지 여부.
+         * 웹소켓 노드는 false, 별도 프로필로 띄운 persister 노드는 true로 설정할 수 있습니다.
+         * (인메모리 캐시에서는 같은 프로세스에서만 소비할 수 있습니다)
+         */
+        private boolean consume = true;
+
+        /**
+         * Redis Stream 키
+         */
+        private String streamKey = "sharedsync:outbox";
+
+        /**
+         * Redis Stream 소비자 그룹 이름
+         */
+        private String consumerGroup = "sharedsync-persister";
+
+        /**
+         * 한 번에 읽어 하나의 트랜잭션으로 반영할 최대 이벤트 수
+         */
+        private int batchSize = 200;
+
+        /**
+         * 새 이벤트를 기다리는 최대 시간 (단위: 밀리초)
+         */
+        private long pollTimeout = 1000;
+
+        /**
+         * 이 시간(단위: 초) 이상 처리 완료(ack)되지 않은 이벤트는 다른 소비자가 가져가 다시 처리합니다.
+         */
+        private long claimIdle = 60;
+
+        /**
+         * Redis Stream이 이 길이(이벤트 수)를 넘으면 처리 완료(ack)된 이벤트를 정리합니다.
+         * 처리되지 않은 이벤트는 지우지 않으므로 스트림이 더 길어질 수 있습니다.
+         */
+        private long maxLength = 100000;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sharedsync.shared.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sharedsync.history")
+public class SharedSyncHistoryProperties {
+
+    /**
+     * 세션별 undo 스택에 보관할 최대 작업 수
+     */
+    private int maxEntries = 50;
+
+    /**
+     * 세션별 undo/redo 기록이 차지할 수 있는 최대 크기 (단위: 바이트).
+     * 넘으면 가장 오래된 기록부터 버립니다.
+     */
+    private long maxBytesPerSession = 1024 * 1024;
+
+    /**
+     * 방 하나의 모든 세션 기록을 합친 최대 크기 (단위: 바이트). 작업 로그를 쓰면 방 작업 로그에도 따로 적용합니다.
+     * 넘으면 기록하는 세션의 가장 오래된 기록부터 버립니다. 다른 세션의 기록은 건드리지 않으므로,
+     * 다른 세션들이 이미 한도를 채웠으면 기록하는 세션은 방금 넣은 작업 하나만 남을 수 있습니다.
+     */
+    private long maxBytesPerRoom = 8 * 1024 * 1024;
+
+    /**
+     * 마지막 기록 이후 이 시간이 지나도록 쓰이지 않은 세션 기록(과 방 작업 로그)을 버립니다. (단위: 초, 0이면 만료 없음)
+     */
+    private long ttl = 6 * 60 * 60;
+
+    /**
+     * 방 단위 작업 로그(타임라인) 설정
+     */
+    private Timeline timeline = new Timeline();
+
+    @Getter
+    @Setter
+    public static class Timeline {
+        /**
+         * 방 단위 작업 로그 사용 여부. 켜면 세션별 undo/redo 스택에는 작업 대신 로그 순번만 저장합니다.
+         */
+        private boolean enabled = false;
+
+        /**
+         * 이 개수의 작업마다 방 전체 상태를 체크포인트로 저장합니다.
+         */
+        private int checkpointInterval = 100;
+
+        /**
+         * 체크포인트 시 남겨 둘 최근 작업 수. 더 오래된 작업은 지워지지만, 세션 undo/redo 스택이 가리키는 작업은 남깁니다.
+         * 작업 로그 전체는 max-bytes-per-room과 ttl로 제한되며, 한도 때문에 지워진 작업은 undo/redo할 수 없습니다.
+         */
+        private int retainEntries = 500;
+    }
+}
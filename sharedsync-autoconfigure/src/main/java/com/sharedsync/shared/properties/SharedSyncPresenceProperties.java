@@ -28,6 +28,13 @@ public class SharedSyncPresenceProperties {
      */
     private long broadcastDelay = 1000;
 
+    /**
+     * 방 최초 로딩 임대(lease) 유효 시간 (단위: 초).
+     * 로딩 중인 노드는 임대를 계속 연장하며, 비정상 종료되면 이 시간이 지난 뒤 다른 노드가 로딩을 이어받습니다.
+     * 대기 중인 입장 요청은 최대 이 시간만큼 로딩 완료를 기다리고, 그래도 끝나지 않으면 입장이 실패합니다.
+     */
+    private long initLockTimeout = 60;
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -59,4 +66,12 @@ public class SharedSyncPresenceProperties {
     public void setBroadcastDelay(long broadcastDelay) {
         this.broadcastDelay = broadcastDelay;
     }
+
+    public long getInitLockTimeout() {
+        return initLockTimeout;
+    }
+
+    public void setInitLockTimeout(long initLockTimeout) {
+        this.initLockTimeout = initLockTimeout;
+    }
 }
@@ -1,39 +1,61 @@
 package com.sharedsync.shared.repository;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import org.hibernate.StatelessSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.sharedsync.shared.annotation.Cache;
 import com.sharedsync.shared.annotation.CacheId;
 import com.sharedsync.shared.annotation.EntityConverter;
 import com.sharedsync.shared.annotation.IgnoreShared;
 import com.sharedsync.shared.annotation.ParentId;
+import com.sharedsync.shared.annotation.SyncFence;
 import com.sharedsync.shared.annotation.TableName;
 import com.sharedsync.shared.dto.CacheDto;
 import com.sharedsync.shared.history.HistoryAction;
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
 
 /**
@@ -62,9 +84,52 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
     private final Class<ID> idClass;
     private final String redisTemplateBeanName;
     private final List<Field> ignoredEntityFields;
+    private final Field fenceField;
 
     private final List<Field> dtoFields;
 
+    private volatile List<CacheMutationListener> mutationListeners;
+    private volatile boolean dirtyTracking;
+    private volatile Boolean bulkDeletable;
+    private volatile SharedSyncCacheProperties.ReadThrough readThroughSettings;
+
+    // read-through: 진행 중인 DB 로딩과, 최근 DB에도 없던 키의 만료 시각
+    private static final int MAX_MISSING_KEYS = 10_000;
+    // 부모를 따라 방을 찾지 못한 tombstone (모든 방이 닫혔을 때 삭제)
+    private static final String UNSCOPED_ROOM = "_";
+    private final Map<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Map<String, Long> missingKeys = new ConcurrentHashMap<>();
+    private volatile FetchPlan fetchPlan;
+    private volatile Optional<TransactionTemplate> readTransaction;
+    private final Map<Class<?>, Optional<AutoCacheRepository<?, ?, ?>>> repositoriesByEntity = new ConcurrentHashMap<>();
+
+    /**
+     * DB 로딩/동기화처럼 사용자 편집이 아닌 캐시 변경을 표시합니다.
+     * 이 상태에서는 dirty/tombstone 표시를 하지 않습니다.
+     */
+    private static final ThreadLocal<Boolean> SYSTEM_OPERATION = ThreadLocal.withInitial(() -> false);
+
+    public static boolean isSystemOperation() {
+        return Boolean.TRUE.equals(SYSTEM_OPERATION.get());
+    }
+
+    public static void runAsSystemOperation(Runnable action) {
+        runAsSystemOperation(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <R> R runAsSystemOperation(Supplier<R> action) {
+        boolean previous = isSystemOperation();
+        SYSTEM_OPERATION.set(true);
+        try {
+            return action.get();
+        } finally {
+            SYSTEM_OPERATION.set(previous);
+        }
+    }
+
     public Class<DTO> getDtoClass() {
         return dtoClass;
     }
@@ -136,15 +201,20 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         Class<ID> detectedIdClass = (Class<ID>) detectedEntityIdField.getType();
         this.idClass = detectedIdClass;
 
-        // @IgnoreShared 필드 미리 캐싱 (동기화 시 보존용)
+        // @IgnoreShared, @SyncFence 필드 미리 캐싱 (동기화 시 보존용)
         List<Field> ignored = new ArrayList<>();
+        Field detectedFenceField = null;
         for (Field f : getEntityClass().getDeclaredFields()) {
-            if (f.isAnnotationPresent(IgnoreShared.class)) {
+            if (f.isAnnotationPresent(SyncFence.class)) {
+                detectedFenceField = f;
+            }
+            if (f.isAnnotationPresent(IgnoreShared.class) || f.isAnnotationPresent(SyncFence.class)) {
                 f.setAccessible(true);
                 ignored.add(f);
             }
         }
         this.ignoredEntityFields = Collections.unmodifiableList(ignored);
+        this.fenceField = detectedFenceField;
 
         this.dtoFields = Arrays.stream(dtoClass.getDeclaredFields())
                 .filter(field -> !Modifier.isStatic(field.getModifiers()))
@@ -156,7 +226,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
     @Override
     public Optional<T> findById(ID id) {
-        DTO dto = getCacheStore().hashGet(getRedisKey(id), String.valueOf(id));
+        DTO dto = findDtoById(id);
         if (dto == null) {
             return Optional.empty();
         }
@@ -175,6 +245,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
     @Override
     public boolean existsById(ID id) {
+        id = resolveId(id);
         return getCacheStore().hashGet(getRedisKey(id), String.valueOf(id)) != null;
     }
 
@@ -184,7 +255,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
             return Collections.emptyList();
         }
         List<String> fields = new ArrayList<>();
-        ids.forEach(id -> fields.add(String.valueOf(id)));
+        ids.forEach(id -> fields.add(String.valueOf(resolveId(id))));
 
         if (fields.isEmpty())
             return Collections.emptyList();
@@ -207,6 +278,12 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
             DTO dto = iterator.next();
             ID id = extractId(dto);
             id = changeType(id);
+            ID resolvedId = resolveId(id);
+            if (!Objects.equals(id, resolvedId)) {
+                dto = updateDtoWithId(dto, resolvedId);
+                iterator.set(dto);
+                id = resolvedId;
+            }
 
             if (id == null) {
                 Object temporaryId = null;
@@ -240,6 +317,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                     // ignore
                 }
             }
+            afterCacheSave(id, dto);
         }
         return dtos;
     }
@@ -262,6 +340,70 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         return "P_IDX:" + parentClass.getSimpleName() + ":" + parentId;
     }
 
+    private String getFingerprintField(Object id) {
+        return "FP:" + id;
+    }
+
+    private boolean isMetaField(String field) {
+        return field.startsWith("P_IDX:") || field.startsWith("FP:") || field.startsWith("ALIAS:")
+                || field.startsWith("ALIASED:");
+    }
+
+    /**
+     * DTO 필드 값으로 계산한 내용 해시.
+     * DB와 마지막으로 맞춰진 시점(로딩/동기화)의 값을 저장해 두고, 동기화 시 변경 여부를 판단합니다.
+     */
+    private String fingerprint(DTO dto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Field field : dtoFields) {
+                Object value = field.get(dto);
+                String text = value instanceof Object[] array ? Arrays.deepToString(array) : String.valueOf(value);
+                digest.update(field.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '=');
+                digest.update(text.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * DB와 일치하는 상태의 DTO 해시를 기록합니다.
+     */
+    private void rememberFingerprint(DTO dto) {
+        ID id = extractId(dto);
+        if (id == null || isTemporaryId(id)) {
+            return;
+        }
+        String fingerprint = fingerprint(dto);
+        if (fingerprint != null) {
+            getCacheStore().hashSetString(getRedisKey(id), getFingerprintField(id), fingerprint);
+        }
+    }
+
+    /**
+     * 마지막 로딩/동기화 이후 내용이 바뀌지 않은 영속 엔티티인지 확인합니다.
+     */
+    private boolean isUnchangedSinceSync(DTO dto) {
+        ID id = extractId(dto);
+        if (id == null || isTemporaryId(id)) {
+            return false;
+        }
+        String stored = getCacheStore().hashGetString(getRedisKey(id), getFingerprintField(id));
+        return stored != null && stored.equals(fingerprint(dto));
+    }
+
+    /**
+     * 캐시 DTO가 마지막 로딩/동기화 이후 바뀌지 않았는지 확인합니다. (임시 ID는 항상 바뀐 것으로 봄)
+     */
+    @SuppressWarnings("unchecked")
+    public boolean isUnchangedSinceSyncUnchecked(Object dto) {
+        return dto != null && isUnchangedSinceSync((DTO) dto);
+    }
+
     private void addIdToParentIndex(String hashKey, Class<?> parentClass, Object parentId, ID id) {
         if (parentId == null || parentClass == null)
             return;
@@ -302,6 +444,665 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         }
     }
 
+    // ==== 변경 추적 (write-behind, tombstone) ====
+
+    private String getDirtyKey() {
+        return cacheKeyPrefix + ":DIRTY";
+    }
+
+    /**
+     * 사용자가 삭제한 영속 엔티티 ID 집합. DB 동기화 시 이 집합만 보고 삭제하므로
+     * DB의 기존 행을 모두 읽어 캐시와 비교할 필요가 없습니다.
+     */
+    private String getTombstoneKey() {
+        return cacheKeyPrefix + ":TOMBSTONE";
+    }
+
+    /**
+     * 방(rootId)별 tombstone 목록. 방 동기화는 자기 방에서 삭제된 엔티티만 DB에서 지웁니다.
+     * 전체 집합(getTombstoneKey)이 기준이며, 되살린 엔티티의 항목은 읽을 때 정리합니다.
+     */
+    private String getRoomTombstoneKey(String rootId) {
+        return getTombstoneKey() + ":" + (rootId != null ? rootId : UNSCOPED_ROOM);
+    }
+
+    private List<CacheMutationListener> getMutationListeners() {
+        List<CacheMutationListener> listeners = mutationListeners;
+        if (listeners == null) {
+            listeners = applicationContext.getBeanProvider(CacheMutationListener.class).orderedStream().toList();
+            dirtyTracking = listeners.stream().anyMatch(CacheMutationListener::tracksDirtyIds);
+            mutationListeners = listeners;
+        }
+        return listeners;
+    }
+
+    /**
+     * 캐시에 DTO가 기록된 후 호출합니다.
+     * 사용자 편집이면 tombstone을 지우고 DB 반영 대상으로 표시합니다.
+     */
+    private void afterCacheSave(ID id, DTO dto) {
+        if (id == null) {
+            return;
+        }
+        List<CacheMutationListener> listeners = getMutationListeners();
+        forgetMissing(id, dto);
+        if (!isSystemOperation()) {
+            String idStr = String.valueOf(id);
+            if (!isTemporaryId(id) && getCacheStore().isSetMember(getTombstoneKey(), idStr)) {
+                // 삭제 후 되살린 엔티티(undo)는 더 이상 삭제 대상이 아님
+                getCacheStore().removeFromSet(getTombstoneKey(), idStr);
+                getCacheStore().removeFromSet(getRoomTombstoneKey(findRootId(dto)), idStr);
+            }
+            if (dirtyTracking) {
+                getCacheStore().addToSet(getDirtyKey(), idStr);
+            }
+        }
+        listeners.forEach(listener -> listener.onSaved(this, dto));
+    }
+
+    /**
+     * 캐시에서 엔티티가 제거된 후 호출합니다.
+     * 사용자 편집이면 tombstone을 남깁니다. 아직 DB에 없는 임시 ID는 남길 필요가 없습니다.
+     * 하위 엔티티부터 지우므로 이 시점에는 부모가 아직 캐시에 있어 속한 방을 찾을 수 있습니다.
+     */
+    private void afterCacheDelete(ID id, DTO dto) {
+        if (id == null) {
+            return;
+        }
+        List<CacheMutationListener> listeners = getMutationListeners();
+        if (!isSystemOperation()) {
+            String idStr = String.valueOf(id);
+            if (!isTemporaryId(id)) {
+                getCacheStore().addToSet(getTombstoneKey(), idStr);
+                getCacheStore().addToSet(getRoomTombstoneKey(findRootId(dto)), idStr);
+            }
+            if (dirtyTracking) {
+                getCacheStore().removeFromSet(getDirtyKey(), idStr);
+            }
+        }
+        listeners.forEach(listener -> listener.onDeleted(this, id));
+    }
+
+    /**
+     * DB 반영을 기다리는 저장/수정 ID 목록
+     */
+    public List<Object> findDirtyIds() {
+        return readIdSet(getDirtyKey());
+    }
+
+    /**
+     * DB 삭제를 기다리는 ID 목록 (tombstone)
+     */
+    public List<Object> findTombstones() {
+        return readIdSet(getTombstoneKey());
+    }
+
+    /**
+     * 방(rootId)에서 삭제되어 DB 삭제를 기다리는 ID 목록. rootId가 null이면 방을 찾지 못한 tombstone
+     */
+    public List<Object> findRoomTombstones(String rootId) {
+        String roomKey = getRoomTombstoneKey(rootId);
+        List<Object> ids = new ArrayList<>();
+        for (Object id : readIdSet(roomKey)) {
+            if (getCacheStore().isSetMember(getTombstoneKey(), String.valueOf(id))) {
+                ids.add(id);
+            } else {
+                getCacheStore().removeFromSet(roomKey, String.valueOf(id)); // 되살렸거나 이미 처리됨
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 사용자가 삭제해 DB 삭제를 기다리는 ID인지 확인합니다.
+     */
+    public boolean isTombstoned(Object id) {
+        return id != null && getCacheStore().isSetMember(getTombstoneKey(), String.valueOf(id));
+    }
+
+    public void markDirtyUnchecked(Object id) {
+        ID typedId = changeType(id);
+        if (typedId != null) {
+            getCacheStore().addToSet(getDirtyKey(), String.valueOf(typedId));
+        }
+    }
+
+    public void clearDirtyUnchecked(Object id) {
+        if (id != null) {
+            getCacheStore().removeFromSet(getDirtyKey(), String.valueOf(id));
+        }
+    }
+
+    /**
+     * 방을 알 수 없는 tombstone을 남깁니다. (복구 등, 열린 방이 없을 때 삭제됨)
+     */
+    public void markTombstoneUnchecked(Object id) {
+        ID typedId = changeType(id);
+        if (typedId != null && !isTemporaryId(typedId)) {
+            getCacheStore().addToSet(getTombstoneKey(), String.valueOf(typedId));
+            getCacheStore().addToSet(getRoomTombstoneKey(null), String.valueOf(typedId));
+        }
+    }
+
+    public void clearTombstoneUnchecked(Object id) {
+        if (id != null) {
+            getCacheStore().removeFromSet(getTombstoneKey(), String.valueOf(id));
+        }
+    }
+
+    /**
+     * 방 tombstone을 전체 집합과 방 목록에서 함께 지웁니다.
+     */
+    public void clearRoomTombstonesUnchecked(String rootId, Collection<?> ids) {
+        String roomKey = getRoomTombstoneKey(rootId);
+        for (Object id : ids) {
+            getCacheStore().removeFromSet(getTombstoneKey(), String.valueOf(id));
+            getCacheStore().removeFromSet(roomKey, String.valueOf(id));
+        }
+    }
+
+    /**
+     * 캐시에 남아 있는 부모를 따라 올라가 엔티티가 속한 방(루트 ID)을 찾습니다. 중간 부모가 캐시에 없으면 null
+     */
+    private String findRootId(DTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        if (parentIdFields.isEmpty()) {
+            ID id = extractId(dto);
+            return id != null ? String.valueOf(id) : null;
+        }
+        for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
+            AutoCacheRepository<?, ?, ?> parentRepository = repositoryForEntity(entry.getValue());
+            Object parentId;
+            try {
+                parentId = entry.getKey().get(dto);
+            } catch (IllegalAccessException e) {
+                continue;
+            }
+            if (parentRepository == null || parentId == null) {
+                continue;
+            }
+            Object parentDto = parentRepository.findDtoByIdUnchecked(parentId);
+            if (parentDto != null) {
+                return parentRepository.findRootIdUnchecked(parentDto);
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public String findRootIdUnchecked(Object dto) {
+        return findRootId((DTO) dto);
+    }
+
+    private List<Object> readIdSet(String key) {
+        Set<String> members = getCacheStore().getSet(key);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> ids = new ArrayList<>(members.size());
+        for (String member : members) {
+            try {
+                ID id = changeType(member);
+                if (id != null) {
+                    ids.add(id);
+                }
+            } catch (IllegalArgumentException e) {
+                getCacheStore().removeFromSet(key, member);
+            }
+        }
+        return ids;
+    }
+
+    // ==== ID 별칭 (임시 ID → 영속 ID) ====
+
+    private String getAliasField(Object temporaryId) {
+        return "ALIAS:" + temporaryId;
+    }
+
+    private String getAliasedField(Object persistedId) {
+        return "ALIASED:" + persistedId;
+    }
+
+    /**
+     * 하위 캐시에 아직 임시 부모 ID로 남아 있을 수 있는 (정리 대기 중인) 임시 ID 집합
+     */
+    private String getAliasPendingKey() {
+        return cacheKeyPrefix + ":ALIAS_PENDING";
+    }
+
+    /**
+     * 임시 ID로 저장된 엔티티가 영속화되면 별칭을 등록합니다.
+     * 하위 엔티티의 부모 ID는 바로 고치지 않고, 조회/인덱스/DB 반영 시 별칭으로 해석합니다.
+     */
+    private void registerAlias(ID temporaryId, ID persistedId) {
+        String hashKey = getRedisKey(persistedId);
+        getCacheStore().hashSetString(hashKey, getAliasField(temporaryId), String.valueOf(persistedId));
+        getCacheStore().hashSetString(hashKey, getAliasedField(persistedId), String.valueOf(temporaryId));
+        getCacheStore().addToSet(getAliasPendingKey(), String.valueOf(temporaryId));
+        getMutationListeners().forEach(listener -> listener.onIdAliased(this, temporaryId, persistedId));
+    }
+
+    /**
+     * 저널 복구 등에서 기록된 별칭을 다시 등록합니다.
+     */
+    public void restoreAliasUnchecked(Object temporaryId, Object persistedId) {
+        ID temporary = changeType(temporaryId);
+        ID persisted = changeType(persistedId);
+        if (isTemporaryId(temporary) && persisted != null && !isTemporaryId(persisted)) {
+            registerAlias(temporary, persisted);
+        }
+    }
+
+    public void discardAliasUnchecked(Object persistedId) {
+        ID typedId = changeType(persistedId);
+        if (typedId != null) {
+            removeAlias(typedId);
+        }
+    }
+
+    private void removeAlias(ID persistedId) {
+        String hashKey = getRedisKey(persistedId);
+        String temporaryId = getCacheStore().hashGetString(hashKey, getAliasedField(persistedId));
+        if (temporaryId == null) {
+            return;
+        }
+        getCacheStore().hashDelete(hashKey, getAliasField(temporaryId));
+        getCacheStore().hashDelete(hashKey, getAliasedField(persistedId));
+        getCacheStore().removeFromSet(getAliasPendingKey(), temporaryId);
+    }
+
+    /**
+     * 별칭이 등록된 임시 ID면 영속 ID를, 아니면 그대로 반환합니다.
+     */
+    protected final ID resolveId(ID id) {
+        if (!isTemporaryId(id)) {
+            return id;
+        }
+        String persistedId = getCacheStore().hashGetString(getRedisKey(id), getAliasField(id));
+        return persistedId != null ? changeType(persistedId) : id;
+    }
+
+    public Object resolveIdUnchecked(Object id) {
+        try {
+            ID typedId = changeType(id);
+            return typedId != null ? resolveId(typedId) : id;
+        } catch (IllegalArgumentException e) {
+            return id;
+        }
+    }
+
+    /**
+     * 영속 ID에 대응하는 임시 ID (별칭이 없으면 null)
+     */
+    public Object findTemporaryAliasUnchecked(Object persistedId) {
+        if (persistedId == null || isTemporaryId(persistedId)) {
+            return null;
+        }
+        return getCacheStore().hashGetString(getRedisKey(null), getAliasedField(persistedId));
+    }
+
+    /**
+     * 정리 대기 중인 별칭 (임시 ID → 영속 ID)
+     */
+    public Map<Object, Object> findPendingAliases() {
+        Map<Object, Object> aliases = new LinkedHashMap<>();
+        for (Object temporaryId : readIdSet(getAliasPendingKey())) {
+            String persistedId = getCacheStore().hashGetString(getRedisKey(null), getAliasField(temporaryId));
+            if (persistedId == null) {
+                getCacheStore().removeFromSet(getAliasPendingKey(), String.valueOf(temporaryId));
+            } else {
+                aliases.put(temporaryId, changeType(persistedId));
+            }
+        }
+        return aliases;
+    }
+
+    /**
+     * 별칭 하나에 대해 하위 캐시의 임시 부모 ID를 영속 ID로 바꿉니다. (백그라운드 정리)
+     * 별칭 자체는 캐시에서 내릴 때까지 남겨, 임시 ID를 들고 있는 클라이언트 요청도 계속 해석합니다.
+     * 그 사이 다른 편집으로 내용이 바뀐 하위 엔티티는 덮어쓰지 않고 건너뛰며, 이때 별칭은 정리 대기로 남아 다음에 다시 시도합니다.
+     * 방 동기화 임대를 잡은 노드에서만 호출합니다. (IdAliasCompactor)
+     * @return 하위 캐시를 모두 바꿔 정리 대기에서 뺐으면 true
+     */
+    public boolean compactAlias(Object temporaryId, Object persistedId) {
+        if (!propagateParentIdChange(changeType(temporaryId), changeType(persistedId))) {
+            return false;
+        }
+        getCacheStore().removeFromSet(getAliasPendingKey(), String.valueOf(temporaryId));
+        return true;
+    }
+
+    /**
+     * 별칭의 영속 ID 엔티티가 속한 방 (캐시에서 찾지 못하면 null)
+     */
+    public String findAliasRootId(Object persistedId) {
+        return findRootId(findCachedDtoById(changeType(persistedId)));
+    }
+
+    /**
+     * 엔티티 클래스를 담당하는 리포지토리 (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    private AutoCacheRepository<?, ?, ?> repositoryForEntity(Class<?> entityClass) {
+        if (entityClass == null) {
+            return null;
+        }
+        return repositoriesByEntity.computeIfAbsent(entityClass, key -> {
+            Map<String, AutoCacheRepository<?, ?, ?>> repositories = (Map<String, AutoCacheRepository<?, ?, ?>>) (Map<?, ?>) applicationContext
+                    .getBeansOfType(AutoCacheRepository.class);
+            for (AutoCacheRepository<?, ?, ?> repository : repositories.values()) {
+                if (key.isAssignableFrom(repository.getEntityClass())) {
+                    return Optional.of(repository);
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * 임시 부모 ID를 부모 리포지토리의 별칭으로 해석합니다.
+     */
+    private Object resolveParentId(Class<?> parentClass, Object parentId) {
+        if (!isTemporaryId(parentId)) {
+            return parentId;
+        }
+        AutoCacheRepository<?, ?, ?> parentRepository = repositoryForEntity(parentClass);
+        return parentRepository != null ? parentRepository.resolveIdUnchecked(parentId) : parentId;
+    }
+
+    /**
+     * 같은 부모를 가리키는 ID들 (전달된 ID, 영속 ID, 아직 정리되지 않은 임시 ID)
+     */
+    private Set<String> equivalentParentIds(Class<?> parentClass, Object parentId) {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(String.valueOf(parentId));
+        AutoCacheRepository<?, ?, ?> parentRepository = repositoryForEntity(parentClass);
+        if (parentRepository != null) {
+            Object persistedId = parentRepository.resolveIdUnchecked(parentId);
+            ids.add(String.valueOf(persistedId));
+            Object temporaryId = parentRepository.findTemporaryAliasUnchecked(persistedId);
+            if (temporaryId != null) {
+                ids.add(String.valueOf(temporaryId));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 부모 ID 중 아직 영속화되지 않은 (별칭도 없는) 임시 ID가 있는지 확인합니다.
+     */
+    private boolean hasUnresolvedTemporaryParent(DTO dto) {
+        for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
+            try {
+                Object parentId = entry.getKey().get(dto);
+                if (isTemporaryId(parentId) && isTemporaryId(resolveParentId(entry.getValue(), parentId))) {
+                    return true;
+                }
+            } catch (IllegalAccessException e) {
+                // ignore
+            }
+        }
+        return false;
+    }
+
+    // ==== Read-through (캐시 미스 시 DB 로딩) ====
+
+    private SharedSyncCacheProperties.ReadThrough getReadThroughSettings() {
+        SharedSyncCacheProperties.ReadThrough settings = readThroughSettings;
+        if (settings == null) {
+            SharedSyncCacheProperties properties = applicationContext
+                    .getBeanProvider(SharedSyncCacheProperties.class).getIfAvailable();
+            settings = properties != null ? properties.getReadThrough() : new SharedSyncCacheProperties.ReadThrough();
+            readThroughSettings = settings;
+        }
+        return settings;
+    }
+
+    /**
+     * 사용자 조회의 캐시 미스만 DB에서 읽습니다.
+     * 내부 동기화/로딩 중이거나 아직 DB에 없는 임시 ID는 캐시가 기준입니다.
+     */
+    private boolean readThroughAllowed(Object id) {
+        return id != null && getReadThroughSettings().isEnabled() && !isSystemOperation() && !isTemporaryId(id);
+    }
+
+    private DTO readThroughById(ID id) {
+        String key = "ID:" + id;
+        if (isTombstoned(id) || isKnownMissing(key)) {
+            return null; // 삭제했거나 최근 DB에도 없던 ID
+        }
+        DTO dto = loadOnce(key, () -> loadFromDatabaseById(id), this::copyDto);
+        if (dto == null) {
+            rememberMissing(key);
+        } else {
+            rememberReadThrough(id);
+        }
+        return dto;
+    }
+
+    private List<DTO> readThroughByParentId(Object parentId, Class<?> parentClass) {
+        Class<?> resolvedParentClass = parentClass;
+        if (resolvedParentClass == null) {
+            Set<Class<?>> parentClasses = new LinkedHashSet<>(parentEntityClassMap.values());
+            if (parentClasses.size() != 1) {
+                return Collections.emptyList(); // 어느 부모인지 모르면 DB를 읽지 않음
+            }
+            resolvedParentClass = parentClasses.iterator().next();
+        }
+
+        // 부모가 캐시에 있으면 캐시의 자식 목록이 기준 (비어 있는 것도 유효한 결과)
+        AutoCacheRepository<?, ?, ?> parentRepository = repositoryForEntity(resolvedParentClass);
+        if (parentRepository != null && (parentRepository.findDtoByIdUnchecked(parentId) != null
+                || parentRepository.isTombstoned(parentId))) {
+            return Collections.emptyList();
+        }
+
+        String key = "P:" + resolvedParentClass.getSimpleName() + ":" + parentId;
+        if (isKnownMissing(key)) {
+            return Collections.emptyList();
+        }
+        Class<?> loadParentClass = resolvedParentClass;
+        List<DTO> dtos = loadOnce(key, () -> loadFromDatabaseByParentId(parentId, loadParentClass),
+                loaded -> loaded.stream().map(this::copyDto).toList());
+        if (dtos == null || dtos.isEmpty()) {
+            rememberMissing(key);
+            return Collections.emptyList();
+        }
+        dtos.forEach(dto -> rememberReadThrough(extractId(dto)));
+        return dtos;
+    }
+
+    /**
+     * 같은 키로 동시에 들어온 DB 로딩을 하나로 합칩니다. 먼저 온 요청만 DB를 읽고 나머지는 결과를 기다립니다.
+     * 기다린 요청은 copier로 만든 자기 복사본을 받으므로, 한 요청이 결과를 고쳐도 다른 요청에 보이지 않습니다.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R loadOnce(String key, Supplier<R> loader, UnaryOperator<R> copier) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlightLoads.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                R shared = (R) existing.join();
+                return shared != null ? copier.apply(shared) : null;
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            R result = loader.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, mine);
+        }
+    }
+
+    /**
+     * DTO 필드를 새 인스턴스에 옮깁니다. 컬렉션 필드는 새 컬렉션으로 감싸 원본과 공유하지 않습니다.
+     */
+    private DTO copyDto(DTO source) {
+        if (source == null) {
+            return null;
+        }
+        try {
+            Constructor<DTO> constructor = dtoClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            DTO copy = constructor.newInstance();
+            for (Field field : dtoFields) {
+                if (Modifier.isFinal(field.getModifiers())) {
+                    continue;
+                }
+                Object value = field.get(source);
+                if (value instanceof List<?> list) {
+                    value = new ArrayList<>(list);
+                } else if (value instanceof Set<?> set) {
+                    value = new LinkedHashSet<>(set);
+                } else if (value instanceof Map<?, ?> map) {
+                    value = new LinkedHashMap<>(map);
+                }
+                field.set(copy, value);
+            }
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot copy " + dtoClass.getSimpleName()
+                    + " (no-arg constructor required): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * read-through로 채운 엔티티 ID → 만료 시각(ms). 방이 열리지 않은 채 남은 항목을 정리할 때 씁니다.
+     */
+    private String getReadThroughKey() {
+        return cacheKeyPrefix + ":READ_THROUGH";
+    }
+
+    private void rememberReadThrough(ID id) {
+        long ttlMillis = getReadThroughSettings().getTtl() * 1000L;
+        if (id == null || ttlMillis <= 0) {
+            return;
+        }
+        getCacheStore().hashSetString(getReadThroughKey(), String.valueOf(id),
+                String.valueOf(System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * read-through로 채운 뒤 ttl이 지난 엔티티 ID 목록
+     */
+    public List<Object> findExpiredReadThroughIds() {
+        String key = getReadThroughKey();
+        Set<String> ids = getCacheStore().hashkeys(key);
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long now = System.currentTimeMillis();
+        List<Object> expired = new ArrayList<>();
+        for (String id : ids) {
+            String expiresAt = getCacheStore().hashGetString(key, id);
+            try {
+                if (expiresAt != null && Long.parseLong(expiresAt) > now) {
+                    continue;
+                }
+            } catch (NumberFormatException e) {
+                // 알 수 없는 값은 만료로 봄
+            }
+            ID typedId = changeType(id);
+            if (typedId == null) {
+                getCacheStore().hashDelete(key, id);
+                continue;
+            }
+            expired.add(typedId);
+        }
+        return expired;
+    }
+
+    /**
+     * read-through 항목이 속한 방. 캐시에서 이미 내려갔거나 방을 찾지 못하면 null
+     */
+    public String findReadThroughRootId(Object id) {
+        return findRootId(findCachedDtoById(changeType(id)));
+    }
+
+    /**
+     * 방 생명주기가 맡게 된 항목(방이 열렸거나 이미 캐시에서 내려감)은 ttl 기록만 지웁니다.
+     */
+    public void forgetReadThrough(Object id) {
+        getCacheStore().hashDelete(getReadThroughKey(), String.valueOf(id));
+    }
+
+    /**
+     * ttl이 지난 read-through 항목을 캐시에서 내립니다. 로딩 이후 편집된 항목은 DB에 반영될 때까지 남겨 다음 주기에 다시 확인합니다.
+     * @return 캐시에서 내렸으면 true
+     */
+    public boolean evictReadThrough(Object id) {
+        ID typedId = changeType(id);
+        DTO dto = typedId != null ? findCachedDtoById(typedId) : null;
+        if (dto == null) {
+            forgetReadThrough(id);
+            return false;
+        }
+        if (!isUnchangedSinceSync(dto)) {
+            return false;
+        }
+        runAsSystemOperation(() -> removeCacheEntry(typedId, dto));
+        forgetReadThrough(id);
+        return true;
+    }
+
+    private boolean isKnownMissing(String key) {
+        Long expiresAt = missingKeys.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt > System.currentTimeMillis()) {
+            return true;
+        }
+        missingKeys.remove(key, expiresAt);
+        return false;
+    }
+
+    private void rememberMissing(String key) {
+        long ttlMillis = getReadThroughSettings().getNegativeTtl() * 1000L;
+        if (ttlMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (missingKeys.size() >= MAX_MISSING_KEYS) {
+            missingKeys.values().removeIf(expiresAt -> expiresAt <= now);
+            if (missingKeys.size() >= MAX_MISSING_KEYS) {
+                return;
+            }
+        }
+        missingKeys.put(key, now + ttlMillis);
+    }
+
+    /**
+     * 캐시에 저장된 엔티티는 더 이상 "없음"이 아닙니다.
+     */
+    private void forgetMissing(ID id, DTO dto) {
+        if (missingKeys.isEmpty()) {
+            return;
+        }
+        missingKeys.remove("ID:" + id);
+        for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
+            try {
+                Object parentId = entry.getKey().get(dto);
+                if (parentId != null) {
+                    missingKeys.remove("P:" + entry.getValue().getSimpleName() + ":" + parentId);
+                }
+            } catch (IllegalAccessException e) {
+                // ignore
+            }
+        }
+    }
+
     /**
      * CacheStore를 반환합니다. Redis 또는 InMemory 구현체가 사용됩니다.
      */
@@ -389,6 +1190,12 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
             dto = updateDtoWithId(dto, (ID) temporaryId);
             id = extractId(dto);
+        } else if (isTemporaryId(id)) {
+            ID resolvedId = resolveId(id);
+            if (!Objects.equals(id, resolvedId)) {
+                dto = updateDtoWithId(dto, resolvedId);
+                id = resolvedId;
+            }
         }
 
         String hashKey = getRedisKey(id);
@@ -405,6 +1212,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                 // ignore
             }
         }
+        afterCacheSave(id, dto);
 
         return dto;
     }
@@ -423,13 +1231,19 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         if (id == null) {
             throw new IllegalArgumentException("update는 ID가 필수입니다. save를 사용하세요.");
         }
+        ID resolvedId = resolveId(id);
+        if (!Objects.equals(id, resolvedId)) {
+            dto = updateDtoWithId(dto, resolvedId);
+            id = resolvedId;
+        }
 
         String hashKey = getRedisKey(id);
         DTO existingDto = getCacheStore().hashGet(hashKey, String.valueOf(id));
         List<Object> oldParentIds = Collections.emptyList();
         if (existingDto != null) {
             oldParentIds = extractParentIds(existingDto);
-            dto = mergeDto(existingDto, dto);
+            // 캐시에 있던 인스턴스는 수정 전 상태로 남겨 둠 (히스토리의 before, 진행 중인 flush가 그대로 들고 있음)
+            dto = mergeDto(copyDto(existingDto), dto);
         }
 
         getCacheStore().hashSet(hashKey, String.valueOf(id), dto);
@@ -452,6 +1266,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                 // ignore
             }
         }
+        afterCacheSave(id, dto);
 
         return dto;
     }
@@ -604,6 +1419,13 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
     }
 
     private List<T> loadEntitiesByParentId(Object parentId, Class<?> parentClass) {
+        return loadEntitiesByParentId(parentId, parentClass, false);
+    }
+
+    /**
+     * @param forDto DTO로 변환할 엔티티면 fetch plan을 적용합니다. (DB 동기화에서 비교/삭제용으로 읽을 때는 적용하지 않음)
+     */
+    private List<T> loadEntitiesByParentId(Object parentId, Class<?> parentClass, boolean forDto) {
 
         if (entityManager == null) {
             return Collections.emptyList();
@@ -612,14 +1434,14 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         // 부모 필드가 있으면 Criteria로 조회
         if (!parentIdFields.isEmpty()) {
             try {
-                return loadEntitiesByCriteria(parentId, parentClass);
+                return loadEntitiesByCriteria(parentId, parentClass, forDto);
             } catch (Exception e) {
                 e.printStackTrace();
             }
         } else {
             // 부모 필드가 없으면 (루트 엔티티) 전체 조회
             try {
-                return loadAllEntitiesByCriteria();
+                return loadAllEntitiesByCriteria(forDto);
             } catch (Exception e) {
                 System.err.println("[SharedSync] Criteria API findAll 실패: " + e.getMessage());
             }
@@ -634,15 +1456,15 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
      */
     @SuppressWarnings("unchecked")
     private List<T> loadEntitiesByCriteria(Object parentId) {
-        return loadEntitiesByCriteria(parentId, null);
+        return loadEntitiesByCriteria(parentId, null, false);
     }
 
     @SuppressWarnings("unchecked")
-    private List<T> loadEntitiesByCriteria(Object parentId, Class<?> targetParentClass) {
+    private List<T> loadEntitiesByCriteria(Object parentId, Class<?> targetParentClass, boolean forDto) {
         Class<T> entityClass = getEntityClass();
 
         if (parentEntityClassMap.isEmpty() || entityManager == null) {
-            return loadAllEntitiesByCriteria();
+            return loadAllEntitiesByCriteria(forDto);
         }
 
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
@@ -694,21 +1516,43 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
             query.where(cb.or(predicates.toArray(new jakarta.persistence.criteria.Predicate[0])));
         }
 
-        return entityManager.createQuery(query).getResultList();
+        return loadWithPlan(query, root, forDto);
     }
 
     /**
      * JPA Criteria API를 사용하여 모든 엔티티 조회 (루트 엔티티용)
      */
     @SuppressWarnings("unchecked")
-    private List<T> loadAllEntitiesByCriteria() {
+    private List<T> loadAllEntitiesByCriteria(boolean forDto) {
         Class<T> entityClass = getEntityClass();
 
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<T> query = (CriteriaQuery<T>) cb.createQuery(entityClass);
-        query.from(entityClass);
+        Root<T> root = (Root<T>) query.from(entityClass);
 
-        return entityManager.createQuery(query).getResultList();
+        return loadWithPlan(query, root, forDto);
+    }
+
+    /**
+     * JPA Criteria API를 사용하여 여러 ID의 엔티티를 IN 쿼리 한 번으로 조회
+     */
+    @SuppressWarnings("unchecked")
+    private Map<ID, T> loadEntitiesByIds(Collection<ID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Class<T> entityClass = getEntityClass();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = (CriteriaQuery<T>) cb.createQuery(entityClass);
+        Root<T> root = (Root<T>) query.from(entityClass);
+        query.select(root).where(root.get(entityIdField.getName()).in(ids));
+
+        Map<ID, T> entities = new HashMap<>();
+        for (T entity : entityManager.createQuery(query).getResultList()) {
+            entities.put(extractEntityId(entity), entity);
+        }
+        return entities;
     }
 
     /**
@@ -718,77 +1562,22 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
     private T loadEntityByIdCriteria(ID id) {
         Class<T> entityClass = getEntityClass();
 
-        // Try to load entity with necessary relations eager-fetched (left join fetch)
-        // based on DTO cache fields like `cacheUserId` -> relation `user`.
         if (entityManager == null) {
             return null;
         }
 
         try {
-            List<String> relationsToFetch = new ArrayList<>();
-
-            for (Field dtoField : dtoFields) {
-                String dtoFieldName = dtoField.getName();
-                if (dtoFieldName == null)
-                    continue;
-                if (dtoFieldName.endsWith("Id")) {
-                    String entitySimple = dtoFieldName.substring(0, dtoFieldName.length() - 2); // e.g. "User"
-                    if (entitySimple.isEmpty())
-                        continue;
-                    String candidate = Character.toLowerCase(entitySimple.charAt(0)) + entitySimple.substring(1);
-
-                    for (Field f : getAllFieldsInHierarchy(entityClass)) {
-                        String relationName = null;
-
-                        // 1) 필드명 또는 필드 타입으로 매칭
-                        if (f.getName().equals(candidate) || f.getType().getSimpleName().equals(entitySimple)) {
-                            relationName = f.getName();
-                        }
-
-                        // 2) @JoinColumn(name = "...")가 있으면 컬럼명으로 매칭
-                        try {
-                            jakarta.persistence.JoinColumn jc = f.getAnnotation(jakarta.persistence.JoinColumn.class);
-                            if (jc != null) {
-                                String jcName = jc.name();
-                                if (jcName != null && !jcName.isBlank()) {
-                                    // DTO 필드명(예: userId)에서 추출한 candidate(user)와
-                                    // JoinColumn 이름(user_id)이 유사한지 확인
-                                    if (jcName.toLowerCase().contains(candidate.toLowerCase())) {
-                                        relationName = f.getName();
-                                    }
-                                }
-                            }
-                        } catch (Exception ignored) {
-                            // ignore reflection issues
-                        }
-
-                        if (relationName != null) {
-                            if (!relationsToFetch.contains(relationName))
-                                relationsToFetch.add(relationName);
-                            break;
-                        }
-                    }
-                }
-            }
-
             CriteriaBuilder cb = entityManager.getCriteriaBuilder();
             CriteriaQuery<T> query = (CriteriaQuery<T>) cb.createQuery(entityClass);
             Root<T> root = (Root<T>) query.from(entityClass);
-
-            // add fetch joins
-            java.util.Set<String> uniq = new java.util.LinkedHashSet<>(relationsToFetch);
-            for (String rel : uniq) {
-                try {
-                    root.fetch(rel, jakarta.persistence.criteria.JoinType.LEFT);
-                } catch (IllegalArgumentException ignored) {
-                    // ignore invalid relation names
-                }
-            }
+            applyFetchPlan(root);
 
             query.select(root).where(cb.equal(root.get(entityIdField.getName()), id));
 
             try {
-                return entityManager.createQuery(query).getSingleResult();
+                T entity = entityManager.createQuery(query).getSingleResult();
+                initializeCollections(List.of(entity));
+                return entity;
             } catch (jakarta.persistence.NoResultException nre) {
                 return null;
             }
@@ -802,6 +1591,114 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         }
     }
 
+    /**
+     * DTO 변환(fromEntity)에 필요한 연관을 읽는 방법
+     * @param joins 같은 쿼리에서 fetch join할 단일 연관
+     * @param collections 로딩 후 묶어서 초기화할 컬렉션 연관
+     */
+    private record FetchPlan(List<String> joins, List<Field> collections) {}
+
+    /**
+     * 엔티티 클래스마다 한 번 계산합니다. DTO가 읽지 않는 @IgnoreShared 연관은 제외합니다.
+     * - 단일 연관(ManyToOne/OneToOne): DTO는 대부분 ID만 읽고, LAZY 프록시는 외래 키를 들고 있어 조인이 필요 없습니다.
+     *   EAGER여서 어차피 읽히거나, DTO가 같은 이름·타입의 필드로 엔티티째 복사하는 연관만 fetch join합니다.
+     * - 컬렉션(OneToMany/ManyToMany): DTO는 로딩된 컬렉션에서만 ID 목록(extractIds_)을 읽으므로, 조인하면 행 수가
+     *   곱해지는 대신 로딩 후 초기화해 hibernate.default_batch_fetch_size로 여러 엔티티의 컬렉션을 IN 쿼리로 묶어서 읽습니다.
+     */
+    private FetchPlan getFetchPlan() {
+        FetchPlan plan = fetchPlan;
+        if (plan == null) {
+            List<String> joins = new ArrayList<>();
+            List<Field> collections = new ArrayList<>();
+            for (Field field : getAllFieldsInHierarchy(getEntityClass())) {
+                if (field.isAnnotationPresent(IgnoreShared.class)) {
+                    continue;
+                }
+                jakarta.persistence.ManyToOne manyToOne = field.getAnnotation(jakarta.persistence.ManyToOne.class);
+                jakarta.persistence.OneToOne oneToOne = field.getAnnotation(jakarta.persistence.OneToOne.class);
+                if (manyToOne != null || oneToOne != null) {
+                    jakarta.persistence.FetchType fetch = manyToOne != null ? manyToOne.fetch() : oneToOne.fetch();
+                    if (fetch == jakarta.persistence.FetchType.EAGER || isCopiedToDto(field)) {
+                        joins.add(field.getName());
+                    }
+                } else if (field.isAnnotationPresent(jakarta.persistence.OneToMany.class)
+                        || field.isAnnotationPresent(jakarta.persistence.ManyToMany.class)) {
+                    field.setAccessible(true);
+                    collections.add(field);
+                }
+            }
+            plan = new FetchPlan(List.copyOf(joins), List.copyOf(collections));
+            fetchPlan = plan;
+        }
+        return plan;
+    }
+
+    private boolean isCopiedToDto(Field relation) {
+        for (Field dtoField : dtoFields) {
+            if (dtoField.getName().equals(relation.getName()) && dtoField.getType().equals(relation.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void applyFetchPlan(Root<T> root) {
+        for (String relation : getFetchPlan().joins()) {
+            try {
+                root.fetch(relation, jakarta.persistence.criteria.JoinType.LEFT);
+            } catch (IllegalArgumentException ignored) {
+                // 매핑되지 않은 필드
+            }
+        }
+    }
+
+    /**
+     * DTO가 ID 목록으로 읽는 컬렉션을 초기화합니다. 첫 엔티티의 컬렉션을 읽을 때 같은 세션의 다른 엔티티 컬렉션도
+     * 배치 크기만큼 함께 읽히므로, 대부분은 이미 초기화된 상태입니다.
+     */
+    private void initializeCollections(Collection<T> entities) {
+        for (Field field : getFetchPlan().collections()) {
+            for (T entity : entities) {
+                try {
+                    org.hibernate.Hibernate.initialize(field.get(entity));
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException("연관 컬렉션 초기화 실패: " + field.getName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * forDto면 fetch plan을 적용해 읽고 컬렉션까지 초기화합니다.
+     */
+    private List<T> loadWithPlan(CriteriaQuery<T> query, Root<T> root, boolean forDto) {
+        if (!forDto) {
+            return entityManager.createQuery(query).getResultList();
+        }
+        applyFetchPlan(root);
+        List<T> entities = entityManager.createQuery(query).getResultList();
+        initializeCollections(entities);
+        return entities;
+    }
+
+    /**
+     * DB 로딩과 DTO 변환을 한 세션(읽기 전용 트랜잭션)에서 실행해, 변환 중 읽는 컬렉션을 묶어서 초기화할 수 있게 합니다.
+     * 이미 트랜잭션 안이면 그 트랜잭션에 참여합니다.
+     */
+    private <R> R readInSession(Supplier<R> action) {
+        Optional<TransactionTemplate> template = readTransaction;
+        if (template == null) {
+            template = Optional.ofNullable(applicationContext.getBeanProvider(PlatformTransactionManager.class).getIfAvailable())
+                    .map(transactionManager -> {
+                        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                        readOnly.setReadOnly(true);
+                        return readOnly;
+                    });
+            readTransaction = template;
+        }
+        return template.isPresent() ? template.get().execute(status -> action.get()) : action.get();
+    }
+
     @Override
     public final List<DTO> loadFromDatabaseByParentId(Object parentId) {
         return loadFromDatabaseByParentId(parentId, null);
@@ -809,10 +1706,14 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
     @Override
     public final List<DTO> loadFromDatabaseByParentId(Object parentId, Class<?> parentClass) {
+        return runAsSystemOperation(() -> loadAndCacheByParentId(parentId, parentClass));
+    }
+
+    private List<DTO> loadAndCacheByParentId(Object parentId, Class<?> parentClass) {
         // 1. DB에서 최신 데이터 로드
-        List<DTO> dtos = loadEntitiesByParentId(parentId, parentClass).stream()
+        List<DTO> dtos = readInSession(() -> loadEntitiesByParentId(parentId, parentClass, true).stream()
                 .map(this::convertToDto)
-                .toList();
+                .toList());
 
         // 2. 기존 캐시 데이터 삭제 (인덱스 포함)
         try {
@@ -824,6 +1725,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         // 3. 새 데이터 캐시에 저장
         if (!dtos.isEmpty()) {
             saveAll(dtos);
+            dtos.forEach(this::rememberFingerprint);
         }
 
         return dtos;
@@ -840,14 +1742,18 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
         try {
             // EntityManager.find() 사용 - Repository 필요 없음!
-            T entity = loadEntityByIdCriteria(id);
+            ID typedId = id;
+            DTO dto = readInSession(() -> {
+                T entity = loadEntityByIdCriteria(typedId);
+                return entity != null ? convertToDto(entity) : null;
+            });
 
-            if (entity == null) {
+            if (dto == null) {
                 return null;
             }
 
-            DTO dto = convertToDto(entity);
-            save(dto); // 캐시 갱신
+            runAsSystemOperation(() -> save(dto)); // 캐시 갱신
+            rememberFingerprint(dto);
             return dto;
 
         } catch (Exception e) {
@@ -951,7 +1857,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         }
 
         // 먼저 삭제할 DTO들을 조회
-        List<DTO> dtosToDelete = findDtosByParentId(parentId, parentClass);
+        List<DTO> dtosToDelete = findCachedDtosByParentId(parentId, parentClass);
 
         if (dtosToDelete.isEmpty()) {
             return Collections.emptyList();
@@ -977,24 +1883,37 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
     }
 
     public List<DTO> findDtosByParentId(Object parentId, Class<?> parentClass) {
+        List<DTO> cached = findCachedDtosByParentId(parentId, parentClass);
+        if (!cached.isEmpty() || !readThroughAllowed(parentId)) {
+            return cached;
+        }
+        return readThroughByParentId(parentId, parentClass);
+    }
+
+    /**
+     * 캐시에 있는 자식 DTO만 조회 (read-through 없음). 내부 동기화/삭제 경로에서 사용합니다.
+     */
+    private List<DTO> findCachedDtosByParentId(Object parentId, Class<?> parentClass) {
         if (parentIdFields.isEmpty()) {
             throw new UnsupportedOperationException("ParentId 필드가 없습니다.");
         }
+        if (parentId == null) {
+            return Collections.emptyList();
+        }
 
         String hashKey = getRedisKey(null);
         Set<String> allChildIds = new java.util.HashSet<>();
 
-        if (parentClass != null) {
-            String field = getParentIndexField(parentClass, parentId);
-            String idListStr = getCacheStore().hashGetString(hashKey, field);
-            if (idListStr != null && !idListStr.isEmpty()) {
-                allChildIds.addAll(Arrays.asList(idListStr.split(",")));
-            }
-        } else {
-            // 클래스가 지정되지 않으면 모든 부모 인덱스를 확인 (하위 호환성)
-            for (Class<?> pClass : parentEntityClassMap.values()) {
-                String field = getParentIndexField(pClass, parentId);
-                String idListStr = getCacheStore().hashGetString(hashKey, field);
+        // 클래스가 지정되지 않으면 모든 부모 인덱스를 확인 (하위 호환성)
+        // 영속화된 부모의 자식은 정리 전까지 임시 부모 ID 인덱스에 남아 있을 수 있으므로 별칭도 함께 확인
+        Collection<Class<?>> parentClasses = parentClass != null ? List.of(parentClass)
+                : new LinkedHashSet<>(parentEntityClassMap.values());
+        Map<Class<?>, Set<String>> parentIdsByClass = new HashMap<>();
+        for (Class<?> pClass : parentClasses) {
+            Set<String> equivalents = equivalentParentIds(pClass, parentId);
+            parentIdsByClass.put(pClass, equivalents);
+            for (String equivalent : equivalents) {
+                String idListStr = getCacheStore().hashGetString(hashKey, getParentIndexField(pClass, equivalent));
                 if (idListStr != null && !idListStr.isEmpty()) {
                     allChildIds.addAll(Arrays.asList(idListStr.split(",")));
                 }
@@ -1015,26 +1934,16 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         return allDtos.stream()
                 .filter(dto -> dto != null)
                 .filter(dto -> {
-                    if (parentId == null)
-                        return false;
-
                     for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
                         // 클래스가 지정된 경우 해당 클래스 필드만 확인
-                        if (parentClass != null && !entry.getValue().equals(parentClass)) {
+                        Set<String> equivalents = parentIdsByClass.get(entry.getValue());
+                        if (equivalents == null) {
                             continue;
                         }
 
                         try {
                             Object dtoParentId = entry.getKey().get(dto);
-                            if (dtoParentId == null)
-                                continue;
-
-                            if (parentId.getClass().isInstance(dtoParentId)
-                                    || dtoParentId.getClass().isInstance(parentId)) {
-                                if (Objects.equals(parentId, dtoParentId))
-                                    return true;
-                            }
-                            if (parentId.toString().equals(dtoParentId.toString()))
+                            if (dtoParentId != null && equivalents.contains(dtoParentId.toString()))
                                 return true;
                         } catch (IllegalAccessException e) {
                             // ignore
@@ -1138,9 +2047,9 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
             return Collections.emptyList();
         }
 
-        // 인덱스 필드(P_IDX:...) 제외하고 실제 데이터 필드만 필터링
+        // 인덱스(P_IDX:...), 해시(FP:...) 필드 제외하고 실제 데이터 필드만 필터링
         List<String> dataFields = fields.stream()
-                .filter(f -> !f.startsWith("P_IDX:"))
+                .filter(f -> !isMetaField(f))
                 .toList();
 
         if (dataFields.isEmpty()) {
@@ -1237,7 +2146,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                         List<Object> entities = new ArrayList<>();
                         for (Object id : idList) {
                             try {
-                                Object normalizedId = changeType((ID) id);
+                                Object normalizedId = changeType(resolveParentId(elementType, id));
                                 Object ref = entityManager.getReference(elementType, normalizedId);
                                 entities.add(ref);
                             } catch (Exception e) {
@@ -1252,7 +2161,8 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                     params[i] = new ArrayList<>();
                 }
             } else {
-                Object relatedId = extractRelatedId(dto, i);
+                // 아직 정리되지 않은 임시 부모 ID는 별칭으로 해석
+                Object relatedId = resolveParentId(expectedEntityClass, extractRelatedId(dto, i));
                 if (relatedId == null) {
                     params[i] = null;
                 } else {
@@ -1455,6 +2365,15 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
     }
 
     public DTO findDtoById(ID id) {
+        id = resolveId(id);
+        DTO dto = findCachedDtoById(id);
+        if (dto != null || !readThroughAllowed(id)) {
+            return dto;
+        }
+        return readThroughById(id);
+    }
+
+    private DTO findCachedDtoById(ID id) {
         return getCacheStore().hashGet(getRedisKey(id), String.valueOf(id));
     }
 
@@ -1464,12 +2383,12 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
     @SuppressWarnings("unchecked")
     public DTO findDtoByIdUnchecked(Object id) {
-        return findDtoById((ID) id);
+        return findCachedDtoById(resolveId((ID) id));
     }
 
     @SuppressWarnings("unchecked")
     public List<DTO> findDtoListByParentIdUnchecked(Object parentId) {
-        return findDtoListByParentId((ID) parentId);
+        return findCachedDtosByParentId((ID) parentId, null);
     }
 
     public void deleteCacheById(ID id) {
@@ -1506,10 +2425,19 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         if (id == null) {
             return;
         }
+        id = resolveId(id);
 
-        String hashKey = getRedisKey(id);
         // 부모 인덱스에서 제거를 위해 DTO 조회
-        DTO dto = getCacheStore().hashGet(hashKey, String.valueOf(id));
+        DTO dto = getCacheStore().hashGet(getRedisKey(id), String.valueOf(id));
+        propagateParentDeletion(id);
+        removeCacheEntry(id, dto);
+    }
+
+    /**
+     * 엔티티 하나를 캐시에서 지웁니다. (하위 엔티티는 건드리지 않음)
+     */
+    private void removeCacheEntry(ID id, DTO dto) {
+        String hashKey = getRedisKey(id);
         if (dto != null) {
             for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
                 try {
@@ -1523,8 +2451,15 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
             }
         }
 
-        propagateParentDeletion(id);
         getCacheStore().hashDelete(hashKey, String.valueOf(id));
+        getCacheStore().hashDelete(hashKey, getFingerprintField(id));
+        removeAlias(id);
+        afterCacheDelete(id, dto);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeCacheEntryUnchecked(Object id, Object dto) {
+        removeCacheEntry((ID) id, (DTO) dto);
     }
 
     /**
@@ -1574,6 +2509,157 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         return cascadedActions;
     }
 
+    /**
+     * 캐시 삭제 중인 엔티티 하나 (하위 엔티티 히스토리는 subActions에 쌓임)
+     */
+    private static final class CascadeNode {
+        final AutoCacheRepository<?, ?, ?> repository;
+        final Object id;
+        final Object dto;
+        final List<HistoryAction> subActions;
+
+        CascadeNode(AutoCacheRepository<?, ?, ?> repository, Object id, Object dto, List<HistoryAction> subActions) {
+            this.repository = repository;
+            this.id = id;
+            this.dto = dto;
+            this.subActions = subActions;
+        }
+    }
+
+    /**
+     * ID 목록과 모든 하위 엔티티를 캐시에서 삭제하고, 함께 삭제된 하위 엔티티의 히스토리를 반환합니다.
+     * collectCascadedHistory 후 deleteAllById를 호출한 것과 같은 결과지만, 하위 트리를 계층(level) 단위로 한 번만 읽으며
+     * 계층마다 자식 타입별로 부모 인덱스와 DTO를 묶어서 조회합니다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<HistoryAction> deleteAllByIdWithHistory(Collection<ID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collection<AutoCacheRepository<?, ?, ?>> repositories = ((Map<String, AutoCacheRepository<?, ?, ?>>) (Map<?, ?>) applicationContext
+                .getBeansOfType(AutoCacheRepository.class)).values();
+
+        List<ID> resolved = ids.stream().filter(Objects::nonNull).map(this::resolveId).distinct().toList();
+        List<DTO> dtos = getCacheStore().hashMutiGet(getRedisKey(null),
+                resolved.stream().map(String::valueOf).toList());
+
+        List<HistoryAction> cascadedActions = new ArrayList<>();
+        List<CascadeNode> visitOrder = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        Map<AutoCacheRepository<?, ?, ?>, Map<Object, CascadeNode>> level = new LinkedHashMap<>();
+        for (int i = 0; i < resolved.size(); i++) {
+            DTO dto = dtos != null && i < dtos.size() ? dtos.get(i) : null;
+            CascadeNode node = new CascadeNode(this, resolved.get(i), dto, cascadedActions);
+            visited.add(cacheKeyPrefix + ":" + node.id);
+            visitOrder.add(node);
+            level.computeIfAbsent(this, key -> new LinkedHashMap<>()).put(node.id, node);
+        }
+
+        while (!level.isEmpty()) {
+            Map<AutoCacheRepository<?, ?, ?>, Map<Object, CascadeNode>> nextLevel = new LinkedHashMap<>();
+            for (Map.Entry<AutoCacheRepository<?, ?, ?>, Map<Object, CascadeNode>> entry : level.entrySet()) {
+                AutoCacheRepository<?, ?, ?> parentRepository = entry.getKey();
+                Map<Object, CascadeNode> parents = entry.getValue();
+                for (AutoCacheRepository<?, ?, ?> repository : repositories) {
+                    if (repository == parentRepository || repository.parentEntityClassMap.isEmpty()) {
+                        continue;
+                    }
+                    for (Class<?> parentClass : new LinkedHashSet<>(repository.parentEntityClassMap.values())) {
+                        if (!parentClass.isAssignableFrom(parentRepository.getEntityClass())) {
+                            continue;
+                        }
+                        Map<Object, List<Object>> childrenByParent = repository.findCachedDtosByParentIds(parents.keySet(), parentClass);
+                        for (Map.Entry<Object, List<Object>> children : childrenByParent.entrySet()) {
+                            HistoryAction childAction = HistoryAction.builder()
+                                    .type(HistoryAction.Type.DELETE)
+                                    .entityName(repository.cacheKeyPrefix)
+                                    .dtoClassName(repository.dtoClass.getName())
+                                    .beforeData((List<? extends CacheDto<?>>) (List<?>) children.getValue())
+                                    .afterData(null)
+                                    .subActions(new ArrayList<>())
+                                    .build();
+                            parents.get(children.getKey()).subActions.add(childAction);
+
+                            for (Object childDto : children.getValue()) {
+                                Object childId = repository.extractIdFromDtoUnchecked(childDto);
+                                if (childId == null || !visited.add(repository.cacheKeyPrefix + ":" + childId)) {
+                                    continue;
+                                }
+                                CascadeNode child = new CascadeNode(repository, childId, childDto, childAction.getSubActions());
+                                visitOrder.add(child);
+                                nextLevel.computeIfAbsent(repository, key -> new LinkedHashMap<>()).put(childId, child);
+                            }
+                        }
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+
+        // 가장 깊은 엔티티부터 삭제 (deleteCacheCascade와 같은 순서)
+        for (int i = visitOrder.size() - 1; i >= 0; i--) {
+            CascadeNode node = visitOrder.get(i);
+            node.repository.removeCacheEntryUnchecked(node.id, node.dto);
+        }
+        return cascadedActions;
+    }
+
+    /**
+     * 여러 부모의 자식 DTO를 한 번에 조회합니다. (부모 인덱스와 DTO를 각각 한 번의 다중 조회로 읽음)
+     * @return 자식이 있는 부모만 담은 부모 ID → 자식 DTO 목록
+     */
+    Map<Object, List<Object>> findCachedDtosByParentIds(Collection<Object> parentIds, Class<?> parentClass) {
+        String hashKey = getRedisKey(null);
+        Map<String, Object> parentByEquivalent = new HashMap<>();
+        for (Object parentId : parentIds) {
+            for (String equivalent : equivalentParentIds(parentClass, parentId)) {
+                parentByEquivalent.putIfAbsent(equivalent, parentId);
+            }
+        }
+        if (parentByEquivalent.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<String> equivalents = new ArrayList<>(parentByEquivalent.keySet());
+        List<String> indexFields = equivalents.stream().map(id -> getParentIndexField(parentClass, id)).toList();
+        Set<String> childIds = new LinkedHashSet<>();
+        for (String idListStr : getCacheStore().hashMultiGetString(hashKey, indexFields)) {
+            if (idListStr != null && !idListStr.isEmpty()) {
+                childIds.addAll(Arrays.asList(idListStr.split(",")));
+            }
+        }
+        if (childIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<DTO> dtos = getCacheStore().hashMutiGet(hashKey, new ArrayList<>(childIds));
+        if (dtos == null) {
+            return Collections.emptyMap();
+        }
+        Map<Object, List<Object>> childrenByParent = new LinkedHashMap<>();
+        for (DTO dto : dtos) {
+            if (dto == null) {
+                continue;
+            }
+            for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
+                if (entry.getValue() != parentClass) {
+                    continue;
+                }
+                try {
+                    Object dtoParentId = entry.getKey().get(dto);
+                    Object parentId = dtoParentId != null ? parentByEquivalent.get(dtoParentId.toString()) : null;
+                    if (parentId != null) {
+                        childrenByParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(dto);
+                        break;
+                    }
+                } catch (IllegalAccessException e) {
+                    // ignore
+                }
+            }
+        }
+        return childrenByParent;
+    }
+
     @SuppressWarnings("unchecked")
     public ID extractIdFromDtoUnchecked(Object dto) {
         return extractId((DTO) dto);
@@ -1586,7 +2672,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
 
     @SuppressWarnings("unchecked")
     public List<DTO> findDtosByParentIdUnchecked(Object parentId, Class<?> parentClass) {
-        return findDtosByParentId((ID) parentId, parentClass);
+        return findCachedDtosByParentId((ID) parentId, parentClass);
     }
 
     @SuppressWarnings("unchecked")
@@ -1630,56 +2716,214 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         }
 
         ID parentId = (ID) parentIdObject;
-        List<DTO> dtos = findDtosByParentId(parentId, parentClass);
+        List<DTO> dtos = findCachedDtosByParentId(parentId, parentClass);
         if (dtos.isEmpty()) {
             return;
         }
 
-        for (DTO dto : dtos) {
-            ID childId = extractId(dto);
-            deleteCacheCascade(childId);
+        for (DTO dto : dtos) {
+            ID childId = extractId(dto);
+            deleteCacheCascade(childId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void syncToDatabaseByParentIdInternal(Object parentIdObject, Class<?> parentClass) {
+        if (parentIdFields.isEmpty() || parentIdObject == null) {
+            return;
+        }
+
+        ID parentId = (ID) parentIdObject;
+        syncToDatabaseByParentId(parentId, parentClass);
+    }
+
+    // ==== 동기화 메소드 ====
+
+    public static void syncHierarchyToDatabaseByRootId(int rootId) {
+        //
+    }
+
+    public static void syncHierarchyToDatabaseByRootId(String rootId) {
+
+    }
+
+    public DTO syncToDatabaseByDto(DTO dto) {
+        return syncToDatabaseByDto(dto, true);
+    }
+
+    private DTO syncToDatabaseByDto(DTO dto, boolean refreshCache) {
+        if (dto == null) {
+            return null;
+        }
+        // 부모가 없을 때
+        if (parentIdFields.isEmpty()) {
+            return saveToDatabase(dto, refreshCache);
+        }
+        // 부모가 있을 때: 부모가 아직 영속화되지 않았으면 건너뜀
+        if (hasUnresolvedTemporaryParent(dto)) {
+            return null;
+        }
+        return saveToDatabase(dto, refreshCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    public DTO syncToDatabaseByDtoUnchecked(Object dto) {
+        return syncToDatabaseByDto((DTO) dto);
+    }
+
+    /**
+     * write-behind 플러시용 DB 반영.
+     * 방에 접속자가 있는 상태에서 실행되므로, ID가 바뀌지 않았다면 DB 저장 결과로 캐시를 덮어쓰지 않습니다.
+     * (플러시 도중 들어온 편집이 사라지지 않도록)
+     */
+    @SuppressWarnings("unchecked")
+    public DTO flushToDatabaseByDtoUnchecked(Object dto) {
+        return syncToDatabaseByDto((DTO) dto, false);
+    }
+
+    /**
+     * 여러 ID의 엔티티를 한 번에 삭제합니다.
+     * 연관 테이블 정리(ManyToMany, cascade REMOVE 등)가 필요 없는 엔티티는
+     * DELETE ... WHERE id IN (...) 한 번으로, 그 외에는 IN 쿼리로 읽은 뒤 remove 합니다.
+     */
+    @SuppressWarnings("unchecked")
+    public void deleteFromDatabaseByIdsUnchecked(Collection<?> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        List<ID> targetIds = ids.stream()
+                .map(this::changeType)
+                .filter(id -> id != null && !isTemporaryId(id))
+                .distinct()
+                .toList();
+        if (targetIds.isEmpty()) {
+            return;
+        }
+
+        if (isBulkDeletable()) {
+            Class<T> entityClass = getEntityClass();
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaDelete<T> delete = cb.createCriteriaDelete(entityClass);
+            Root<T> root = delete.from(entityClass);
+            delete.where(root.get(entityIdField.getName()).in(targetIds));
+            entityManager.createQuery(delete).executeUpdate();
+            return;
+        }
+
+        for (T entity : loadEntitiesByIds(targetIds).values()) {
+            entityManager.remove(entity);
+        }
+    }
+
+    /**
+     * JPQL 일괄 삭제는 JPA cascade, 연관 테이블 정리를 건너뛰므로 그런 매핑이 없는 엔티티만 허용합니다.
+     */
+    boolean isBulkDeletable() {
+        Boolean cached = bulkDeletable;
+        if (cached != null) {
+            return cached;
+        }
+        boolean deletable = true;
+        for (Field field : getAllFieldsInHierarchy(getEntityClass())) {
+            if (field.isAnnotationPresent(jakarta.persistence.ManyToMany.class)
+                    || field.isAnnotationPresent(jakarta.persistence.ElementCollection.class)) {
+                deletable = false;
+                break;
+            }
+            jakarta.persistence.OneToMany oneToMany = field.getAnnotation(jakarta.persistence.OneToMany.class);
+            if (oneToMany != null && (oneToMany.orphanRemoval() || cascadesRemove(oneToMany.cascade()))) {
+                deletable = false;
+                break;
+            }
+            jakarta.persistence.OneToOne oneToOne = field.getAnnotation(jakarta.persistence.OneToOne.class);
+            if (oneToOne != null && (oneToOne.orphanRemoval() || cascadesRemove(oneToOne.cascade()))) {
+                deletable = false;
+                break;
+            }
+        }
+        bulkDeletable = deletable;
+        return deletable;
+    }
+
+    /**
+     * 주어진 엔티티 타입을 부모로 두는 @ParentId 부모 클래스들
+     */
+    Set<Class<?>> parentClassesOf(Class<?> entityClass) {
+        Set<Class<?>> parentClasses = new LinkedHashSet<>();
+        for (Class<?> parentClass : parentEntityClassMap.values()) {
+            if (parentClass.isAssignableFrom(entityClass)) {
+                parentClasses.add(parentClass);
+            }
         }
+        return parentClasses;
     }
 
-    @SuppressWarnings("unchecked")
-    private void syncToDatabaseByParentIdInternal(Object parentIdObject, Class<?> parentClass) {
-        if (parentIdFields.isEmpty() || parentIdObject == null) {
-            return;
+    /**
+     * @ParentId로 선언한 부모 엔티티를 참조하는 엔티티 연관 필드 이름들.
+     * Object/Serializable 같은 상위 타입 필드가 걸리지 않도록 필드 타입이 부모 클래스와 정확히 같은 것만 고릅니다.
+     */
+    List<String> relationFieldsTo(Class<?> parentClass) {
+        if (!parentEntityClassMap.containsValue(parentClass)) {
+            return Collections.emptyList();
         }
-
-        ID parentId = (ID) parentIdObject;
-        syncToDatabaseByParentId(parentId, parentClass);
+        List<String> fieldNames = new ArrayList<>();
+        for (Field field : getAllFieldsInHierarchy(getEntityClass())) {
+            if (field.getType().equals(parentClass)) {
+                fieldNames.add(field.getName());
+            }
+        }
+        return fieldNames;
     }
 
-    // ==== 동기화 메소드 ====
-
-    public static void syncHierarchyToDatabaseByRootId(int rootId) {
-        //
+    /**
+     * relationField가 parentIds 중 하나를 가리키는 행의 ID를 조회합니다.
+     */
+    @SuppressWarnings("unchecked")
+    List<Object> selectIdsByRelation(String relationField, Class<?> parentClass, Collection<Object> parentIds) {
+        Class<T> entityClass = getEntityClass();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery(Object.class);
+        Root<T> root = query.from(entityClass);
+        query.select(root.get(entityIdField.getName()))
+                .where(relationIdPath(root, relationField, parentClass).in(normalizeParentIds(parentClass, parentIds)));
+        return entityManager.createQuery(query).getResultList();
     }
 
-    public static void syncHierarchyToDatabaseByRootId(String rootId) {
-
+    /**
+     * relationField가 parentIds 중 하나를 가리키는 행을 한 번에 삭제합니다.
+     */
+    int deleteByRelation(String relationField, Class<?> parentClass, Collection<Object> parentIds) {
+        Class<T> entityClass = getEntityClass();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<T> delete = cb.createCriteriaDelete(entityClass);
+        Root<T> root = delete.from(entityClass);
+        delete.where(relationIdPath(root, relationField, parentClass).in(normalizeParentIds(parentClass, parentIds)));
+        return entityManager.createQuery(delete).executeUpdate();
     }
 
-    public DTO syncToDatabaseByDto(DTO dto) {
-        if (dto == null) {
-            return null;
-        }
-        // 부모가 없을 때
-        if (parentIdFields.isEmpty()) {
-            return saveToDatabase(dto);
+    private jakarta.persistence.criteria.Path<Object> relationIdPath(Root<T> root, String relationField, Class<?> parentClass) {
+        Field parentIdField = locateEntityIdField(parentClass);
+        if (parentIdField == null) {
+            throw new IllegalStateException("@Id 필드를 찾을 수 없습니다: " + parentClass.getSimpleName());
         }
-        // 부모가 있을 때
-        Object parentIdValue = getParentIdValue(dto);
-        if (parentIdValue instanceof Number number && number.longValue() < 0) {
-            return null;
-        }
-        return saveToDatabase(dto);
+        return root.get(relationField).get(parentIdField.getName());
     }
 
-    @SuppressWarnings("unchecked")
-    public DTO syncToDatabaseByDtoUnchecked(Object dto) {
-        return syncToDatabaseByDto((DTO) dto);
+    private List<Object> normalizeParentIds(Class<?> parentClass, Collection<Object> parentIds) {
+        Field parentIdField = locateEntityIdField(parentClass);
+        Class<?> parentIdType = parentIdField != null ? parentIdField.getType() : null;
+        return parentIds.stream()
+                .map(parentId -> convertIdToType(parentIdType, parentId))
+                .toList();
+    }
+
+    private boolean cascadesRemove(jakarta.persistence.CascadeType[] cascadeTypes) {
+        for (jakarta.persistence.CascadeType type : cascadeTypes) {
+            if (type == jakarta.persistence.CascadeType.ALL || type == jakarta.persistence.CascadeType.REMOVE) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -1696,16 +2940,19 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         if (parentId == null) {
             return Collections.emptyList();
         }
-        if (parentId instanceof Number number && number.longValue() < 0L) {
+        if (parentClass != null) {
+            parentId = resolveParentId(parentClass, parentId);
+        }
+        if (isTemporaryId(parentId)) {
             return Collections.emptyList(); // 아직 영속화되지 않은 부모
         }
 
-        List<DTO> cachedDtos = findDtosByParentId(parentId, parentClass);
+        List<DTO> cachedDtos = findCachedDtosByParentId(parentId, parentClass);
         if (!cachedDtos.isEmpty()) {
             cachedDtos.forEach(this::syncToDatabaseByDto);
         }
 
-        List<DTO> refreshedDtos = findDtosByParentId(parentId, parentClass);
+        List<DTO> refreshedDtos = findCachedDtosByParentId(parentId, parentClass);
         Set<ID> cachedPersistentIds = refreshedDtos.stream()
                 .map(this::extractId)
                 .filter(Objects::nonNull)
@@ -1725,8 +2972,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                 .collect(Collectors.toList());
 
         if (!entitiesToDelete.isEmpty()) {
-            handleChildCleanupBeforeDelete(entitiesToDelete);
-            deleteAllEntities(entitiesToDelete);
+            deleteEntitiesWithChildren(entitiesToDelete);
         }
         return refreshedDtos;
     }
@@ -1776,8 +3022,28 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
             return;
         }
 
-        handleChildCleanupBeforeDelete(targets);
-        deleteAllEntities(targets);
+        deleteEntitiesWithChildren(targets);
+    }
+
+    /**
+     * DB에서 엔티티와 하위 엔티티를 삭제하고, 캐시에 남은 하위 엔티티도 내립니다.
+     * 가능하면 하위 테이블마다 일괄 DELETE 한 번으로 처리하고, 아니면 엔티티 단위로 처리합니다.
+     */
+    @SuppressWarnings("unchecked")
+    private void deleteEntitiesWithChildren(List<T> entities) {
+        List<Object> ids = entities.stream()
+                .<Object>map(this::extractEntityId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Collection<AutoCacheRepository<?, ?, ?>> repositories = ((Map<String, AutoCacheRepository<?, ?, ?>>) (Map<?, ?>) applicationContext
+                .getBeansOfType(AutoCacheRepository.class)).values();
+        if (new CascadeDeletePlanner(repositories).deleteCascade(this, ids)) {
+            ids.forEach(this::propagateParentDeletion);
+            return;
+        }
+        handleChildCleanupBeforeDelete(entities);
+        deleteAllEntities(entities);
     }
 
     @SuppressWarnings("unchecked")
@@ -1811,7 +3077,13 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
     }
 
     @SuppressWarnings("null")
-    private DTO saveToDatabase(DTO dto) {
+    private DTO saveToDatabase(DTO dto, boolean refreshCache) {
+        // 로딩 이후 바뀌지 않은 엔티티는 find/merge 없이 건너뜀
+        if (isUnchangedSinceSync(dto)) {
+            return dto;
+        }
+        dto = copyDto(dto); // 쓰는 동안의 편집과 섞이지 않도록 이 시점의 내용으로 씀
+
         T entity = convertToEntity(dto);
 
         ID previousId = extractEntityId(entity);
@@ -1832,7 +3104,264 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         }
 
         // EntityManager로 저장 (persist 또는 merge)
-        // 방어적 검사: 필수 ManyToOne 관계가 null이면 저장을 건너뜀
+        if (isMissingRequiredRelation(entityToSave)) {
+            return dto; // skip saving to avoid FK violation
+        }
+
+        T savedEntity = saveEntity(entityToSave);
+        return applySavedEntity(dto, previousId, savedEntity, refreshCache);
+    }
+
+    /**
+     * 같은 타입의 DTO들을 묶어서 DB에 반영합니다.
+     * - batchSize 단위로 기존 행을 IN 쿼리 한 번으로 미리 읽어 엔티티별 find를 없앱니다.
+     * - 묶음마다 flush 후 clear 하여 JDBC 배치로 쓰고 영속성 컨텍스트를 작게 유지합니다.
+     * 부모가 아직 영속화되지 않은 DTO는 건너뜁니다.
+     */
+    public List<DTO> syncToDatabaseInBatch(List<DTO> dtos, int batchSize) {
+        return syncToDatabaseInBatch(dtos, batchSize, true);
+    }
+
+    /**
+     * @param refreshCache false면 ID가 바뀌지 않은 엔티티는 DB 저장 결과로 캐시를 덮어쓰지 않음 (flushToDatabaseByDtoUnchecked와 같음)
+     */
+    @SuppressWarnings("null")
+    private List<DTO> syncToDatabaseInBatch(List<DTO> dtos, int batchSize, boolean refreshCache) {
+        if (dtos == null || dtos.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<DTO> pending = dtos.stream()
+                .filter(Objects::nonNull)
+                .filter(dto -> !hasUnresolvedTemporaryParent(dto))
+                .filter(dto -> !isUnchangedSinceSync(dto))
+                .map(this::copyDto) // 쓰는 동안의 편집과 섞이지 않도록 이 시점의 내용으로 씀
+                .toList();
+
+        List<DTO> synced = new ArrayList<>(pending.size());
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < pending.size(); from += size) {
+            List<DTO> chunk = pending.subList(from, Math.min(pending.size(), from + size));
+
+            List<ID> persistentIds = chunk.stream()
+                    .map(this::extractId)
+                    .map(this::changeType)
+                    .filter(id -> id != null && !isTemporaryId(id))
+                    .toList();
+            Map<ID, T> existing = loadEntitiesByIds(persistentIds);
+
+            List<DTO> writtenDtos = new ArrayList<>(chunk.size());
+            List<ID> previousIds = new ArrayList<>(chunk.size());
+            List<T> writtenEntities = new ArrayList<>(chunk.size());
+            for (DTO dto : chunk) {
+                T entity = convertToEntity(dto);
+                ID previousId = extractEntityId(entity);
+                boolean hasPersistentId = previousId != null && !isTemporaryId(previousId);
+
+                T origin = hasPersistentId ? existing.get(previousId) : null;
+                T entityToSave;
+                if (origin != null) {
+                    // 이미 관리 중인 엔티티: 필드만 병합하면 flush 시 변경분만 UPDATE
+                    mergeEntityFields(origin, entity);
+                    entityToSave = origin;
+                } else {
+                    if (!hasPersistentId) {
+                        setEntityId(entity, null);
+                    }
+                    entityToSave = entity;
+                }
+
+                if (isMissingRequiredRelation(entityToSave)) {
+                    continue;
+                }
+                writtenDtos.add(dto);
+                previousIds.add(previousId);
+                writtenEntities.add(origin != null ? origin : saveEntity(entityToSave));
+            }
+
+            entityManager.flush();
+            for (int i = 0; i < writtenDtos.size(); i++) {
+                synced.add(applySavedEntity(writtenDtos.get(i), previousIds.get(i), writtenEntities.get(i), refreshCache));
+            }
+            entityManager.clear();
+        }
+        return synced;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<DTO> syncToDatabaseInBatchUnchecked(List<?> dtos, int batchSize) {
+        return syncToDatabaseInBatch((List<DTO>) dtos, batchSize);
+    }
+
+    /**
+     * write-behind 플러시용 일괄 반영. 접속자가 있는 방에서 실행되므로 flushToDatabaseByDtoUnchecked처럼
+     * ID가 바뀌지 않았다면 DB 저장 결과로 캐시를 덮어쓰지 않습니다.
+     */
+    @SuppressWarnings("unchecked")
+    public List<DTO> flushToDatabaseInBatchUnchecked(List<?> dtos, int batchSize) {
+        return syncToDatabaseInBatch((List<DTO>) dtos, batchSize, false);
+    }
+
+    /**
+     * 대형 방용 동기화: StatelessSession으로 INSERT/UPDATE만 실행합니다.
+     * 기존 행을 읽어 병합하지 않고(@IgnoreShared 필드가 있을 때만 읽음), 영속성 컨텍스트와 dirty checking 없이 씁니다.
+     * 묶음마다 세션을 새로 열어 UPDATE와 INSERT를 각각 하나의 JDBC 배치로 쓰고, 임시 ID는 INSERT로 받은 영속 ID로 기존과 같이 전환합니다.
+     * 연관 테이블(@ManyToMany, @ElementCollection)이 있는 타입은 StatelessSession이 관리하지 않으므로 기존 방식으로 반영합니다.
+     * @param sessions 현재 트랜잭션의 커넥션을 쓰는 StatelessSession을 엽니다. (닫는 것은 여기서 함)
+     */
+    @SuppressWarnings("null")
+    public List<DTO> syncToDatabaseStateless(List<DTO> dtos, Supplier<StatelessSession> sessions, int batchSize) {
+        if (dtos == null || dtos.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (!isStatelessWritable()) {
+            return syncToDatabaseInBatch(dtos, batchSize);
+        }
+
+        List<DTO> pending = dtos.stream()
+                .filter(Objects::nonNull)
+                .filter(dto -> !hasUnresolvedTemporaryParent(dto))
+                .filter(dto -> !isUnchangedSinceSync(dto))
+                .map(this::copyDto) // 쓰는 동안의 편집과 섞이지 않도록 이 시점의 내용으로 씀
+                .toList();
+
+        List<DTO> synced = new ArrayList<>(pending.size());
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < pending.size(); from += size) {
+            List<DTO> chunk = pending.subList(from, Math.min(pending.size(), from + size));
+
+            List<DTO> writtenDtos = new ArrayList<>(chunk.size());
+            List<ID> previousIds = new ArrayList<>(chunk.size());
+            List<T> writtenEntities = new ArrayList<>(chunk.size());
+            try (StatelessSession session = sessions.get()) {
+                Map<ID, T> existing = Collections.emptyMap();
+                if (!ignoredEntityFields.isEmpty()) {
+                    List<ID> persistentIds = chunk.stream()
+                            .map(this::extractId)
+                            .map(this::changeType)
+                            .filter(id -> id != null && !isTemporaryId(id))
+                            .toList();
+                    existing = loadEntitiesByIds(session, persistentIds);
+                }
+
+                List<T> updates = new ArrayList<>();
+                List<T> inserts = new ArrayList<>();
+                for (DTO dto : chunk) {
+                    T entity = convertToEntity(dto);
+                    ID previousId = extractEntityId(entity);
+                    boolean hasPersistentId = previousId != null && !isTemporaryId(previousId);
+                    if (!hasPersistentId) {
+                        setEntityId(entity, null);
+                    }
+                    if (isMissingRequiredRelation(entity)) {
+                        continue;
+                    }
+
+                    if (hasPersistentId) {
+                        // @IgnoreShared 필드는 DB의 기존 값 유지
+                        T origin = existing.get(previousId);
+                        if (origin != null) {
+                            for (Field f : ignoredEntityFields) {
+                                try {
+                                    f.set(entity, f.get(origin));
+                                } catch (IllegalAccessException e) {
+                                    // ignore
+                                }
+                            }
+                        }
+                        updates.add(entity);
+                    } else {
+                        inserts.add(entity);
+                    }
+                    writtenDtos.add(dto);
+                    previousIds.add(previousId);
+                    writtenEntities.add(entity);
+                }
+
+                writeBatch(session, updates, session::update);
+                writeBatch(session, inserts, session::insert); // 생성된 ID가 엔티티에 채워짐
+            }
+            for (int i = 0; i < writtenDtos.size(); i++) {
+                synced.add(applySavedEntity(writtenDtos.get(i), previousIds.get(i), writtenEntities.get(i), true));
+            }
+        }
+        return synced;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<DTO> syncToDatabaseStatelessUnchecked(List<?> dtos, Supplier<StatelessSession> sessions, int batchSize) {
+        return syncToDatabaseStateless((List<DTO>) dtos, sessions, batchSize);
+    }
+
+    /**
+     * 같은 종류의 문장을 하나의 JDBC 배치로 씁니다.
+     * 배치 크기를 문장 수에 맞추므로 마지막 문장을 더할 때 배치가 실행되어, 세션을 닫기 전에 모두 DB로 나갑니다.
+     */
+    private void writeBatch(StatelessSession session, List<T> entities, Consumer<T> operation) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        session.setJdbcBatchSize(entities.size());
+        entities.forEach(operation);
+    }
+
+    /**
+     * 루트 엔티티의 펜싱 컬럼(@SyncFence)을 임대 토큰으로 올립니다. 방 동기화 트랜잭션 안에서 먼저 호출합니다.
+     * 같거나 더 큰 토큰이 이미 기록되어 있으면(더 새로운 임대로 반영됨) false를 반환합니다.
+     * 펜싱 컬럼이 없거나 아직 DB에 없는 루트면 임대 확인만 적용되도록 true를 반환합니다.
+     */
+    public boolean advanceFence(Object rootId, long token) {
+        ID id = changeType(rootId);
+        if (fenceField == null || id == null || isTemporaryId(id)) {
+            return true;
+        }
+        Class<T> entityClass = getEntityClass();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityClass);
+        Root<T> root = update.from(entityClass);
+        Path<Long> fence = root.get(fenceField.getName());
+        update.set(fence, token)
+                .where(cb.equal(root.get(entityIdField.getName()), id), cb.or(cb.isNull(fence), cb.lt(fence, token)));
+        if (entityManager.createQuery(update).executeUpdate() > 0) {
+            return true;
+        }
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<T> counted = count.from(entityClass);
+        count.select(cb.count(counted)).where(cb.equal(counted.get(entityIdField.getName()), id));
+        return entityManager.createQuery(count).getSingleResult() == 0;
+    }
+
+    private boolean isStatelessWritable() {
+        for (Field field : getAllFieldsInHierarchy(getEntityClass())) {
+            if (field.isAnnotationPresent(jakarta.persistence.ManyToMany.class)
+                    || field.isAnnotationPresent(jakarta.persistence.ElementCollection.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<ID, T> loadEntitiesByIds(StatelessSession session, List<ID> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Class<T> entityClass = getEntityClass();
+        CriteriaBuilder cb = session.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        query.where(root.get(entityIdField.getName()).in(ids));
+        Map<ID, T> entities = new HashMap<>();
+        for (T entity : session.createQuery(query).getResultList()) {
+            entities.put(extractEntityId(entity), entity);
+        }
+        return entities;
+    }
+
+    /**
+     * 방어적 검사: 필수 ManyToOne 관계가 null이면 저장하지 않음
+     */
+    private boolean isMissingRequiredRelation(T entityToSave) {
         Class<?> entityClazz = getEntityClass();
         try {
             for (java.lang.reflect.Field f : entityClazz.getDeclaredFields()) {
@@ -1849,7 +3378,7 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
                             System.err.println(
                                     "[SharedSync][WARN] Required ManyToOne relation is null - skipping DB save: "
                                             + entityClazz.getSimpleName() + "." + f.getName());
-                            return dto; // skip saving to avoid FK violation
+                            return true;
                         }
                     }
                 }
@@ -1857,40 +3386,82 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         } catch (Exception e) {
             System.err.println("[SharedSync][WARN] failed to validate required relations: " + e.getMessage());
         }
+        return false;
+    }
 
-        T savedEntity = saveEntity(entityToSave);
-
+    /**
+     * DB 저장 결과를 캐시에 반영합니다. (해시 기록, 임시 ID → 영속 ID 전환)
+     *
+     * dto는 쓰기 시작할 때 떠 둔 복사본이라, 캐시의 인스턴스를 그 자리에서 고치는 편집도 차이로 드러납니다.
+     * DB에 쓰는 동안 같은 엔티티가 다시 편집되었으면(캐시 내용이 저장한 DTO와 다르면) DB 결과로 덮어쓰지 않고
+     * 최신 편집을 남깁니다. 해시는 DB에 쓴 내용으로 기록하므로 다음 동기화에서 변경분으로 반영됩니다.
+     * 쓰는 동안 삭제되었으면 다시 캐시에 넣지 않습니다. (tombstone으로 다음 동기화에서 삭제)
+     */
+    @SuppressWarnings("null")
+    private DTO applySavedEntity(DTO dto, ID previousId, T savedEntity, boolean refreshCache) {
         DTO updatedDto = convertToDto(savedEntity);
         ID cacheId = extractId(updatedDto);
+        boolean idChanged = previousId != null && !Objects.equals(previousId, cacheId);
+
+        DTO current = previousId != null ? findCachedDtoById(previousId) : null;
+        if (current == null && previousId != null && !isTemporaryId(previousId) && isTombstoned(previousId)) {
+            return updatedDto;
+        }
+        boolean editedMeanwhile = current != null && !Objects.equals(fingerprint(current), fingerprint(dto));
+        if (editedMeanwhile && idChanged) {
+            current = updateDtoWithId(copyDto(current), cacheId);
+        }
 
-        if (cacheId != null) {
+        if (cacheId != null && (idChanged || (refreshCache && !editedMeanwhile))) {
             String cacheKey = getRedisKey(cacheId);
-            DTO dtoToCache = Objects.requireNonNull(updatedDto);
+            DTO dtoToCache = Objects.requireNonNull(editedMeanwhile ? current : updatedDto);
             getCacheStore().hashSet(cacheKey, String.valueOf(cacheId), dtoToCache);
+            reindexParents(editedMeanwhile ? current : dto, previousId, dtoToCache, cacheId);
+            rememberFingerprint(updatedDto);
+            getMutationListeners().forEach(listener -> listener.onSaved(this, dtoToCache));
+        } else {
+            rememberFingerprint(dto);
         }
-
-        // 새로 영속화된 ID를 모든 하위 캐시에 전파
-        if (isTemporaryId(previousId) && !isTemporaryId(cacheId)) {
-            propagateParentIdChange(previousId, cacheId);
+        if (editedMeanwhile && dirtyTracking) {
+            getCacheStore().addToSet(getDirtyKey(), String.valueOf(cacheId));
         }
-        if (previousId != null && !Objects.equals(previousId, cacheId)) {
+
+        if (idChanged) {
+            // 하위 캐시는 바로 고치지 않고 별칭으로 해석 (IdAliasCompactor가 백그라운드에서 정리)
+            if (isTemporaryId(previousId) && !isTemporaryId(cacheId)) {
+                registerAlias(previousId, cacheId);
+            }
             String staleKey = getRedisKey(previousId);
             getCacheStore().hashDelete(staleKey, String.valueOf(previousId));
+            getCacheStore().hashDelete(staleKey, getFingerprintField(previousId));
+            getMutationListeners().forEach(listener -> listener.onDeleted(this, previousId));
+        }
+        return updatedDto;
+    }
 
-            // 부모 인덱스에서 이전 ID 제거하고 새 ID 추가
-            for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
-                try {
-                    Object parentId = entry.getKey().get(updatedDto);
-                    if (parentId != null) {
-                        removeIdFromParentIndex(staleKey, entry.getValue(), parentId, previousId);
-                        addIdToParentIndex(getRedisKey(cacheId), entry.getValue(), parentId, cacheId);
-                    }
-                } catch (IllegalAccessException e) {
-                    // ignore
+    /**
+     * ID가 바뀌었거나 DB 저장 결과로 부모 ID가 바뀐 경우 (임시 부모 ID → 영속 부모 ID) 부모 인덱스를 갱신합니다.
+     */
+    private void reindexParents(DTO previous, ID previousId, DTO current, ID currentId) {
+        String hashKey = getRedisKey(currentId);
+        ID oldId = previousId != null ? previousId : currentId;
+        for (Map.Entry<Field, Class<?>> entry : parentEntityClassMap.entrySet()) {
+            try {
+                Object oldParentId = previous != null ? entry.getKey().get(previous) : null;
+                Object newParentId = entry.getKey().get(current);
+                if (Objects.equals(oldParentId, newParentId) && Objects.equals(oldId, currentId)) {
+                    continue;
+                }
+                if (oldParentId != null) {
+                    removeIdFromParentIndex(hashKey, entry.getValue(), oldParentId, oldId);
+                }
+                if (newParentId != null) {
+                    addIdToParentIndex(hashKey, entry.getValue(), newParentId, currentId);
                 }
+            } catch (IllegalAccessException e) {
+                // ignore
             }
         }
-        return updatedDto;
     }
 
     /**
@@ -1967,23 +3538,6 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         return id != null && !isTemporaryId(id);
     }
 
-    private Object getParentIdValue(DTO dto) {
-        if (parentIdFields.isEmpty()) {
-            return null;
-        }
-        try {
-            // 첫 번째 non-null 부모 ID 반환
-            for (Field field : parentIdFields) {
-                Object val = field.get(dto);
-                if (val != null)
-                    return val;
-            }
-            return null;
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException("ParentId 필드 접근 실패", e);
-        }
-    }
-
     private boolean isTemporaryId(Object id) {
         if (id == null) {
             return false;
@@ -1994,86 +3548,86 @@ public abstract class AutoCacheRepository<T, ID, DTO extends CacheDto<ID>> imple
         return false;
     }
 
+    /**
+     * 이 타입을 부모로 두는 리포지토리들의 하위 캐시에서 임시 부모 ID를 영속 ID로 바꿉니다.
+     * @return 건너뛴 하위 엔티티가 없으면 true
+     */
     @SuppressWarnings("unchecked")
-    private void propagateParentIdChange(ID temporaryParentId, ID persistedParentId) {
+    private boolean propagateParentIdChange(ID temporaryParentId, ID persistedParentId) {
         if (temporaryParentId == null || persistedParentId == null) {
-            return;
+            return true;
         }
 
         Map<String, AutoCacheRepository<?, ?, ?>> repositories = (Map<String, AutoCacheRepository<?, ?, ?>>) (Map<?, ?>) applicationContext
                 .getBeansOfType(AutoCacheRepository.class);
-        Class<T> entityClass = getEntityClass();
+        boolean complete = true;
         for (AutoCacheRepository<?, ?, ?> repository : repositories.values()) {
-            if (repository == this) {
-                continue;
-            }
-            if (repository.parentEntityClassMap.isEmpty()) {
+            if (repository == this || repository.parentEntityClassMap.isEmpty()) {
                 continue;
             }
-            boolean isParent = false;
-            for (Class<?> parentClass : repository.parentEntityClassMap.values()) {
-                if (parentClass.isAssignableFrom(entityClass)) {
-                    isParent = true;
-                    break;
-                }
-            }
-            if (!isParent) {
-                continue;
-            }
-            repository.updateParentReferenceInternal(temporaryParentId, persistedParentId);
+            complete = repository.updateParentReferenceInternal(getEntityClass(), temporaryParentId, persistedParentId)
+                    && complete;
         }
+        return complete;
     }
 
-    @SuppressWarnings("null")
-    private void updateParentReferenceInternal(Object oldParentId, Object newParentId) {
-        if (parentIdFields.isEmpty()) {
-            return;
-        }
-        if (oldParentId == null || newParentId == null) {
-            return;
+    /**
+     * parentEntity를 가리키는 부모 ID 필드가 oldParentId인 하위 DTO를 newParentId로 바꿉니다.
+     * 사용자 편집은 잠금 없이 기록되므로, DTO마다 읽은 값이 그대로일 때만 바꾸는 hashReplace로 기록하고
+     * 인덱스는 바꾼 ID만 새 부모로 옮깁니다.
+     * @return 다른 편집과 겹쳐 건너뛴 DTO가 없으면 true
+     */
+    private boolean updateParentReferenceInternal(Class<?> parentEntity, Object oldParentId, Object newParentId) {
+        if (parentIdFields.isEmpty() || oldParentId == null || newParentId == null) {
+            return true;
         }
 
+        boolean complete = true;
+        String hashKey = getRedisKey(null);
         for (Field field : parentIdFields) {
-            if (field.getType().isInstance(oldParentId) && field.getType().isInstance(newParentId)) {
-                // Hash에서 해당 부모를 가진 ID 목록 가져오기 (인덱스 활용)
-                String hashKey = getRedisKey(null);
-                Class<?> parentClass = parentEntityClassMap.get(field);
-                if (parentClass == null)
-                    continue;
-
-                String oldIndexField = getParentIndexField(parentClass, oldParentId);
-                String idListStr = getCacheStore().hashGetString(hashKey, oldIndexField);
-
-                if (idListStr == null || idListStr.isEmpty()) {
-                    continue;
-                }
+            Class<?> parentClass = parentEntityClassMap.get(field);
+            if (parentClass == null || !parentClass.isAssignableFrom(parentEntity)
+                    || !field.getType().isInstance(oldParentId) || !field.getType().isInstance(newParentId)) {
+                continue;
+            }
+            String idListStr = getCacheStore().hashGetString(hashKey, getParentIndexField(parentClass, oldParentId));
+            if (idListStr == null || idListStr.isEmpty()) {
+                continue;
+            }
 
-                List<String> fields = Arrays.asList(idListStr.split(","));
-                List<DTO> dtos = getCacheStore().hashMutiGet(hashKey, fields);
-                if (dtos == null || dtos.isEmpty()) {
+            for (String idStr : idListStr.split(",")) {
+                ID childId = changeType(idStr);
+                DTO dto = findCachedDtoById(childId);
+                if (dto == null) {
+                    removeIdFromParentIndex(hashKey, parentClass, oldParentId, childId); // 이미 캐시에서 내려감
                     continue;
                 }
-
-                for (DTO dto : dtos) {
-                    if (dto == null) {
-                        continue;
-                    }
-                    try {
-                        field.set(dto, newParentId);
-                        ID dtoId = extractId(dto);
-                        if (dtoId != null) {
-                            getCacheStore().hashSet(hashKey, String.valueOf(dtoId), dto);
+                try {
+                    Object currentParentId = field.get(dto);
+                    if (Objects.equals(currentParentId, oldParentId)) {
+                        // 인메모리 저장소는 캐시의 인스턴스를 그대로 돌려주므로 복사본을 고쳐 기록
+                        String readFingerprint = fingerprint(dto);
+                        DTO updated = copyDto(dto);
+                        field.set(updated, newParentId);
+                        // 읽은 뒤 저장되었거나(hashReplace 실패) 인스턴스가 그 자리에서 고쳐졌으면
+                        // 덮어쓰지 않고 다음 정리에서 다시 시도
+                        if (!Objects.equals(readFingerprint, fingerprint(dto))
+                                || !getCacheStore().hashReplace(hashKey, String.valueOf(childId), dto, updated)) {
+                            complete = false;
+                            continue;
                         }
-                    } catch (Exception e) {
-                        // ignore
+                        getMutationListeners().forEach(listener -> listener.onSaved(this, updated));
+                    } else if (!Objects.equals(currentParentId, newParentId)) {
+                        continue; // 다른 부모로 옮겨짐 (인덱스는 저장 시 갱신됨)
                     }
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException("DTO 부모 ID 업데이트 실패", e);
                 }
-
-                // 인덱스 필드 업데이트
-                getCacheStore().hashDelete(hashKey, oldIndexField);
-                getCacheStore().hashSetString(hashKey, getParentIndexField(parentClass, newParentId), idListStr);
+                addIdToParentIndex(hashKey, parentClass, newParentId, childId);
+                removeIdFromParentIndex(hashKey, parentClass, oldParentId, childId);
             }
         }
+        return complete;
     }
 
     private DTO updateDtoParentId(DTO dto, Object newParentId) {
@@ -0,0 +1,579 @@
+package com.sharedsync.shared.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 캐시 변경 저널 (write-ahead journal).
+ *
+ * AutoCacheRepository의 저장/수정/삭제를 DTO 단위 레코드로 로컬 파일에 남겨,
+ * DB에 반영되기 전에 서버가 비정상 종료되어도 재시작 시 편집 내용을 DB에 반영합니다.
+ *
+ * 디렉터리 구성:
+ * - journal-{gen}.log  : 해당 세대 동안의 변경 레코드 (append-only)
+ * - journal-{gen}.ckpt : 세대 {gen} 시작 시점에 DB와 달라진 캐시 내용(임시 ID, 로딩/동기화 이후 수정)과 남은 tombstone
+ *
+ * 레코드 종류 (키는 DTO 클래스 이름, 필드는 엔티티 ID):
+ * - HASH_SET    : 캐시에 기록된 DTO (사용자 편집, DB 로딩/동기화 결과 모두)
+ * - HASH_DELETE : 사용자가 삭제한 엔티티 (DB 삭제 필요)
+ * - HASH_EVICT  : DB와 맞춰진 뒤 캐시에서 내린 엔티티 (DB 반영 불필요)
+ *
+ * 기록은 전용 스레드가 모아서 한 번의 write + fsync로 처리합니다 (group commit).
+ * sync-interval이 0이면 사용자 편집은 fsync가 끝날 때까지 기다리고 (실패하면 편집도 실패),
+ * 0보다 크면 기다리지 않고 해당 주기마다 fsync합니다.
+ *
+ * 캐시를 이 노드만 쓰는 경우(memory, file)에만 사용합니다. 여러 노드가 공유하는 Redis 캐시에서는
+ * 다른 노드가 수정·동기화한 엔티티를 이 노드의 오래된 레코드로 되돌릴 수 있기 때문입니다.
+ */
+@Slf4j
+public class CacheMutationJournal implements CacheMutationListener, SmartInitializingSingleton {
+
+    private static final String FILE_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_SUFFIX = ".ckpt";
+    private static final String CHECKPOINT_TMP_SUFFIX = ".ckpt.tmp";
+    private static final String ALIAS_PREFIX = "ALIAS:";
+
+    private static final int MAX_GROUP_RECORDS = 1024;
+    private static final long IDLE_POLL_MILLIS = 1000;
+    private static final long COMMIT_WAIT_TIMEOUT_MILLIS = 5000;
+
+    private static final PendingRecord WAKE_UP = new PendingRecord(new byte[0], null);
+
+    private final Path directory;
+    private final long syncIntervalMillis;
+    private final int batchSize;
+    private final Supplier<List<AutoCacheRepository<?, ?, ?>>> orderedRepositories;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LinkedBlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private final Object channelLock = new Object();
+    private final Object checkpointLock = new Object();
+
+    private FileChannel channel;
+    private long generation;
+    private boolean unsynced;
+    private long lastSyncAt;
+
+    private Thread writer;
+    private volatile boolean running;
+
+    private record PendingRecord(byte[] frame, CompletableFuture<Void> durable) {
+    }
+
+    /**
+     * @param orderedRepositories 부모 → 자식 순서로 정렬된 리포지토리 목록
+     */
+    public CacheMutationJournal(Path directory, long syncIntervalMillis, int batchSize,
+            Supplier<List<AutoCacheRepository<?, ?, ?>>> orderedRepositories,
+            PlatformTransactionManager transactionManager) {
+        this.directory = directory;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.orderedRepositories = orderedRepositories;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 모든 빈이 준비된 뒤(웹소켓 연결을 받기 전) 저널 기록을 시작하고, 이전 실행의 저널을 복구합니다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long recoveredGeneration;
+        try {
+            Files.createDirectories(directory);
+            synchronized (channelLock) {
+                generation = latestGeneration();
+                recoveredGeneration = generation;
+                rotate();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("캐시 변경 저널을 열 수 없습니다: " + directory, e);
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "sharedsync-journal");
+        writer.setDaemon(true);
+        writer.start();
+
+        recover(recoveredGeneration);
+        checkpoint();
+    }
+
+    // ==== CacheMutationListener ====
+
+    @Override
+    public void onSaved(AutoCacheRepository<?, ?, ?> repository, Object dto) {
+        Object id = repository.extractIdUnchecked(dto);
+        if (id == null) {
+            return;
+        }
+        append(CacheRecordCodec.hashSet(keyOf(repository), String.valueOf(id), dto));
+    }
+
+    @Override
+    public void onDeleted(AutoCacheRepository<?, ?, ?> repository, Object id) {
+        if (AutoCacheRepository.isSystemOperation()) {
+            append(CacheRecordCodec.hashEvict(keyOf(repository), String.valueOf(id)));
+        } else {
+            append(CacheRecordCodec.hashDelete(keyOf(repository), String.valueOf(id)));
+        }
+    }
+
+    /**
+     * 영속화 전에 기록된 하위 엔티티는 임시 부모 ID를 갖고 있으므로, 복구 시 해석할 수 있도록 별칭도 기록합니다.
+     */
+    @Override
+    public void onIdAliased(AutoCacheRepository<?, ?, ?> repository, Object temporaryId, Object persistedId) {
+        append(CacheRecordCodec.hashSet(keyOf(repository), ALIAS_PREFIX + temporaryId, String.valueOf(persistedId)));
+    }
+
+    private String keyOf(AutoCacheRepository<?, ?, ?> repository) {
+        return repository.getDtoClass().getName();
+    }
+
+    /**
+     * 레코드를 기록 대기열에 넣습니다.
+     * sync-interval이 0이면 사용자 편집은 fsync 완료까지 기다립니다. (DB 로딩 등 시스템 작업은 기다리지 않음)
+     * 기록에 실패하거나 제한 시간 안에 fsync되지 않으면 편집이 보존되지 않으므로 예외를 던집니다.
+     */
+    private void append(byte[] frame) {
+        boolean waitForSync = running && syncIntervalMillis <= 0 && !AutoCacheRepository.isSystemOperation();
+        CompletableFuture<Void> durable = waitForSync ? new CompletableFuture<>() : null;
+        queue.add(new PendingRecord(frame, durable));
+        if (durable == null) {
+            return;
+        }
+        try {
+            durable.get(COMMIT_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(
+                    "캐시 변경 저널 fsync가 " + COMMIT_WAIT_TIMEOUT_MILLIS + "ms 안에 끝나지 않았습니다", e);
+        } catch (ExecutionException e) {
+            throw new UncheckedIOException("캐시 변경 저널 기록에 실패했습니다",
+                    e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("캐시 변경 저널 fsync를 기다리는 중 인터럽트되었습니다", e);
+        }
+    }
+
+    // ==== group commit ====
+
+    private void writeLoop() {
+        List<PendingRecord> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                long pollMillis = syncIntervalMillis > 0 ? syncIntervalMillis : IDLE_POLL_MILLIS;
+                PendingRecord first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    group.add(first);
+                    queue.drainTo(group, MAX_GROUP_RECORDS - 1);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * 모은 레코드를 한 번에 기록하고 fsync한 뒤 기다리는 호출자를 깨웁니다.
+     */
+    private void commit(List<PendingRecord> group) {
+        synchronized (channelLock) {
+            try {
+                if (!group.isEmpty()) {
+                    ByteBuffer[] buffers = new ByteBuffer[group.size()];
+                    long remaining = 0;
+                    for (int i = 0; i < buffers.length; i++) {
+                        buffers[i] = ByteBuffer.wrap(group.get(i).frame());
+                        remaining += buffers[i].remaining();
+                    }
+                    while (remaining > 0) {
+                        remaining -= channel.write(buffers);
+                    }
+                    unsynced = true;
+                }
+                long now = System.currentTimeMillis();
+                if (unsynced && (syncIntervalMillis <= 0 || now - lastSyncAt >= syncIntervalMillis)) {
+                    channel.force(false);
+                    unsynced = false;
+                    lastSyncAt = now;
+                }
+                group.forEach(record -> complete(record, null));
+            } catch (IOException e) {
+                log.error("[Journal] Failed to append {} record(s): {}", group.size(), e.getMessage());
+                group.forEach(record -> complete(record, e));
+            }
+        }
+    }
+
+    private void complete(PendingRecord record, IOException failure) {
+        if (record.durable() == null) {
+            return;
+        }
+        if (failure == null) {
+            record.durable().complete(null);
+        } else {
+            record.durable().completeExceptionally(failure);
+        }
+    }
+
+    // ==== checkpoint ====
+
+    @Scheduled(fixedDelayString = "${sharedsync.cache.journal.checkpoint-interval:300}000",
+            initialDelayString = "${sharedsync.cache.journal.checkpoint-interval:300}000")
+    public void scheduledCheckpoint() {
+        checkpoint();
+    }
+
+    /**
+     * 저널을 새 세대로 교체한 뒤 DB에 아직 반영되지 않은 캐시 내용과 tombstone을 체크포인트로 기록하고 이전 세대를 지웁니다.
+     * 교체 이후의 변경은 새 세대에 기록되므로, 체크포인트와 겹치는 레코드를 재생해도 결과가 같습니다.
+     */
+    public void checkpoint() {
+        if (!running) {
+            return;
+        }
+        synchronized (checkpointLock) {
+            try {
+                long checkpointGeneration;
+                synchronized (channelLock) {
+                    checkpointGeneration = rotate();
+                }
+
+                Path tmp = directory.resolve(FILE_PREFIX + checkpointGeneration + CHECKPOINT_TMP_SUFFIX);
+                long records = 0;
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    DataOutputStream stream = new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16));
+                    for (AutoCacheRepository<?, ?, ?> repository : orderedRepositories.get()) {
+                        String key = keyOf(repository);
+                        for (Object dto : repository.findAllDtos()) {
+                            // DB와 같은 내용(마지막 로딩/동기화 이후 그대로)은 복구할 필요가 없음
+                            if (repository.isUnchangedSinceSyncUnchecked(dto)) {
+                                continue;
+                            }
+                            Object id = repository.extractIdUnchecked(dto);
+                            if (id != null) {
+                                stream.write(CacheRecordCodec.hashSet(key, String.valueOf(id), dto));
+                                records++;
+                            }
+                        }
+                        for (Map.Entry<Object, Object> alias : repository.findPendingAliases().entrySet()) {
+                            stream.write(CacheRecordCodec.hashSet(key, ALIAS_PREFIX + alias.getKey(),
+                                    String.valueOf(alias.getValue())));
+                            records++;
+                        }
+                        for (Object id : repository.findTombstones()) {
+                            stream.write(CacheRecordCodec.hashDelete(key, String.valueOf(id)));
+                            records++;
+                        }
+                    }
+                    stream.flush();
+                    out.force(true);
+                }
+                Files.move(tmp, checkpointPath(checkpointGeneration),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+                deleteBefore(checkpointGeneration);
+                log.debug("[Journal] Checkpoint written: generation={}, records={}", checkpointGeneration, records);
+            } catch (IOException | RuntimeException e) {
+                log.error("[Journal] Failed to write checkpoint: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        queue.add(WAKE_UP);
+        try {
+            writer.join(COMMIT_WAIT_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (channelLock) {
+            try {
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                log.warn("[Journal] Failed to close journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ==== 복구 ====
+
+    /**
+     * 이전 실행에서 남은 체크포인트와 저널을 재생해, 캐시에 없는 편집 내용을 DB에 반영합니다.
+     *
+     * - 엔티티별로 마지막 레코드만 사용합니다. HASH_EVICT로 끝난 엔티티는 이미 DB와 같으므로 건너뜁니다.
+     * - 캐시에 이미 있는 엔티티는 캐시(스냅샷 복원, 살아 있는 Redis)를 우선합니다.
+     * - 저장 대상은 캐시에 올려 부모 → 자식 순서로 DB에 반영한 뒤 캐시에서 내리고,
+     *   삭제 대상은 tombstone으로 남겨 자식 → 부모 순서로 DB에서 삭제합니다.
+     */
+    private void recover(long lastGeneration) {
+        Map<String, Map<String, CacheRecordCodec.Record>> latest;
+        try {
+            latest = readLatestRecords(lastGeneration);
+        } catch (IOException | RuntimeException e) {
+            log.error("[Journal] Failed to read journal, recovery skipped: {}", e.getMessage(), e);
+            return;
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        List<AutoCacheRepository<?, ?, ?>> ordered = orderedRepositories.get();
+        Map<AutoCacheRepository<?, ?, ?>, List<Object>> recoveredIds = new LinkedHashMap<>();
+        int saved = 0;
+        int deleted = 0;
+
+        // 1. 별칭을 먼저 등록해 임시 부모 ID를 가진 하위 엔티티가 영속 부모를 찾을 수 있게 함
+        Map<AutoCacheRepository<?, ?, ?>, List<Object>> restoredAliases = new HashMap<>();
+        for (AutoCacheRepository<?, ?, ?> repository : ordered) {
+            Map<String, CacheRecordCodec.Record> records = latest.get(keyOf(repository));
+            if (records == null) {
+                continue;
+            }
+            for (Iterator<CacheRecordCodec.Record> iterator = records.values().iterator(); iterator.hasNext();) {
+                CacheRecordCodec.Record record = iterator.next();
+                if (record.member.startsWith(ALIAS_PREFIX)) {
+                    iterator.remove();
+                    if (record.value != null) {
+                        repository.restoreAliasUnchecked(record.member.substring(ALIAS_PREFIX.length()), record.value);
+                        restoredAliases.computeIfAbsent(repository, key -> new ArrayList<>()).add(record.value);
+                    }
+                }
+            }
+        }
+
+        // 2. 캐시에 없는 엔티티를 캐시에 올리고, 삭제는 tombstone으로 표시
+        for (AutoCacheRepository<?, ?, ?> repository : ordered) {
+            Map<String, CacheRecordCodec.Record> records = latest.get(keyOf(repository));
+            if (records == null) {
+                continue;
+            }
+            List<Object> ids = new ArrayList<>();
+            for (CacheRecordCodec.Record record : records.values()) {
+                if (repository.findDtoByIdUnchecked(record.member) != null) {
+                    continue;
+                }
+                if (record.op == CacheRecordCodec.OP_HASH_SET && record.value != null) {
+                    AutoCacheRepository.runAsSystemOperation(() -> repository.saveUnchecked(record.value));
+                    ids.add(repository.extractIdUnchecked(record.value));
+                    saved++;
+                } else if (record.op == CacheRecordCodec.OP_HASH_DELETE) {
+                    repository.markTombstoneUnchecked(record.member);
+                    deleted++;
+                }
+            }
+            recoveredIds.put(repository, ids);
+        }
+
+        // 3. 저장 대상을 부모 → 자식 순서로 DB에 반영 (자식의 임시 부모 ID는 별칭으로 해석됨)
+        Map<AutoCacheRepository<?, ?, ?>, List<Object>> evictions = new HashMap<>();
+        for (Map.Entry<AutoCacheRepository<?, ?, ?>, List<Object>> entry : recoveredIds.entrySet()) {
+            AutoCacheRepository<?, ?, ?> repository = entry.getKey();
+            List<Object> dtos = new ArrayList<>();
+            for (Object id : entry.getValue()) {
+                Object dto = repository.findDtoByIdUnchecked(id);
+                if (dto != null) {
+                    dtos.add(dto);
+                }
+            }
+            List<Object> evict = new ArrayList<>(entry.getValue());
+            try {
+                List<?> persisted = AutoCacheRepository.runAsSystemOperation(() -> transactionTemplate.execute(
+                        status -> repository.syncToDatabaseInBatchUnchecked(dtos, batchSize)));
+                if (persisted != null) {
+                    persisted.forEach(dto -> evict.add(repository.extractIdUnchecked(dto)));
+                }
+            } catch (RuntimeException e) {
+                log.error("[Journal] Failed to recover {} {} entities: {}", dtos.size(),
+                        repository.getEntityType().getSimpleName(), e.getMessage(), e);
+            }
+            evictions.put(repository, evict);
+        }
+
+        // 4. 삭제 대상을 자식 → 부모 순서로 DB에서 삭제 (tombstone은 커밋된 뒤에만 지움)
+        List<AutoCacheRepository<?, ?, ?>> childFirst = new ArrayList<>(ordered);
+        Collections.reverse(childFirst);
+        for (AutoCacheRepository<?, ?, ?> repository : childFirst) {
+            List<Object> ids = repository.findTombstones();
+            if (ids.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int from = 0; from < ids.size(); from += batchSize) {
+                        repository.deleteFromDatabaseByIdsUnchecked(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+                    }
+                });
+                repository.clearRoomTombstonesUnchecked(null, ids);
+            } catch (RuntimeException e) {
+                log.error("[Journal] Failed to recover deletes of {}: {}",
+                        repository.getEntityType().getSimpleName(), e.getMessage(), e);
+            }
+        }
+
+        // 5. 복구용으로 올린 엔티티는 캐시에서 내림 (방에 입장하면 DB에서 다시 로딩)
+        for (AutoCacheRepository<?, ?, ?> repository : childFirst) {
+            List<Object> evict = evictions.get(repository);
+            if (evict != null) {
+                AutoCacheRepository.runAsSystemOperation(() -> evict.forEach(repository::deleteCacheByIdUnchecked));
+            }
+        }
+        // 캐시에 없는 부모의 별칭은 복구에만 필요하므로 정리
+        restoredAliases.forEach((repository, persistedIds) -> persistedIds.stream()
+                .filter(id -> repository.findDtoByIdUnchecked(id) == null)
+                .forEach(repository::discardAliasUnchecked));
+
+        log.info("[Journal] Recovered from {} ({} upserts, {} deletes, {}ms)", directory.toAbsolutePath(),
+                saved, deleted, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 가장 최근 체크포인트와 그 이후 세대의 저널을 읽어 (DTO 클래스, ID)별 마지막 레코드를 모읍니다.
+     */
+    private Map<String, Map<String, CacheRecordCodec.Record>> readLatestRecords(long lastGeneration)
+            throws IOException {
+        Map<String, Map<String, CacheRecordCodec.Record>> latest = new HashMap<>();
+
+        long checkpointGeneration = 0;
+        for (long candidate : generations(CHECKPOINT_SUFFIX)) {
+            if (candidate <= lastGeneration) {
+                checkpointGeneration = candidate;
+            }
+        }
+        if (checkpointGeneration > 0) {
+            readInto(checkpointPath(checkpointGeneration), latest);
+        }
+        for (long segmentGeneration : generations(SEGMENT_SUFFIX)) {
+            if (segmentGeneration >= checkpointGeneration && segmentGeneration <= lastGeneration) {
+                readInto(segmentPath(segmentGeneration), latest);
+            }
+        }
+
+        latest.values().forEach(records -> records.values()
+                .removeIf(record -> record.op == CacheRecordCodec.OP_HASH_EVICT));
+        latest.values().removeIf(Map::isEmpty);
+        return latest;
+    }
+
+    private void readInto(Path path, Map<String, Map<String, CacheRecordCodec.Record>> latest) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            CacheRecordCodec.Record record;
+            while ((record = CacheRecordCodec.read(buffer)) != null) {
+                latest.computeIfAbsent(record.key, key -> new LinkedHashMap<>()).put(record.member, record);
+            }
+            if (buffer.hasRemaining()) {
+                // 기록 도중 종료된 마지막 레코드는 버림
+                log.warn("[Journal] Truncated tail ignored: {} ({} bytes)", path, buffer.remaining());
+            }
+        }
+    }
+
+    // ==== 파일 관리 ====
+
+    /**
+     * channelLock 안에서 호출되어야 합니다.
+     * @return 새로 시작된 세대 번호
+     */
+    private long rotate() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+        generation++;
+        channel = FileChannel.open(segmentPath(generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        unsynced = false;
+        return generation;
+    }
+
+    private Path segmentPath(long segmentGeneration) {
+        return directory.resolve(FILE_PREFIX + segmentGeneration + SEGMENT_SUFFIX);
+    }
+
+    private Path checkpointPath(long checkpointGeneration) {
+        return directory.resolve(FILE_PREFIX + checkpointGeneration + CHECKPOINT_SUFFIX);
+    }
+
+    private List<Long> generations(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(FILE_PREFIX) && name.endsWith(suffix))
+                    .map(name -> name.substring(FILE_PREFIX.length(), name.length() - suffix.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long latestGeneration() throws IOException {
+        long latest = 0;
+        for (long segmentGeneration : generations(SEGMENT_SUFFIX)) {
+            latest = Math.max(latest, segmentGeneration);
+        }
+        for (long checkpointGeneration : generations(CHECKPOINT_SUFFIX)) {
+            latest = Math.max(latest, checkpointGeneration);
+        }
+        return latest;
+    }
+
+    private void deleteBefore(long checkpointGeneration) throws IOException {
+        for (long segmentGeneration : generations(SEGMENT_SUFFIX)) {
+            if (segmentGeneration < checkpointGeneration) {
+                Files.deleteIfExists(segmentPath(segmentGeneration));
+            }
+        }
+        for (long older : generations(CHECKPOINT_SUFFIX)) {
+            if (older < checkpointGeneration) {
+                Files.deleteIfExists(checkpointPath(older));
+            }
+        }
+    }
+}
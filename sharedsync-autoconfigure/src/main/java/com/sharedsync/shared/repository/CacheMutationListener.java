@@ -0,0 +1,39 @@
+package com.sharedsync.shared.repository;
+
+/**
+ * 캐시가 변경(저장/수정/삭제)될 때 알림을 받는 구성 요소.
+ * DB 로딩, 동기화 등 시스템 작업 중의 변경도 알리므로, 사용자 편집만 필요하면
+ * {@link AutoCacheRepository#isSystemOperation()}으로 구분합니다.
+ */
+public interface CacheMutationListener {
+
+    /**
+     * 캐시에 DTO가 기록된 후 호출됩니다.
+     * @param repository 변경이 발생한 리포지토리
+     * @param dto 캐시에 기록된 DTO
+     */
+    default void onSaved(AutoCacheRepository<?, ?, ?> repository, Object dto) {
+    }
+
+    /**
+     * 캐시에서 엔티티가 제거된 후 호출됩니다. 함께 제거된 하위 엔티티도 각각 호출됩니다.
+     * @param repository 변경이 발생한 리포지토리
+     * @param id 제거된 엔티티 ID
+     */
+    default void onDeleted(AutoCacheRepository<?, ?, ?> repository, Object id) {
+    }
+
+    /**
+     * 임시 ID로 저장된 엔티티가 DB에 영속화되어 별칭(임시 ID → 영속 ID)이 등록된 후 호출됩니다.
+     * 하위 엔티티의 부모 ID는 별칭 정리 전까지 임시 ID로 남아 있습니다.
+     */
+    default void onIdAliased(AutoCacheRepository<?, ?, ?> repository, Object temporaryId, Object persistedId) {
+    }
+
+    /**
+     * true이면 AutoCacheRepository가 사용자 편집으로 바뀐 ID를 DIRTY 집합에 기록합니다. (write-behind용)
+     */
+    default boolean tracksDirtyIds() {
+        return false;
+    }
+}
@@ -0,0 +1,268 @@
+package com.sharedsync.shared.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * 파일 기반 캐시 영속화(스냅샷, 델타 로그, 로그 구조 저장소, 변경 저널)에서 공통으로 사용하는 바이너리 레코드 포맷.
+ *
+ * 레코드 프레임: [int bodyLength][int crc32][body]
+ * body: [byte op][string key][op별 payload]
+ *
+ * 문자열은 [int length][UTF-8 bytes], 값은 [byte tag][...] 로 기록합니다.
+ * 값 직렬화는 RedisConfig와 동일하게 타입 정보를 포함한 Jackson JSON을 사용합니다.
+ */
+final class CacheRecordCodec {
+
+    static final byte OP_VALUE_SET = 1;
+    static final byte OP_VALUE_DELETE = 2;
+    static final byte OP_COUNTER = 3;
+    static final byte OP_SET_ADD = 4;
+    static final byte OP_SET_REMOVE = 5;
+    static final byte OP_HASH_SET = 6;
+    static final byte OP_HASH_DELETE = 7;
+    /**
+     * DB에는 반영하지 않고 캐시에서만 내린 해시 필드 (변경 저널 전용)
+     */
+    static final byte OP_HASH_EVICT = 8;
+
+    static final int FRAME_HEADER_SIZE = 8;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_JSON = 2;
+
+    /**
+     * read(buffer, false)로 읽은 레코드에서 역직렬화를 생략한 JSON 값의 자리표시자
+     */
+    static final Object UNDECODED = new Object();
+
+    private static final ObjectMapper MAPPER = createMapper();
+    private static final ObjectWriter WRITER = MAPPER.writerFor(Object.class);
+
+    private CacheRecordCodec() {
+    }
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.activateDefaultTyping(
+                LaissezFaireSubTypeValidator.instance,
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return objectMapper;
+    }
+
+    /**
+     * 디코딩된 단일 레코드
+     */
+    static final class Record {
+        final byte op;
+        final String key;
+        final String member;
+        final Object value;
+        final long number;
+
+        Record(byte op, String key, String member, Object value, long number) {
+            this.op = op;
+            this.key = key;
+            this.member = member;
+            this.value = value;
+            this.number = number;
+        }
+    }
+
+    // ==== 레코드 인코딩 ====
+
+    static byte[] valueSet(String key, Object value) {
+        return encode(OP_VALUE_SET, key, null, value, 0);
+    }
+
+    static byte[] valueDelete(String key) {
+        return encode(OP_VALUE_DELETE, key, null, null, 0);
+    }
+
+    static byte[] counter(String key, long value) {
+        return encode(OP_COUNTER, key, null, null, value);
+    }
+
+    static byte[] setAdd(String key, String member) {
+        return encode(OP_SET_ADD, key, member, null, 0);
+    }
+
+    static byte[] setRemove(String key, String member) {
+        return encode(OP_SET_REMOVE, key, member, null, 0);
+    }
+
+    static byte[] hashSet(String key, String field, Object value) {
+        return encode(OP_HASH_SET, key, field, value, 0);
+    }
+
+    static byte[] hashDelete(String key, String field) {
+        return encode(OP_HASH_DELETE, key, field, null, 0);
+    }
+
+    static byte[] hashEvict(String key, String field) {
+        return encode(OP_HASH_EVICT, key, field, null, 0);
+    }
+
+    private static byte[] encode(byte op, String key, String member, Object value, long number) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeByte(op);
+            writeString(out, key);
+            switch (op) {
+                case OP_VALUE_SET -> writeValue(out, value);
+                case OP_COUNTER -> out.writeLong(number);
+                case OP_SET_ADD, OP_SET_REMOVE, OP_HASH_DELETE, OP_HASH_EVICT -> writeString(out, member);
+                case OP_HASH_SET -> {
+                    writeString(out, member);
+                    writeValue(out, value);
+                }
+                default -> {
+                }
+            }
+            out.flush();
+            byte[] bytes = body.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + bytes.length);
+            frame.putInt(bytes.length);
+            frame.putInt((int) crc.getValue());
+            frame.put(bytes);
+            return frame.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 현재 위치에서 레코드 하나를 읽습니다.
+     * 남은 바이트가 부족하거나(기록 도중 종료된 꼬리) CRC가 맞지 않으면 null을 반환하고 위치를 되돌립니다.
+     */
+    static Record read(ByteBuffer buffer) {
+        return read(buffer, true);
+    }
+
+    /**
+     * @param decodeValues false이면 JSON 값을 역직렬화하지 않고 {@link #UNDECODED}로 채웁니다 (인덱스 재구성용).
+     */
+    static Record read(ByteBuffer buffer, boolean decodeValues) {
+        int start = buffer.position();
+        if (buffer.remaining() < FRAME_HEADER_SIZE) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int expectedCrc = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) {
+            buffer.position(start);
+            return null;
+        }
+
+        ByteBuffer body = buffer.slice(buffer.position(), length);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            buffer.position(start);
+            return null;
+        }
+        buffer.position(buffer.position() + length);
+
+        try {
+            byte op = body.get();
+            String key = readString(body);
+            return switch (op) {
+                case OP_VALUE_SET -> new Record(op, key, null, readValue(body, decodeValues), 0);
+                case OP_COUNTER -> new Record(op, key, null, null, body.getLong());
+                case OP_SET_ADD, OP_SET_REMOVE, OP_HASH_DELETE, OP_HASH_EVICT -> new Record(op, key, readString(body), null, 0);
+                case OP_HASH_SET -> new Record(op, key, readString(body), readValue(body, decodeValues), 0);
+                default -> new Record(op, key, null, null, 0);
+            };
+        } catch (BufferUnderflowException e) {
+            buffer.position(start);
+            return null;
+        }
+    }
+
+    // ==== 기본 타입 인코딩 ====
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(TAG_STRING);
+            writeString(out, s);
+        } else {
+            byte[] json = WRITER.writeValueAsBytes(value);
+            out.writeByte(TAG_JSON);
+            out.writeInt(json.length);
+            out.write(json);
+        }
+    }
+
+    static Object readValue(ByteBuffer buffer) {
+        return readValue(buffer, true);
+    }
+
+    private static Object readValue(ByteBuffer buffer, boolean decode) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(buffer);
+            case TAG_JSON:
+                int length = buffer.getInt();
+                if (length > buffer.remaining()) {
+                    throw new BufferUnderflowException();
+                }
+                if (!decode) {
+                    buffer.position(buffer.position() + length);
+                    return UNDECODED;
+                }
+                byte[] json = new byte[length];
+                buffer.get(json);
+                try {
+                    return MAPPER.readValue(json, Object.class);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("캐시 값을 역직렬화할 수 없습니다.", e);
+                }
+            default:
+                throw new IllegalStateException("알 수 없는 값 태그: " + tag);
+        }
+    }
+}
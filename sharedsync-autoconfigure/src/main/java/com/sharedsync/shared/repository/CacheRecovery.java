@@ -0,0 +1,20 @@
+package com.sharedsync.shared.repository;
+
+/**
+ * 재시작 후 디스크에서 캐시를 복원하는 구성 요소 (스냅샷, 파일 기반 저장소).
+ * 복원된 방에는 DB에 아직 반영되지 않은 변경이 남아 있을 수 있으므로,
+ * 최초 입장 시 DB에서 다시 로딩하지 않고 복원된 캐시를 그대로 사용해야 합니다.
+ */
+public interface CacheRecovery {
+
+    /**
+     * 복원된 방을 최초 입장 시 한 번만 그대로 사용하도록 표시합니다.
+     * @return 복원된 캐시를 사용해야 하면 true (이후 같은 rootId 호출은 false)
+     */
+    boolean claimRestoredRoot(String rootId);
+
+    /**
+     * 디스크에서 하나 이상의 레코드를 복원했는지 여부
+     */
+    boolean isRestored();
+}
@@ -61,6 +61,11 @@ public interface CacheStore<V> {
      */
     Set<String> getSet(String key);
 
+    /**
+     * Set에 값이 있는지 확인 (전체 Set을 읽지 않음)
+     */
+    boolean isSetMember(String key, String value);
+
     /**
      * Hash에 값 저장
      */
@@ -76,6 +81,13 @@ public interface CacheStore<V> {
      */
     List<V> hashMutiGet(String key, List<String> fields);
 
+    /**
+     * Hash 필드의 현재 값이 expected와 같을 때만 value로 바꿉니다 (원자적).
+     * 인메모리 저장소는 equals로, 그 외에는 직렬화한 내용으로 비교합니다.
+     * @return 바꿨으면 true (필드가 없거나 다른 값이면 false)
+     */
+    boolean hashReplace(String key, String field, V expected, V value);
+
     /**
      * Hash에서 필드 삭제
      */
@@ -95,4 +107,15 @@ public interface CacheStore<V> {
      * Hash에서 문자열 값 조회 (인덱스용)
      */
     String hashGetString(String key, String field);
+
+    /**
+     * Hash에서 여러 문자열 값 조회 (인덱스용, 없는 필드는 null)
+     */
+    default List<String> hashMultiGetString(String key, List<String> fields) {
+        List<String> values = new java.util.ArrayList<>(fields.size());
+        for (String field : fields) {
+            values.add(hashGetString(key, field));
+        }
+        return values;
+    }
 }
@@ -0,0 +1,111 @@
+package com.sharedsync.shared.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 부모 엔티티를 DB에서 지울 때 하위 테이블을 집합 단위로 함께 지웁니다.
+ *
+ * 스키마 그래프(@ParentId 관계)를 부모 → 자식 방향으로 따라가며 단계별 자식 ID를 IN 쿼리로 모은 뒤,
+ * 가장 깊은 단계부터 테이블마다 DELETE ... WHERE 부모 IN (...) 한 번으로 지웁니다.
+ * 하위 타입 중 하나라도 JPQL 일괄 삭제가 불가능하거나(cascade 매핑 등) 자기 참조가 있으면 계획을 세우지 않으며,
+ * 호출하는 쪽은 기존의 엔티티 단위 삭제로 처리합니다.
+ */
+final class CascadeDeletePlanner {
+
+    static final int IN_CHUNK_SIZE = 1000;
+
+    private record Step(AutoCacheRepository<?, ?, ?> repository, Class<?> parentClass, String relationField,
+            List<Object> parentIds) {
+    }
+
+    private final Collection<AutoCacheRepository<?, ?, ?>> repositories;
+
+    CascadeDeletePlanner(Collection<AutoCacheRepository<?, ?, ?>> repositories) {
+        this.repositories = repositories;
+    }
+
+    /**
+     * root 타입의 rootIds 행과 모든 하위 행을 DB에서 삭제합니다. 현재 트랜잭션 안에서 실행됩니다.
+     * @return 계획을 세울 수 없어 아무것도 지우지 않았으면 false
+     */
+    boolean deleteCascade(AutoCacheRepository<?, ?, ?> root, List<Object> rootIds) {
+        if (rootIds.isEmpty()) {
+            return true;
+        }
+        if (!root.isBulkDeletable()) {
+            return false;
+        }
+        List<Step> steps = plan(root, rootIds);
+        if (steps == null) {
+            return false;
+        }
+
+        // 가장 깊은 단계부터 삭제해야 외래 키를 어기지 않음
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            Step step = steps.get(i);
+            for (List<Object> chunk : chunks(step.parentIds())) {
+                step.repository().deleteByRelation(step.relationField(), step.parentClass(), chunk);
+            }
+        }
+        for (List<Object> chunk : chunks(rootIds)) {
+            root.deleteFromDatabaseByIdsUnchecked(chunk);
+        }
+        return true;
+    }
+
+    /**
+     * 단계(BFS)별 삭제 계획. 앞쪽이 얕은 단계입니다.
+     */
+    private List<Step> plan(AutoCacheRepository<?, ?, ?> root, List<Object> rootIds) {
+        List<Step> steps = new ArrayList<>();
+        Map<AutoCacheRepository<?, ?, ?>, Set<Object>> frontier = new LinkedHashMap<>();
+        frontier.put(root, new LinkedHashSet<>(rootIds));
+
+        // 타입 그래프가 순환하지 않으면 단계 수는 타입 수를 넘지 않음
+        for (int depth = 0; !frontier.isEmpty(); depth++) {
+            if (depth > repositories.size()) {
+                return null;
+            }
+            Map<AutoCacheRepository<?, ?, ?>, Set<Object>> next = new LinkedHashMap<>();
+            for (Map.Entry<AutoCacheRepository<?, ?, ?>, Set<Object>> entry : frontier.entrySet()) {
+                AutoCacheRepository<?, ?, ?> parent = entry.getKey();
+                List<Object> parentIds = new ArrayList<>(entry.getValue());
+                for (AutoCacheRepository<?, ?, ?> child : repositories) {
+                    for (Class<?> parentClass : child.parentClassesOf(parent.getEntityType())) {
+                        if (child == parent || !child.isBulkDeletable()) {
+                            return null;
+                        }
+                        List<String> relationFields = child.relationFieldsTo(parentClass);
+                        if (relationFields.isEmpty()) {
+                            return null; // 부모를 연관 필드로 참조하지 않으면 집합 삭제를 만들 수 없음
+                        }
+                        for (String relationField : relationFields) {
+                            steps.add(new Step(child, parentClass, relationField, parentIds));
+                            Set<Object> childIds = next.computeIfAbsent(child, key -> new LinkedHashSet<>());
+                            for (List<Object> chunk : chunks(parentIds)) {
+                                childIds.addAll(child.selectIdsByRelation(relationField, parentClass, chunk));
+                            }
+                        }
+                    }
+                }
+            }
+            next.values().removeIf(Set::isEmpty);
+            frontier = next;
+        }
+        return steps;
+    }
+
+    private static List<List<Object>> chunks(List<Object> ids) {
+        List<List<Object>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + IN_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,884 @@
+package com.sharedsync.shared.repository;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 로그 구조(append-only) 파일 기반 CacheStore 구현체.
+ * Redis 없이 단일 인스턴스에서 캐시를 디스크에 영속화합니다.
+ *
+ * - 모든 변경은 cache.log 끝에 순차 기록됩니다 (CacheRecordCodec 레코드 포맷).
+ * - 값/해시 필드는 메모리 인덱스에 최신 레코드의 오프셋만 보관하고, 조회 시 파일에서 읽습니다.
+ *   (부모 인덱스 같은 문자열 값은 인덱스에 함께 보관)
+ * - 카운터/셋은 메모리에 유지하면서 변경 레코드만 로그에 기록합니다.
+ * - 덮어쓰기/삭제로 참조가 끊긴 레코드가 일정 비율을 넘으면 살아 있는 레코드만 새 파일로 복사(컴팩션)합니다.
+ *
+ * 재시작 시 로그를 고정 크기 버퍼로 순차 스캔하여 인덱스를 재구성합니다. (파일 크기 제한 없음)
+ * 기록 도중 끊긴 마지막 레코드만 잘라내고, 중간 레코드가 손상되었으면 뒤의 레코드를 지우지 않도록 시작을 중단합니다.
+ *
+ * @param <V> 값 타입 (DTO)
+ */
+@Slf4j
+public class FileLogCacheStore<V> implements CacheStore<V>, CacheRecovery {
+
+    private static final String LOG_FILE = "cache.log";
+    private static final String COMPACT_FILE = "cache.log.compact";
+    private static final int RECOVERY_CHUNK = 1 << 20;
+    private static final int IO_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /**
+     * 로그 내 레코드 위치. 문자열 값은 inline에 함께 보관합니다.
+     */
+    private static final class Slot {
+        final long offset;
+        final int length;
+        final String inline;
+
+        Slot(long offset, int length, String inline) {
+            this.offset = offset;
+            this.length = length;
+            this.inline = inline;
+        }
+    }
+
+    private final Path directory;
+    private final Path logPath;
+    private final long syncIntervalMillis;
+    private final double compactionRatio;
+    private final long compactionMinBytes;
+
+    // 조회는 read lock, 기록/컴팩션은 write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService maintenance;
+    // 컴팩션은 한 번에 하나만 (복사 중에는 write lock을 잡지 않음)
+    private final Object compactionMonitor = new Object();
+
+    private Map<String, Slot> values = new HashMap<>();
+    private Map<String, Map<String, Slot>> hashes = new HashMap<>();
+    private Map<String, Long> counters = new HashMap<>();
+    private Map<String, Set<String>> sets = new HashMap<>();
+
+    // 인터럽트로 닫힌 채널을 다시 열 때 교체하므로 잠금 밖(컴팩션 복사)에서도 최신 값을 읽음
+    private volatile FileChannel channel;
+    private final Object reopenMonitor = new Object();
+    private long writePosition;
+    private long garbageBytes;
+    private boolean unsynced;
+    private volatile boolean closing;
+
+    private final Set<String> claimedRoots = ConcurrentHashMap.newKeySet();
+    private final boolean restored;
+
+    public FileLogCacheStore(Path directory, long syncIntervalMillis, long compactionIntervalSeconds,
+            double compactionRatio, long compactionMinBytes) {
+        this.directory = directory;
+        this.logPath = directory.resolve(LOG_FILE);
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.compactionRatio = compactionRatio;
+        this.compactionMinBytes = compactionMinBytes;
+
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(directory.resolve(COMPACT_FILE));
+            this.channel = FileChannel.open(logPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long started = System.currentTimeMillis();
+            recover();
+            log.info("[FileCache] Recovered from {} ({} values, {} hashes, {} bytes, {}ms)", logPath.toAbsolutePath(),
+                    values.size(), hashes.size(), writePosition, System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            throw new UncheckedIOException("파일 캐시 저장소를 열 수 없습니다: " + logPath, e);
+        }
+        this.restored = !values.isEmpty() || !hashes.isEmpty();
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sharedsync-file-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (syncIntervalMillis > 0) {
+            maintenance.scheduleWithFixedDelay(this::syncQuietly,
+                    syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        if (compactionIntervalSeconds > 0) {
+            maintenance.scheduleWithFixedDelay(this::compactIfNeeded,
+                    compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    // ==== 값 ====
+
+    @Override
+    public V get(String key) {
+        lock.readLock().lock();
+        try {
+            return readSlot(values.get(key));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void set(String key, V value) {
+        write(() -> {
+            byte[] frame = CacheRecordCodec.valueSet(key, value);
+            Slot previous = values.put(key, appendSlot(frame, value));
+            if (previous != null) {
+                garbageBytes += previous.length;
+            }
+        });
+    }
+
+    @Override
+    public void delete(String key) {
+        write(() -> {
+            if (!values.containsKey(key)) {
+                return;
+            }
+            byte[] frame = CacheRecordCodec.valueDelete(key);
+            append(frame);
+            garbageBytes += values.remove(key).length + frame.length;
+        });
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        lock.readLock().lock();
+        try {
+            return values.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<V> multiGet(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<V> results = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                results.add(readSlot(values.get(key))); // null 포함 가능
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> keys(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        // Redis 패턴 "*"을 정규식으로 변환
+        String regex = pattern
+                .replace(".", "\\.")
+                .replace("*", ".*")
+                .replace("?", ".");
+        Pattern compiled = Pattern.compile("^" + regex + "$");
+
+        lock.readLock().lock();
+        try {
+            Set<String> result = new HashSet<>();
+            for (String key : values.keySet()) {
+                if (compiled.matcher(key).matches()) {
+                    result.add(key);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==== 카운터 / 셋 ====
+
+    @Override
+    public Long decrement(String key) {
+        lock.writeLock().lock();
+        try {
+            Long previous = counters.get(key);
+            long value = (previous != null ? previous : 0L) - 1;
+            byte[] frame = CacheRecordCodec.counter(key, value);
+            append(frame);
+            if (previous != null) {
+                garbageBytes += frame.length;
+            }
+            counters.put(key, value);
+            return value;
+        } catch (IOException e) {
+            throw new UncheckedIOException("캐시 로그 기록에 실패했습니다: " + logPath, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addToSet(String key, String value) {
+        write(() -> {
+            Set<String> set = sets.computeIfAbsent(key, k -> new LinkedHashSet<>());
+            if (!set.contains(value)) {
+                append(CacheRecordCodec.setAdd(key, value));
+                set.add(value);
+            }
+        });
+    }
+
+    @Override
+    public void removeFromSet(String key, String value) {
+        write(() -> {
+            Set<String> set = sets.get(key);
+            if (set == null || !set.contains(value)) {
+                return;
+            }
+            byte[] frame = CacheRecordCodec.setRemove(key, value);
+            append(frame);
+            // 추가 레코드와 삭제 레코드는 같은 크기
+            garbageBytes += frame.length * 2L;
+            set.remove(value);
+            if (set.isEmpty()) {
+                sets.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public Set<String> getSet(String key) {
+        lock.readLock().lock();
+        try {
+            Set<String> set = sets.get(key);
+            return set != null ? new HashSet<>(set) : Collections.emptySet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isSetMember(String key, String value) {
+        lock.readLock().lock();
+        try {
+            Set<String> set = sets.get(key);
+            return set != null && set.contains(value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ==== 해시 ====
+
+    @Override
+    public void hashSet(String key, String field, V value) {
+        putHashField(key, field, value);
+    }
+
+    @Override
+    public V hashGet(String key, String field) {
+        lock.readLock().lock();
+        try {
+            Map<String, Slot> hash = hashes.get(key);
+            return hash != null ? readSlot(hash.get(field)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<V> hashMutiGet(String key, List<String> fields) {
+        lock.readLock().lock();
+        try {
+            Map<String, Slot> hash = hashes.get(key);
+            if (hash == null) return Collections.emptyList();
+            List<V> results = new ArrayList<>(fields.size());
+            for (String field : fields) {
+                results.add(readSlot(hash.get(field)));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 기록된 레코드와 expected로 만든 레코드의 바이트를 비교합니다. (값은 결정적인 JSON으로 직렬화됨)
+     */
+    @Override
+    public boolean hashReplace(String key, String field, V expected, V value) {
+        boolean[] replaced = {false};
+        write(() -> {
+            Map<String, Slot> hash = hashes.get(key);
+            Slot current = hash != null ? hash.get(field) : null;
+            if (current == null || !Arrays.equals(readFrame(current), CacheRecordCodec.hashSet(key, field, expected))) {
+                return;
+            }
+            hash.put(field, appendSlot(CacheRecordCodec.hashSet(key, field, value), value));
+            garbageBytes += current.length;
+            replaced[0] = true;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public void hashDelete(String key, String field) {
+        write(() -> {
+            Map<String, Slot> hash = hashes.get(key);
+            if (hash == null || !hash.containsKey(field)) {
+                return;
+            }
+            byte[] frame = CacheRecordCodec.hashDelete(key, field);
+            append(frame);
+            garbageBytes += hash.remove(field).length + frame.length;
+            if (hash.isEmpty()) {
+                hashes.remove(key);
+            }
+        });
+    }
+
+    @Override
+    public Set<String> hashkeys(String key) {
+        lock.readLock().lock();
+        try {
+            Map<String, Slot> hash = hashes.get(key);
+            return hash != null ? new HashSet<>(hash.keySet()) : Collections.emptySet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void hashSetString(String key, String field, String value) {
+        putHashField(key, field, value);
+    }
+
+    @Override
+    public String hashGetString(String key, String field) {
+        lock.readLock().lock();
+        try {
+            Map<String, Slot> hash = hashes.get(key);
+            Object value = hash != null ? readSlot(hash.get(field)) : null;
+            return value != null ? String.valueOf(value) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putHashField(String key, String field, Object value) {
+        write(() -> {
+            byte[] frame = CacheRecordCodec.hashSet(key, field, value);
+            Slot previous = hashes.computeIfAbsent(key, k -> new HashMap<>()).put(field, appendSlot(frame, value));
+            if (previous != null) {
+                garbageBytes += previous.length;
+            }
+        });
+    }
+
+    // ==== CacheRecovery ====
+
+    @Override
+    public boolean claimRestoredRoot(String rootId) {
+        return restored && claimedRoots.add(rootId);
+    }
+
+    @Override
+    public boolean isRestored() {
+        return restored;
+    }
+
+    // ==== 로그 기록 ====
+
+    @FunctionalInterface
+    private interface LogWrite {
+        void run() throws IOException;
+    }
+
+    private void write(LogWrite action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("캐시 로그 기록에 실패했습니다: " + logPath, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Slot appendSlot(byte[] frame, Object value) throws IOException {
+        long offset = append(frame);
+        return new Slot(offset, frame.length, value instanceof String s ? s : null);
+    }
+
+    /**
+     * write lock 안에서 호출되어야 합니다.
+     * @return 기록된 레코드의 시작 오프셋
+     */
+    private long append(byte[] frame) throws IOException {
+        long offset = writePosition;
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        while (buffer.hasRemaining()) {
+            onChannel(current -> current.write(buffer, offset + buffer.position()));
+        }
+        writePosition += frame.length;
+        if (syncIntervalMillis <= 0 || closing) {
+            force(false);
+        } else {
+            unsynced = true;
+        }
+        return offset;
+    }
+
+    @FunctionalInterface
+    private interface ChannelIo<R> {
+        R run(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * 채널 I/O를 호출한 스레드의 인터럽트와 분리합니다.
+     * FileChannel은 I/O 중인 스레드가 인터럽트되면 채널 자체를 닫으므로(ClosedByInterruptException),
+     * 그대로 두면 한 요청 스레드의 인터럽트로 모든 스레드의 조회/기록이 실패합니다.
+     * 채널이 닫혀 실패하면 인터럽트 상태를 잠시 지운 채 다시 열어 재시도하고, 끝나면 인터럽트 상태를 되돌립니다.
+     * (위치를 지정한 읽기/쓰기라 재시도해도 결과가 같음)
+     */
+    private <R> R onChannel(ChannelIo<R> io) throws IOException {
+        boolean interrupted = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                FileChannel current = channel;
+                try {
+                    return io.run(current);
+                } catch (ClosedChannelException e) {
+                    interrupted |= Thread.interrupted();
+                    if (attempt >= IO_ATTEMPTS) {
+                        throw e;
+                    }
+                    reopen(current);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void force(boolean metaData) throws IOException {
+        onChannel(current -> {
+            current.force(metaData);
+            return null;
+        });
+    }
+
+    /**
+     * 인터럽트로 닫힌 채널을 같은 파일로 다시 엽니다. 여러 스레드가 동시에 실패해도 한 번만 엽니다.
+     */
+    private void reopen(FileChannel failed) throws IOException {
+        synchronized (reopenMonitor) {
+            if (channel == failed && !failed.isOpen()) {
+                channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                log.warn("[FileCache] Reopened {} after an interrupted I/O", logPath);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V readSlot(Slot slot) {
+        if (slot == null) {
+            return null;
+        }
+        if (slot.inline != null) {
+            return (V) slot.inline;
+        }
+        try {
+            CacheRecordCodec.Record record = CacheRecordCodec.read(ByteBuffer.wrap(readFrame(slot)));
+            if (record == null) {
+                throw new IllegalStateException("손상된 캐시 레코드: offset=" + slot.offset);
+            }
+            return (V) record.value;
+        } catch (IOException e) {
+            throw new UncheckedIOException("캐시 로그를 읽을 수 없습니다: " + logPath, e);
+        }
+    }
+
+    private byte[] readFrame(Slot slot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length);
+        while (buffer.hasRemaining()) {
+            if (onChannel(current -> current.read(buffer, slot.offset + buffer.position())) < 0) {
+                throw new EOFException("캐시 로그가 예상보다 짧습니다: offset=" + slot.offset);
+            }
+        }
+        return buffer.array();
+    }
+
+    // ==== 복구 ====
+
+    private void recover() throws IOException {
+        long size = channel.size();
+        LogScanner scanner = new LogScanner();
+        long position = 0;
+        while (position < size) {
+            if (!scanner.ensure(CacheRecordCodec.FRAME_HEADER_SIZE)) {
+                break; // 헤더까지 기록되지 못한 꼬리
+            }
+            int length = scanner.buffer.getInt(scanner.buffer.position());
+            long frameEnd = position + CacheRecordCodec.FRAME_HEADER_SIZE + (long) length;
+            if (length > 0 && frameEnd > size) {
+                break; // 본문까지 기록되지 못한 꼬리
+            }
+            CacheRecordCodec.Record record = length > 0 && scanner.ensure(CacheRecordCodec.FRAME_HEADER_SIZE + length)
+                    ? CacheRecordCodec.read(scanner.buffer, false)
+                    : null;
+            if (record == null) {
+                // 마지막 레코드이거나 뒤가 0으로만 채워져 있으면 끊긴 꼬리, 아니면 중간 손상
+                if (frameEnd == size || scanner.restIsZero()) {
+                    break;
+                }
+                throw new IllegalStateException("캐시 로그 중간에 손상된 레코드가 있습니다: offset=" + position
+                        + ", file=" + logPath + " (뒤의 레코드를 보존하기 위해 복구를 중단합니다)");
+            }
+            replay(record, position, (int) (frameEnd - position));
+            position = frameEnd;
+        }
+
+        writePosition = position;
+        if (writePosition < size) {
+            // 기록 도중 종료된 마지막 레코드는 잘라냄
+            log.warn("[FileCache] Truncating incomplete tail of {} ({} bytes)", logPath, size - writePosition);
+            channel.truncate(writePosition);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * 복구용 순차 읽기 버퍼. buffer의 현재 위치가 다음 레코드의 시작입니다.
+     */
+    private final class LogScanner {
+        ByteBuffer buffer = ByteBuffer.allocate(RECOVERY_CHUNK).limit(0);
+        private long filePosition;
+
+        /**
+         * 최소 n 바이트를 버퍼에 채웁니다. 파일 끝이라 부족하면 false
+         */
+        boolean ensure(int n) throws IOException {
+            if (buffer.remaining() >= n) {
+                return true;
+            }
+            if (buffer.capacity() < n) {
+                ByteBuffer larger = ByteBuffer.allocate(n);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, filePosition);
+                if (read <= 0) {
+                    break;
+                }
+                filePosition += read;
+            }
+            buffer.flip();
+            return buffer.remaining() >= n;
+        }
+
+        /**
+         * 현재 위치부터 파일 끝까지 0만 있는지 확인합니다. (파일 크기만 늘어난 채 종료된 경우)
+         */
+        boolean restIsZero() throws IOException {
+            while (true) {
+                while (buffer.hasRemaining()) {
+                    if (buffer.get() != 0) {
+                        return false;
+                    }
+                }
+                if (!ensure(1)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    private void replay(CacheRecordCodec.Record record, long offset, int length) {
+        String inline = record.value instanceof String s ? s : null;
+        switch (record.op) {
+            case CacheRecordCodec.OP_VALUE_SET -> {
+                Slot previous = values.put(record.key, new Slot(offset, length, inline));
+                if (previous != null) {
+                    garbageBytes += previous.length;
+                }
+            }
+            case CacheRecordCodec.OP_VALUE_DELETE -> {
+                Slot previous = values.remove(record.key);
+                garbageBytes += length + (previous != null ? previous.length : 0);
+            }
+            case CacheRecordCodec.OP_COUNTER -> {
+                if (counters.put(record.key, record.number) != null) {
+                    garbageBytes += length;
+                }
+            }
+            case CacheRecordCodec.OP_SET_ADD -> {
+                if (!sets.computeIfAbsent(record.key, k -> new LinkedHashSet<>()).add(record.member)) {
+                    garbageBytes += length;
+                }
+            }
+            case CacheRecordCodec.OP_SET_REMOVE -> {
+                Set<String> set = sets.get(record.key);
+                boolean removed = set != null && set.remove(record.member);
+                garbageBytes += removed ? length * 2L : length;
+                if (set != null && set.isEmpty()) {
+                    sets.remove(record.key);
+                }
+            }
+            case CacheRecordCodec.OP_HASH_SET -> {
+                Slot previous = hashes.computeIfAbsent(record.key, k -> new HashMap<>())
+                        .put(record.member, new Slot(offset, length, inline));
+                if (previous != null) {
+                    garbageBytes += previous.length;
+                }
+            }
+            case CacheRecordCodec.OP_HASH_DELETE -> {
+                Map<String, Slot> hash = hashes.get(record.key);
+                Slot previous = hash != null ? hash.remove(record.member) : null;
+                garbageBytes += length + (previous != null ? previous.length : 0);
+                if (hash != null && hash.isEmpty()) {
+                    hashes.remove(record.key);
+                }
+            }
+            default -> garbageBytes += length;
+        }
+    }
+
+    // ==== 유지 보수 ====
+
+    private void syncQuietly() {
+        lock.writeLock().lock();
+        try {
+            if (unsynced) {
+                force(false);
+                unsynced = false;
+            }
+        } catch (IOException e) {
+            log.error("[FileCache] fsync failed: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        boolean needed;
+        lock.readLock().lock();
+        try {
+            needed = garbageBytes >= compactionMinBytes && garbageBytes >= writePosition * compactionRatio;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (needed) {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.error("[FileCache] Compaction failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 살아 있는 레코드만 새 로그 파일로 복사한 뒤 원자적으로 교체합니다.
+     * 값/해시 레코드는 역직렬화 없이 바이트 그대로 옮깁니다.
+     * 복사는 인덱스 스냅샷을 기준으로 잠금 없이 진행하고, 그 사이 덧붙은 꼬리 복사와 파일 교체만 write lock 안에서 합니다.
+     */
+    public void compact() {
+        synchronized (compactionMonitor) {
+            Path compactPath = directory.resolve(COMPACT_FILE);
+            try {
+                compactFromSnapshot(compactPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("캐시 로그 컴팩션에 실패했습니다: " + logPath, e);
+            } finally {
+                try {
+                    Files.deleteIfExists(compactPath);
+                } catch (IOException e) {
+                    log.warn("[FileCache] Failed to delete {}: {}", compactPath, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void compactFromSnapshot(Path compactPath) throws IOException {
+        long snapshotEnd;
+        long snapshotGarbage;
+        List<Slot> slots = new ArrayList<>();
+        Map<String, Long> counterSnapshot;
+        Map<String, Set<String>> setSnapshot = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            snapshotEnd = writePosition;
+            snapshotGarbage = garbageBytes;
+            slots.addAll(values.values());
+            hashes.values().forEach(hash -> slots.addAll(hash.values()));
+            counterSnapshot = new HashMap<>(counters);
+            sets.forEach((key, members) -> setSnapshot.put(key, new LinkedHashSet<>(members)));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 스냅샷 시점의 레코드 복사 (기록은 snapshotEnd 뒤에만 덧붙으므로 잠금 없이 읽어도 안전)
+        Map<Slot, Slot> moved = new IdentityHashMap<>(slots.size());
+        FileChannel out = FileChannel.open(compactPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            CompactionWriter writer = new CompactionWriter(out);
+            for (Slot slot : slots) {
+                moved.put(slot, writer.copy(slot));
+            }
+            for (Map.Entry<String, Long> counter : counterSnapshot.entrySet()) {
+                writer.write(CacheRecordCodec.counter(counter.getKey(), counter.getValue()));
+            }
+            for (Map.Entry<String, Set<String>> set : setSnapshot.entrySet()) {
+                for (String member : set.getValue()) {
+                    writer.write(CacheRecordCodec.setAdd(set.getKey(), member));
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                // 복사 중에 덧붙은 레코드를 그대로 이어 붙이면 재생 결과가 현재 상태와 같아짐
+                long before = writePosition;
+                long tailStart = writer.position;
+                writer.copyRange(snapshotEnd, writePosition - snapshotEnd);
+                out.force(true);
+                out.close();
+
+                Files.move(compactPath, logPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                FileChannel previous = channel;
+                channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                previous.close();
+
+                Map<String, Slot> newValues = new HashMap<>(values.size());
+                values.forEach((key, slot) -> newValues.put(key, rebase(slot, moved, snapshotEnd, tailStart)));
+                Map<String, Map<String, Slot>> newHashes = new HashMap<>(hashes.size());
+                hashes.forEach((key, hash) -> {
+                    Map<String, Slot> fields = new HashMap<>(hash.size());
+                    hash.forEach((field, slot) -> fields.put(field, rebase(slot, moved, snapshotEnd, tailStart)));
+                    newHashes.put(key, fields);
+                });
+                values = newValues;
+                hashes = newHashes;
+                writePosition = writer.position;
+                // 스냅샷 이후 생긴 쓰레기만 새 파일에 남음
+                garbageBytes = Math.max(0, garbageBytes - snapshotGarbage);
+                unsynced = false;
+                log.info("[FileCache] Compacted {}: {} -> {} bytes", logPath, before, writePosition);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * 스냅샷 이후에 기록된 레코드는 이어 붙인 꼬리 안의 위치로, 그 전 레코드는 복사된 위치로 옮깁니다.
+     */
+    private static Slot rebase(Slot slot, Map<Slot, Slot> moved, long snapshotEnd, long tailStart) {
+        if (slot.offset >= snapshotEnd) {
+            return new Slot(tailStart + (slot.offset - snapshotEnd), slot.length, slot.inline);
+        }
+        Slot copied = moved.get(slot);
+        if (copied == null) {
+            throw new IllegalStateException("컴팩션 스냅샷에 없는 레코드입니다: offset=" + slot.offset);
+        }
+        return copied;
+    }
+
+    private final class CompactionWriter {
+        private final FileChannel out;
+        private long position;
+
+        CompactionWriter(FileChannel out) {
+            this.out = out;
+        }
+
+        Slot copy(Slot slot) throws IOException {
+            long offset = position;
+            copyRange(slot.offset, slot.length);
+            return new Slot(offset, slot.length, slot.inline);
+        }
+
+        void copyRange(long from, long length) throws IOException {
+            long copied = 0;
+            while (copied < length) {
+                long done = copied;
+                copied += onChannel(source -> {
+                    out.position(position + done); // 중단된 전송을 다시 시작할 때 이미 쓴 부분 뒤에서 이어 씀
+                    return source.transferTo(from + done, length - done, out);
+                });
+            }
+            position += length;
+        }
+
+        void write(byte[] frame) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            position += frame.length;
+        }
+    }
+
+    /**
+     * 백그라운드 작업을 멈추고 남은 변경을 fsync합니다. (빈 소멸 시 호출)
+     * 진행 중인 컴팩션은 인터럽트하지 않고 끝나기를 기다립니다.
+     * 다른 빈의 종료 처리(방 동기화 후 캐시 정리 등)에서 발생하는 기록도 보존되도록
+     * 파일은 열어 둔 채 이후 쓰기는 즉시 fsync합니다.
+     */
+    public void close() {
+        maintenance.shutdown();
+        try {
+            if (!maintenance.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("[FileCache] Maintenance still running after {}s on shutdown: {}", SHUTDOWN_TIMEOUT_SECONDS, logPath);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            closing = true;
+            force(true);
+            unsynced = false;
+        } catch (IOException e) {
+            log.error("[FileCache] Failed to sync {} on shutdown: {}", logPath, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.sharedsync.shared.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * InMemoryCacheStore 스냅샷/복원기.
+ *
+ * 디렉터리 구성:
+ * - cache.snapshot       : 특정 세대(generation) 시작 시점 이후의 전체 상태 (바이너리 레코드 나열)
+ * - cache-{gen}.delta    : 해당 세대 동안 발생한 변경 사항 (append-only)
+ *
+ * 스냅샷은 델타 로그를 새 세대로 교체한 직후의 상태를 기록하므로,
+ * 복원 시 스냅샷을 mmap으로 일괄 적재한 뒤 스냅샷 세대 이상의 델타 로그만 재생하면 됩니다.
+ * 모든 레코드는 절대값(set/delete, 카운터 결과값)이므로 스냅샷과 겹치는 델타를 재생해도 결과가 같습니다.
+ */
+@Slf4j
+public class InMemoryCacheSnapshotter implements StoreMutationLog, CacheRecovery {
+
+    private static final String SNAPSHOT_FILE = "cache.snapshot";
+    private static final String SNAPSHOT_TMP_FILE = "cache.snapshot.tmp";
+    private static final String DELTA_PREFIX = "cache-";
+    private static final String DELTA_SUFFIX = ".delta";
+
+    private static final int MAGIC = 0x53534E50; // "SSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final InMemoryCacheStore<?> store;
+    private final Path directory;
+
+    private final Object appendLock = new Object();
+    private final Object snapshotLock = new Object();
+
+    // 복원된 방 중 이미 입장 처리된 rootId
+    private final Set<String> claimedRoots = ConcurrentHashMap.newKeySet();
+
+    private FileChannel deltaChannel;
+    private long generation;
+    private boolean journalFailed;
+    private volatile boolean restored;
+
+    public InMemoryCacheSnapshotter(InMemoryCacheStore<?> store, Path directory) {
+        this.store = store;
+        this.directory = directory;
+    }
+
+    /**
+     * 디스크에서 캐시를 복원하고 델타 로그 기록을 시작합니다.
+     * 빈 생성 시점에 호출되므로 웹소켓 연결을 받기 전에 복원이 완료됩니다.
+     */
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            long started = System.currentTimeMillis();
+            long snapshotGeneration = restore();
+            log.info("[Snapshot] Restored from {} ({} values, {} hashes, {}ms)", directory.toAbsolutePath(),
+                    store.valueEntries().size(), store.hashEntries().size(), System.currentTimeMillis() - started);
+
+            synchronized (appendLock) {
+                generation = Math.max(snapshotGeneration, latestDeltaGeneration());
+                rotate();
+            }
+            store.attachMutationLog(this);
+        } catch (IOException e) {
+            throw new UncheckedIOException("인메모리 캐시 스냅샷을 복원할 수 없습니다: " + directory, e);
+        }
+        // 복원 직후 스냅샷으로 재생한 델타 로그를 정리
+        snapshot();
+    }
+
+    @Override
+    public boolean claimRestoredRoot(String rootId) {
+        return restored && claimedRoots.add(rootId);
+    }
+
+    @Override
+    public boolean isRestored() {
+        return restored;
+    }
+
+    @Scheduled(fixedDelayString = "${sharedsync.cache.snapshot.interval:60}000",
+            initialDelayString = "${sharedsync.cache.snapshot.interval:60}000")
+    public void scheduledSnapshot() {
+        snapshot();
+    }
+
+    /**
+     * 종료 시 최종 스냅샷을 남깁니다.
+     * 델타 로그는 그대로 유지하므로, 이후 다른 빈의 종료 처리에서 발생한 캐시 변경도 기록됩니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * 델타 로그를 새 세대로 교체한 뒤 현재 상태를 스냅샷 파일로 기록합니다.
+     * 임시 파일에 기록 후 fsync, 원자적 rename으로 교체하므로 중간에 종료되어도 이전 스냅샷이 유지됩니다.
+     */
+    public void snapshot() {
+        synchronized (snapshotLock) {
+            try {
+                long snapshotGeneration = store.withMutationsPaused(() -> {
+                    synchronized (appendLock) {
+                        try {
+                            return rotate();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+
+                Path tmp = directory.resolve(SNAPSHOT_TMP_FILE);
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    DataOutputStream out = new DataOutputStream(
+                            new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(snapshotGeneration);
+                    writeState(out);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(tmp, directory.resolve(SNAPSHOT_FILE),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+                deleteDeltasBefore(snapshotGeneration);
+                log.debug("[Snapshot] InMemory cache snapshot written: generation={}", snapshotGeneration);
+            } catch (IOException | UncheckedIOException e) {
+                log.error("[Snapshot] Failed to write InMemory cache snapshot: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // ==== StoreMutationLog ====
+
+    @Override
+    public void valueSet(String key, Object value) {
+        append(CacheRecordCodec.valueSet(key, value));
+    }
+
+    @Override
+    public void valueDeleted(String key) {
+        append(CacheRecordCodec.valueDelete(key));
+    }
+
+    @Override
+    public void counterChanged(String key, long value) {
+        append(CacheRecordCodec.counter(key, value));
+    }
+
+    @Override
+    public void setAdded(String key, String member) {
+        append(CacheRecordCodec.setAdd(key, member));
+    }
+
+    @Override
+    public void setRemoved(String key, String member) {
+        append(CacheRecordCodec.setRemove(key, member));
+    }
+
+    @Override
+    public void hashSet(String key, String field, Object value) {
+        append(CacheRecordCodec.hashSet(key, field, value));
+    }
+
+    @Override
+    public void hashDeleted(String key, String field) {
+        append(CacheRecordCodec.hashDelete(key, field));
+    }
+
+    private void append(byte[] frame) {
+        synchronized (appendLock) {
+            if (deltaChannel == null || journalFailed) {
+                return;
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(frame);
+                while (buffer.hasRemaining()) {
+                    deltaChannel.write(buffer);
+                }
+            } catch (IOException e) {
+                // 다음 스냅샷에서 전체 상태가 다시 기록되므로 그때까지 델타 기록만 중단
+                journalFailed = true;
+                log.error("[Snapshot] Failed to append delta log, journaling suspended until next snapshot: {}",
+                        e.getMessage());
+            }
+        }
+    }
+
+    // ==== 내부 구현 ====
+
+    /**
+     * appendLock 안에서 호출되어야 합니다.
+     * @return 새로 시작된 세대 번호
+     */
+    private long rotate() throws IOException {
+        if (deltaChannel != null) {
+            deltaChannel.force(false);
+            deltaChannel.close();
+        }
+        generation++;
+        deltaChannel = FileChannel.open(deltaPath(generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        journalFailed = false;
+        return generation;
+    }
+
+    private void writeState(DataOutputStream out) throws IOException {
+        for (Map.Entry<String, ?> entry : store.valueEntries().entrySet()) {
+            out.write(CacheRecordCodec.valueSet(entry.getKey(), entry.getValue()));
+        }
+        for (Map.Entry<String, AtomicLong> entry : store.counterEntries().entrySet()) {
+            out.write(CacheRecordCodec.counter(entry.getKey(), entry.getValue().get()));
+        }
+        for (Map.Entry<String, Set<String>> entry : store.setEntries().entrySet()) {
+            for (String member : entry.getValue()) {
+                out.write(CacheRecordCodec.setAdd(entry.getKey(), member));
+            }
+        }
+        for (Map.Entry<String, Map<String, Object>> entry : store.hashEntries().entrySet()) {
+            for (Map.Entry<String, Object> field : entry.getValue().entrySet()) {
+                out.write(CacheRecordCodec.hashSet(entry.getKey(), field.getKey(), field.getValue()));
+            }
+        }
+    }
+
+    /**
+     * @return 복원한 스냅샷의 세대 번호 (스냅샷이 없으면 0)
+     */
+    private long restore() throws IOException {
+        long snapshotGeneration = 0;
+        long applied = 0;
+
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.remaining() >= HEADER_SIZE && buffer.getInt() == MAGIC && buffer.getInt() == VERSION) {
+                    snapshotGeneration = buffer.getLong();
+                    applied += replay(buffer, snapshotPath);
+                } else {
+                    log.warn("[Snapshot] Ignoring unrecognized snapshot file: {}", snapshotPath);
+                }
+            }
+        }
+
+        for (long deltaGeneration : deltaGenerations()) {
+            if (deltaGeneration < snapshotGeneration) {
+                continue;
+            }
+            Path deltaPath = deltaPath(deltaGeneration);
+            try (FileChannel channel = FileChannel.open(deltaPath, StandardOpenOption.READ)) {
+                applied += replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), deltaPath);
+            }
+        }
+
+        restored = applied > 0;
+        return snapshotGeneration;
+    }
+
+    private long replay(ByteBuffer buffer, Path source) {
+        long count = 0;
+        CacheRecordCodec.Record record;
+        while ((record = CacheRecordCodec.read(buffer)) != null) {
+            apply(record);
+            count++;
+        }
+        if (buffer.hasRemaining()) {
+            // 기록 도중 종료된 마지막 레코드는 버림
+            log.warn("[Snapshot] Truncated tail ignored: {} ({} bytes)", source, buffer.remaining());
+        }
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(CacheRecordCodec.Record record) {
+        Map<String, Object> values = (Map<String, Object>) store.valueEntries();
+        switch (record.op) {
+            case CacheRecordCodec.OP_VALUE_SET -> {
+                if (record.value != null) {
+                    values.put(record.key, record.value);
+                }
+            }
+            case CacheRecordCodec.OP_VALUE_DELETE -> values.remove(record.key);
+            // 임시 ID 카운터는 감소만 하므로 가장 작은 값을 유지
+            case CacheRecordCodec.OP_COUNTER -> store.counterEntries().compute(record.key, (k, counter) -> {
+                if (counter == null) {
+                    return new AtomicLong(record.number);
+                }
+                if (record.number < counter.get()) {
+                    counter.set(record.number);
+                }
+                return counter;
+            });
+            case CacheRecordCodec.OP_SET_ADD -> store.setEntries()
+                    .computeIfAbsent(record.key, k -> ConcurrentHashMap.newKeySet())
+                    .add(record.member);
+            case CacheRecordCodec.OP_SET_REMOVE -> store.setEntries().computeIfPresent(record.key, (k, set) -> {
+                set.remove(record.member);
+                return set.isEmpty() ? null : set;
+            });
+            case CacheRecordCodec.OP_HASH_SET -> {
+                if (record.value != null) {
+                    store.hashEntries()
+                            .computeIfAbsent(record.key, k -> new ConcurrentHashMap<>())
+                            .put(record.member, record.value);
+                }
+            }
+            case CacheRecordCodec.OP_HASH_DELETE -> {
+                Map<String, Object> hash = store.hashEntries().get(record.key);
+                if (hash != null) {
+                    hash.remove(record.member);
+                }
+            }
+            default -> log.warn("[Snapshot] Unknown record op ignored: {}", record.op);
+        }
+    }
+
+    private Path deltaPath(long deltaGeneration) {
+        return directory.resolve(DELTA_PREFIX + deltaGeneration + DELTA_SUFFIX);
+    }
+
+    private List<Long> deltaGenerations() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(DELTA_PREFIX) && name.endsWith(DELTA_SUFFIX))
+                    .map(name -> name.substring(DELTA_PREFIX.length(), name.length() - DELTA_SUFFIX.length()))
+                    .filter(number -> !number.isEmpty() && number.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long latestDeltaGeneration() throws IOException {
+        List<Long> generations = deltaGenerations();
+        return generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+    }
+
+    private void deleteDeltasBefore(long snapshotGeneration) throws IOException {
+        for (long deltaGeneration : deltaGenerations()) {
+            if (deltaGeneration < snapshotGeneration) {
+                Files.deleteIfExists(deltaPath(deltaGeneration));
+            }
+        }
+    }
+}
@@ -5,9 +5,14 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
@@ -24,6 +29,10 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
     private final Map<String, Set<String>> sets = new ConcurrentHashMap<>();
     private final Map<String, Map<String, Object>> hashes = new ConcurrentHashMap<>();
 
+    // 스냅샷/델타 로그 연동 (미사용 시 null)
+    private volatile StoreMutationLog mutationLog;
+    private final ReadWriteLock mutationLock = new ReentrantReadWriteLock();
+
     @Override
     public V get(String key) {
         return store.get(key);
@@ -31,12 +40,18 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
 
     @Override
     public void set(String key, V value) {
-        store.put(key, value);
+        mutate(() -> store.compute(key, (k, old) -> {
+            record(log -> log.valueSet(k, value));
+            return value;
+        }));
     }
 
     @Override
     public void delete(String key) {
-        store.remove(key);
+        mutate(() -> store.computeIfPresent(key, (k, old) -> {
+            record(log -> log.valueDeleted(k));
+            return null;
+        }));
     }
 
     @Override
@@ -81,24 +96,33 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
 
     @Override
     public Long decrement(String key) {
-        AtomicLong counter = counters.computeIfAbsent(key, k -> new AtomicLong(0));
-        return counter.decrementAndGet();
+        return mutateAndGet(() -> {
+            AtomicLong counter = counters.computeIfAbsent(key, k -> new AtomicLong(0));
+            long value = counter.decrementAndGet();
+            record(log -> log.counterChanged(key, value));
+            return value;
+        });
     }
 
     @Override
     public void addToSet(String key, String value) {
-        sets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(value);
+        mutate(() -> sets.compute(key, (k, set) -> {
+            Set<String> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (target.add(value)) {
+                record(log -> log.setAdded(k, value));
+            }
+            return target;
+        }));
     }
 
     @Override
     public void removeFromSet(String key, String value) {
-        Set<String> set = sets.get(key);
-        if (set != null) {
-            set.remove(value);
-            if (set.isEmpty()) {
-                sets.remove(key);
+        mutate(() -> sets.computeIfPresent(key, (k, set) -> {
+            if (set.remove(value)) {
+                record(log -> log.setRemoved(k, value));
             }
-        }
+            return set.isEmpty() ? null : set;
+        }));
     }
 
     @Override
@@ -107,10 +131,15 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
         return set != null ? new HashSet<>(set) : Collections.emptySet();
     }
 
+    @Override
+    public boolean isSetMember(String key, String value) {
+        Set<String> set = sets.get(key);
+        return set != null && set.contains(value);
+    }
+
     @Override
     public void hashSet(String key, String field, V value) {
-        Map<String, Object> hash = hashes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
-        hash.put(field, value);
+        putHashValue(key, field, value);
     }
 
     @SuppressWarnings("unchecked")
@@ -132,11 +161,32 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
         return results;
     }
 
+    @Override
+    public boolean hashReplace(String key, String field, V expected, V value) {
+        Map<String, Object> hash = hashes.get(key);
+        if (hash == null) {
+            return false;
+        }
+        boolean[] replaced = {false};
+        mutate(() -> hash.computeIfPresent(field, (f, old) -> {
+            if (old != expected && !Objects.equals(old, expected)) {
+                return old;
+            }
+            record(log -> log.hashSet(key, f, value));
+            replaced[0] = true;
+            return value;
+        }));
+        return replaced[0];
+    }
+
     @Override
     public void hashDelete(String key, String field) {
         Map<String, Object> hash = hashes.get(key);
         if (hash != null) {
-            hash.remove(field);
+            mutate(() -> hash.computeIfPresent(field, (f, old) -> {
+                record(log -> log.hashDeleted(key, f));
+                return null;
+            }));
         }
     }
 
@@ -148,8 +198,7 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
 
     @Override
     public void hashSetString(String key, String field, String value) {
-        Map<String, Object> hash = hashes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
-        hash.put(field, value);
+        putHashValue(key, field, value);
     }
 
     @Override
@@ -158,6 +207,75 @@ public class InMemoryCacheStore<V> implements CacheStore<V> {
         return hash != null ? (String) hash.get(field) : null;
     }
 
+    private void putHashValue(String key, String field, Object value) {
+        Map<String, Object> hash = hashes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        mutate(() -> hash.compute(field, (f, old) -> {
+            record(log -> log.hashSet(key, f, value));
+            return value;
+        }));
+    }
+
+    // ==== 스냅샷 연동 (InMemoryCacheSnapshotter 전용) ====
+
+    private void mutate(Runnable mutation) {
+        mutateAndGet(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private <T> T mutateAndGet(Supplier<T> mutation) {
+        if (mutationLog == null) {
+            return mutation.get();
+        }
+        mutationLock.readLock().lock();
+        try {
+            return mutation.get();
+        } finally {
+            mutationLock.readLock().unlock();
+        }
+    }
+
+    private void record(Consumer<StoreMutationLog> action) {
+        StoreMutationLog log = mutationLog;
+        if (log != null) {
+            action.accept(log);
+        }
+    }
+
+    void attachMutationLog(StoreMutationLog mutationLog) {
+        this.mutationLog = mutationLog;
+    }
+
+    /**
+     * 진행 중인 변경이 모두 끝난 뒤, 새 변경을 막은 상태에서 action을 실행합니다.
+     * 델타 로그 교체 시점에 이전 로그에 기록된 변경이 모두 메모리에 반영되어 있음을 보장합니다.
+     */
+    <T> T withMutationsPaused(Supplier<T> action) {
+        mutationLock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            mutationLock.writeLock().unlock();
+        }
+    }
+
+    Map<String, V> valueEntries() {
+        return store;
+    }
+
+    Map<String, AtomicLong> counterEntries() {
+        return counters;
+    }
+
+    Map<String, Set<String>> setEntries() {
+        return sets;
+    }
+
+    Map<String, Map<String, Object>> hashEntries() {
+        return hashes;
+    }
+
     /**
      * 모든 캐시 데이터 삭제 (테스트용)
      */
@@ -4,6 +4,9 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 /**
  * Redis 기반 CacheStore 구현체
@@ -13,6 +16,11 @@ import org.springframework.data.redis.core.RedisTemplate;
  */
 public class RedisCacheStore<V> implements CacheStore<V> {
 
+    // 저장된 바이트가 기대한 값과 같을 때만 바꿈
+    private static final RedisScript<Long> HASH_REPLACE = new DefaultRedisScript<>(
+            "if redis.call('HGET', KEYS[1], ARGV[1]) ~= ARGV[2] then return 0 end "
+            + "redis.call('HSET', KEYS[1], ARGV[1], ARGV[3]) return 1", Long.class);
+
     private final RedisTemplate<String, V> redisTemplate;
 
     public RedisCacheStore(RedisTemplate<String, V> redisTemplate) {
@@ -78,6 +86,17 @@ public class RedisCacheStore<V> implements CacheStore<V> {
         });
     }
 
+    @Override
+    public boolean isSetMember(String key, String value) {
+        return Boolean.TRUE.equals(redisTemplate.execute(new org.springframework.data.redis.core.RedisCallback<Boolean>() {
+            @Override
+            public Boolean doInRedis(org.springframework.data.redis.connection.RedisConnection connection) throws org.springframework.dao.DataAccessException {
+                return connection.sIsMember(key.getBytes(java.nio.charset.StandardCharsets.UTF_8),
+                               value.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            }
+        }));
+    }
+
     @Override
     public Set<String> getSet(String key) {
         return redisTemplate.execute(new org.springframework.data.redis.core.RedisCallback<Set<String>>() {
@@ -107,6 +126,17 @@ public class RedisCacheStore<V> implements CacheStore<V> {
         return (List<V>) (List<?>) redisTemplate.opsForHash().multiGet(key, (List<Object>) (List<?>) fields);
     }
 
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean hashReplace(String key, String field, V expected, V value) {
+        RedisSerializer<Object> fields = (RedisSerializer<Object>) redisTemplate.getHashKeySerializer();
+        RedisSerializer<Object> values = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+        Long replaced = (Long) redisTemplate.execute(HASH_REPLACE, RedisSerializer.byteArray(),
+                (RedisSerializer) RedisSerializer.byteArray(), List.of(key),
+                fields.serialize(field), values.serialize(expected), values.serialize(value));
+        return replaced != null && replaced == 1L;
+    }
+
     @Override
     public void hashDelete(String key, String field) {
         redisTemplate.opsForHash().delete(key, field);
@@ -144,6 +174,29 @@ public class RedisCacheStore<V> implements CacheStore<V> {
         });
     }
 
+    @Override
+    public List<String> hashMultiGetString(String key, List<String> fields) {
+        if (fields.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
+        return redisTemplate.execute(new org.springframework.data.redis.core.RedisCallback<List<String>>() {
+            @Override
+            public List<String> doInRedis(org.springframework.data.redis.connection.RedisConnection connection) throws org.springframework.dao.DataAccessException {
+                byte[][] rawFields = new byte[fields.size()][];
+                for (int i = 0; i < rawFields.length; i++) {
+                    rawFields[i] = fields.get(i).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                }
+                List<byte[]> values = connection.hMGet(key.getBytes(java.nio.charset.StandardCharsets.UTF_8), rawFields);
+                List<String> result = new java.util.ArrayList<>(fields.size());
+                for (int i = 0; i < fields.size(); i++) {
+                    byte[] value = values != null && i < values.size() ? values.get(i) : null;
+                    result.add(value != null ? new String(value, java.nio.charset.StandardCharsets.UTF_8) : null);
+                }
+                return result;
+            }
+        });
+    }
+
     /**
      * 내부 RedisTemplate 접근 (하위 호환용)
      */
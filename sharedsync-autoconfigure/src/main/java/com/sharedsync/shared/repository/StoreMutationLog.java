@@ -0,0 +1,26 @@
+package com.sharedsync.shared.repository;
+
+/**
+ * InMemoryCacheStore의 변경 사항을 외부(델타 로그 등)로 기록하기 위한 훅.
+ * 각 메서드는 해당 키의 변경이 적용되는 임계 구역 안에서 호출되므로,
+ * 같은 키에 대한 기록 순서는 실제 적용 순서와 일치합니다.
+ */
+interface StoreMutationLog {
+
+    void valueSet(String key, Object value);
+
+    void valueDeleted(String key);
+
+    /**
+     * 카운터는 증감 연산이 아닌 변경 후의 절대값을 기록합니다.
+     */
+    void counterChanged(String key, long value);
+
+    void setAdded(String key, String member);
+
+    void setRemoved(String key, String member);
+
+    void hashSet(String key, String field, Object value);
+
+    void hashDeleted(String key, String field);
+}
@@ -147,15 +147,14 @@ public abstract class AbstractSharedCacheService<Req extends WRequest, Res exten
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
+        // 히스토리를 남길 때는 하위 트리를 한 번만 읽으며 삭제와 히스토리 수집을 함께 처리
         List<HistoryAction> subActions = new ArrayList<>();
-        if (!HistoryService.isSkipHistory()) {
-            for (ID id : ids) {
-                subActions.addAll(cacheRepository.collectCascadedHistory(id));
-            }
-        }
-
         if (!ids.isEmpty()) {
-            cacheRepository.deleteAllById(ids);
+            if (HistoryService.isSkipHistory()) {
+                cacheRepository.deleteAllById(ids);
+            } else {
+                subActions = cacheRepository.deleteAllByIdWithHistory(ids);
+            }
         }
 
         recordHistory(request, HistoryAction.Type.DELETE, before, null, subActions);
@@ -5,15 +5,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
 /**
  * 인메모리 기반 PresenceStorage 구현체.
- * 단일 인스턴스 환경에 적합합니다.
+ * 단일 인스턴스 환경에 적합합니다. (cache.type이 memory 또는 file일 때 사용)
  */
 @Component
-@ConditionalOnProperty(name = "sharedsync.cache.type", havingValue = "memory", matchIfMissing = true)
+@ConditionalOnExpression("'${sharedsync.cache.type:memory}' != 'redis'")
 public class InMemoryPresenceStorage implements PresenceStorage {
 
     // rootId -> Map<userId//sessionId, index>
@@ -28,8 +28,19 @@ public class InMemoryPresenceStorage implements PresenceStorage {
     // userId -> Set<sessionId>
     private final Map<String, java.util.Set<String>> userSessions = new ConcurrentHashMap<>();
 
-    // rootId -> lock
-    private final java.util.Set<String> syncLocks = ConcurrentHashMap.newKeySet();
+    // rootId -> DB 동기화 임대
+    private final Map<String, SyncLease> syncLeases = new ConcurrentHashMap<>();
+    private final java.util.concurrent.atomic.AtomicLong fencingTokens = new java.util.concurrent.atomic.AtomicLong();
+
+    // nodeId -> 등록 만료 시각(ms)
+    private final Map<String, Long> flushNodes = new ConcurrentHashMap<>();
+
+    private final java.util.Set<String> pendingFlushes = ConcurrentHashMap.newKeySet();
+
+    private record SyncLease(long token, long expiresAt) {}
+
+    // rootId -> init lock 만료 시각(ms)
+    private final Map<String, SyncLease> initLocks = new ConcurrentHashMap<>();
 
     @Override
     public boolean hasTracker(String rootId) {
@@ -147,12 +158,114 @@ public class InMemoryPresenceStorage implements PresenceStorage {
     }
 
     @Override
-    public boolean acquireSyncLock(String rootId) {
-        return syncLocks.add(rootId);
+    public long acquireSyncLease(String rootId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        long[] token = {0};
+        // 만료된 임대는 새 임대로 교체
+        syncLeases.compute(rootId, (k, v) -> {
+            if (v == null || v.expiresAt() <= now) {
+                token[0] = fencingTokens.incrementAndGet();
+                return new SyncLease(token[0], now + ttlMillis);
+            }
+            return v;
+        });
+        return token[0];
+    }
+
+    @Override
+    public boolean renewSyncLease(String rootId, long token, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        boolean[] renewed = {false};
+        syncLeases.computeIfPresent(rootId, (k, v) -> {
+            if (v.token() == token && v.expiresAt() > now) {
+                renewed[0] = true;
+                return new SyncLease(token, now + ttlMillis);
+            }
+            return v;
+        });
+        return renewed[0];
+    }
+
+    @Override
+    public boolean holdsSyncLease(String rootId, long token) {
+        SyncLease lease = syncLeases.get(rootId);
+        return lease != null && lease.token() == token && lease.expiresAt() > System.currentTimeMillis();
+    }
+
+    @Override
+    public void releaseSyncLease(String rootId, long token) {
+        syncLeases.computeIfPresent(rootId, (k, v) -> v.token() == token ? null : v);
+    }
+
+    @Override
+    public void registerFlushNode(String nodeId, long ttlMillis) {
+        flushNodes.put(nodeId, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public void unregisterFlushNode(String nodeId) {
+        flushNodes.remove(nodeId);
+    }
+
+    @Override
+    public java.util.Set<String> getFlushNodes() {
+        long now = System.currentTimeMillis();
+        flushNodes.values().removeIf(expiresAt -> expiresAt <= now);
+        return new java.util.HashSet<>(flushNodes.keySet());
+    }
+
+    @Override
+    public void addPendingFlush(String rootId) {
+        pendingFlushes.add(rootId);
+    }
+
+    @Override
+    public void removePendingFlush(String rootId) {
+        pendingFlushes.remove(rootId);
+    }
+
+    @Override
+    public java.util.Set<String> getPendingFlushes() {
+        return new java.util.HashSet<>(pendingFlushes);
+    }
+
+    @Override
+    public long acquireInitLock(String rootId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        long[] token = {0};
+        // 만료된 임대는 새 임대로 교체
+        initLocks.compute(rootId, (k, v) -> {
+            if (v == null || v.expiresAt() <= now) {
+                token[0] = fencingTokens.incrementAndGet();
+                return new SyncLease(token[0], now + ttlMillis);
+            }
+            return v;
+        });
+        return token[0];
+    }
+
+    @Override
+    public boolean renewInitLock(String rootId, long token, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        boolean[] renewed = {false};
+        initLocks.computeIfPresent(rootId, (k, v) -> {
+            if (v.token() == token && v.expiresAt() > now) {
+                renewed[0] = true;
+                return new SyncLease(token, now + ttlMillis);
+            }
+            return v;
+        });
+        return renewed[0];
+    }
+
+    @Override
+    public void releaseInitLock(String rootId, long token) {
+        initLocks.computeIfPresent(rootId, (k, v) -> v.token() == token ? null : v);
     }
 
     @Override
-    public void releaseSyncLock(String rootId) {
-        syncLocks.remove(rootId);
+    public boolean isInitLocked(String rootId) {
+        SyncLease lease = initLocks.get(rootId);
+        return lease != null && lease.expiresAt() > System.currentTimeMillis();
     }
 }
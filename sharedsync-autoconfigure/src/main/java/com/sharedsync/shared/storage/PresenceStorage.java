@@ -24,6 +24,38 @@ public interface PresenceStorage {
     List<String> purgeZombies(String rootId);
     java.util.Set<String> getAllRoomIds();
 
-    boolean acquireSyncLock(String rootId);
-    void releaseSyncLock(String rootId);
+    /**
+     * 방(rootId) DB 동기화용 갱신 가능한 임대(lease).
+     * 임대마다 단조 증가하는 펜싱 토큰을 발급하며, 동기화 커밋 직전에 토큰이 아직 유효한지 확인합니다.
+     * @return 발급된 펜싱 토큰 (다른 노드가 임대 중이면 0)
+     */
+    long acquireSyncLease(String rootId, long ttlMillis);
+    boolean renewSyncLease(String rootId, long token, long ttlMillis);
+    boolean holdsSyncLease(String rootId, long token);
+    void releaseSyncLease(String rootId, long token);
+
+    /**
+     * DB 플러시 담당 노드 목록. 노드는 ttlMillis 안에 다시 등록하지 않으면 목록에서 빠집니다.
+     */
+    void registerFlushNode(String nodeId, long ttlMillis);
+    void unregisterFlushNode(String nodeId);
+    java.util.Set<String> getFlushNodes();
+
+    /**
+     * 담당 노드가 처리할 때까지 남겨 두는 방 플러시 요청
+     */
+    void addPendingFlush(String rootId);
+    void removePendingFlush(String rootId);
+    java.util.Set<String> getPendingFlushes();
+
+    /**
+     * 방(rootId) 최초 로딩용 분산 임대(lease). 여러 노드가 동시에 같은 방을 로딩하지 않도록 합니다.
+     * 임대는 ttlMillis 이후 자동 만료되어 로더가 죽더라도 다른 노드가 이어받을 수 있으며,
+     * 연장/해제는 발급받은 토큰이 일치할 때만 적용되므로 만료 후 다른 노드가 잡은 임대를 건드리지 않습니다.
+     * @return 발급된 토큰 (다른 노드가 임대 중이면 0)
+     */
+    long acquireInitLock(String rootId, long ttlMillis);
+    boolean renewInitLock(String rootId, long token, long ttlMillis);
+    void releaseInitLock(String rootId, long token);
+    boolean isInitLocked(String rootId);
 }
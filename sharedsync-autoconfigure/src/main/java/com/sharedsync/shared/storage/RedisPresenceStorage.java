@@ -6,6 +6,11 @@ import java.util.Map;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
@@ -23,7 +28,29 @@ public class RedisPresenceStorage implements PresenceStorage {
     private static final String SESSION_TO_ROOT = "PRESENCE:SESSION_ROOT:";
     private static final String USER_INFO = "PRESENCE:USER_INFO:";
     private static final String USER_SESSIONS = "PRESENCE:USER_SESSIONS:";
-    private static final String SYNC_LOCK = "PRESENCE:SYNC_LOCK:";
+    private static final String SYNC_LEASE = "PRESENCE:SYNC_LEASE:";
+    private static final String SYNC_FENCE = "PRESENCE:SYNC_FENCE";
+    private static final String FLUSH_NODES = "PRESENCE:FLUSH_NODES";
+    private static final String PENDING_FLUSH = "PRESENCE:PENDING_FLUSH";
+    private static final String INIT_LOCK = "PRESENCE:INIT_LOCK:";
+    private static final String INIT_FENCE = "PRESENCE:INIT_FENCE";
+
+    // 임대 값은 펜싱 토큰 문자열. 발급/연장/해제는 토큰 비교와 함께 원자적으로 실행
+    private static final RedisScript<Long> ACQUIRE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return 0 end "
+                    + "local token = redis.call('incr', KEYS[2]) "
+                    + "redis.call('set', KEYS[1], token, 'PX', ARGV[1]) return token",
+            Long.class);
+    private static final RedisScript<Long> RENEW_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> HOLDS_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return 1 else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final RedisSerializer<Long> LONG_SERIALIZER = new GenericToStringSerializer<>(Long.class);
 
     @Override
     public boolean hasTracker(String rootId) {
@@ -191,13 +218,99 @@ public class RedisPresenceStorage implements PresenceStorage {
     }
 
     @Override
-    public boolean acquireSyncLock(String rootId) {
-        return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(SYNC_LOCK + rootId, "locked", java.time.Duration.ofSeconds(30)));
+    public long acquireSyncLease(String rootId, long ttlMillis) {
+        Long token = runLeaseScript(ACQUIRE_LEASE, List.of(SYNC_LEASE + rootId, SYNC_FENCE), String.valueOf(ttlMillis));
+        return token == null ? 0 : token;
     }
 
     @Override
-    public void releaseSyncLock(String rootId) {
-        redis.delete(SYNC_LOCK + rootId);
+    public boolean renewSyncLease(String rootId, long token, long ttlMillis) {
+        Long renewed = runLeaseScript(RENEW_LEASE, List.of(SYNC_LEASE + rootId), String.valueOf(token),
+                String.valueOf(ttlMillis));
+        return renewed != null && renewed > 0;
+    }
+
+    @Override
+    public boolean holdsSyncLease(String rootId, long token) {
+        Long held = runLeaseScript(HOLDS_LEASE, List.of(SYNC_LEASE + rootId), String.valueOf(token));
+        return held != null && held > 0;
+    }
+
+    @Override
+    public void releaseSyncLease(String rootId, long token) {
+        runLeaseScript(RELEASE_LEASE, List.of(SYNC_LEASE + rootId), String.valueOf(token));
+    }
+
+    /**
+     * 임대 값과 인자는 JSON이 아닌 문자열 그대로 다룹니다. (Lua에서 비교/PEXPIRE 인자로 사용)
+     */
+    private Long runLeaseScript(RedisScript<Long> script, List<String> keys, Object... args) {
+        return redis.execute(script, StringRedisSerializer.UTF_8, LONG_SERIALIZER, keys, args);
+    }
+
+    @Override
+    public void registerFlushNode(String nodeId, long ttlMillis) {
+        redis.opsForZSet().add(FLUSH_NODES, nodeId, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public void unregisterFlushNode(String nodeId) {
+        redis.opsForZSet().remove(FLUSH_NODES, nodeId);
+    }
+
+    @Override
+    public java.util.Set<String> getFlushNodes() {
+        // 등록 만료 시각(score)이 지난 노드는 제거
+        redis.opsForZSet().removeRangeByScore(FLUSH_NODES, 0, System.currentTimeMillis());
+        java.util.Set<Object> members = redis.opsForZSet().range(FLUSH_NODES, 0, -1);
+        java.util.Set<String> nodes = new java.util.HashSet<>();
+        if (members != null) {
+            members.forEach(member -> nodes.add(member.toString()));
+        }
+        return nodes;
+    }
+
+    @Override
+    public void addPendingFlush(String rootId) {
+        redis.opsForSet().add(PENDING_FLUSH, rootId);
+    }
+
+    @Override
+    public void removePendingFlush(String rootId) {
+        redis.opsForSet().remove(PENDING_FLUSH, rootId);
+    }
+
+    @Override
+    public java.util.Set<String> getPendingFlushes() {
+        java.util.Set<Object> members = redis.opsForSet().members(PENDING_FLUSH);
+        java.util.Set<String> rootIds = new java.util.HashSet<>();
+        if (members != null) {
+            members.forEach(member -> rootIds.add(member.toString()));
+        }
+        return rootIds;
+    }
+
+    @Override
+    public long acquireInitLock(String rootId, long ttlMillis) {
+        Long token = runLeaseScript(ACQUIRE_LEASE, List.of(INIT_LOCK + rootId, INIT_FENCE), String.valueOf(ttlMillis));
+        return token == null ? 0 : token;
+    }
+
+    @Override
+    public boolean renewInitLock(String rootId, long token, long ttlMillis) {
+        Long renewed = runLeaseScript(RENEW_LEASE, List.of(INIT_LOCK + rootId), String.valueOf(token),
+                String.valueOf(ttlMillis));
+        return renewed != null && renewed > 0;
+    }
+
+    @Override
+    public void releaseInitLock(String rootId, long token) {
+        runLeaseScript(RELEASE_LEASE, List.of(INIT_LOCK + rootId), String.valueOf(token));
+    }
+
+    @Override
+    public boolean isInitLocked(String rootId) {
+        return Boolean.TRUE.equals(redis.hasKey(INIT_LOCK + rootId));
     }
 
 }
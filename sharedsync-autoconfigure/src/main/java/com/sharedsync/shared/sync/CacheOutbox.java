@@ -0,0 +1,40 @@
+package com.sharedsync.shared.sync;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 캐시 변경 알림을 DB 반영 소비자에게 전달하는 아웃박스.
+ * Redis 캐시에서는 Redis Stream(소비자 그룹), 그 외에는 프로세스 내부 큐를 사용합니다.
+ */
+public interface CacheOutbox {
+
+    /**
+     * 소비자가 받은 이벤트. ack 전까지는 처리되지 않은 것으로 간주됩니다.
+     */
+    record Delivery(String deliveryId, OutboxEvent event) {
+    }
+
+    void publish(OutboxEvent event);
+
+    /**
+     * 최대 maxCount개의 이벤트를 가져옵니다. 이벤트가 없으면 timeoutMillis까지 기다립니다.
+     */
+    List<Delivery> poll(int maxCount, long timeoutMillis);
+
+    /**
+     * 처리가 끝난 이벤트를 완료 처리합니다.
+     */
+    void acknowledge(List<Delivery> deliveries);
+
+    /**
+     * 처리에 실패한 이벤트를 다시 처리 대상으로 돌려놓습니다.
+     */
+    void release(List<Delivery> deliveries);
+
+    /**
+     * 재시도 한도를 넘은 이벤트를 받을 처리기를 등록합니다. 한도가 없는 아웃박스는 호출하지 않습니다.
+     */
+    default void setExhaustedHandler(Consumer<OutboxEvent> handler) {
+    }
+}
@@ -1,23 +1,80 @@
 package com.sharedsync.shared.sync;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.sharedsync.shared.history.RoomTimeline;
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
 import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.storage.PresenceStorage;
 
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CacheSyncService {
     private final List<AutoCacheRepository<?, ?, ?>> cacheRepositories;
+    private final SharedSyncDatabaseSyncProperties syncProperties;
+    private final PlatformTransactionManager transactionManager;
+    private final PresenceStorage presenceStorage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false)
+    private RoomTimeline roomTimeline;
+
+    /**
+     * 방(rootId)별 동기화 잠금. 방을 해시로 나눈 잠금 중 하나를 잡으므로 서로 다른 방은 대부분 동시에 실행되고,
+     * 같은 방의 동기화와 엔티티 반영은 겹치지 않습니다. 여러 방을 잡을 때는 번호 순으로 잡아 교착을 피합니다.
+     */
+    private static final int LOCK_STRIPES = 64;
+    private final ReentrantLock[] roomLocks = newLockStripes();
+
+    /**
+     * 커밋을 기다리는 tombstone(타입:ID). 같은 tombstone을 동시에 처리하지 않도록 tombstoneMonitor 안에서만 다룹니다.
+     */
+    private final Object tombstoneMonitor = new Object();
+    private final Set<String> tombstonesInFlight = new HashSet<>();
+
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sharedsync-sync-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * 캐시 삭제 예약 항목 (Phase 2에서 일괄 삭제용)
@@ -32,69 +89,450 @@ public class CacheSyncService {
         }
     }
 
-    @Transactional
+    /**
+     * 방 하나를 하나의 트랜잭션으로 DB에 반영합니다.
+     * 잠금을 먼저 잡은 뒤 트랜잭션(커넥션)을 시작하므로, 잠금 대기 중인 스레드가 커넥션을 점유하지 않습니다.
+     */
     public void syncToDatabase(String rootId) {
-        AutoCacheRepository<?, ?, ?> rootRepository = cacheRepositories.stream()
+        syncToDatabase(rootId, 0);
+    }
+
+    /**
+     * @param leaseToken 0이 아니면 커밋 직전에 이 펜싱 토큰의 임대가 아직 유효한지 확인하고, 아니면 롤백합니다.
+     *                   루트 엔티티에 @SyncFence 컬럼이 있으면 트랜잭션 처음에 조건부 갱신해, 루트 행 잠금으로
+     *                   같은 방의 트랜잭션을 직렬화하고 더 새로운 토큰으로 반영된 방이면 롤백합니다.
+     */
+    private void syncToDatabase(String rootId, long leaseToken) {
+        ReentrantLock roomLock = roomLocks[stripeOf(rootId)];
+        roomLock.lock();
+        try {
+            // 동기화 중 캐시 정리는 사용자 편집이 아니므로 dirty 표시하지 않음
+            List<CacheDeletionEntry> deletionQueue = new TransactionTemplate(transactionManager).execute(status -> {
+                if (leaseToken != 0) {
+                    fenceTransaction(rootId, leaseToken);
+                }
+                return AutoCacheRepository.runAsSystemOperation(() -> isStatelessMode()
+                        ? syncRootStateless(rootId)
+                        : syncRoot(rootId, null));
+            });
+
+            // Phase 2: 커밋이 끝난 뒤 캐시 일괄 삭제
+            // DB 동기화가 완전히 끝난 후에 캐시를 삭제하므로,
+            // 조회 시 "캐시 전부 있음" 또는 "캐시 전부 없음(DB fallback)" 상태만 노출되고, 롤백되면 캐시가 남습니다.
+            if (deletionQueue != null) {
+                evictRoom(rootId, deletionQueue);
+            }
+        } finally {
+            roomLock.unlock();
+        }
+    }
+
+    /**
+     * 동기화한 방을 캐시에서 내립니다.
+     * 방 로딩과 겹치지 않도록 init lock을 잡은 상태에서, 그 사이 사용자가 다시 들어왔거나
+     * 동기화 중에 편집/추가/삭제된 엔티티가 있으면 방 전체를 캐시에 남깁니다. (바뀐 내용은 다음 동기화에서 반영)
+     * 편집을 막지 않으므로, 동기화 시점과 다른 내용이 캐시에서 사라지지 않습니다.
+     */
+    private void evictRoom(String rootId, List<CacheDeletionEntry> deletionQueue) {
+        long lockMillis = TimeUnit.SECONDS.toMillis(Math.max(1, syncProperties.getFlush().getLeaseTimeout()));
+        long lockToken = presenceStorage.acquireInitLock(rootId, lockMillis);
+        if (lockToken == 0) {
+            log.debug("[Flush] Room is being loaded, keeping cache: rootId={}", rootId);
+            return;
+        }
+        try {
+            if (presenceStorage.hasTracker(rootId)) {
+                log.debug("[Flush] Room became active during flush, keeping cache: rootId={}", rootId);
+                return;
+            }
+            if (changedSinceSnapshot(deletionQueue)) {
+                log.info("[Flush] Room was edited during flush, keeping cache for the next cycle: rootId={}", rootId);
+                return;
+            }
+            AutoCacheRepository.runAsSystemOperation(() -> deletionQueue
+                    .forEach(entry -> entry.repository.deleteCacheByIdUnchecked(entry.id)));
+            // 방이 닫혔으므로 작업 로그도 정리 (가리키던 세션 스택은 퇴장 시 이미 지워짐)
+            if (roomTimeline != null) {
+                roomTimeline.clear(rootId);
+            }
+        } finally {
+            presenceStorage.releaseInitLock(rootId, lockToken);
+        }
+    }
+
+    /**
+     * 방 잠금(init lock)을 잡고 접속자가 없을 때만 실행합니다. 방 로딩과 겹치면 실행하지 않습니다.
+     * 닫힌 방의 캐시 항목을 내리는 작업(read-through 항목 정리 등)이 evictRoom과 같은 규칙을 따르게 할 때 씁니다.
+     * @return 실행했으면 true
+     */
+    public boolean runIfVacant(String rootId, Runnable action) {
+        long lockMillis = TimeUnit.SECONDS.toMillis(Math.max(1, syncProperties.getFlush().getLeaseTimeout()));
+        long lockToken = presenceStorage.acquireInitLock(rootId, lockMillis);
+        if (lockToken == 0) {
+            return false;
+        }
+        try {
+            if (presenceStorage.hasTracker(rootId)) {
+                return false;
+            }
+            action.run();
+            return true;
+        } finally {
+            presenceStorage.releaseInitLock(rootId, lockToken);
+        }
+    }
+
+    /**
+     * 동기화한 엔티티 중 내용이 바뀌었거나 지워진 것, 또는 동기화 이후 새로 생긴 하위 엔티티가 있는지 확인합니다.
+     */
+    private boolean changedSinceSnapshot(List<CacheDeletionEntry> deletionQueue) {
+        Map<AutoCacheRepository<?, ?, ?>, Set<String>> synced = new HashMap<>();
+        for (CacheDeletionEntry entry : deletionQueue) {
+            synced.computeIfAbsent(entry.repository, key -> new HashSet<>()).add(String.valueOf(entry.id));
+        }
+        for (CacheDeletionEntry entry : deletionQueue) {
+            if (!entry.repository.isUnchangedSinceSyncUnchecked(entry.repository.findDtoByIdUnchecked(entry.id))) {
+                return true;
+            }
+            for (AutoCacheRepository<?, ?, ?> childRepo : findChildRepositories(entry.repository)) {
+                Set<String> syncedChildren = synced.getOrDefault(childRepo, Set.of());
+                for (Object child : cachedChildren(childRepo, entry.id)) {
+                    if (!syncedChildren.contains(String.valueOf(childRepo.extractIdUnchecked(child)))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 방 동기화 임대를 잡은 상태에서 접속자가 없을 때만 방을 DB에 반영합니다.
+     * 그 사이 사용자가 다시 들어왔으면 아무것도 하지 않습니다. (방이 다시 비면 새로 요청됨)
+     * 동기화가 길어져도 임대를 주기적으로 갱신하므로 다른 노드가 같은 방을 동시에 반영하지 않습니다.
+     * @throws IllegalStateException 다른 작업(write-behind, 별칭 정리 등)이 임대를 잡고 있어 반영하지 못함.
+     *         호출한 쪽은 요청을 버리지 말고 나중에 다시 시도해야 합니다.
+     */
+    public void syncToDatabaseIfVacant(String rootId) {
+        boolean ran = withSyncLease(rootId, token -> {
+            if (!presenceStorage.hasTracker(rootId)) {
+                syncToDatabase(rootId, token);
+            }
+        });
+        if (!ran) {
+            throw new IllegalStateException("방 동기화 임대를 다른 작업이 잡고 있어 반영하지 못했습니다: rootId=" + rootId);
+        }
+    }
+
+    /**
+     * 방 동기화 임대와 방 잠금을 잡은 상태에서 실행합니다. 다른 노드가 임대를 잡고 있으면 실행하지 않습니다.
+     * 여러 노드에서 같은 방의 캐시를 고치는 백그라운드 작업(별칭 정리 등)을 한 노드로 모을 때 씁니다.
+     * @return 임대를 얻어 실행했으면 true
+     */
+    public boolean runWithSyncLease(String rootId, Runnable action) {
+        return withSyncLease(rootId, token -> runExclusive(List.of(rootId), action));
+    }
+
+    /**
+     * runWithSyncLease와 같지만 임대의 펜싱 토큰을 넘깁니다.
+     * 작업 안에서 여는 트랜잭션마다 fenceTransaction을 호출해 임대를 잃은 뒤의 커밋을 막습니다.
+     */
+    public boolean runWithFencedSyncLease(String rootId, LongConsumer action) {
+        return withSyncLease(rootId, token -> runExclusive(List.of(rootId), () -> action.accept(token)));
+    }
+
+    /**
+     * 현재 트랜잭션을 방 동기화 임대에 묶습니다. 커밋 직전에 임대가 아직 유효한지 확인하고,
+     * 루트 엔티티에 @SyncFence 컬럼이 있으면 지금 조건부 갱신해 더 새로운 토큰으로 반영된 방이면 실패시킵니다.
+     * (루트 행 잠금으로 같은 방의 트랜잭션이 직렬화됨)
+     */
+    public void fenceTransaction(String rootId, long leaseToken) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!presenceStorage.holdsSyncLease(rootId, leaseToken)) {
+                    throw new IllegalStateException("방 동기화 임대를 잃어 커밋하지 않습니다: rootId=" + rootId
+                            + ", token=" + leaseToken);
+                }
+            }
+        });
+        // 임대 확인과 커밋 사이에 임대가 넘어가도 더 새로운 토큰이 기록된 방은 DB에서 거부
+        if (!rootRepository().advanceFence(rootId, leaseToken)) {
+            throw new IllegalStateException("더 새로운 임대로 이미 반영된 방이라 반영하지 않습니다: rootId=" + rootId
+                    + ", token=" + leaseToken);
+        }
+    }
+
+    private boolean withSyncLease(String rootId, LongConsumer action) {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(Math.max(1, syncProperties.getFlush().getLeaseTimeout()));
+        long token = presenceStorage.acquireSyncLease(rootId, ttlMillis);
+        if (token == 0) {
+            return false;
+        }
+        long renewEvery = Math.max(1, ttlMillis / 3);
+        ScheduledFuture<?> renewal = leaseRenewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!presenceStorage.renewSyncLease(rootId, token, ttlMillis)) {
+                    log.warn("[Flush] Lost sync lease: rootId={}, token={}", rootId, token);
+                }
+            } catch (RuntimeException e) {
+                log.warn("[Flush] Failed to renew sync lease: rootId={}: {}", rootId, e.getMessage());
+            }
+        }, renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        try {
+            action.accept(token);
+            return true;
+        } finally {
+            renewal.cancel(false);
+            presenceStorage.releaseSyncLease(rootId, token);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseRenewer.shutdownNow();
+    }
+
+    /**
+     * 모든 방의 DB 동기화 작업과 겹치지 않도록 실행합니다.
+     */
+    public void runExclusive(Runnable action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes.add(i);
+        }
+        runLocked(stripes, action);
+    }
+
+    /**
+     * 주어진 방들의 DB 동기화 작업과 겹치지 않도록 실행합니다. 다른 방의 동기화는 막지 않습니다.
+     * @param rootIds 작업이 건드리는 방 (방을 찾지 못한 엔티티는 null)
+     */
+    public void runExclusive(Collection<String> rootIds, Runnable action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (String rootId : rootIds) {
+            stripes.add(stripeOf(rootId));
+        }
+        runLocked(stripes, action);
+    }
+
+    private void runLocked(TreeSet<Integer> stripes, Runnable action) {
+        List<ReentrantLock> held = new ArrayList<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = roomLocks[stripe];
+                lock.lock();
+                held.add(lock);
+            }
+            action.run();
+        } finally {
+            Collections.reverse(held);
+            held.forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private static int stripeOf(String rootId) {
+        return Math.floorMod(Objects.hashCode(rootId), LOCK_STRIPES);
+    }
+
+    private static ReentrantLock[] newLockStripes() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private AutoCacheRepository<?, ?, ?> rootRepository() {
+        return cacheRepositories.stream()
                 .filter(repo -> !repo.isParentIdFieldPresent())
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("루트 DTO를 가진 AutoCacheRepository를 찾을 수 없습니다."));
+    }
+
+    private boolean isStatelessMode() {
+        return "stateless".equalsIgnoreCase(syncProperties.getMode());
+    }
+
+    /**
+     * 현재 트랜잭션의 커넥션을 공유하는 StatelessSession으로 방을 반영합니다. (커밋/롤백은 바깥 트랜잭션을 따름)
+     * 커넥션은 doReturningWork 범위 안에서만 쓰고, 세션은 그 안에서 묶음마다 withStatelessOptions().connection(...)으로 엽니다.
+     */
+    private List<CacheDeletionEntry> syncRootStateless(String rootId) {
+        Session session = entityManager.unwrap(Session.class);
+        session.flush();
+        return session.doReturningWork(connection -> syncRoot(rootId,
+                () -> session.getSessionFactory().withStatelessOptions().connection(connection).openStatelessSession()));
+    }
+
+    private List<?> write(AutoCacheRepository<?, ?, ?> repository, List<?> dtos, int batchSize,
+            Supplier<StatelessSession> statelessSessions) {
+        return statelessSessions != null
+                ? repository.syncToDatabaseStatelessUnchecked(dtos, statelessSessions, batchSize)
+                : repository.syncToDatabaseInBatchUnchecked(dtos, batchSize);
+    }
+
+    /**
+     * @param statelessSessions null이 아니면 영속성 컨텍스트 없이 여기서 연 세션으로 INSERT/UPDATE
+     */
+    private List<CacheDeletionEntry> syncRoot(String rootId, Supplier<StatelessSession> statelessSessions) {
+        AutoCacheRepository<?, ?, ?> rootRepository = rootRepository();
+        int batchSize = syncProperties.getBatchSize();
 
         // Phase 1: DB 동기화 수행 (캐시는 그대로 유지, 삭제 대상만 수집)
+        // 계층(level) 단위로 내려가며 같은 타입끼리 묶어 저장하므로 부모가 항상 자식보다 먼저 저장되고,
+        // 타입이 섞이지 않아 JDBC 배치가 유지됩니다.
         List<CacheDeletionEntry> deletionQueue = new ArrayList<>();
-        syncRecursively(rootRepository, rootId, deletionQueue);
+        Object rootDto = rootRepository.findDtoByIdUnchecked(rootId);
+        if (rootDto != null) {
+            write(rootRepository, List.of(rootDto), batchSize, statelessSessions);
+        }
 
-        // Phase 2: 캐시 일괄 삭제
-        // DB 동기화가 완전히 끝난 후에 캐시를 삭제하므로,
-        // 조회 시 "캐시 전부 있음" 또는 "캐시 전부 없음(DB fallback)" 상태만 노출됩니다.
-        for (CacheDeletionEntry entry : deletionQueue) {
-            entry.repository.deleteCacheByIdUnchecked(entry.id);
+        Map<AutoCacheRepository<?, ?, ?>, Set<Object>> level = new LinkedHashMap<>();
+        level.put(rootRepository, Set.of(rootId));
+        while (!level.isEmpty()) {
+            Map<AutoCacheRepository<?, ?, ?>, Set<Object>> nextLevel = new LinkedHashMap<>();
+            for (Map.Entry<AutoCacheRepository<?, ?, ?>, Set<Object>> entry : level.entrySet()) {
+                AutoCacheRepository<?, ?, ?> repository = entry.getKey();
+                Set<Object> parentIds = entry.getValue();
+
+                for (AutoCacheRepository<?, ?, ?> childRepo : findChildRepositories(repository)) {
+                    List<Object> dtos = new ArrayList<>();
+                    for (Object parentId : parentIds) {
+                        dtos.addAll(cachedChildren(childRepo, parentId));
+                    }
+                    write(childRepo, dtos, batchSize, statelessSessions);
+
+                    for (Object parentId : parentIds) {
+                        Set<Object> persistentIds = cachedChildren(childRepo, parentId).stream()
+                                .map(childRepo::extractIdUnchecked)
+                                .filter(Objects::nonNull)
+                                .filter(childRepo::isPersistentId)
+                                .collect(Collectors.toCollection(LinkedHashSet::new));
+                        nextLevel.computeIfAbsent(childRepo, key -> new LinkedHashSet<>()).addAll(persistentIds);
+                    }
+                }
+                // 캐시 삭제를 바로 하지 않고, 삭제 대상 큐에 추가 (Phase 2에서 일괄 삭제)
+                parentIds.forEach(id -> deletionQueue.add(new CacheDeletionEntry(repository, id)));
+            }
+            level = nextLevel;
         }
+
+        deleteTombstones(rootId, batchSize);
+
+        return deletionQueue;
     }
 
-    private void syncRecursively(AutoCacheRepository<?, ?, ?> repository, Object id,
-            List<CacheDeletionEntry> deletionQueue) {
-        if (repository == null || id == null) {
-            return;
+    /**
+     * 이 방에서 사용자가 삭제한 엔티티(tombstone)만 자식 → 부모 순서로 일괄 삭제합니다.
+     * 삭제는 세션 undo 기록으로 되살릴 수 있으므로, 접속자가 남아 있으면 기록이 지워질 때(방이 빌 때)까지 미룹니다.
+     * 방을 찾지 못한 tombstone은 열린 방이 하나도 없을 때만 삭제합니다. (다른 방에서 되살릴 수 있으므로)
+     * 캐시 저장소는 트랜잭션에 묶이지 않으므로 tombstone은 커밋된 뒤에 지우고, 롤백되면 다음 동기화에서 다시 처리합니다.
+     * 커밋 전까지는 처리 중 표시로 같은 노드의 다른 동기화가 중복 처리하지 않게 하고,
+     * 방 tombstone은 방 동기화 임대로 다른 노드와 겹치지 않습니다.
+     */
+    private void deleteTombstones(String rootId, int batchSize) {
+        List<AutoCacheRepository<?, ?, ?>> childFirst = new ArrayList<>(orderParentFirst());
+        Collections.reverse(childFirst);
+        Map<AutoCacheRepository<?, ?, ?>, List<Object>> roomDeleted = new LinkedHashMap<>();
+        Map<AutoCacheRepository<?, ?, ?>, List<Object>> unscopedDeleted = new LinkedHashMap<>();
+        List<String> claimed = new ArrayList<>();
+        synchronized (tombstoneMonitor) {
+            if (presenceStorage.hasTracker(rootId)) {
+                log.debug("[Flush] Room is active, keeping tombstones until it empties: rootId={}", rootId);
+                return;
+            }
+            boolean drainUnscoped = presenceStorage.getAllRoomIds().isEmpty();
+            for (AutoCacheRepository<?, ?, ?> repository : childFirst) {
+                roomDeleted.put(repository, claimTombstones(repository, repository.findRoomTombstones(rootId), claimed));
+                if (drainUnscoped) {
+                    unscopedDeleted.put(repository, claimTombstones(repository, repository.findRoomTombstones(null), claimed));
+                }
+            }
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    roomDeleted.forEach((repository, ids) -> repository.clearRoomTombstonesUnchecked(rootId, ids));
+                    unscopedDeleted.forEach((repository, ids) -> repository.clearRoomTombstonesUnchecked(null, ids));
+                }
+                synchronized (tombstoneMonitor) {
+                    claimed.forEach(tombstonesInFlight::remove);
+                }
+            }
+        });
 
-        Object dto = repository.findDtoByIdUnchecked(id);
-        if (dto != null) {
-            repository.syncToDatabaseByDtoUnchecked(dto);
+        int size = Math.max(1, batchSize);
+        for (AutoCacheRepository<?, ?, ?> repository : childFirst) {
+            List<Object> ids = new ArrayList<>(roomDeleted.getOrDefault(repository, List.of()));
+            ids.addAll(unscopedDeleted.getOrDefault(repository, List.of()));
+            for (int from = 0; from < ids.size(); from += size) {
+                repository.deleteFromDatabaseByIdsUnchecked(ids.subList(from, Math.min(ids.size(), from + size)));
+            }
         }
+    }
 
-        Map<AutoCacheRepository<?, ?, ?>, List<?>> childDtos = cacheRepositories.stream()
-                .filter(childRepo -> childRepo != repository)
-                .filter(childRepo -> childRepo.isParentEntityOf(repository.getEntityType()))
-                .collect(Collectors.toMap(childRepo -> childRepo,
-                        childRepo -> childRepo.findDtoListByParentIdUnchecked(id)));
-
-        for (Map.Entry<AutoCacheRepository<?, ?, ?>, List<?>> entry : childDtos.entrySet()) {
-            AutoCacheRepository<?, ?, ?> childRepo = entry.getKey();
-
-            List<?> dtos = entry.getValue();
-            if (dtos == null) {
-                dtos = List.of();
+    /**
+     * tombstoneMonitor 안에서 호출: 다른 동기화가 처리 중이 아닌 tombstone만 가져갑니다.
+     */
+    private List<Object> claimTombstones(AutoCacheRepository<?, ?, ?> repository, List<Object> ids, List<String> claimed) {
+        List<Object> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            String key = repository.getEntityType().getName() + ":" + id;
+            if (tombstonesInFlight.add(key)) {
+                claimed.add(key);
+                result.add(id);
             }
+        }
+        return result;
+    }
 
-            dtos.stream()
-                    .filter(Objects::nonNull)
-                    .forEach(childRepo::syncToDatabaseByDtoUnchecked);
+    /**
+     * 부모가 없는 루트부터 계층 깊이 순으로 정렬한 리포지토리 목록
+     */
+    public List<AutoCacheRepository<?, ?, ?>> orderParentFirst() {
+        Map<AutoCacheRepository<?, ?, ?>, Integer> depths = new HashMap<>();
+        for (AutoCacheRepository<?, ?, ?> repository : cacheRepositories) {
+            depthOf(repository, depths, new HashSet<>());
+        }
+        List<AutoCacheRepository<?, ?, ?>> ordered = new ArrayList<>(cacheRepositories);
+        ordered.sort(Comparator.comparingInt(depths::get));
+        return ordered;
+    }
 
-            List<?> refreshed = childRepo.findDtoListByParentIdUnchecked(id);
-            if (refreshed == null) {
-                refreshed = List.of();
+    private int depthOf(AutoCacheRepository<?, ?, ?> repository,
+            Map<AutoCacheRepository<?, ?, ?>, Integer> depths,
+            Set<AutoCacheRepository<?, ?, ?>> visiting) {
+        Integer known = depths.get(repository);
+        if (known != null) {
+            return known;
+        }
+        int depth = 0;
+        if (repository.isParentIdFieldPresent() && visiting.add(repository)) {
+            for (AutoCacheRepository<?, ?, ?> parent : cacheRepositories) {
+                if (parent != repository && repository.isParentEntityOf(parent.getEntityType())) {
+                    depth = Math.max(depth, depthOf(parent, depths, visiting) + 1);
+                }
             }
-            Set<Object> persistentIds = refreshed.stream()
-                    .map(childRepo::extractIdUnchecked)
-                    .filter(Objects::nonNull)
-                    .filter(childRepo::isPersistentId)
-                    .collect(Collectors.toSet());
+            visiting.remove(repository);
+        }
+        depths.put(repository, depth);
+        return depth;
+    }
 
-            childRepo.deleteEntitiesNotInCache(id, persistentIds);
+    private List<AutoCacheRepository<?, ?, ?>> findChildRepositories(AutoCacheRepository<?, ?, ?> repository) {
+        return cacheRepositories.stream()
+                .filter(childRepo -> childRepo != repository)
+                .filter(childRepo -> childRepo.isParentEntityOf(repository.getEntityType()))
+                .toList();
+    }
 
-            persistentIds.forEach(childId -> syncRecursively(childRepo, childId, deletionQueue));
+    private List<?> cachedChildren(AutoCacheRepository<?, ?, ?> childRepo, Object parentId) {
+        List<?> dtos = childRepo.findDtoListByParentIdUnchecked(parentId);
+        if (dtos == null) {
+            return List.of();
         }
-        // 캐시 삭제를 바로 하지 않고, 삭제 대상 큐에 추가 (Phase 2에서 일괄 삭제)
-        deletionQueue.add(new CacheDeletionEntry(repository, id));
+        return dtos.stream().filter(Objects::nonNull).toList();
     }
 }
@@ -0,0 +1,173 @@
+package com.sharedsync.shared.sync;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 방(rootId) 단위 DB 플러시를 제한된 스레드 풀에서 병렬로 실행합니다.
+ *
+ * - 동시에 실행되는 방의 수(= 사용하는 DB 커넥션 수)는 sharedsync.sync.flush.parallelism으로 제한됩니다.
+ * - 아직 시작되지 않은 같은 방의 플러시 요청은 하나로 합칩니다.
+ * - 서버 종료 시 남은 플러시를 마감 시간까지 기다리고, 진행 상황을 로그로 남깁니다.
+ */
+@Component
+@Slf4j
+public class DatabaseFlushExecutor {
+
+    private static final long PROGRESS_LOG_INTERVAL_MS = 1000;
+
+    private final ThreadPoolExecutor executor;
+    private final long shutdownTimeoutMillis;
+
+    // rootId -> 대기열에 있는(아직 시작되지 않은) 플러시
+    private final Map<String, CompletableFuture<Void>> queued = new ConcurrentHashMap<>();
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalDurationMillis = new AtomicLong();
+
+    public DatabaseFlushExecutor(SharedSyncDatabaseSyncProperties syncProperties) {
+        SharedSyncDatabaseSyncProperties.Flush flush = syncProperties.getFlush();
+        int parallelism = Math.max(1, flush.getParallelism());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "sharedsync-flush-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.shutdownTimeoutMillis = TimeUnit.SECONDS.toMillis(flush.getShutdownTimeout());
+    }
+
+    /**
+     * 방 플러시를 예약합니다. 같은 방의 플러시가 아직 대기 중이면 그 작업을 그대로 반환합니다.
+     * 실행기가 이미 종료된 경우 호출한 스레드에서 바로 실행합니다.
+     */
+    public CompletableFuture<Void> submit(String rootId, Runnable flush) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = queued.putIfAbsent(rootId, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        outstanding.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.remove(rootId, future);
+                run(rootId, flush, future);
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(rootId, future);
+            run(rootId, flush, future);
+        }
+        return future;
+    }
+
+    private void run(String rootId, Runnable flush, CompletableFuture<Void> future) {
+        running.incrementAndGet();
+        long startedAt = System.currentTimeMillis();
+        try {
+            flush.run();
+            completed.incrementAndGet();
+            future.complete(null);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("[Flush] Failed to flush rootId={}", rootId, e);
+            future.completeExceptionally(e);
+        } finally {
+            totalDurationMillis.addAndGet(System.currentTimeMillis() - startedAt);
+            running.decrementAndGet();
+            outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * 예약된 플러시가 모두 끝나거나 마감 시간이 될 때까지 기다립니다.
+     * @return 모두 끝났으면 true
+     */
+    public boolean awaitIdle(long deadlineMillis) {
+        long nextLog = 0;
+        while (outstanding.get() > 0) {
+            long now = System.currentTimeMillis();
+            if (now >= deadlineMillis) {
+                log.warn("[Flush] Shutdown deadline reached with {} room flush(es) unfinished (running={})",
+                        outstanding.get(), running.get());
+                return false;
+            }
+            if (now >= nextLog) {
+                log.info("[Flush] Draining: remaining={}, running={}, completed={}, failed={}",
+                        outstanding.get(), running.get(), completed.get(), failed.get());
+                nextLog = now + PROGRESS_LOG_INTERVAL_MS;
+            }
+            try {
+                Thread.sleep(Math.min(50, deadlineMillis - now));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 지금부터 종료 대기 시간(shutdown-timeout)이 지나는 시각
+     */
+    public long shutdownDeadline() {
+        return System.currentTimeMillis() + shutdownTimeoutMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        awaitIdle(shutdownDeadline());
+        executor.shutdownNow();
+        log.info("[Flush] Stopped: completed={}, failed={}, avgMillis={}",
+                completed.get(), failed.get(), getAverageDurationMillis());
+    }
+
+    public int getPendingCount() {
+        return outstanding.get() - running.get();
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getFinishedCount() {
+        return completed.get() + failed.get();
+    }
+
+    public long getTotalDurationMillis() {
+        return totalDurationMillis.get();
+    }
+
+    public long getAverageDurationMillis() {
+        long finished = getFinishedCount();
+        return finished == 0 ? 0 : totalDurationMillis.get() / finished;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sharedsync.shared.sync;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
+import com.sharedsync.shared.repository.AutoCacheRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 임시 ID 별칭을 백그라운드에서 정리합니다.
+ *
+ * 임시 ID 엔티티가 DB에 영속화되면 AutoCacheRepository는 하위 엔티티를 바로 고치지 않고
+ * 별칭(임시 ID → 영속 ID)만 등록합니다. 여기서 주기적으로 하위 캐시의 부모 ID를 영속 ID로 바꿔
+ * 조회 시 별칭을 확인하는 비용을 줄입니다. 별칭 자체는 엔티티가 캐시에서 내려갈 때 함께 지워집니다.
+ *
+ * 별칭은 방 단위로 묶어, 플러시 링에서 그 방을 담당하는 노드가 방 동기화 임대를 잡은 동안에만 정리합니다.
+ * 임대를 얻지 못했거나 정리 중 편집과 겹친 별칭은 다음 주기에 다시 시도합니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdAliasCompactor {
+
+    private final CacheSyncService cacheSyncService;
+    private final RoomFlushRouter roomFlushRouter;
+    private final SharedSyncCacheProperties cacheProperties;
+
+    @Scheduled(fixedDelayString = "${sharedsync.cache.alias.compaction-interval:30}000",
+            initialDelayString = "${sharedsync.cache.alias.compaction-interval:30}000")
+    public void compact() {
+        int limit = cacheProperties.getAlias().getCompactionBatchSize();
+        int compacted = 0;
+        for (AutoCacheRepository<?, ?, ?> repository : cacheSyncService.orderParentFirst()) {
+            try {
+                for (Map.Entry<String, Map<Object, Object>> room : pendingByRoom(repository, limit).entrySet()) {
+                    compacted += compactRoom(repository, room.getKey(), room.getValue());
+                }
+            } catch (RuntimeException e) {
+                log.warn("[Alias] Failed to compact aliases of {}: {}",
+                        repository.getEntityType().getSimpleName(), e.getMessage());
+            }
+        }
+        if (compacted > 0) {
+            log.debug("[Alias] Compacted {} alias(es)", compacted);
+        }
+    }
+
+    /**
+     * 이 노드가 담당하는 방의 정리 대기 별칭 (방을 찾지 못한 별칭은 다음 주기로 미룸)
+     */
+    private Map<String, Map<Object, Object>> pendingByRoom(AutoCacheRepository<?, ?, ?> repository, int limit) {
+        Map<String, Map<Object, Object>> byRoom = new LinkedHashMap<>();
+        int taken = 0;
+        for (Map.Entry<Object, Object> alias : repository.findPendingAliases().entrySet()) {
+            if (limit > 0 && taken >= limit) {
+                break;
+            }
+            String rootId = repository.findAliasRootId(alias.getValue());
+            if (rootId == null || !roomFlushRouter.isLocalOwner(rootId)) {
+                continue;
+            }
+            byRoom.computeIfAbsent(rootId, key -> new LinkedHashMap<>()).put(alias.getKey(), alias.getValue());
+            taken++;
+        }
+        return byRoom;
+    }
+
+    private int compactRoom(AutoCacheRepository<?, ?, ?> repository, String rootId, Map<Object, Object> aliases) {
+        int[] compacted = {0};
+        boolean leased = cacheSyncService.runWithSyncLease(rootId, () -> AutoCacheRepository.runAsSystemOperation(() -> {
+            for (Map.Entry<Object, Object> alias : aliases.entrySet()) {
+                if (repository.compactAlias(alias.getKey(), alias.getValue())) {
+                    compacted[0]++;
+                }
+            }
+        }));
+        if (!leased) {
+            log.debug("[Alias] Room is being synced elsewhere, deferring {} alias(es): rootId={}", aliases.size(), rootId);
+        }
+        return compacted[0];
+    }
+}
@@ -0,0 +1,46 @@
+package com.sharedsync.shared.sync;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프로세스 내부 큐 기반 아웃박스 (인메모리/파일 캐시용).
+ * 캐시가 같은 프로세스에 있으므로 소비자도 같은 프로세스에서 실행됩니다.
+ */
+public class InMemoryCacheOutbox implements CacheOutbox {
+
+    private final LinkedBlockingQueue<OutboxEvent> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void publish(OutboxEvent event) {
+        queue.add(event);
+    }
+
+    @Override
+    public List<Delivery> poll(int maxCount, long timeoutMillis) {
+        List<OutboxEvent> events = new ArrayList<>();
+        try {
+            OutboxEvent first = timeoutMillis > 0 ? queue.poll(timeoutMillis, TimeUnit.MILLISECONDS) : queue.poll();
+            if (first == null) {
+                return List.of();
+            }
+            events.add(first);
+            queue.drainTo(events, Math.max(0, maxCount - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return events.stream().map(event -> new Delivery(null, event)).toList();
+    }
+
+    @Override
+    public void acknowledge(List<Delivery> deliveries) {
+        // 큐에서 꺼낸 시점에 이미 제거됨
+    }
+
+    @Override
+    public void release(List<Delivery> deliveries) {
+        deliveries.forEach(delivery -> queue.add(delivery.event()));
+    }
+}
@@ -0,0 +1,74 @@
+package com.sharedsync.shared.sync;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 아웃박스로 발행되는 캐시 변경 알림.
+ * DTO 내용은 싣지 않고 (타입, ID)만 전달하며, 소비자는 반영 시점의 캐시 값을 읽어 DB에 씁니다.
+ * 같은 엔티티의 연속된 편집은 한 번의 쓰기로 합쳐집니다.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public enum Type {
+        /** 영속 엔티티 저장/수정 */
+        UPSERT,
+        /** 사용자가 모두 나간 방 전체 동기화 */
+        ROOM_FLUSH
+    }
+
+    private Type type;
+
+    /** DTO 클래스 이름 (ROOM_FLUSH에서는 null) */
+    private String entity;
+
+    /** 엔티티 ID 또는 rootId */
+    private String id;
+
+    public static OutboxEvent upsert(String entity, Object id) {
+        return new OutboxEvent(Type.UPSERT, entity, String.valueOf(id));
+    }
+
+    public static OutboxEvent roomFlush(String rootId) {
+        return new OutboxEvent(Type.ROOM_FLUSH, null, rootId);
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("type", type.name());
+        if (entity != null) {
+            fields.put("entity", entity);
+        }
+        fields.put("id", id);
+        return fields;
+    }
+
+    /**
+     * @return 알 수 없는 형식이면 null
+     */
+    public static OutboxEvent fromMap(Map<?, ?> fields) {
+        Object type = fields.get("type");
+        Object id = fields.get("id");
+        if (type == null || id == null) {
+            return null;
+        }
+        try {
+            Object entity = fields.get("entity");
+            return new OutboxEvent(Type.valueOf(type.toString()), entity == null ? null : entity.toString(),
+                    id.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
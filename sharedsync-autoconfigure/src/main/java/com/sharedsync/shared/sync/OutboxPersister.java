@@ -0,0 +1,244 @@
+package com.sharedsync.shared.sync;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.repository.AutoCacheRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 아웃박스를 소비해 DB에 반영하는 persister.
+ *
+ * - UPSERT 이벤트는 한 번에 읽은 묶음을 (타입, ID)별로 합친 뒤 하나의 트랜잭션으로 반영합니다.
+ *   이벤트에는 ID만 있으므로 반영 시점의 캐시 상태를 기준으로 하며, 순서가 바뀌거나 중복 전달되어도 결과가 같습니다.
+ *   묶음에 포함된 방의 동기화와만 겹치지 않게 하며, 다른 방의 동기화는 막지 않습니다.
+ * - 삭제는 undo로 되살릴 수 있으므로 반영하지 않고, 방이 비었을 때의 ROOM_FLUSH에서 tombstone으로 삭제합니다.
+ * - ROOM_FLUSH 이벤트는 DatabaseFlushExecutor에서 방 단위로 병렬 실행합니다.
+ * - 반영이 끝난 이벤트만 ack하고, 실패한 이벤트는 다시 처리 대상으로 돌려놓습니다.
+ *   재시도 한도를 넘은 ROOM_FLUSH는 버리지 않고 RoomFlushRouter로 담당 노드에 맡깁니다.
+ *
+ * sharedsync.sync.outbox.consume=false로 웹소켓 노드에서는 발행만 하고,
+ * 같은 설정에 consume=true인 별도 프로필(persister) 노드에서 소비할 수 있습니다. (Redis 캐시 필요)
+ */
+@Component
+@ConditionalOnExpression("${sharedsync.sync.outbox.enabled:false} && ${sharedsync.sync.outbox.consume:true}")
+@Slf4j
+public class OutboxPersister implements SmartInitializingSingleton {
+
+    private final CacheOutbox outbox;
+    private final CacheSyncService cacheSyncService;
+    private final DatabaseFlushExecutor databaseFlushExecutor;
+    private final RoomFlushRouter roomFlushRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final SharedSyncDatabaseSyncProperties.Outbox settings;
+    private final int flushBatchSize;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxPersister(CacheOutbox outbox,
+            CacheSyncService cacheSyncService,
+            DatabaseFlushExecutor databaseFlushExecutor,
+            RoomFlushRouter roomFlushRouter,
+            PlatformTransactionManager transactionManager,
+            SharedSyncDatabaseSyncProperties syncProperties) {
+        this.outbox = outbox;
+        this.cacheSyncService = cacheSyncService;
+        this.databaseFlushExecutor = databaseFlushExecutor;
+        this.roomFlushRouter = roomFlushRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = syncProperties.getOutbox();
+        this.flushBatchSize = syncProperties.getBatchSize();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        outbox.setExhaustedHandler(this::onExhausted);
+        running = true;
+        worker = new Thread(this::consumeLoop, "sharedsync-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drain(databaseFlushExecutor.shutdownDeadline());
+    }
+
+    /**
+     * 소비 스레드를 멈추고, 남은 이벤트를 마감 시간까지 호출한 스레드에서 처리합니다.
+     * 인메모리 아웃박스는 종료와 함께 사라지므로 서버 종료 시 호출됩니다.
+     */
+    public void drain(long deadlineMillis) {
+        stop();
+        int drained = 0;
+        while (System.currentTimeMillis() < deadlineMillis) {
+            List<CacheOutbox.Delivery> batch;
+            try {
+                batch = outbox.poll(Math.max(1, settings.getBatchSize()), 0);
+            } catch (RuntimeException e) {
+                log.warn("[Outbox] Failed to drain outbox: {}", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            process(batch);
+            drained += batch.size();
+        }
+        if (drained > 0) {
+            log.info("[Outbox] Drained {} event(s) before shutdown", drained);
+        }
+    }
+
+    private void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null && current != Thread.currentThread()) {
+            try {
+                current.join(settings.getPollTimeout() + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void consumeLoop() {
+        while (running) {
+            try {
+                List<CacheOutbox.Delivery> batch = outbox.poll(Math.max(1, settings.getBatchSize()),
+                        settings.getPollTimeout());
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } catch (RuntimeException e) {
+                log.error("[Outbox] Failed to consume outbox, retrying", e);
+                sleepQuietly(settings.getPollTimeout());
+            }
+        }
+    }
+
+    private void process(List<CacheOutbox.Delivery> batch) {
+        List<CacheOutbox.Delivery> entityEvents = new ArrayList<>();
+        for (CacheOutbox.Delivery delivery : batch) {
+            if (delivery.event().getType() == OutboxEvent.Type.ROOM_FLUSH) {
+                submitRoomFlush(delivery);
+            } else {
+                entityEvents.add(delivery);
+            }
+        }
+        if (entityEvents.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<String, Set<String>> byEntity = groupByEntity(entityEvents);
+            cacheSyncService.runExclusive(roomsOf(byEntity), () -> AutoCacheRepository.runAsSystemOperation(
+                    () -> transactionTemplate.executeWithoutResult(status -> apply(byEntity))));
+            outbox.acknowledge(entityEvents);
+        } catch (RuntimeException e) {
+            log.warn("[Outbox] Batch of {} event(s) failed, will retry", entityEvents.size(), e);
+            outbox.release(entityEvents);
+        }
+    }
+
+    private void submitRoomFlush(CacheOutbox.Delivery delivery) {
+        String rootId = delivery.event().getId();
+        databaseFlushExecutor.submit(rootId, () -> cacheSyncService.syncToDatabaseIfVacant(rootId))
+                .whenComplete((result, failure) -> {
+                    if (failure == null) {
+                        outbox.acknowledge(List.of(delivery));
+                    } else {
+                        outbox.release(List.of(delivery));
+                    }
+                });
+    }
+
+    /**
+     * 재시도 한도를 넘은 이벤트. 방 플러시는 방이 빈 뒤 다시 요청되지 않으므로 플러시 라우터로 넘깁니다.
+     * 엔티티 변경은 캐시에 남아 있어 방 플러시에서 반영되므로 기록만 합니다.
+     */
+    private void onExhausted(OutboxEvent event) {
+        if (event.getType() == OutboxEvent.Type.ROOM_FLUSH) {
+            log.warn("[Outbox] Handing exhausted room flush to the flush router: rootId={}", event.getId());
+            roomFlushRouter.requestFlush(event.getId());
+        } else {
+            log.warn("[Outbox] Giving up on {} {}:{}", event.getType(), event.getEntity(), event.getId());
+        }
+    }
+
+    /**
+     * 묶음의 이벤트를 DTO 클래스 이름 → 엔티티 ID 집합으로 합칩니다.
+     */
+    private Map<String, Set<String>> groupByEntity(List<CacheOutbox.Delivery> deliveries) {
+        Map<String, Set<String>> byEntity = new LinkedHashMap<>();
+        for (CacheOutbox.Delivery delivery : deliveries) {
+            OutboxEvent event = delivery.event();
+            byEntity.computeIfAbsent(event.getEntity(), key -> new LinkedHashSet<>()).add(event.getId());
+        }
+        return byEntity;
+    }
+
+    /**
+     * 묶음의 엔티티가 속한 방. 잠그기 전에 읽으므로, 그 사이 캐시에서 내려간 엔티티는 반영할 때 건너뜁니다.
+     */
+    private Set<String> roomsOf(Map<String, Set<String>> byEntity) {
+        Set<String> rootIds = new HashSet<>();
+        for (AutoCacheRepository<?, ?, ?> repository : cacheSyncService.orderParentFirst()) {
+            for (String id : byEntity.getOrDefault(repository.getDtoClass().getName(), Set.of())) {
+                Object dto = repository.findDtoByIdUnchecked(id);
+                if (dto != null) {
+                    rootIds.add(repository.findRootIdUnchecked(dto));
+                }
+            }
+        }
+        return rootIds;
+    }
+
+    /**
+     * 합친 엔티티를 부모 → 자식 순서로, 타입마다 batch-size 단위의 IN 조회와 JDBC 배치로 반영합니다.
+     */
+    private void apply(Map<String, Set<String>> byEntity) {
+        List<AutoCacheRepository<?, ?, ?>> ordered = cacheSyncService.orderParentFirst();
+        int upserted = 0;
+        for (AutoCacheRepository<?, ?, ?> repository : ordered) {
+            List<Object> dtos = new ArrayList<>();
+            for (String id : byEntity.getOrDefault(repository.getDtoClass().getName(), Set.of())) {
+                Object dto = repository.findDtoByIdUnchecked(id);
+                if (dto != null) { // 없으면 이후 삭제되었거나 방 플러시로 이미 반영된 엔티티
+                    dtos.add(dto);
+                }
+            }
+            if (!dtos.isEmpty()) {
+                upserted += repository.flushToDatabaseInBatchUnchecked(dtos, flushBatchSize).size();
+            }
+        }
+
+        if (upserted > 0) {
+            log.debug("[Outbox] Applied upserts={}", upserted);
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(Math.max(100, millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
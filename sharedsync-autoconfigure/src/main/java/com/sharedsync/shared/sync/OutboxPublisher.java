@@ -0,0 +1,58 @@
+package com.sharedsync.shared.sync;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.repository.CacheMutationListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자 편집으로 인한 캐시 변경과 방 플러시 요청을 아웃박스로 발행합니다.
+ *
+ * 아직 DB에 없는 임시(음수) ID는 발행하지 않습니다. 여러 소비자가 같은 엔티티를 동시에 INSERT하면 행이 중복되므로,
+ * 방 동기화 임대를 잡고 실행되는 ROOM_FLUSH에서 한 번만 영속화합니다.
+ * 삭제도 방에 남은 undo 기록이 되돌릴 수 있으므로 발행하지 않고, ROOM_FLUSH에서 tombstone으로 삭제합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "sharedsync.sync.outbox.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPublisher implements CacheMutationListener {
+
+    private final CacheOutbox outbox;
+
+    @Override
+    public void onSaved(AutoCacheRepository<?, ?, ?> repository, Object dto) {
+        if (AutoCacheRepository.isSystemOperation()) {
+            return;
+        }
+        // 임시 ID는 여러 소비자가 각자 INSERT할 수 있으므로 방 임대를 잡는 ROOM_FLUSH에 맡김
+        Object id = repository.extractIdUnchecked(dto);
+        if (id != null && repository.isPersistentId(id)) {
+            publish(OutboxEvent.upsert(repository.getDtoClass().getName(), id));
+        }
+    }
+
+    /**
+     * 사용자가 모두 나간 방의 전체 동기화를 소비자에게 요청합니다.
+     * @return 발행에 실패하면 false (호출한 쪽에서 직접 동기화해야 함)
+     */
+    public boolean publishRoomFlush(String rootId) {
+        return publish(OutboxEvent.roomFlush(rootId));
+    }
+
+    private boolean publish(OutboxEvent event) {
+        try {
+            outbox.publish(event);
+            return true;
+        } catch (RuntimeException e) {
+            // 엔티티 변경은 캐시와 tombstone에 남아 있으므로 방 플러시에서 반영됨
+            log.warn("[Outbox] Failed to publish {} {}:{}: {}", event.getType(), event.getEntity(), event.getId(),
+                    e.getMessage());
+            return false;
+        }
+    }
+}
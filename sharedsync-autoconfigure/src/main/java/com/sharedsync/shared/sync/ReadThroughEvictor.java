@@ -0,0 +1,76 @@
+package com.sharedsync.shared.sync;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.storage.PresenceStorage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * read-through로 채운 캐시 항목을 ttl이 지나면 내립니다.
+ *
+ * 방을 열지 않은 채 조회만 한 엔티티는 방 플러시(evictRoom)의 대상이 되지 않아 캐시에 계속 남습니다.
+ * 여기서 주기적으로 ttl이 지난 항목을 찾아, 그 사이 방이 열렸으면 방 생명주기에 맡기고(기록만 지움)
+ * 닫힌 방이면 evictRoom과 같이 방 잠금을 잡고 접속자가 없을 때만 내립니다.
+ * 로딩 이후 편집된 항목은 DB에 반영될 때까지 남겨 다음 주기에 다시 확인합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "sharedsync.cache.read-through.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReadThroughEvictor {
+
+    private final CacheSyncService cacheSyncService;
+    private final RoomFlushRouter roomFlushRouter;
+    private final PresenceStorage presenceStorage;
+
+    @Scheduled(fixedDelayString = "${sharedsync.cache.read-through.eviction-interval:60}000",
+            initialDelayString = "${sharedsync.cache.read-through.eviction-interval:60}000")
+    public void evictExpired() {
+        // 자식부터 내려야 자식의 방을 부모를 따라 찾을 수 있음
+        List<AutoCacheRepository<?, ?, ?>> repositories = new ArrayList<>(cacheSyncService.orderParentFirst());
+        Collections.reverse(repositories);
+        int evicted = 0;
+        for (AutoCacheRepository<?, ?, ?> repository : repositories) {
+            try {
+                for (Object id : repository.findExpiredReadThroughIds()) {
+                    if (evict(repository, id)) {
+                        evicted++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("[ReadThrough] Failed to evict expired entries of {}: {}",
+                        repository.getEntityType().getSimpleName(), e.getMessage());
+            }
+        }
+        if (evicted > 0) {
+            log.debug("[ReadThrough] Evicted {} expired entr(ies)", evicted);
+        }
+    }
+
+    private boolean evict(AutoCacheRepository<?, ?, ?> repository, Object id) {
+        String rootId = repository.findReadThroughRootId(id);
+        if (rootId == null) {
+            // 방을 찾을 수 없으면 열린 방에 속하지 않은 항목
+            return repository.evictReadThrough(id);
+        }
+        if (presenceStorage.hasTracker(rootId)) {
+            repository.forgetReadThrough(id);
+            return false;
+        }
+        if (!roomFlushRouter.isLocalOwner(rootId)) {
+            return false;
+        }
+        boolean[] evicted = {false};
+        cacheSyncService.runIfVacant(rootId, () -> evicted[0] = repository.evictReadThrough(id));
+        return evicted[0];
+    }
+}
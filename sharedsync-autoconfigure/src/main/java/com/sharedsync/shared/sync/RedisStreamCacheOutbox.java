@@ -0,0 +1,262 @@
+package com.sharedsync.shared.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.PendingMessagesSummary;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo.XInfoGroup;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Redis Stream 기반 아웃박스.
+ *
+ * - 모든 노드가 같은 스트림에 발행하고, 소비자 그룹으로 여러 persister가 나눠 처리합니다.
+ * - ack되지 않은 채 claim-idle 이상 지난 이벤트(소비자 장애)는 다른 소비자가 가져가 다시 처리합니다.
+ * - 계속 실패하는 이벤트는 MAX_DELIVERIES번 시도 후 dead-letter 스트림({streamKey}:dead)으로 옮기고
+ *   등록된 처리기에 넘깁니다. (ROOM_FLUSH는 플러시 라우터가 대신 실행)
+ * - 스트림이 max-length를 넘으면 소비자 그룹이 완료 처리(ack)한 이벤트만 정리합니다.
+ *   처리되지 않은 이벤트는 길이와 관계없이 남습니다.
+ */
+@Slf4j
+public class RedisStreamCacheOutbox implements CacheOutbox {
+
+    private static final long MAX_DELIVERIES = 10;
+    private static final long TRIM_EVERY = 1000;
+    private static final String DEAD_LETTER_SUFFIX = ":dead";
+
+    private final StringRedisTemplate template;
+    private final StreamOperations<String, String, String> stream;
+    private final String streamKey;
+    private final String deadLetterKey;
+    private final String group;
+    private final String consumerName;
+    private final Duration claimIdle;
+    private final long maxLength;
+
+    private final AtomicLong published = new AtomicLong();
+    private volatile boolean groupReady;
+    private volatile long nextClaimAt;
+    private volatile java.util.function.Consumer<OutboxEvent> exhaustedHandler = event -> {
+    };
+
+    public RedisStreamCacheOutbox(RedisConnectionFactory connectionFactory,
+            SharedSyncDatabaseSyncProperties.Outbox settings) {
+        this.template = new StringRedisTemplate(connectionFactory);
+        this.stream = template.opsForStream();
+        this.streamKey = settings.getStreamKey();
+        this.deadLetterKey = streamKey + DEAD_LETTER_SUFFIX;
+        this.group = settings.getConsumerGroup();
+        this.consumerName = "persister-" + UUID.randomUUID().toString().substring(0, 8);
+        this.claimIdle = Duration.ofSeconds(Math.max(1, settings.getClaimIdle()));
+        this.maxLength = settings.getMaxLength();
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        stream.add(StreamRecords.newRecord().in(streamKey).ofMap(event.toMap()));
+        if (maxLength > 0 && published.incrementAndGet() % TRIM_EVERY == 0) {
+            try {
+                trimAcknowledged();
+            } catch (RuntimeException e) {
+                log.warn("[Outbox] Failed to trim outbox stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void setExhaustedHandler(java.util.function.Consumer<OutboxEvent> handler) {
+        this.exhaustedHandler = handler;
+    }
+
+    /**
+     * 스트림이 max-length를 넘으면, 소비자 그룹이 완료 처리한 이벤트만 지웁니다.
+     * 가장 오래된 미완료(pending) 이벤트, 없으면 마지막으로 전달된 이벤트보다 앞선 항목은 모두 ack된 것입니다.
+     */
+    private void trimAcknowledged() {
+        Long length = stream.size(streamKey);
+        if (length == null || length <= maxLength) {
+            return;
+        }
+        ensureGroup();
+        String boundary = null;
+        PendingMessagesSummary summary = stream.pending(streamKey, group);
+        if (summary != null && summary.getTotalPendingMessages() > 0) {
+            boundary = summary.minMessageId();
+        } else {
+            boundary = stream.groups(streamKey).stream()
+                    .filter(info -> group.equals(info.groupName()))
+                    .map(XInfoGroup::lastDeliveredId)
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (boundary == null || "0-0".equals(boundary)) {
+            return;
+        }
+        byte[] key = streamKey.getBytes(StandardCharsets.UTF_8);
+        byte[] minId = boundary.getBytes(StandardCharsets.UTF_8);
+        template.execute((RedisCallback<Object>) connection -> connection.execute("XTRIM", key,
+                "MINID".getBytes(StandardCharsets.UTF_8), "~".getBytes(StandardCharsets.UTF_8), minId));
+    }
+
+    @Override
+    public List<Delivery> poll(int maxCount, long timeoutMillis) {
+        ensureGroup();
+        List<Delivery> deliveries = new ArrayList<>(claimAbandoned(maxCount));
+        if (!deliveries.isEmpty()) {
+            return deliveries;
+        }
+
+        StreamReadOptions options = StreamReadOptions.empty().count(maxCount);
+        if (timeoutMillis > 0) {
+            options = options.block(Duration.ofMillis(timeoutMillis));
+        }
+        List<MapRecord<String, String, String>> records = stream.read(Consumer.from(group, consumerName), options,
+                StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+        return toDeliveries(records);
+    }
+
+    @Override
+    public void acknowledge(List<Delivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        String[] ids = deliveries.stream().map(Delivery::deliveryId).toArray(String[]::new);
+        stream.acknowledge(streamKey, group, ids);
+    }
+
+    @Override
+    public void release(List<Delivery> deliveries) {
+        // pending 상태로 남겨 두면 claim-idle 이후 다시 처리됨
+    }
+
+    /**
+     * 소비자 그룹이 없으면 생성합니다. (스트림이 없으면 함께 생성)
+     */
+    private void ensureGroup() {
+        if (groupReady) {
+            return;
+        }
+        byte[] key = streamKey.getBytes(StandardCharsets.UTF_8);
+        try {
+            template.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(key, group, ReadOffset.from("0"), true));
+        } catch (RuntimeException e) {
+            if (!String.valueOf(e.getMessage()).contains("BUSYGROUP")
+                    && (e.getCause() == null || !String.valueOf(e.getCause().getMessage()).contains("BUSYGROUP"))) {
+                throw e;
+            }
+        }
+        groupReady = true;
+    }
+
+    /**
+     * 오래 ack되지 않은 이벤트를 이 소비자로 가져옵니다.
+     */
+    private List<Delivery> claimAbandoned(int maxCount) {
+        long now = System.currentTimeMillis();
+        if (now < nextClaimAt) {
+            return List.of();
+        }
+        nextClaimAt = now + claimIdle.toMillis();
+
+        PendingMessages pending = stream.pending(streamKey, group, Range.unbounded(), maxCount);
+        List<RecordId> claimable = new ArrayList<>();
+        List<String> exhausted = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) < 0) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= MAX_DELIVERIES) {
+                exhausted.add(message.getIdAsString());
+            } else {
+                claimable.add(message.getId());
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            deadLetter(exhausted);
+        }
+        if (claimable.isEmpty()) {
+            return List.of();
+        }
+        List<MapRecord<String, String, String>> records = stream.claim(streamKey, group, consumerName, claimIdle,
+                claimable.toArray(RecordId[]::new));
+        log.info("[Outbox] Claimed {} abandoned event(s)", records.size());
+        return toDeliveries(records);
+    }
+
+    /**
+     * 재시도 한도를 넘은 이벤트를 dead-letter 스트림에 남기고 처리기에 넘긴 뒤 완료 처리합니다.
+     * 처리기가 실패한 이벤트는 ack하지 않으므로 다음 claim 주기에 다시 시도합니다.
+     */
+    private void deadLetter(List<String> ids) {
+        List<String> handled = new ArrayList<>();
+        for (String id : ids) {
+            List<MapRecord<String, String, String>> records = stream.range(streamKey, Range.closed(id, id));
+            if (records == null || records.isEmpty()) {
+                handled.add(id);
+                continue;
+            }
+            Map<String, String> fields = new LinkedHashMap<>(records.get(0).getValue());
+            fields.put("deliveryId", id);
+            try {
+                stream.add(StreamRecords.newRecord().in(deadLetterKey).ofMap(fields));
+                OutboxEvent event = OutboxEvent.fromMap(fields);
+                if (event != null) {
+                    exhaustedHandler.accept(event);
+                }
+                handled.add(id);
+            } catch (RuntimeException e) {
+                log.warn("[Outbox] Failed to dead-letter event {}, will retry: {}", id, e.getMessage());
+            }
+        }
+        if (!handled.isEmpty()) {
+            log.error("[Outbox] Moved {} event(s) to {} after {} failed deliveries: {}",
+                    handled.size(), deadLetterKey, MAX_DELIVERIES, handled);
+            stream.acknowledge(streamKey, group, handled.toArray(String[]::new));
+        }
+    }
+
+    private List<Delivery> toDeliveries(List<MapRecord<String, String, String>> records) {
+        if (records == null || records.isEmpty()) {
+            return List.of();
+        }
+        List<Delivery> deliveries = new ArrayList<>(records.size());
+        List<String> malformed = new ArrayList<>();
+        for (MapRecord<String, String, String> record : records) {
+            OutboxEvent event = OutboxEvent.fromMap(record.getValue());
+            if (event == null) {
+                malformed.add(record.getId().getValue());
+            } else {
+                deliveries.add(new Delivery(record.getId().getValue(), event));
+            }
+        }
+        if (!malformed.isEmpty()) {
+            log.warn("[Outbox] Skipping {} malformed event(s)", malformed.size());
+            stream.acknowledge(streamKey, group, malformed.toArray(String[]::new));
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,59 @@
+package com.sharedsync.shared.sync;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.repository.CacheRecovery;
+import com.sharedsync.shared.storage.PresenceStorage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 재시작 후 디스크에서 복원된 방을 DB에 반영합니다.
+ *
+ * 방 플러시는 마지막 사용자가 나갈 때 요청되는데, 접속 정보는 복원되지 않으므로
+ * 복원된 방에 아무도 다시 들어오지 않으면 남아 있던 변경이 DB에 반영되지 않습니다.
+ * 시작이 끝나면 접속자가 없는 복원된 방마다 플러시를 요청합니다.
+ * 그 사이 사용자가 들어온 방은 플러시가 건너뛰고, 평소처럼 마지막 사용자가 나갈 때 반영됩니다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RestoredRoomFlusher {
+
+    private final ObjectProvider<CacheRecovery> cacheRecoveries;
+    private final CacheSyncService cacheSyncService;
+    private final RoomFlushRouter roomFlushRouter;
+    private final PresenceStorage presenceStorage;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void flushRestoredRooms() {
+        if (cacheRecoveries.stream().noneMatch(CacheRecovery::isRestored)) {
+            return;
+        }
+        AutoCacheRepository<?, ?, ?> rootRepository = cacheSyncService.orderParentFirst().stream()
+                .filter(repository -> !repository.isParentIdFieldPresent())
+                .findFirst()
+                .orElse(null);
+        if (rootRepository == null) {
+            return;
+        }
+        int requested = 0;
+        for (Object dto : rootRepository.findAllDtos()) {
+            String rootId = String.valueOf(rootRepository.extractIdUnchecked(dto));
+            try {
+                if (!presenceStorage.hasTracker(rootId)) {
+                    roomFlushRouter.requestFlush(rootId);
+                    requested++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("[Flush] Failed to request flush of restored room rootId={}: {}", rootId, e.getMessage());
+            }
+        }
+        log.info("[Flush] Requested flush of {} restored room(s)", requested);
+    }
+}
@@ -0,0 +1,225 @@
+package com.sharedsync.shared.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.storage.PresenceStorage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 방(rootId)별 DB 플러시를 담당 노드에 배정합니다.
+ *
+ * - 살아 있는 노드들을 일관된 해싱(consistent hashing) 링에 배치하고, 방은 링에서 만나는 노드가 담당합니다.
+ *   노드가 추가/제거되어도 대부분의 방은 담당 노드가 바뀌지 않습니다.
+ * - 마지막 사용자가 나간 노드가 담당이 아니면 요청을 대기 목록에 남기고, 담당 노드가 주기적으로 가져가 실행합니다.
+ * - 노드가 죽으면 등록이 만료되어 남은 노드들이 그 방들을 이어받습니다.
+ *   담당이 잠시 겹치더라도 방 동기화 임대(펜싱 토큰)로 한 노드만 반영합니다.
+ * - 실패한 플러시는 대기 목록에 남기고, 실패가 이어질수록 간격을 늘려(retry-max-backoff까지) 다시 시도합니다.
+ */
+@Component
+@Slf4j
+public class RoomFlushRouter {
+
+    private final PresenceStorage presenceStorage;
+    private final DatabaseFlushExecutor databaseFlushExecutor;
+    private final CacheSyncService cacheSyncService;
+    private final SharedSyncDatabaseSyncProperties.Flush settings;
+    private final String nodeId;
+
+    // 이 노드에서 실행 중이거나 대기 중인 방 플러시
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    // 실패한 방 플러시의 재시도 상태 (rootId -> 연속 실패 횟수, 다음 시도 시각)
+    private final Map<String, Retry> retries = new ConcurrentHashMap<>();
+
+    private record Retry(int attempts, long notBefore) {}
+
+    private volatile Set<String> members = Set.of();
+    private volatile TreeMap<Long, String> ring = new TreeMap<>();
+    private volatile boolean stopping;
+
+    public RoomFlushRouter(PresenceStorage presenceStorage,
+            DatabaseFlushExecutor databaseFlushExecutor,
+            CacheSyncService cacheSyncService,
+            SharedSyncDatabaseSyncProperties syncProperties) {
+        this.presenceStorage = presenceStorage;
+        this.databaseFlushExecutor = databaseFlushExecutor;
+        this.cacheSyncService = cacheSyncService;
+        this.settings = syncProperties.getFlush();
+        String configured = settings.getNodeId();
+        this.nodeId = configured == null || configured.isBlank() ? UUID.randomUUID().toString() : configured;
+    }
+
+    @PostConstruct
+    public void join() {
+        try {
+            refreshMembership();
+            log.info("[Flush] Joined flush ring: nodeId={}, nodes={}", nodeId, members.size());
+        } catch (RuntimeException e) {
+            log.warn("[Flush] Failed to join flush ring, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 방 플러시를 요청합니다. 이 노드가 담당이면 바로 실행하고, 아니면 담당 노드가 처리하도록 남깁니다.
+     */
+    public void requestFlush(String rootId) {
+        if (stopping || isLocalOwner(rootId)) {
+            submit(rootId);
+            return;
+        }
+        try {
+            presenceStorage.addPendingFlush(rootId);
+        } catch (RuntimeException e) {
+            log.warn("[Flush] Failed to hand off rootId={} to its owner, flushing locally: {}", rootId, e.getMessage());
+            submit(rootId);
+        }
+    }
+
+    /**
+     * 노드 등록을 갱신하고, 담당 방의 대기 중인 플러시 요청을 가져가 실행합니다.
+     */
+    @Scheduled(fixedDelayString = "${sharedsync.sync.flush.sweep-interval:2}000")
+    public void sweep() {
+        if (stopping) {
+            return;
+        }
+        try {
+            refreshMembership();
+            Set<String> pending = presenceStorage.getPendingFlushes();
+            long now = System.currentTimeMillis();
+            for (String rootId : pending) {
+                Retry retry = retries.get(rootId);
+                if (isLocalOwner(rootId) && !inFlight.contains(rootId) && (retry == null || retry.notBefore() <= now)) {
+                    submit(rootId);
+                }
+            }
+            // 다른 노드가 반영해 대기 목록에서 빠진 방은 재시도 상태도 지움
+            retries.keySet().retainAll(pending);
+        } catch (RuntimeException e) {
+            log.warn("[Flush] Failed to sweep pending room flushes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 링에서 빠집니다. 이후 요청은 이 노드에서 직접 실행합니다. (서버 종료 시 남은 방을 그대로 반영하기 위해)
+     */
+    @PreDestroy
+    public void leave() {
+        stopping = true;
+        try {
+            presenceStorage.unregisterFlushNode(nodeId);
+        } catch (RuntimeException e) {
+            log.warn("[Flush] Failed to leave flush ring: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLocalOwner(String rootId) {
+        return nodeId.equals(ownerOf(rootId));
+    }
+
+    /**
+     * 방을 담당하는 노드 ID (링이 비어 있으면 이 노드)
+     */
+    public String ownerOf(String rootId) {
+        TreeMap<Long, String> current = ring;
+        if (current.isEmpty()) {
+            return nodeId;
+        }
+        SortedMap<Long, String> tail = current.tailMap(hash(rootId));
+        return tail.isEmpty() ? current.firstEntry().getValue() : tail.get(tail.firstKey());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void submit(String rootId) {
+        if (!inFlight.add(rootId)) {
+            return;
+        }
+        databaseFlushExecutor.submit(rootId, () -> cacheSyncService.syncToDatabaseIfVacant(rootId))
+                .whenComplete((result, failure) -> {
+                    // 실패 내용은 DatabaseFlushExecutor가 기록함
+                    inFlight.remove(rootId);
+                    if (failure != null) {
+                        scheduleRetry(rootId);
+                        return;
+                    }
+                    retries.remove(rootId);
+                    try {
+                        presenceStorage.removePendingFlush(rootId);
+                    } catch (RuntimeException e) {
+                        log.warn("[Flush] Failed to clear pending flush rootId={}: {}", rootId, e.getMessage());
+                    }
+                });
+    }
+
+    /**
+     * 실패한 방을 대기 목록에 남겨 담당 노드(링이 바뀌면 새 담당)가 다시 가져가게 합니다.
+     * 이 노드에서는 sweep-interval부터 실패할 때마다 두 배씩, retry-max-backoff까지 늦춰 다시 시도합니다.
+     */
+    private void scheduleRetry(String rootId) {
+        long baseMillis = TimeUnit.SECONDS.toMillis(Math.max(1, settings.getSweepInterval()));
+        long maxMillis = Math.max(baseMillis, TimeUnit.SECONDS.toMillis(settings.getRetryMaxBackoff()));
+        Retry retry = retries.compute(rootId, (key, previous) -> {
+            int attempts = previous == null ? 1 : previous.attempts() + 1;
+            long delay = Math.min(maxMillis, baseMillis << Math.min(20, attempts - 1));
+            return new Retry(attempts, System.currentTimeMillis() + delay);
+        });
+        try {
+            presenceStorage.addPendingFlush(rootId);
+        } catch (RuntimeException e) {
+            log.warn("[Flush] Failed to keep pending flush rootId={}: {}", rootId, e.getMessage());
+        }
+        log.warn("[Flush] Will retry room flush: rootId={}, attempt={}, inMillis={}", rootId, retry.attempts(),
+                retry.notBefore() - System.currentTimeMillis());
+    }
+
+    private void refreshMembership() {
+        presenceStorage.registerFlushNode(nodeId, TimeUnit.SECONDS.toMillis(Math.max(1, settings.getNodeTimeout())));
+        Set<String> current = presenceStorage.getFlushNodes();
+        current.add(nodeId);
+        if (current.equals(members)) {
+            return;
+        }
+        TreeMap<Long, String> rebuilt = new TreeMap<>();
+        int virtualNodes = Math.max(1, settings.getVirtualNodes());
+        for (String member : current) {
+            for (int i = 0; i < virtualNodes; i++) {
+                rebuilt.put(hash(member + "#" + i), member);
+            }
+        }
+        ring = rebuilt;
+        log.info("[Flush] Flush ring changed: {} -> {} node(s)", members.size(), current.size());
+        members = Set.copyOf(current);
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (digest[i] & 0xFF);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.sharedsync.shared.sync;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.repository.CacheMutationListener;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 변경된(dirty) 엔티티만 주기적으로 DB에 반영하는 write-behind 플러셔.
+ *
+ * - AutoCacheRepository가 사용자 편집으로 저장/수정된 ID를 캐시 저장소의 DIRTY 집합에 기록합니다.
+ * - 설정된 주기마다, 또는 변경 건수가 임계치에 도달하면 batch-size 단위의 작은 트랜잭션으로 나눠 부모 → 자식 순서로 반영합니다.
+ * - 삭제(TOMBSTONE)는 반영하지 않습니다. 방에 남은 undo 기록이 삭제를 되돌릴 수 있으므로, 방이 비어 기록이 지워진 뒤
+ *   방 플러시에서 삭제합니다.
+ * - 변경분은 방별로 묶어, 플러시 링에서 그 방을 담당하는 노드가 방 동기화 임대를 잡은 동안에만 반영합니다.
+ *   트랜잭션마다 임대의 펜싱 토큰을 확인하므로 방 플러시나 다른 노드의 write-behind와 겹쳐 반영되지 않습니다.
+ * - 임시(음수) ID 엔티티도 영속화합니다. 클라이언트가 계속 쓰는 임시 ID는 캐시의 별칭으로 해석되고,
+ *   부모가 아직 영속화되지 않은 엔티티는 다음 주기로 미룹니다.
+ */
+@Component
+@ConditionalOnProperty(name = "sharedsync.sync.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class WriteBehindFlusher implements CacheMutationListener {
+
+    private final CacheSyncService cacheSyncService;
+    private final RoomFlushRouter roomFlushRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final SharedSyncDatabaseSyncProperties.WriteBehind settings;
+
+    private final AtomicInteger pendingMutations = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final ExecutorService thresholdExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sharedsync-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WriteBehindFlusher(CacheSyncService cacheSyncService,
+            RoomFlushRouter roomFlushRouter,
+            PlatformTransactionManager transactionManager,
+            SharedSyncDatabaseSyncProperties syncProperties) {
+        this.cacheSyncService = cacheSyncService;
+        this.roomFlushRouter = roomFlushRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = syncProperties.getWriteBehind();
+    }
+
+    @Override
+    public void onSaved(AutoCacheRepository<?, ?, ?> repository, Object dto) {
+        countMutation();
+    }
+
+    @Override
+    public void onDeleted(AutoCacheRepository<?, ?, ?> repository, Object id) {
+        countMutation();
+    }
+
+    @Override
+    public boolean tracksDirtyIds() {
+        return true;
+    }
+
+    private void countMutation() {
+        int threshold = settings.getThreshold();
+        if (threshold <= 0 || AutoCacheRepository.isSystemOperation()) {
+            return;
+        }
+        if (pendingMutations.incrementAndGet() >= threshold && flushRequested.compareAndSet(false, true)) {
+            thresholdExecutor.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sharedsync.sync.write-behind.interval:10}000",
+            initialDelayString = "${sharedsync.sync.write-behind.interval:10}000")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thresholdExecutor.shutdownNow();
+        flush();
+    }
+
+    /**
+     * 쌓여 있는 변경분을 DB에 반영합니다. 이미 플러시 중이면 건너뜁니다.
+     */
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushRequested.set(false);
+            pendingMutations.set(0);
+            AutoCacheRepository.runAsSystemOperation(this::flushPending);
+        } catch (RuntimeException e) {
+            log.error("[WriteBehind] Flush failed", e);
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * 변경분을 방별로 묶어, 플러시 링에서 이 노드가 담당하는 방만 방 동기화 임대를 잡고 반영합니다.
+     * 임대를 얻지 못한 방(다른 노드가 반영 중)은 표시를 남겨 다음 주기에 다시 시도합니다.
+     */
+    private void flushPending() {
+        int upserted = 0;
+        for (Map.Entry<String, Map<AutoCacheRepository<?, ?, ?>, List<Object>>> room : dirtyByRoom().entrySet()) {
+            String rootId = room.getKey();
+            if (!roomFlushRouter.isLocalOwner(rootId)) {
+                continue;
+            }
+            int[] flushed = {0};
+            boolean leased = cacheSyncService.runWithFencedSyncLease(rootId, token -> {
+                for (Map.Entry<AutoCacheRepository<?, ?, ?>, List<Object>> dirty : room.getValue().entrySet()) {
+                    flushed[0] += flushUpserts(rootId, token, dirty.getKey(), dirty.getValue());
+                }
+            });
+            if (!leased) {
+                log.debug("[WriteBehind] Room is being synced elsewhere, deferring: rootId={}", rootId);
+            }
+            upserted += flushed[0];
+        }
+
+        if (upserted > 0) {
+            log.info("[WriteBehind] Flushed upserts={}", upserted);
+        }
+    }
+
+    /**
+     * 방 → (부모 → 자식 순서의 타입 → dirty ID). 방을 찾지 못한 엔티티는 방 플러시에 맡기고 표시를 남깁니다.
+     */
+    private Map<String, Map<AutoCacheRepository<?, ?, ?>, List<Object>>> dirtyByRoom() {
+        Map<String, Map<AutoCacheRepository<?, ?, ?>, List<Object>>> byRoom = new LinkedHashMap<>();
+        for (AutoCacheRepository<?, ?, ?> repository : cacheSyncService.orderParentFirst()) {
+            // 새로 만든 엔티티(임시 ID)도 반영: 하위 엔티티는 별칭으로 영속 부모 ID를 찾음
+            for (Object id : repository.findDirtyIds()) {
+                Object dto = repository.findDtoByIdUnchecked(id);
+                if (dto == null) {
+                    repository.clearDirtyUnchecked(id); // 이미 캐시에서 내려간 엔티티
+                    continue;
+                }
+                String rootId = repository.findRootIdUnchecked(dto);
+                if (rootId == null) {
+                    continue;
+                }
+                byRoom.computeIfAbsent(rootId, key -> new LinkedHashMap<>())
+                        .computeIfAbsent(repository, key -> new ArrayList<>())
+                        .add(id);
+            }
+        }
+        return byRoom;
+    }
+
+    private int flushUpserts(String rootId, long leaseToken, AutoCacheRepository<?, ?, ?> repository, List<Object> ids) {
+        int flushed = 0;
+        for (List<Object> chunk : chunk(ids)) {
+            try {
+                Integer count = transactionTemplate.execute(status -> {
+                    // 임대를 잃었거나 더 새로운 임대로 반영된 방이면 커밋하지 않음
+                    cacheSyncService.fenceTransaction(rootId, leaseToken);
+                    int written = 0;
+                    for (Object id : chunk) {
+                        // 반영 전에 표시를 지워야 반영 도중 들어온 편집이 다음 주기에 다시 잡힘
+                        repository.clearDirtyUnchecked(id);
+                        Object dto = repository.findDtoByIdUnchecked(id);
+                        if (dto == null) {
+                            continue; // 이미 캐시에서 내려간 엔티티
+                        }
+                        if (repository.flushToDatabaseByDtoUnchecked(dto) == null) {
+                            repository.markDirtyUnchecked(id); // 부모가 아직 영속화되지 않음
+                            continue;
+                        }
+                        written++;
+                    }
+                    return written;
+                });
+                flushed += count == null ? 0 : count;
+            } catch (RuntimeException e) {
+                chunk.forEach(repository::markDirtyUnchecked);
+                log.warn("[WriteBehind] Upsert batch failed, will retry: rootId={}, entity={}, size={}",
+                        rootId, repository.getEntityType().getSimpleName(), chunk.size(), e);
+            }
+        }
+        return flushed;
+    }
+
+    private List<List<Object>> chunk(List<Object> ids) {
+        int batchSize = Math.max(1, settings.getBatchSize());
+        List<List<Object>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+        }
+        return chunks;
+    }
+}
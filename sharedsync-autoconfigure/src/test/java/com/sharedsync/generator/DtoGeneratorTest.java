@@ -0,0 +1,236 @@
+package com.sharedsync.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sharedsync.generator.Generator.CacheInformation;
+import com.sharedsync.generator.Generator.FieldInfo;
+import com.sharedsync.generator.Generator.RelatedEntity;
+
+/**
+ * 생성한 DTO 소스를 실제로 컴파일해 fromEntity를 실행합니다.
+ */
+class DtoGeneratorTest {
+
+    private static final String PLAN = """
+            package lazytest;
+
+            @jakarta.persistence.Entity
+            public class Plan {
+                @jakarta.persistence.Id
+                Long planId;
+
+                public Long getPlanId() {
+                    return planId;
+                }
+            }
+            """;
+
+    private static final String PLACE = """
+            package lazytest;
+
+            @jakarta.persistence.Entity
+            public class Place {
+                @jakarta.persistence.Id
+                Long placeId;
+                String name;
+                @jakarta.persistence.ManyToOne(fetch = jakarta.persistence.FetchType.LAZY)
+                Plan plan;
+            }
+            """;
+
+    @TempDir
+    Path classes;
+
+    private final Map<String, String> generated = new LinkedHashMap<>();
+    private ClassLoader loader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Generator generator = new Generator();
+        CacheInformation cacheInfo = generator.new CacheInformation();
+        cacheInfo.setEntityName("Place");
+        cacheInfo.setEntityPath("lazytest.Place");
+        cacheInfo.setIdType("java.lang.Long");
+        cacheInfo.setIdName("placeId");
+        cacheInfo.setIdOriginalType("java.lang.Long");
+        cacheInfo.addEntityField(generator.new FieldInfo("placeId", "java.lang.Long", false, false, false, false, false, ""));
+        cacheInfo.addEntityField(generator.new FieldInfo("name", "java.lang.String", false, false, false, false, false, ""));
+        cacheInfo.addEntityField(generator.new FieldInfo("plan", "lazytest.Plan", true, false, false, false, false, ""));
+        RelatedEntity plan = generator.new RelatedEntity();
+        plan.setEntityPath("lazytest.Plan");
+        plan.setEntityIdType("java.lang.Long");
+        plan.setEntityIdName("planId");
+        plan.setCacheEntityIdName("planId");
+        plan.setEntityIdOriginalType("java.lang.Long");
+        plan.setTableName("plan");
+        cacheInfo.addRelatedEntity(plan);
+
+        DtoGenerator.initialize(cacheInfo);
+        ProcessingEnvironment processingEnv = mock(ProcessingEnvironment.class);
+        when(processingEnv.getFiler()).thenReturn(capturingFiler());
+        DtoGenerator.process(cacheInfo, processingEnv);
+        EntityAllArgsConstructorGenerator.process(cacheInfo, processingEnv);
+
+        List<JavaFileObject> sources = new ArrayList<>(List.of(source("lazytest.Plan", PLAN), source("lazytest.Place", PLACE)));
+        generated.forEach((name, code) -> sources.add(source(name, code)));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        boolean compiled = compiler.getTask(null, null, null,
+                List.of("-proc:none", "-d", classes.toString(), "-classpath", System.getProperty("java.class.path")),
+                null, sources).call();
+        assertThat(compiled).as(String.join("\n\n", generated.values())).isTrue();
+
+        loader = new URLClassLoader(new URL[] { classes.toUri().toURL() }, getClass().getClassLoader());
+    }
+
+    private Filer capturingFiler() {
+        return new Filer() {
+            @Override
+            public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+                return new SimpleJavaFileObject(URI.create("string:///" + name.toString().replace('.', '/') + ".java"),
+                        JavaFileObject.Kind.SOURCE) {
+                    @Override
+                    public Writer openWriter() {
+                        return new StringWriter() {
+                            @Override
+                            public void close() {
+                                generated.put(name.toString(), toString());
+                            }
+                        };
+                    }
+                };
+            }
+
+            @Override
+            public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public FileObject createResource(JavaFileManager.Location location, CharSequence moduleAndPkg,
+                    CharSequence relativeName, Element... originatingElements) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public FileObject getResource(JavaFileManager.Location location, CharSequence moduleAndPkg,
+                    CharSequence relativeName) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private Object place(Object plan) throws Exception {
+        Class<?> placeClass = loader.loadClass("lazytest.Place");
+        Object place = placeClass.getDeclaredConstructor().newInstance();
+        set(place, "placeId", 10L);
+        set(place, "name", "서울역");
+        set(place, "plan", plan);
+        return place;
+    }
+
+    private Object fromEntity(Object place) throws Exception {
+        Class<?> dtoClass = loader.loadClass("sharedsync.dto.PlaceDto");
+        return dtoClass.getMethod("fromEntity", place.getClass()).invoke(null, place);
+    }
+
+    private static void set(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static Object get(Object target, String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    @Test
+    void lazyParentIdIsReadFromTheProxyWithoutInitializingIt() throws Exception {
+        Class<?> planClass = loader.loadClass("lazytest.Plan");
+        Object proxy = mock(planClass, withSettings().extraInterfaces(HibernateProxy.class));
+        LazyInitializer initializer = mock(LazyInitializer.class);
+        when(initializer.getIdentifier()).thenReturn(1L);
+        when(((HibernateProxy) proxy).getHibernateLazyInitializer()).thenReturn(initializer);
+
+        Object dto = fromEntity(place(proxy));
+
+        assertThat(get(dto, "placeId")).isEqualTo(10L);
+        assertThat(get(dto, "name")).isEqualTo("서울역");
+        assertThat(get(dto, "planId")).isEqualTo(1L);
+        verify(initializer, never()).initialize();
+        verify(initializer, never()).getImplementation();
+    }
+
+    @Test
+    void loadedParentIdIsReadFromTheEntity() throws Exception {
+        Object plan = loader.loadClass("lazytest.Plan").getDeclaredConstructor().newInstance();
+        set(plan, "planId", 2L);
+
+        assertThat(get(fromEntity(place(plan)), "planId")).isEqualTo(2L);
+    }
+
+    @Test
+    void missingParentStaysNull() throws Exception {
+        assertThat(get(fromEntity(place(null)), "planId")).isNull();
+    }
+
+    @Test
+    void fieldsConstructorAndEqualsFollowTheSameFieldList() throws Exception {
+        Class<?> dtoClass = loader.loadClass("sharedsync.dto.PlaceDto");
+        assertThat(dtoClass.getDeclaredFields()).extracting(Field::getName)
+                .containsSubsequence("placeId", "name", "planId");
+
+        Object built = dtoClass.getConstructor(Long.class, String.class, Long.class).newInstance(10L, "서울역", 2L);
+        Object plan = loader.loadClass("lazytest.Plan").getDeclaredConstructor().newInstance();
+        set(plan, "planId", 2L);
+        Object converted = fromEntity(place(plan));
+
+        assertThat(built).isEqualTo(converted).hasSameHashCodeAs(converted);
+        set(built, "planId", 3L);
+        assertThat(built).isNotEqualTo(converted);
+    }
+}
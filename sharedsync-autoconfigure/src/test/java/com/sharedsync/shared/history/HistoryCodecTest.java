@@ -0,0 +1,183 @@
+package com.sharedsync.shared.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.annotation.CacheId;
+import com.sharedsync.shared.dto.CacheDto;
+
+class HistoryCodecTest {
+
+    static class PlaceDto extends CacheDto<Long> {
+        @CacheId
+        Long placeId;
+        String name;
+        Integer position;
+        List<String> tags;
+
+        PlaceDto() {
+        }
+
+        PlaceDto(Long placeId, String name, Integer position, List<String> tags) {
+            this.placeId = placeId;
+            this.name = name;
+            this.position = position;
+            this.tags = tags;
+        }
+    }
+
+    private static HistoryAction action(HistoryAction.Type type, List<PlaceDto> before, List<PlaceDto> after) {
+        return HistoryAction.builder()
+                .type(type)
+                .entityName("Place")
+                .dtoClassName(PlaceDto.class.getName())
+                .beforeData(before)
+                .afterData(after)
+                .eventId("event-1")
+                .timestamp(1_700_000_000_000L)
+                .build();
+    }
+
+    @Test
+    void createRoundTripKeepsSnapshotsAndSubActions() {
+        HistoryAction child = action(HistoryAction.Type.CREATE, null,
+                List.of(new PlaceDto(2L, null, null, null)));
+        HistoryAction created = action(HistoryAction.Type.CREATE, null,
+                List.of(new PlaceDto(1L, "서울역", 3, List.of("a", "b"))));
+        created.setSubActions(new ArrayList<>(List.of(child)));
+
+        HistoryAction decoded = HistoryCodec.decode(HistoryCodec.encode(created), null);
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(created);
+    }
+
+    @Test
+    void deleteRoundTripKeepsNullEntries() {
+        List<PlaceDto> before = new ArrayList<>();
+        before.add(new PlaceDto(1L, "a", 1, List.of()));
+        before.add(null);
+        HistoryAction deleted = action(HistoryAction.Type.DELETE, before, null);
+
+        HistoryAction decoded = HistoryCodec.decode(HistoryCodec.encode(deleted), null);
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(deleted);
+    }
+
+    @Test
+    void updatePatchIsAppliedToCurrentState() {
+        HistoryAction updated = action(HistoryAction.Type.UPDATE,
+                List.of(new PlaceDto(1L, "before", 1, List.of("x"))),
+                List.of(new PlaceDto(1L, "after", 1, List.of("x"))));
+        PlaceDto current = new PlaceDto(1L, "after", 7, List.of("y"));
+
+        HistoryAction decoded = HistoryCodec.decode(HistoryCodec.encode(updated), (dtoClass, id) -> current);
+
+        PlaceDto before = (PlaceDto) decoded.getBeforeData().get(0);
+        PlaceDto after = (PlaceDto) decoded.getAfterData().get(0);
+        assertThat(before.name).isEqualTo("before");
+        assertThat(after.name).isEqualTo("after");
+        // 바뀌지 않은 필드는 현재 상태를 따름
+        assertThat(before.position).isEqualTo(7);
+        assertThat(after.tags).containsExactly("y");
+        assertThat(after).isNotSameAs(current);
+    }
+
+    @Test
+    void updateWithoutLookupHasOnlyIdAndChangedFields() {
+        HistoryAction updated = action(HistoryAction.Type.UPDATE,
+                List.of(new PlaceDto(1L, "before", 1, null)),
+                List.of(new PlaceDto(1L, "before", 2, null)));
+
+        HistoryAction decoded = HistoryCodec.decode(HistoryCodec.encode(updated), null);
+
+        PlaceDto after = (PlaceDto) decoded.getAfterData().get(0);
+        assertThat(after.placeId).isEqualTo(1L);
+        assertThat(after.position).isEqualTo(2);
+        assertThat(after.name).isNull();
+    }
+
+    @Test
+    void updateWithoutPreviousStateStoresFullSnapshot() {
+        HistoryAction updated = action(HistoryAction.Type.UPDATE, List.of(),
+                List.of(new PlaceDto(1L, "full", 4, List.of("z"))));
+
+        HistoryAction decoded = HistoryCodec.decode(HistoryCodec.encode(updated), null);
+
+        assertThat(decoded.getBeforeData()).isEmpty();
+        assertThat(decoded.getAfterData()).hasSize(1);
+        assertThat(decoded.getAfterData().get(0)).usingRecursiveComparison()
+                .isEqualTo(new PlaceDto(1L, "full", 4, List.of("z")));
+    }
+
+    @Test
+    void patchIsSmallerThanSnapshot() {
+        String longName = "x".repeat(500);
+        HistoryAction updated = action(HistoryAction.Type.UPDATE,
+                List.of(new PlaceDto(1L, longName, 1, null)),
+                List.of(new PlaceDto(1L, longName, 2, null)));
+        HistoryAction created = action(HistoryAction.Type.CREATE, null,
+                List.of(new PlaceDto(1L, longName, 2, null)));
+
+        assertThat(HistoryCodec.encode(updated).length).isLessThan(HistoryCodec.encode(created).length / 2);
+    }
+
+    @Test
+    void truncatedEntryFailsLoudly() {
+        byte[] encoded = HistoryCodec.encode(action(HistoryAction.Type.CREATE, null,
+                List.of(new PlaceDto(1L, "name", 1, List.of("tag")))));
+
+        for (int length = 1; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> HistoryCodec.decode(truncated, null))
+                    .as("length %d", length)
+                    .isInstanceOf(UncheckedIOException.class);
+        }
+    }
+
+    @Test
+    void entryWrittenForAnotherSchemaIsSkipped() {
+        HistoryAction created = action(HistoryAction.Type.CREATE, null, List.of(new PlaceDto(1L, "a", 1, null)));
+        byte[] encoded = HistoryCodec.encode(created);
+
+        // [MAGIC][type][entityName][dtoClassName][eventId][timestamp][schema]
+        int offset = 1 + 1;
+        for (String value : List.of("Place", PlaceDto.class.getName(), "event-1")) {
+            offset += 1 + Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+        offset += Long.BYTES;
+        encoded[offset] ^= 0x01;
+
+        assertThat(HistoryCodec.decode(encoded, null)).isNull();
+    }
+
+    @Test
+    void unknownFormatFailsLoudly() {
+        byte[] garbage = "not a history entry".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> HistoryCodec.decode(garbage, null)).isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void emptyEntryDecodesToNull() {
+        assertThat(HistoryCodec.decode(null, null)).isNull();
+        assertThat(HistoryCodec.decode(new byte[0], null)).isNull();
+    }
+
+    @Test
+    void pointerRoundTrip() {
+        byte[] pointer = HistoryCodec.pointer(42L);
+
+        assertThat(HistoryCodec.isPointer(pointer)).isTrue();
+        assertThat(HistoryCodec.seqOf(pointer)).isEqualTo(42L);
+        assertThat(HistoryCodec.isPointer(HistoryCodec.encode(action(HistoryAction.Type.CREATE, null, List.of()))))
+                .isFalse();
+    }
+}
@@ -0,0 +1,163 @@
+package com.sharedsync.shared.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryHistoryStoreTest {
+
+    private static final String ROOM = "room-1";
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    /**
+     * 첫 바이트로 작업을 구분하는 size 바이트짜리 작업
+     */
+    private static byte[] action(int tag, int size) {
+        byte[] action = new byte[size];
+        Arrays.fill(action, (byte) tag);
+        return action;
+    }
+
+    private static int tagOf(byte[] action) {
+        return action[0];
+    }
+
+    @Test
+    void maxEntriesDropsOldestAction() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(3, UNLIMITED, UNLIMITED, 0);
+        for (int tag = 1; tag <= 5; tag++) {
+            store.record(ROOM, "a", action(tag, 10));
+        }
+
+        assertThat(store.retainedBytes()).isEqualTo(30);
+        assertThat(store.evictedBytes()).isEqualTo(20);
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(5);
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(4);
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(3);
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.UNDO)).isNull();
+        assertThat(store.retainedBytes()).isZero();
+    }
+
+    @Test
+    void sessionBudgetDropsOldestActionOfThatSession() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, 25, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+        store.record(ROOM, "a", action(3, 10));
+        store.record(ROOM, "b", action(4, 10));
+
+        assertThat(store.retainedBytes()).isEqualTo(30);
+        assertThat(store.evictedBytes()).isEqualTo(10);
+        assertThat(store.move(ROOM, "a", HistoryStore.Stack.UNDO, 10)).extracting(InMemoryHistoryStoreTest::tagOf)
+                .containsExactly(3, 2);
+    }
+
+    @Test
+    void roomBudgetEvictsOnlyFromRecordingSession() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, UNLIMITED, 50, 0);
+        for (int tag = 1; tag <= 3; tag++) {
+            store.record(ROOM, "a", action(tag, 10));
+        }
+        for (int tag = 4; tag <= 6; tag++) {
+            store.record(ROOM, "b", action(tag, 10));
+        }
+
+        assertThat(store.retainedBytes()).isEqualTo(50);
+        assertThat(store.evictedBytes()).isEqualTo(10);
+        assertThat(store.move(ROOM, "a", HistoryStore.Stack.UNDO, 10)).hasSize(3);
+        assertThat(store.move(ROOM, "b", HistoryStore.Stack.UNDO, 10)).extracting(InMemoryHistoryStoreTest::tagOf)
+                .containsExactly(6, 5);
+    }
+
+    @Test
+    void roomBudgetIsPerRoom() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, UNLIMITED, 20, 0);
+        store.record(ROOM, "a", action(1, 20));
+        store.record("room-2", "a", action(2, 20));
+
+        assertThat(store.retainedBytes()).isEqualTo(40);
+        assertThat(store.evictedBytes()).isZero();
+    }
+
+    @Test
+    void oversizedActionIsNotKept() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, 10, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 5));
+        store.record(ROOM, "a", action(2, 11));
+
+        assertThat(store.retainedBytes()).isEqualTo(5);
+        assertThat(store.evictedBytes()).isEqualTo(11);
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(1);
+    }
+
+    @Test
+    void recordClearsRedoAndReleasesItsBytes() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, UNLIMITED, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+        store.move(ROOM, "a", HistoryStore.Stack.UNDO, 1);
+
+        store.record(ROOM, "a", action(3, 10));
+
+        assertThat(store.retainedBytes()).isEqualTo(20);
+        assertThat(store.evictedBytes()).isZero();
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.REDO)).isNull();
+    }
+
+    @Test
+    void moveAndRestoreKeepAccounting() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, UNLIMITED, UNLIMITED, 0);
+        for (int tag = 1; tag <= 3; tag++) {
+            store.record(ROOM, "a", action(tag, 10));
+        }
+
+        List<byte[]> moved = store.move(ROOM, "a", HistoryStore.Stack.UNDO, 2);
+        assertThat(moved).extracting(InMemoryHistoryStoreTest::tagOf).containsExactly(3, 2);
+        assertThat(store.retainedBytes()).isEqualTo(30);
+
+        // 옮긴 두 작업 중 맨 위(2)는 undo로 되돌리고, 그 아래(3)는 버림
+        store.restore(ROOM, "a", HistoryStore.Stack.UNDO, 1, 1);
+        assertThat(store.retainedBytes()).isEqualTo(20);
+        assertThat(store.evictedBytes()).isZero();
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(2);
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.REDO)).isNull();
+    }
+
+    @Test
+    void moveRespectsBudgetOfTargetStack() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(2, UNLIMITED, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+        store.push(ROOM, "a", HistoryStore.Stack.REDO, action(3, 10));
+        store.push(ROOM, "a", HistoryStore.Stack.REDO, action(4, 10));
+
+        store.move(ROOM, "a", HistoryStore.Stack.UNDO, 1);
+
+        assertThat(store.retainedBytes()).isEqualTo(30);
+        assertThat(store.evictedBytes()).isEqualTo(10);
+        assertThat(store.move(ROOM, "a", HistoryStore.Stack.REDO, 10)).extracting(InMemoryHistoryStoreTest::tagOf)
+                .containsExactly(2, 4);
+    }
+
+    @Test
+    void clearReleasesSessionAndRoomBudget() {
+        InMemoryHistoryStore store = new InMemoryHistoryStore(100, UNLIMITED, 30, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+
+        store.clear(ROOM, "a");
+        assertThat(store.retainedBytes()).isZero();
+        assertThat(store.evictedBytes()).isZero();
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.UNDO)).isNull();
+
+        // 지운 세션의 크기는 방 한도에 남지 않음
+        for (int tag = 3; tag <= 5; tag++) {
+            store.record(ROOM, "b", action(tag, 10));
+        }
+        assertThat(store.retainedBytes()).isEqualTo(30);
+        assertThat(store.evictedBytes()).isZero();
+    }
+}
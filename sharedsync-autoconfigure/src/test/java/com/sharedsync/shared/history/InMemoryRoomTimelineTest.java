@@ -0,0 +1,80 @@
+package com.sharedsync.shared.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryRoomTimelineTest {
+
+    private static final String ROOM = "room-1";
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    private static byte[] entry(int tag, int size) {
+        byte[] entry = new byte[size];
+        Arrays.fill(entry, (byte) tag);
+        return entry;
+    }
+
+    @Test
+    void roomBudgetDropsOldestEntries() {
+        InMemoryRoomTimeline timeline = new InMemoryRoomTimeline(25, 0);
+        for (int tag = 1; tag <= 4; tag++) {
+            assertThat(timeline.append(ROOM, entry(tag, 10))).isEqualTo(tag);
+        }
+
+        assertThat(timeline.retainedBytes()).isEqualTo(20);
+        assertThat(timeline.evictedBytes()).isEqualTo(20);
+        assertThat(timeline.get(ROOM, 2)).isNull();
+        assertThat(timeline.readAfter(ROOM, 0)).extracting(RoomTimeline.Entry::seq).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void oversizedEntryIsKeptAlone() {
+        InMemoryRoomTimeline timeline = new InMemoryRoomTimeline(5, 0);
+        timeline.append(ROOM, entry(1, 3));
+        long seq = timeline.append(ROOM, entry(2, 10));
+
+        assertThat(timeline.readAfter(ROOM, 0)).extracting(RoomTimeline.Entry::seq).containsExactly(seq);
+        assertThat(timeline.retainedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void checkpointPrunesAndReleasesBytes() {
+        InMemoryRoomTimeline timeline = new InMemoryRoomTimeline(UNLIMITED, 0);
+        for (int tag = 1; tag <= 5; tag++) {
+            timeline.append(ROOM, entry(tag, 10));
+        }
+
+        timeline.checkpoint(ROOM, 5, entry(9, 4), 4);
+
+        assertThat(timeline.retainedBytes()).isEqualTo(20);
+        assertThat(timeline.evictedBytes()).isZero();
+        assertThat(timeline.latestCheckpoint(ROOM).seq()).isEqualTo(5);
+        assertThat(timeline.readAfter(ROOM, 0)).extracting(RoomTimeline.Entry::seq).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void olderCheckpointDoesNotReplaceNewer() {
+        InMemoryRoomTimeline timeline = new InMemoryRoomTimeline(UNLIMITED, 0);
+        timeline.append(ROOM, entry(1, 10));
+        timeline.checkpoint(ROOM, 10, entry(1, 1), 1);
+        timeline.checkpoint(ROOM, 5, entry(2, 1), 1);
+
+        assertThat(timeline.latestCheckpoint(ROOM).seq()).isEqualTo(10);
+    }
+
+    @Test
+    void clearReleasesRoomBytes() {
+        InMemoryRoomTimeline timeline = new InMemoryRoomTimeline(UNLIMITED, 0);
+        timeline.append(ROOM, entry(1, 10));
+        timeline.append("room-2", entry(2, 10));
+
+        timeline.clear(ROOM);
+
+        assertThat(timeline.retainedBytes()).isEqualTo(10);
+        assertThat(timeline.readAfter(ROOM, 0)).isEmpty();
+        assertThat(timeline.append(ROOM, entry(3, 10))).isEqualTo(1);
+    }
+}
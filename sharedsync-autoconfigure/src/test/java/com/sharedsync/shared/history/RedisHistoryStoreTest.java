@@ -0,0 +1,236 @@
+package com.sharedsync.shared.history;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Lua 스크립트가 스택을 옮기며 세션 크기 해시와 방 합계를 맞게 유지하는지 실제 Redis로 확인합니다.
+ * (InMemoryHistoryStoreTest와 같은 시나리오, Docker가 없으면 건너뜀)
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisHistoryStoreTest {
+
+    private static final String ROOM = "room-1";
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        redis.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    private static RedisHistoryStore store(int maxEntries, long maxSession, long maxRoom, long ttlSeconds) {
+        return new RedisHistoryStore(connectionFactory, maxEntries, maxSession, maxRoom, ttlSeconds);
+    }
+
+    /**
+     * 첫 바이트로 작업을 구분하는 size 바이트짜리 작업
+     */
+    private static byte[] action(int tag, int size) {
+        byte[] action = new byte[size];
+        Arrays.fill(action, (byte) tag);
+        return action;
+    }
+
+    private static int tagOf(byte[] action) {
+        return action[0];
+    }
+
+    private static long roomTotal(String room) {
+        String total = redis.opsForValue().get("history:total:{" + room + "}");
+        return total == null ? 0 : Long.parseLong(total);
+    }
+
+    private static long sessionBytes(String session) {
+        Object bytes = redis.opsForHash().get("history:bytes:{" + ROOM + "}", session);
+        return bytes == null ? 0 : Long.parseLong(bytes.toString());
+    }
+
+    @Test
+    void maxEntriesDropsOldestAction() {
+        RedisHistoryStore store = store(3, UNLIMITED, UNLIMITED, 0);
+        for (int tag = 1; tag <= 5; tag++) {
+            store.record(ROOM, "a", action(tag, 10));
+        }
+
+        assertThat(sessionBytes("a")).isEqualTo(30);
+        assertThat(roomTotal(ROOM)).isEqualTo(30);
+        assertThat(store.evictedBytes()).isEqualTo(20);
+        assertThat(store.move(ROOM, "a", HistoryStore.Stack.UNDO, 10)).extracting(RedisHistoryStoreTest::tagOf)
+                .containsExactly(5, 4, 3);
+    }
+
+    @Test
+    void sessionBudgetDropsOldestActionOfThatSession() {
+        RedisHistoryStore store = store(100, 25, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+        store.record(ROOM, "a", action(3, 10));
+        store.record(ROOM, "b", action(4, 10));
+
+        assertThat(sessionBytes("a")).isEqualTo(20);
+        assertThat(sessionBytes("b")).isEqualTo(10);
+        assertThat(roomTotal(ROOM)).isEqualTo(30);
+        assertThat(store.evictedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void roomBudgetEvictsOnlyFromRecordingSession() {
+        RedisHistoryStore store = store(100, UNLIMITED, 50, 0);
+        for (int tag = 1; tag <= 3; tag++) {
+            store.record(ROOM, "a", action(tag, 10));
+        }
+        for (int tag = 4; tag <= 6; tag++) {
+            store.record(ROOM, "b", action(tag, 10));
+        }
+
+        assertThat(sessionBytes("a")).isEqualTo(30);
+        assertThat(sessionBytes("b")).isEqualTo(20);
+        assertThat(roomTotal(ROOM)).isEqualTo(50);
+        assertThat(store.move(ROOM, "b", HistoryStore.Stack.UNDO, 10)).extracting(RedisHistoryStoreTest::tagOf)
+                .containsExactly(6, 5);
+    }
+
+    @Test
+    void oversizedActionIsNotKept() {
+        RedisHistoryStore store = store(100, 10, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 5));
+        store.record(ROOM, "a", action(2, 11));
+
+        assertThat(roomTotal(ROOM)).isEqualTo(5);
+        assertThat(store.evictedBytes()).isEqualTo(11);
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(1);
+        assertThat(roomTotal(ROOM)).isZero();
+    }
+
+    @Test
+    void recordClearsRedoAndReleasesItsBytes() {
+        RedisHistoryStore store = store(100, UNLIMITED, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+        store.move(ROOM, "a", HistoryStore.Stack.UNDO, 1);
+
+        store.record(ROOM, "a", action(3, 10));
+
+        assertThat(roomTotal(ROOM)).isEqualTo(20);
+        assertThat(store.evictedBytes()).isZero();
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.REDO)).isNull();
+    }
+
+    @Test
+    void pushCountsTowardsTheSameBudget() {
+        RedisHistoryStore store = store(100, 25, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.push(ROOM, "a", HistoryStore.Stack.REDO, action(2, 10));
+        store.push(ROOM, "a", HistoryStore.Stack.UNDO, action(3, 10));
+
+        // 세션 한도를 넘으면 undo의 가장 오래된 작업부터 버림
+        assertThat(sessionBytes("a")).isEqualTo(20);
+        assertThat(store.evictedBytes()).isEqualTo(10);
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(3);
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.UNDO)).isNull();
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.REDO))).isEqualTo(2);
+    }
+
+    @Test
+    void moveAndRestoreKeepAccounting() {
+        RedisHistoryStore store = store(100, UNLIMITED, UNLIMITED, 0);
+        for (int tag = 1; tag <= 3; tag++) {
+            store.record(ROOM, "a", action(tag, 10));
+        }
+
+        assertThat(store.move(ROOM, "a", HistoryStore.Stack.UNDO, 2)).extracting(RedisHistoryStoreTest::tagOf)
+                .containsExactly(3, 2);
+        assertThat(roomTotal(ROOM)).isEqualTo(30);
+
+        // 옮긴 두 작업 중 맨 위(2)는 undo로 되돌리고, 그 아래(3)는 버림
+        store.restore(ROOM, "a", HistoryStore.Stack.UNDO, 1, 1);
+        assertThat(sessionBytes("a")).isEqualTo(20);
+        assertThat(roomTotal(ROOM)).isEqualTo(20);
+        assertThat(store.evictedBytes()).isZero();
+        assertThat(tagOf(store.pop(ROOM, "a", HistoryStore.Stack.UNDO))).isEqualTo(2);
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.REDO)).isNull();
+    }
+
+    @Test
+    void moveRespectsBudgetOfTargetStack() {
+        RedisHistoryStore store = store(2, UNLIMITED, UNLIMITED, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+        store.push(ROOM, "a", HistoryStore.Stack.REDO, action(3, 10));
+        store.push(ROOM, "a", HistoryStore.Stack.REDO, action(4, 10));
+
+        store.move(ROOM, "a", HistoryStore.Stack.UNDO, 1);
+
+        assertThat(roomTotal(ROOM)).isEqualTo(30);
+        assertThat(store.evictedBytes()).isEqualTo(10);
+        assertThat(store.move(ROOM, "a", HistoryStore.Stack.REDO, 10)).extracting(RedisHistoryStoreTest::tagOf)
+                .containsExactly(2, 4);
+    }
+
+    @Test
+    void clearReleasesSessionAndRoomBudget() {
+        RedisHistoryStore store = store(100, UNLIMITED, 30, 0);
+        store.record(ROOM, "a", action(1, 10));
+        store.record(ROOM, "a", action(2, 10));
+
+        store.clear(ROOM, "a");
+        assertThat(roomTotal(ROOM)).isZero();
+        assertThat(sessionBytes("a")).isZero();
+        assertThat(store.pop(ROOM, "a", HistoryStore.Stack.UNDO)).isNull();
+
+        for (int tag = 3; tag <= 5; tag++) {
+            store.record(ROOM, "b", action(tag, 10));
+        }
+        assertThat(roomTotal(ROOM)).isEqualTo(30);
+        assertThat(store.evictedBytes()).isZero();
+    }
+
+    @Test
+    void expiredSessionIsRemovedFromTheRoomTotal() throws InterruptedException {
+        RedisHistoryStore store = store(100, UNLIMITED, 30, 1);
+        store.record(ROOM, "a", action(1, 20));
+        Thread.sleep(700);
+        store.record(ROOM, "b", action(2, 5)); // 방 키의 만료 시간은 b가 쓸 때마다 갱신됨
+        Thread.sleep(700); // a의 스택만 만료됨
+
+        store.record(ROOM, "b", action(3, 10));
+
+        assertThat(sessionBytes("a")).isZero();
+        assertThat(sessionBytes("b")).isEqualTo(15);
+        assertThat(roomTotal(ROOM)).isEqualTo(15);
+        assertThat(store.evictedBytes()).isZero(); // 만료된 a의 몫 때문에 b의 작업을 버리지 않음
+    }
+}
@@ -0,0 +1,125 @@
+package com.sharedsync.shared.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.properties.SharedSyncPresenceProperties;
+import com.sharedsync.shared.storage.InMemoryPresenceStorage;
+
+class RoomInitializationCoordinatorTest {
+
+    private static final String ROOM = "1";
+
+    private final InMemoryPresenceStorage presenceStorage = new InMemoryPresenceStorage();
+    private final CacheInitializer cacheInitializer = mock(CacheInitializer.class);
+    private final SharedSyncPresenceProperties presenceProperties = new SharedSyncPresenceProperties();
+    private final RoomInitializationCoordinator coordinator =
+            new RoomInitializationCoordinator(presenceStorage, cacheInitializer, presenceProperties);
+    private final ExecutorService joiners = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        joiners.shutdownNow();
+        coordinator.shutdown();
+    }
+
+    private Runnable join(String sessionId) {
+        return () -> presenceStorage.insertTracker(ROOM, sessionId, "user-" + sessionId, "0");
+    }
+
+    @Test
+    void concurrentJoinsLoadTheRoomOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loading.countDown();
+            Thread.sleep(200); // 나머지 입장 요청이 모두 기다리도록
+            return null;
+        }).when(cacheInitializer).initializeHierarchy(ROOM);
+
+        AtomicInteger ready = new AtomicInteger();
+        List<Future<?>> joins = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String sessionId = "s" + i;
+            joins.add(joiners.submit(() -> coordinator.initializeOnce(ROOM, () -> {
+                join(sessionId).run();
+                ready.incrementAndGet();
+            })));
+        }
+        for (Future<?> join : joins) {
+            join.get(5, TimeUnit.SECONDS);
+        }
+
+        verify(cacheInitializer, times(1)).initializeHierarchy(ROOM);
+        assertThat(ready).hasValue(8);
+        assertThat(presenceStorage.getTrackerEntries(ROOM)).hasSize(8);
+        assertThat(presenceStorage.isInitLocked(ROOM)).isFalse();
+    }
+
+    @Test
+    void joinWaitsForAnotherNodeAndReusesItsLoad() throws Exception {
+        long otherNode = presenceStorage.acquireInitLock(ROOM, 10_000);
+        Future<?> joining = joiners.submit(() -> coordinator.initializeOnce(ROOM, join("s1")));
+
+        Thread.sleep(150);
+        assertThat(joining).isNotDone();
+        presenceStorage.insertTracker(ROOM, "s0", "user-s0", "0");
+        presenceStorage.releaseInitLock(ROOM, otherNode);
+        joining.get(5, TimeUnit.SECONDS);
+
+        verify(cacheInitializer, never()).initializeHierarchy(anyString());
+        assertThat(presenceStorage.getTrackerEntries(ROOM)).hasSize(2);
+    }
+
+    @Test
+    void expiredLockOfDeadLoaderIsTakenOver() throws Exception {
+        presenceStorage.acquireInitLock(ROOM, 100); // 로딩 중 죽은 노드
+
+        joiners.submit(() -> coordinator.initializeOnce(ROOM, join("s1"))).get(5, TimeUnit.SECONDS);
+
+        verify(cacheInitializer, times(1)).initializeHierarchy(ROOM);
+        assertThat(presenceStorage.hasTracker(ROOM)).isTrue();
+    }
+
+    @Test
+    void joinFailsInsteadOfLoadingWithoutTheLock() {
+        presenceProperties.setInitLockTimeout(1);
+        presenceStorage.acquireInitLock(ROOM, 60_000); // 끝나지 않는 로더
+
+        assertThatThrownBy(() -> coordinator.initializeOnce(ROOM, join("s1")))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(cacheInitializer, never()).initializeHierarchy(anyString());
+        assertThat(presenceStorage.hasTracker(ROOM)).isFalse();
+    }
+
+    @Test
+    void failedLoadReleasesTheLock() {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("db down");
+        }).when(cacheInitializer).initializeHierarchy(ROOM);
+
+        assertThatThrownBy(() -> coordinator.initializeOnce(ROOM, join("s1")))
+                .hasMessage("db down");
+
+        assertThat(presenceStorage.isInitLocked(ROOM)).isFalse();
+        assertThat(presenceStorage.hasTracker(ROOM)).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+import com.sharedsync.shared.repository.CacheFixture.PlanDto;
+
+class AliasCompactionTest {
+
+    private static final long TEMPORARY = -1L;
+    private static final long PERSISTED = 100L;
+
+    private final InMemoryCacheStore<Object> store = spy(new InMemoryCacheStore<>());
+    private final CacheFixture fixture = new CacheFixture(store);
+    private final CacheFixture.PlanCache plans = fixture.plans;
+    private final CacheFixture.PlaceCache places = fixture.places;
+
+    @BeforeEach
+    void setUp() {
+        PlanDto plan = plans.save(new PlanDto(null, "새 일정"));
+        assertThat(plan.planId).isEqualTo(TEMPORARY);
+        places.save(new PlaceDto(10L, "서울역", TEMPORARY));
+        places.save(new PlaceDto(20L, "부산역", TEMPORARY));
+
+        plans.restoreAliasUnchecked(TEMPORARY, PERSISTED);
+    }
+
+    private static Long planIdOf(Object dto) {
+        return ((PlaceDto) dto).planId;
+    }
+
+    @Test
+    void childrenAreFoundByThePersistedIdBeforeCompaction() {
+        assertThat(plans.findPendingAliases()).containsEntry(TEMPORARY, PERSISTED);
+        assertThat(places.findDtosByParentId(PERSISTED)).extracting(dto -> dto.placeId).containsExactlyInAnyOrder(10L, 20L);
+        assertThat(plans.resolveIdUnchecked(TEMPORARY)).isEqualTo(PERSISTED);
+    }
+
+    @Test
+    void compactionRewritesCopiesOfTheChildren() {
+        PlaceDto readBefore = places.findDtoById(10L);
+
+        assertThat(plans.compactAlias(TEMPORARY, PERSISTED)).isTrue();
+
+        assertThat(planIdOf(places.findDtoById(10L))).isEqualTo(PERSISTED);
+        assertThat(planIdOf(places.findDtoById(20L))).isEqualTo(PERSISTED);
+        assertThat(readBefore.planId).isEqualTo(TEMPORARY); // 호출자가 들고 있던 인스턴스는 그대로
+        assertThat(store.hashGetString("place:DATA", "P_IDX:Plan:" + TEMPORARY)).isNull();
+        assertThat(places.findDtosByParentId(PERSISTED)).hasSize(2);
+        assertThat(plans.findPendingAliases()).isEmpty();
+        // 임시 ID를 들고 있는 요청은 계속 해석됨
+        assertThat(plans.resolveIdUnchecked(TEMPORARY)).isEqualTo(PERSISTED);
+    }
+
+    @Test
+    void childEditedDuringCompactionIsKeptAndRetried() {
+        AtomicBoolean armed = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (armed.get() && "10".equals(invocation.getArgument(1))) {
+                // 읽고 확인한 뒤 기록 직전에 다른 요청이 편집
+                places.save(new PlaceDto(10L, "용산역", TEMPORARY));
+            }
+            return invocation.callRealMethod();
+        }).when(store).hashReplace(anyString(), anyString(), any(), any());
+
+        assertThat(plans.compactAlias(TEMPORARY, PERSISTED)).isFalse();
+        armed.set(false);
+
+        PlaceDto edited = places.findDtoById(10L);
+        assertThat(edited.name).isEqualTo("용산역");
+        assertThat(edited.planId).isEqualTo(TEMPORARY);
+        assertThat(planIdOf(places.findDtoById(20L))).isEqualTo(PERSISTED);
+        assertThat(plans.findPendingAliases()).containsEntry(TEMPORARY, PERSISTED);
+
+        assertThat(plans.compactAlias(TEMPORARY, PERSISTED)).isTrue();
+
+        PlaceDto retried = places.findDtoById(10L);
+        assertThat(retried.name).isEqualTo("용산역");
+        assertThat(retried.planId).isEqualTo(PERSISTED);
+        assertThat(plans.findPendingAliases()).isEmpty();
+    }
+
+    @Test
+    void childMovedToAnotherParentIsLeftAlone() {
+        places.save(new PlaceDto(20L, "부산역", 7L));
+
+        assertThat(plans.compactAlias(TEMPORARY, PERSISTED)).isTrue();
+
+        assertThat(planIdOf(places.findDtoById(20L))).isEqualTo(7L);
+        assertThat(places.findDtosByParentId(PERSISTED)).extracting(dto -> dto.placeId).containsExactly(10L);
+    }
+
+    @Test
+    void restoreIgnoresNonTemporaryPairs() {
+        plans.restoreAliasUnchecked(5L, 200L);
+        plans.restoreAliasUnchecked(-2L, -3L);
+
+        assertThat(plans.findPendingAliases()).containsOnlyKeys(TEMPORARY);
+    }
+}
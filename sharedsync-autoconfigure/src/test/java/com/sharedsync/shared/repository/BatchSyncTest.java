@@ -0,0 +1,153 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.sharedsync.shared.repository.CacheFixture.Place;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+import com.sharedsync.shared.repository.CacheFixture.Plan;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * syncToDatabaseInBatch가 묶음마다 기존 행을 IN 쿼리 한 번으로 읽고, flush 후 영속성 컨텍스트를 비우는지 확인합니다.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class BatchSyncTest {
+
+    private final CacheFixture fixture = new CacheFixture();
+    private final CacheFixture.PlaceCache places = fixture.places;
+    private final EntityManager entityManager = fixture.entityManager;
+    private final Map<Long, Place> rows = new LinkedHashMap<>();
+    private final List<List<Object>> queriedIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Plan plan = new Plan(1L, "plan");
+        for (long id = 10; id <= 14; id++) {
+            fixture.loadPlace(1, id, "장소 " + id);
+            rows.put(id, new Place(id, "장소 " + id, plan));
+        }
+
+        // IN 쿼리: 요청한 ID 중 DB에 있는 행만 돌려줌
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        CriteriaQuery query = mock(CriteriaQuery.class);
+        Root root = mock(Root.class);
+        Path idPath = mock(Path.class);
+        TypedQuery typed = mock(TypedQuery.class);
+        List<Object> lastIds = new ArrayList<>();
+        when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+        when(cb.createQuery(Place.class)).thenReturn(query);
+        when(query.from(Place.class)).thenReturn(root);
+        when(query.select(root)).thenReturn(query);
+        when(root.get("placeId")).thenReturn(idPath);
+        when(idPath.in(anyCollection())).thenAnswer(invocation -> {
+            lastIds.clear();
+            lastIds.addAll(invocation.getArgument(0, Collection.class));
+            queriedIds.add(List.copyOf(lastIds));
+            return null;
+        });
+        when(entityManager.createQuery(query)).thenReturn(typed);
+        when(typed.getResultList()).thenAnswer(invocation -> lastIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList());
+        // persist: 생성 ID를 채움
+        doAnswer(invocation -> {
+            Place place = invocation.getArgument(0);
+            place.placeId = 500L;
+            return null;
+        }).when(entityManager).persist(any(Place.class));
+    }
+
+    private PlaceDto edit(long placeId, String name) {
+        return places.save(new PlaceDto(placeId, name, 1L));
+    }
+
+    @Test
+    void existingRowsAreReadOncePerChunkAndMergedWithoutFind() {
+        List<PlaceDto> edited = new ArrayList<>();
+        for (long id = 10; id <= 14; id++) {
+            edited.add(edit(id, "고친 장소 " + id));
+        }
+
+        List<PlaceDto> synced = places.syncToDatabaseInBatch(edited, 2);
+
+        assertThat(synced).hasSize(5);
+        assertThat(queriedIds).containsExactly(List.of(10L, 11L), List.of(12L, 13L), List.of(14L));
+        // 미리 읽은 관리 엔티티에 병합하므로 엔티티별 find/merge가 없음
+        verify(entityManager, never()).find(any(Class.class), any());
+        verify(entityManager, never()).merge(any());
+        assertThat(rows.values()).extracting(row -> row.name)
+                .containsExactly("고친 장소 10", "고친 장소 11", "고친 장소 12", "고친 장소 13", "고친 장소 14");
+        assertThat(synced).allMatch(places::isUnchangedSinceSyncUnchecked);
+    }
+
+    @Test
+    void persistenceContextIsFlushedAndClearedAfterEveryChunk() {
+        List<PlaceDto> edited = List.of(edit(10, "a"), edit(11, "b"), edit(12, "c"));
+
+        places.syncToDatabaseInBatch(edited, 2);
+
+        InOrder order = inOrder(entityManager);
+        order.verify(entityManager).createQuery(any(CriteriaQuery.class));
+        order.verify(entityManager).flush();
+        order.verify(entityManager).clear();
+        order.verify(entityManager).createQuery(any(CriteriaQuery.class));
+        order.verify(entityManager).flush();
+        order.verify(entityManager).clear();
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void newEntitiesAreNotLookedUpAndArePersisted() {
+        PlaceDto created = places.save(new PlaceDto(null, "새 장소", 1L));
+        PlaceDto changed = edit(10, "서울역 1번 출구");
+        PlaceDto unchanged = places.findDtoById(11L);
+
+        List<PlaceDto> synced = places.syncToDatabaseInBatch(List.of(created, changed, unchanged), 10);
+
+        assertThat(synced).hasSize(2); // 바뀌지 않은 엔티티는 쓰지 않음
+        assertThat(queriedIds).containsExactly(List.of(10L)); // 임시 ID는 조회하지 않음
+        verify(entityManager).persist(any(Place.class));
+        assertThat(places.resolveIdUnchecked(created.placeId)).isEqualTo(500L);
+        assertThat(rows.get(10L).name).isEqualTo("서울역 1번 출구");
+    }
+
+    @Test
+    void chunkOfOnlyNewEntitiesRunsNoQuery() {
+        PlaceDto created = places.save(new PlaceDto(null, "새 장소", 1L));
+
+        places.syncToDatabaseInBatch(List.of(created), 10);
+
+        assertThat(queriedIds).isEmpty();
+        verify(entityManager, never()).createQuery(any(CriteriaQuery.class));
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+    }
+}
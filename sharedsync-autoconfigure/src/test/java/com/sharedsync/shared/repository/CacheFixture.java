@@ -0,0 +1,175 @@
+package com.sharedsync.shared.repository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sharedsync.shared.annotation.Cache;
+import com.sharedsync.shared.annotation.CacheId;
+import com.sharedsync.shared.annotation.EntityConverter;
+import com.sharedsync.shared.annotation.ParentId;
+import com.sharedsync.shared.dto.CacheDto;
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+
+/**
+ * Plan(방) → Place 두 단계 캐시. 인메모리 저장소와 목 EntityManager로 리포지토리를 직접 구성합니다.
+ */
+class CacheFixture {
+
+    @Entity
+    static class Plan {
+        @Id
+        Long planId;
+        String title;
+
+        Plan() {
+        }
+
+        Plan(Long planId, String title) {
+            this.planId = planId;
+            this.title = title;
+        }
+    }
+
+    @Entity
+    static class Place {
+        @Id
+        Long placeId;
+        String name;
+        @ManyToOne
+        Plan plan;
+        Serializable memo; // 부모 타입의 상위 타입인 필드 (연관 아님)
+
+        Place() {
+        }
+
+        Place(Long placeId, String name, Plan plan) {
+            this.placeId = placeId;
+            this.name = name;
+            this.plan = plan;
+        }
+    }
+
+    @Cache
+    static class PlanDto extends CacheDto<Long> {
+        @CacheId
+        Long planId;
+        String title;
+
+        PlanDto() {
+        }
+
+        PlanDto(Long planId, String title) {
+            this.planId = planId;
+            this.title = title;
+        }
+
+        public static PlanDto fromEntity(Plan plan) {
+            return new PlanDto(plan.planId, plan.title);
+        }
+
+        @EntityConverter
+        Plan toEntity() {
+            return new Plan(planId, title);
+        }
+    }
+
+    @Cache
+    static class PlaceDto extends CacheDto<Long> {
+        @CacheId
+        Long placeId;
+        String name;
+        @ParentId(Plan.class)
+        Long planId;
+        List<String> tags = new ArrayList<>();
+
+        PlaceDto() {
+        }
+
+        PlaceDto(Long placeId, String name, Long planId) {
+            this.placeId = placeId;
+            this.name = name;
+            this.planId = planId;
+        }
+
+        public static PlaceDto fromEntity(Place place) {
+            return new PlaceDto(place.placeId, place.name, place.plan != null ? place.plan.planId : null);
+        }
+
+        @EntityConverter
+        Place toEntity(Plan plan) {
+            return new Place(placeId, name, plan);
+        }
+    }
+
+    static class PlanCache extends AutoCacheRepository<Plan, Long, PlanDto> {
+    }
+
+    static class PlaceCache extends AutoCacheRepository<Place, Long, PlaceDto> {
+    }
+
+    final InMemoryCacheStore<Object> store;
+    final EntityManager entityManager = mock(EntityManager.class);
+    final SharedSyncCacheProperties cacheProperties = new SharedSyncCacheProperties();
+    final PlanCache plans = new PlanCache();
+    final PlaceCache places = new PlaceCache();
+
+    CacheFixture(CacheMutationListener... listeners) {
+        this(new InMemoryCacheStore<>(), listeners);
+    }
+
+    CacheFixture(InMemoryCacheStore<Object> store, CacheMutationListener... listeners) {
+        this.store = store;
+        GenericApplicationContext context = new GenericApplicationContext();
+        ConfigurableListableBeanFactory beans = context.getBeanFactory();
+        beans.registerSingleton("globalCacheStore", store);
+        beans.registerSingleton("sharedSyncCacheProperties", cacheProperties);
+        beans.registerSingleton("planCache", plans);
+        beans.registerSingleton("placeCache", places);
+        for (int i = 0; i < listeners.length; i++) {
+            beans.registerSingleton("cacheMutationListener" + i, listeners[i]);
+        }
+        context.refresh();
+
+        for (AutoCacheRepository<?, ?, ?> repository : List.of(plans, places)) {
+            ReflectionTestUtils.setField(repository, "applicationContext", context);
+            ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+        }
+        // Criteria 조회는 목에서 실패하므로 find()로 읽음
+        when(entityManager.getReference(eq(Plan.class), any()))
+                .thenAnswer(invocation -> new Plan(invocation.getArgument(1), null));
+    }
+
+    /**
+     * 방(Plan)과 그 안의 장소를 DB에서 읽은 것처럼 캐시에 올립니다.
+     */
+    PlaceDto loadPlace(long planId, long placeId, String name) {
+        if (plans.findDtoByIdUnchecked(planId) == null) {
+            markSynced(plans, AutoCacheRepository.runAsSystemOperation(() -> plans.save(new PlanDto(planId, "plan"))));
+        }
+        PlaceDto place = AutoCacheRepository.runAsSystemOperation(() -> places.save(new PlaceDto(placeId, name, planId)));
+        markSynced(places, place);
+        return place;
+    }
+
+    /**
+     * DB와 일치하는 상태로 기록합니다. (로딩/동기화 직후와 같음)
+     */
+    static void markSynced(AutoCacheRepository<?, ?, ?> repository, Object dto) {
+        ReflectionTestUtils.invokeMethod(repository, "rememberFingerprint", dto);
+    }
+}
@@ -0,0 +1,178 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 저널을 남긴 채 비정상 종료된 뒤 다시 시작했을 때의 복구를 확인합니다.
+ * 리포지토리는 맵으로 캐시를 흉내 내는 목이고, DB 반영은 호출만 확인합니다.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+class CacheMutationJournalTest {
+
+    static class PlanDto {
+    }
+
+    static class PlaceDto {
+    }
+
+    @TempDir
+    Path directory;
+
+    private final List<CacheMutationJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(CacheMutationJournal::shutdown);
+    }
+
+    /**
+     * 맵에 캐시를 두는 리포지토리 목. DTO는 "id" 항목을 가진 맵입니다.
+     */
+    private static AutoCacheRepository repository(Class<?> dtoClass) {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        List<Object> tombstones = new ArrayList<>();
+        AutoCacheRepository repository = mock(AutoCacheRepository.class);
+        when(repository.getDtoClass()).thenReturn(dtoClass);
+        when(repository.getEntityType()).thenReturn(Object.class);
+        when(repository.extractIdUnchecked(any())).thenAnswer(invocation -> ((Map) invocation.getArgument(0)).get("id"));
+        when(repository.findDtoByIdUnchecked(any()))
+                .thenAnswer(invocation -> cache.get(String.valueOf(invocation.getArgument(0))));
+        doAnswer(invocation -> cache.put(String.valueOf(((Map) invocation.getArgument(0)).get("id")),
+                invocation.getArgument(0))).when(repository).saveUnchecked(any());
+        doAnswer(invocation -> cache.remove(String.valueOf(invocation.getArgument(0))))
+                .when(repository).deleteCacheByIdUnchecked(any());
+        when(repository.findAllDtos()).thenAnswer(invocation -> new ArrayList<>(cache.values()));
+        when(repository.findPendingAliases()).thenReturn(Map.of());
+        doAnswer(invocation -> tombstones.add(invocation.getArgument(0))).when(repository).markTombstoneUnchecked(any());
+        when(repository.findTombstones()).thenAnswer(invocation -> new ArrayList<>(tombstones));
+        doAnswer(invocation -> tombstones.removeAll(invocation.getArgument(1, Collection.class)))
+                .when(repository).clearRoomTombstonesUnchecked(any(), anyCollection());
+        when(repository.syncToDatabaseInBatchUnchecked(anyList(), anyInt()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.getArgument(0, List.class)));
+        return repository;
+    }
+
+    private CacheMutationJournal start(AutoCacheRepository plans, AutoCacheRepository places) {
+        List<AutoCacheRepository<?, ?, ?>> ordered = List.of(plans, places);
+        CacheMutationJournal journal = new CacheMutationJournal(directory, 0, 50, () -> ordered,
+                mock(PlatformTransactionManager.class));
+        journals.add(journal);
+        journal.afterSingletonsInstantiated();
+        return journal;
+    }
+
+    private static Map<String, Object> dto(String id, String name) {
+        return new HashMap<>(Map.of("id", id, "name", name));
+    }
+
+    /**
+     * 마지막 세그먼트 끝에 기록 도중 끊긴 레코드를 붙입니다.
+     */
+    private void tearLastSegment() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().endsWith(".log"))
+                    .max((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()))
+                    .orElseThrow();
+        }
+        byte[] frame = CacheRecordCodec.hashSet(PlaceDto.class.getName(), "10", dto("10", "끊긴 기록"));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(Arrays.copyOf(frame, frame.length / 2)));
+        }
+    }
+
+    @Test
+    void editsLeftInTheJournalAreReplayedAfterACrash() throws IOException {
+        AutoCacheRepository plans = repository(PlanDto.class);
+        AutoCacheRepository places = repository(PlaceDto.class);
+        CacheMutationJournal crashed = start(plans, places);
+        crashed.onSaved(plans, dto("1", "plan"));
+        crashed.onSaved(places, dto("7", "서울역"));
+        crashed.onSaved(places, dto("7", "서울역 1번 출구")); // 엔티티별 마지막 기록만 반영
+        AutoCacheRepository.runAsSystemOperation(() -> {
+            crashed.onSaved(places, dto("8", "DB에서 로딩"));
+            crashed.onDeleted(places, "8"); // DB와 맞춘 뒤 내림
+        });
+        crashed.onDeleted(places, "9"); // 사용자가 삭제
+        tearLastSegment();
+        // 종료 처리 없이 다시 시작
+
+        AutoCacheRepository restartedPlans = repository(PlanDto.class);
+        AutoCacheRepository restartedPlaces = repository(PlaceDto.class);
+        start(restartedPlans, restartedPlaces);
+
+        InOrder order = inOrder(restartedPlans, restartedPlaces);
+        order.verify(restartedPlans).syncToDatabaseInBatchUnchecked(List.of(dto("1", "plan")), 50);
+        order.verify(restartedPlaces).syncToDatabaseInBatchUnchecked(List.of(dto("7", "서울역 1번 출구")), 50);
+        verify(restartedPlaces).deleteFromDatabaseByIdsUnchecked(List.of("9"));
+        verify(restartedPlaces, never()).saveUnchecked(dto("8", "DB에서 로딩"));
+        verify(restartedPlaces, never()).saveUnchecked(dto("10", "끊긴 기록"));
+        // 복구용으로 올린 엔티티는 내리고 tombstone도 지움
+        assertThat(restartedPlans.findAllDtos()).isEmpty();
+        assertThat(restartedPlaces.findAllDtos()).isEmpty();
+        assertThat(restartedPlaces.findTombstones()).isEmpty();
+    }
+
+    @Test
+    void entityAlreadyInTheRestoredCacheIsNotOverwritten() {
+        AutoCacheRepository plans = repository(PlanDto.class);
+        AutoCacheRepository places = repository(PlaceDto.class);
+        CacheMutationJournal crashed = start(plans, places);
+        crashed.onSaved(places, dto("7", "저널의 이전 내용"));
+
+        AutoCacheRepository restartedPlans = repository(PlanDto.class);
+        AutoCacheRepository restartedPlaces = repository(PlaceDto.class);
+        restartedPlaces.saveUnchecked(dto("7", "스냅샷으로 복원된 최신 내용"));
+        start(restartedPlans, restartedPlaces);
+
+        verify(restartedPlaces, never()).saveUnchecked(dto("7", "저널의 이전 내용"));
+        assertThat(restartedPlaces.findDtoByIdUnchecked("7")).isEqualTo(dto("7", "스냅샷으로 복원된 최신 내용"));
+    }
+
+    @Test
+    void recoveredEditsAreNotReplayedAgainOnTheNextRestart() {
+        AutoCacheRepository plans = repository(PlanDto.class);
+        AutoCacheRepository places = repository(PlaceDto.class);
+        CacheMutationJournal crashed = start(plans, places);
+        crashed.onSaved(places, dto("7", "서울역"));
+        start(repository(PlanDto.class), repository(PlaceDto.class)); // 복구 후 체크포인트
+
+        AutoCacheRepository againPlans = repository(PlanDto.class);
+        AutoCacheRepository againPlaces = repository(PlaceDto.class);
+        start(againPlans, againPlaces);
+
+        verify(againPlaces, never()).saveUnchecked(any());
+        verify(againPlaces, never()).syncToDatabaseInBatchUnchecked(anyList(), anyInt());
+    }
+}
@@ -0,0 +1,131 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CacheRecordCodecTest {
+
+    private static CacheRecordCodec.Record readOne(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        CacheRecordCodec.Record record = CacheRecordCodec.read(buffer);
+        assertThat(buffer.hasRemaining()).isFalse();
+        return record;
+    }
+
+    @Test
+    void everyOperationRoundTrips() {
+        Map<String, Object> dto = new HashMap<>(Map.of("name", "서울역", "position", 3));
+
+        CacheRecordCodec.Record valueSet = readOne(CacheRecordCodec.valueSet("plan:1", dto));
+        assertThat(valueSet.op).isEqualTo(CacheRecordCodec.OP_VALUE_SET);
+        assertThat(valueSet.key).isEqualTo("plan:1");
+        assertThat(valueSet.value).isEqualTo(dto);
+
+        CacheRecordCodec.Record stringSet = readOne(CacheRecordCodec.valueSet("plan:2", "text"));
+        assertThat(stringSet.value).isEqualTo("text");
+
+        CacheRecordCodec.Record nullSet = readOne(CacheRecordCodec.valueSet("plan:3", null));
+        assertThat(nullSet.value).isNull();
+
+        CacheRecordCodec.Record valueDelete = readOne(CacheRecordCodec.valueDelete("plan:1"));
+        assertThat(valueDelete.op).isEqualTo(CacheRecordCodec.OP_VALUE_DELETE);
+        assertThat(valueDelete.key).isEqualTo("plan:1");
+
+        CacheRecordCodec.Record counter = readOne(CacheRecordCodec.counter("seq", -42L));
+        assertThat(counter.op).isEqualTo(CacheRecordCodec.OP_COUNTER);
+        assertThat(counter.number).isEqualTo(-42L);
+
+        CacheRecordCodec.Record setAdd = readOne(CacheRecordCodec.setAdd("dirty", "7"));
+        assertThat(setAdd.op).isEqualTo(CacheRecordCodec.OP_SET_ADD);
+        assertThat(setAdd.member).isEqualTo("7");
+
+        CacheRecordCodec.Record setRemove = readOne(CacheRecordCodec.setRemove("dirty", "7"));
+        assertThat(setRemove.op).isEqualTo(CacheRecordCodec.OP_SET_REMOVE);
+        assertThat(setRemove.member).isEqualTo("7");
+
+        CacheRecordCodec.Record hashSet = readOne(CacheRecordCodec.hashSet("places", "9", dto));
+        assertThat(hashSet.op).isEqualTo(CacheRecordCodec.OP_HASH_SET);
+        assertThat(hashSet.member).isEqualTo("9");
+        assertThat(hashSet.value).isEqualTo(dto);
+
+        CacheRecordCodec.Record hashDelete = readOne(CacheRecordCodec.hashDelete("places", "9"));
+        assertThat(hashDelete.op).isEqualTo(CacheRecordCodec.OP_HASH_DELETE);
+        assertThat(hashDelete.member).isEqualTo("9");
+
+        CacheRecordCodec.Record hashEvict = readOne(CacheRecordCodec.hashEvict("places", "9"));
+        assertThat(hashEvict.op).isEqualTo(CacheRecordCodec.OP_HASH_EVICT);
+        assertThat(hashEvict.member).isEqualTo("9");
+    }
+
+    @Test
+    void framesAreReadInOrder() {
+        byte[] first = CacheRecordCodec.setAdd("set", "a");
+        byte[] second = CacheRecordCodec.hashSet("hash", "b", "value");
+        ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length).put(first).put(second).flip();
+
+        assertThat(CacheRecordCodec.read(buffer).member).isEqualTo("a");
+        assertThat(CacheRecordCodec.read(buffer).value).isEqualTo("value");
+        assertThat(CacheRecordCodec.read(buffer)).isNull();
+        assertThat(buffer.position()).isEqualTo(first.length + second.length);
+    }
+
+    @Test
+    void skippingValuesKeepsStringsAndMarksJson() {
+        ByteBuffer json = ByteBuffer.wrap(CacheRecordCodec.hashSet("places", "1", new HashMap<>(Map.of("a", 1))));
+        ByteBuffer text = ByteBuffer.wrap(CacheRecordCodec.hashSet("places", "2", "text"));
+
+        assertThat(CacheRecordCodec.read(json, false).value).isSameAs(CacheRecordCodec.UNDECODED);
+        assertThat(json.hasRemaining()).isFalse();
+        assertThat(CacheRecordCodec.read(text, false).value).isEqualTo("text");
+    }
+
+    @Test
+    void tornTailIsNotReadAndPositionIsRestored() {
+        byte[] valid = CacheRecordCodec.setAdd("set", "a");
+        byte[] frame = CacheRecordCodec.hashSet("places", "1", new HashMap<>(Map.of("name", "x")));
+
+        for (int length = 0; length < frame.length; length++) {
+            ByteBuffer buffer = ByteBuffer.allocate(valid.length + length).put(valid).put(frame, 0, length).flip();
+            assertThat(CacheRecordCodec.read(buffer)).isNotNull();
+
+            assertThat(CacheRecordCodec.read(buffer)).as("length %d", length).isNull();
+            assertThat(buffer.position()).isEqualTo(valid.length);
+        }
+    }
+
+    @Test
+    void corruptedBodyFailsCrcCheck() {
+        byte[] frame = CacheRecordCodec.hashSet("places", "1", "value");
+
+        for (int index = CacheRecordCodec.FRAME_HEADER_SIZE; index < frame.length; index++) {
+            byte[] corrupted = frame.clone();
+            corrupted[index] ^= 0x10;
+            ByteBuffer buffer = ByteBuffer.wrap(corrupted);
+
+            assertThat(CacheRecordCodec.read(buffer)).as("index %d", index).isNull();
+            assertThat(buffer.position()).isZero();
+        }
+    }
+
+    @Test
+    void corruptedCrcOrLengthIsRejected() {
+        byte[] frame = CacheRecordCodec.setAdd("set", "a");
+
+        byte[] badCrc = frame.clone();
+        badCrc[Integer.BYTES] ^= 0x01;
+        assertThat(CacheRecordCodec.read(ByteBuffer.wrap(badCrc))).isNull();
+
+        byte[] zeroLength = frame.clone();
+        ByteBuffer.wrap(zeroLength).putInt(0);
+        assertThat(CacheRecordCodec.read(ByteBuffer.wrap(zeroLength))).isNull();
+
+        byte[] oversized = frame.clone();
+        ByteBuffer.wrap(oversized).putInt(Integer.MAX_VALUE);
+        assertThat(CacheRecordCodec.read(ByteBuffer.wrap(oversized))).isNull();
+    }
+}
@@ -0,0 +1,78 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.sharedsync.shared.repository.CacheFixture.Place;
+import com.sharedsync.shared.repository.CacheFixture.Plan;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+class CascadeDeletePlannerTest {
+
+    private final AutoCacheRepository plans = mock(AutoCacheRepository.class);
+    private final AutoCacheRepository places = mock(AutoCacheRepository.class);
+    private final CascadeDeletePlanner planner = new CascadeDeletePlanner(List.of(plans, places));
+
+    @BeforeEach
+    void setUp() {
+        when(plans.getEntityType()).thenReturn(Plan.class);
+        when(places.getEntityType()).thenReturn(Place.class);
+        when(plans.isBulkDeletable()).thenReturn(true);
+        when(places.isBulkDeletable()).thenReturn(true);
+        when(places.parentClassesOf(Plan.class)).thenReturn(Set.of(Plan.class));
+    }
+
+    @Test
+    void relationFieldMustHaveExactlyTheParentType() {
+        CacheFixture fixture = new CacheFixture();
+
+        // memo(Serializable)는 Plan을 담을 수 있어도 연관이 아님
+        assertThat(fixture.places.relationFieldsTo(Plan.class)).containsExactly("plan");
+        assertThat(fixture.places.relationFieldsTo(Place.class)).isEmpty();
+        assertThat(fixture.plans.relationFieldsTo(Plan.class)).isEmpty();
+    }
+
+    @Test
+    void childrenAreDeletedBeforeTheRoot() {
+        when(places.relationFieldsTo(Plan.class)).thenReturn(List.of("plan"));
+        when(places.selectIdsByRelation("plan", Plan.class, List.of(1L))).thenReturn(List.of(10L, 11L));
+
+        assertThat(planner.deleteCascade(plans, List.of(1L))).isTrue();
+
+        InOrder order = inOrder(places, plans);
+        order.verify(places).deleteByRelation("plan", Plan.class, List.of(1L));
+        order.verify(plans).deleteFromDatabaseByIdsUnchecked(List.of(1L));
+    }
+
+    @Test
+    void childWithoutRelationFieldFallsBackToEntityDeletes() {
+        when(places.relationFieldsTo(Plan.class)).thenReturn(List.of());
+
+        assertThat(planner.deleteCascade(plans, List.of(1L))).isFalse();
+
+        verify(places, never()).deleteByRelation(anyString(), any(), any());
+        verify(plans, never()).deleteFromDatabaseByIdsUnchecked(any());
+    }
+
+    @Test
+    void childThatCannotBeBulkDeletedFallsBack() {
+        when(places.isBulkDeletable()).thenReturn(false);
+
+        assertThat(planner.deleteCascade(plans, List.of(1L))).isFalse();
+
+        verify(plans, never()).deleteFromDatabaseByIdsUnchecked(any());
+    }
+}
@@ -0,0 +1,166 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sharedsync.shared.annotation.Cache;
+import com.sharedsync.shared.annotation.CacheId;
+import com.sharedsync.shared.annotation.EntityConverter;
+import com.sharedsync.shared.annotation.ParentId;
+import com.sharedsync.shared.dto.CacheDto;
+import com.sharedsync.shared.history.HistoryAction;
+import com.sharedsync.shared.properties.SharedSyncCacheProperties;
+import com.sharedsync.shared.repository.CacheFixture.Place;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+import com.sharedsync.shared.repository.CacheFixture.PlanDto;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+
+/**
+ * Plan → Place → Memo 세 단계에서 deleteAllByIdWithHistory가 남기는 히스토리가
+ * 부모마다 collectCascadedHistory로 모은 트리와 같은지 확인합니다.
+ */
+class CascadeHistoryTest {
+
+    @Entity
+    static class Memo {
+        @Id
+        Long memoId;
+        String text;
+        @ManyToOne
+        Place place;
+
+        Memo() {
+        }
+
+        Memo(Long memoId, String text, Place place) {
+            this.memoId = memoId;
+            this.text = text;
+            this.place = place;
+        }
+    }
+
+    @Cache
+    static class MemoDto extends CacheDto<Long> {
+        @CacheId
+        Long memoId;
+        String text;
+        @ParentId(Place.class)
+        Long placeId;
+
+        MemoDto() {
+        }
+
+        MemoDto(Long memoId, String text, Long placeId) {
+            this.memoId = memoId;
+            this.text = text;
+            this.placeId = placeId;
+        }
+
+        public static MemoDto fromEntity(Memo memo) {
+            return new MemoDto(memo.memoId, memo.text, memo.place != null ? memo.place.placeId : null);
+        }
+
+        @EntityConverter
+        Memo toEntity(Place place) {
+            return new Memo(memoId, text, place);
+        }
+    }
+
+    static class MemoCache extends AutoCacheRepository<Memo, Long, MemoDto> {
+    }
+
+    private final CacheFixture.PlanCache plans = new CacheFixture.PlanCache();
+    private final CacheFixture.PlaceCache places = new CacheFixture.PlaceCache();
+    private final MemoCache memos = new MemoCache();
+
+    @BeforeEach
+    void setUp() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        ConfigurableListableBeanFactory beans = context.getBeanFactory();
+        beans.registerSingleton("globalCacheStore", new InMemoryCacheStore<>());
+        beans.registerSingleton("sharedSyncCacheProperties", new SharedSyncCacheProperties());
+        beans.registerSingleton("planCache", plans);
+        beans.registerSingleton("placeCache", places);
+        beans.registerSingleton("memoCache", memos);
+        context.refresh();
+        EntityManager entityManager = mock(EntityManager.class);
+        for (AutoCacheRepository<?, ?, ?> repository : List.of(plans, places, memos)) {
+            ReflectionTestUtils.setField(repository, "applicationContext", context);
+            ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+        }
+
+        AutoCacheRepository.runAsSystemOperation(() -> {
+            plans.save(new PlanDto(1L, "plan 1"));
+            plans.save(new PlanDto(2L, "plan 2"));
+            plans.save(new PlanDto(3L, "남는 plan"));
+            places.save(new PlaceDto(10L, "서울역", 1L));
+            places.save(new PlaceDto(11L, "부산역", 1L));
+            places.save(new PlaceDto(20L, "대전역", 2L));
+            places.save(new PlaceDto(30L, "남는 장소", 3L));
+            memos.save(new MemoDto(100L, "1번 출구", 10L));
+            memos.save(new MemoDto(101L, "2번 출구", 10L));
+            memos.save(new MemoDto(110L, "매표소", 11L));
+            memos.save(new MemoDto(300L, "남는 메모", 30L));
+            return null;
+        });
+    }
+
+    @Test
+    void deletionHistoryMatchesTheRecursiveCollection() {
+        List<HistoryAction> expected = new ArrayList<>(plans.collectCascadedHistory(1L));
+        expected.addAll(plans.collectCascadedHistory(2L));
+
+        List<HistoryAction> actual = plans.deleteAllByIdWithHistory(List.of(1L, 2L));
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        // 두 부모의 장소, 그 아래 메모까지 같은 트리에 있음
+        assertThat(actual).hasSize(2);
+        assertThat(actual.get(0).getBeforeData()).extracting(dto -> ((PlaceDto) dto).placeId).containsExactly(10L, 11L);
+        assertThat(actual.get(0).getSubActions()).hasSize(2);
+        assertThat(actual.get(0).getSubActions().get(0).getBeforeData())
+                .extracting(dto -> ((MemoDto) dto).memoId).containsExactly(100L, 101L);
+        assertThat(actual.get(1).getSubActions()).isEmpty(); // 메모가 없는 장소
+    }
+
+    @Test
+    void wholeSubtreeIsRemovedFromTheCache() {
+        plans.deleteAllByIdWithHistory(List.of(1L, 2L));
+
+        assertThat(plans.findDtoByIdUnchecked(1L)).isNull();
+        assertThat(plans.findDtoByIdUnchecked(2L)).isNull();
+        for (long placeId : List.of(10L, 11L, 20L)) {
+            assertThat(places.findDtoByIdUnchecked(placeId)).isNull();
+        }
+        for (long memoId : List.of(100L, 101L, 110L)) {
+            assertThat(memos.findDtoByIdUnchecked(memoId)).isNull();
+        }
+        assertThat(places.findDtoListByParentIdUnchecked(1L)).isEmpty();
+        assertThat(memos.findDtoListByParentIdUnchecked(10L)).isEmpty();
+
+        // 다른 방은 그대로
+        assertThat(plans.findDtoByIdUnchecked(3L)).isNotNull();
+        assertThat(places.findDtoListByParentIdUnchecked(3L)).extracting(dto -> dto.placeId).containsExactly(30L);
+        assertThat(memos.findDtoListByParentIdUnchecked(30L)).extracting(dto -> dto.memoId).containsExactly(300L);
+    }
+
+    @Test
+    void leafWithoutChildrenHasNoHistory() {
+        assertThat(memos.collectCascadedHistory(100L)).isEmpty();
+        assertThat(memos.deleteAllByIdWithHistory(List.of(100L))).isEmpty();
+        assertThat(memos.findDtoByIdUnchecked(100L)).isNull();
+        assertThat(memos.findDtoListByParentIdUnchecked(10L)).extracting(dto -> dto.memoId).containsExactly(101L);
+    }
+}
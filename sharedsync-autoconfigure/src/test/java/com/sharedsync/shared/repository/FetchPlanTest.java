@@ -0,0 +1,101 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sharedsync.shared.annotation.Cache;
+import com.sharedsync.shared.annotation.CacheId;
+import com.sharedsync.shared.annotation.EntityConverter;
+import com.sharedsync.shared.annotation.IgnoreShared;
+import com.sharedsync.shared.dto.CacheDto;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+
+class FetchPlanTest {
+
+    @Entity
+    static class Trip {
+        @Id
+        Long tripId;
+    }
+
+    @Entity
+    static class Stop {
+        @Id
+        Long stopId;
+        @ManyToOne(fetch = FetchType.LAZY)
+        Trip trip; // DTO는 외래 키만 읽음
+        @ManyToOne
+        Trip origin; // EAGER라 어차피 읽힘
+        @OneToOne(fetch = FetchType.LAZY)
+        Trip snapshot; // DTO가 엔티티째 복사
+        @IgnoreShared
+        @ManyToOne
+        Trip audit;
+        @OneToMany
+        List<Stop> children;
+    }
+
+    @Cache
+    static class StopDto extends CacheDto<Long> {
+        @CacheId
+        Long stopId;
+        Long tripId;
+        Long originId;
+        Trip snapshot;
+        List<Long> childrenIds;
+
+        StopDto() {
+        }
+
+        @EntityConverter
+        Stop toEntity() {
+            return new Stop();
+        }
+    }
+
+    static class StopCache extends AutoCacheRepository<Stop, Long, StopDto> {
+    }
+
+    private final StopCache stops = new StopCache();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onlyEagerOrCopiedToOneRelationsAreJoined() {
+        Root<Stop> root = mock(Root.class);
+
+        ReflectionTestUtils.invokeMethod(stops, "applyFetchPlan", root);
+
+        verify(root).fetch("origin", JoinType.LEFT);
+        verify(root).fetch("snapshot", JoinType.LEFT);
+        verify(root, never()).fetch(eq("trip"), any(JoinType.class));
+        verify(root, never()).fetch(eq("audit"), any(JoinType.class));
+        verify(root, never()).fetch(eq("children"), any(JoinType.class));
+    }
+
+    @Test
+    void collectionsAreInitializedAfterTheQueryInsteadOfJoined() {
+        Object plan = ReflectionTestUtils.invokeMethod(stops, "getFetchPlan");
+        List<Field> collections = ReflectionTestUtils.invokeMethod(plan, "collections");
+
+        assertThat(collections).extracting(Field::getName).containsExactly("children");
+        assertThat(ReflectionTestUtils.<Object>invokeMethod(stops, "getFetchPlan")).isSameAs(plan); // 타입마다 한 번 계산
+    }
+}
@@ -0,0 +1,218 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileLogCacheStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private FileLogCacheStore<Object> open() {
+        // 주기 작업 없이 매 기록마다 fsync
+        return new FileLogCacheStore<>(directory, 0, 0, 0.5, 0);
+    }
+
+    private Path logFile() {
+        return directory.resolve("cache.log");
+    }
+
+    @Test
+    void restartRestoresEveryKind() {
+        Map<String, Object> dto = new HashMap<>(Map.of("name", "서울역", "position", 3));
+        FileLogCacheStore<Object> store = open();
+        store.set("plan:1", dto);
+        store.hashSet("places", "9", dto);
+        store.hashSetString("places", "fp:9", "abc");
+        store.addToSet("dirty", "7");
+        store.addToSet("dirty", "8");
+        store.removeFromSet("dirty", "7");
+        store.decrement("seq");
+        store.decrement("seq");
+        store.close();
+
+        FileLogCacheStore<Object> restored = open();
+
+        assertThat(restored.get("plan:1")).isEqualTo(dto);
+        assertThat(restored.hashGet("places", "9")).isEqualTo(dto);
+        assertThat(restored.hashGetString("places", "fp:9")).isEqualTo("abc");
+        assertThat(restored.getSet("dirty")).containsExactly("8");
+        assertThat(restored.decrement("seq")).isEqualTo(-3L);
+        restored.close();
+    }
+
+    @Test
+    void deletesSurviveRestart() {
+        FileLogCacheStore<Object> store = open();
+        store.set("plan:1", "a");
+        store.hashSet("places", "9", "b");
+        store.delete("plan:1");
+        store.hashDelete("places", "9");
+        store.close();
+
+        FileLogCacheStore<Object> restored = open();
+
+        assertThat(restored.hasKey("plan:1")).isFalse();
+        assertThat(restored.hashGet("places", "9")).isNull();
+        restored.close();
+    }
+
+    @Test
+    void incompleteTailIsTruncated() throws IOException {
+        FileLogCacheStore<Object> store = open();
+        store.set("plan:1", "kept");
+        store.close();
+        long intact = Files.size(logFile());
+
+        // 헤더는 기록됐지만 본문이 끊긴 레코드
+        try (FileChannel channel = FileChannel.open(logFile(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(8).putInt(0, 1000).putInt(4, 1));
+        }
+
+        FileLogCacheStore<Object> restored = open();
+
+        assertThat(restored.get("plan:1")).isEqualTo("kept");
+        assertThat(Files.size(logFile())).isEqualTo(intact);
+        restored.set("plan:2", "appended");
+        restored.close();
+
+        FileLogCacheStore<Object> reopened = open();
+        assertThat(reopened.get("plan:2")).isEqualTo("appended");
+        reopened.close();
+    }
+
+    @Test
+    void damagedRecordInTheMiddleStopsRecovery() throws IOException {
+        FileLogCacheStore<Object> store = open();
+        store.set("plan:1", "first");
+        long firstEnd = Files.size(logFile());
+        store.set("plan:2", "second");
+        store.close();
+
+        byte[] bytes = Files.readAllBytes(logFile());
+        bytes[(int) firstEnd - 1] ^= 0x5A;
+        Files.write(logFile(), bytes);
+
+        assertThatThrownBy(this::open).isInstanceOf(IllegalStateException.class);
+        // 뒤의 레코드를 지우지 않음
+        assertThat(Files.size(logFile())).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void compactionDropsGarbageAndKeepsLiveRecords() throws IOException {
+        FileLogCacheStore<Object> store = open();
+        for (int i = 0; i < 100; i++) {
+            store.set("plan:1", "version-" + i);
+            store.hashSet("places", "9", "place-" + i);
+        }
+        store.addToSet("dirty", "7");
+        store.decrement("seq");
+        long before = Files.size(logFile());
+
+        store.compact();
+
+        assertThat(Files.size(logFile())).isLessThan(before / 10);
+        assertThat(store.get("plan:1")).isEqualTo("version-99");
+        store.set("plan:2", "after-compaction");
+        store.close();
+
+        FileLogCacheStore<Object> restored = open();
+        assertThat(restored.get("plan:1")).isEqualTo("version-99");
+        assertThat(restored.get("plan:2")).isEqualTo("after-compaction");
+        assertThat(restored.hashGet("places", "9")).isEqualTo("place-99");
+        assertThat(restored.getSet("dirty")).containsExactly("7");
+        assertThat(restored.decrement("seq")).isEqualTo(-2L);
+        restored.close();
+    }
+
+    @Test
+    void restoredRootIsClaimedOnce() {
+        FileLogCacheStore<Object> empty = open();
+        assertThat(empty.isRestored()).isFalse();
+        assertThat(empty.claimRestoredRoot("1")).isFalse();
+        empty.set("plan:1", "a");
+        empty.close();
+
+        FileLogCacheStore<Object> restored = open();
+
+        assertThat(restored.isRestored()).isTrue();
+        assertThat(restored.claimRestoredRoot("1")).isTrue();
+        assertThat(restored.claimRestoredRoot("1")).isFalse();
+        restored.close();
+    }
+
+    @Test
+    void interruptedReaderDoesNotCloseTheStoreForOthers() {
+        Map<String, Object> dto = new HashMap<>(Map.of("name", "서울역"));
+        FileLogCacheStore<Object> store = open();
+        store.set("plan:1", dto);
+
+        // 인터럽트된 스레드의 채널 I/O는 채널을 닫음(ClosedByInterruptException)
+        Thread.currentThread().interrupt();
+        Object read;
+        try {
+            read = store.get("plan:1");
+        } finally {
+            assertThat(Thread.interrupted()).isTrue(); // 호출자의 인터럽트 상태는 그대로 둠
+        }
+
+        assertThat(read).isEqualTo(dto);
+        Map<String, Object> next = new HashMap<>(Map.of("name", "부산역"));
+        store.set("plan:2", next);
+        assertThat(store.get("plan:1")).isEqualTo(dto);
+        assertThat(store.get("plan:2")).isEqualTo(next);
+        store.close();
+    }
+
+    @Test
+    void interruptedWriterStillPersistsTheRecord() {
+        Map<String, Object> dto = new HashMap<>(Map.of("name", "서울역"));
+        FileLogCacheStore<Object> store = open();
+
+        Thread.currentThread().interrupt();
+        try {
+            store.set("plan:1", dto);
+        } finally {
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        assertThat(store.get("plan:1")).isEqualTo(dto);
+        store.close();
+
+        FileLogCacheStore<Object> restored = open();
+        assertThat(restored.get("plan:1")).isEqualTo(dto);
+        restored.close();
+    }
+
+    @Test
+    void hashReplaceOnlyWritesOverTheValueThatWasRead() {
+        FileLogCacheStore<Object> store = open();
+        store.hashSet("places", "9", new HashMap<>(Map.of("name", "서울역")));
+        Object read = store.hashGet("places", "9"); // 저장된 것과 다른 인스턴스
+        Map<String, Object> compacted = new HashMap<>(Map.of("name", "서울역", "planId", 100));
+
+        assertThat(store.hashReplace("places", "9", read, compacted)).isTrue();
+        assertThat(store.hashGet("places", "9")).isEqualTo(compacted);
+
+        store.hashSet("places", "9", new HashMap<>(Map.of("name", "용산역"))); // 다른 요청의 편집
+        assertThat(store.hashReplace("places", "9", compacted, new HashMap<>(Map.of("name", "덮어씀")))).isFalse();
+        assertThat(store.hashReplace("places", "10", compacted, compacted)).isFalse();
+        store.close();
+
+        FileLogCacheStore<Object> restored = open();
+        assertThat(restored.hashGet("places", "9")).isEqualTo(Map.of("name", "용산역"));
+        restored.close();
+    }
+}
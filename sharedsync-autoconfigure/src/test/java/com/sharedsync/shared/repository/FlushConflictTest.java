@@ -0,0 +1,149 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.StatelessSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.sharedsync.shared.repository.CacheFixture.Place;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+
+class FlushConflictTest {
+
+    private final CacheFixture fixture = new CacheFixture(new CacheMutationListener() {
+        @Override
+        public boolean tracksDirtyIds() {
+            return true;
+        }
+    });
+    private final CacheFixture.PlaceCache places = fixture.places;
+
+    @BeforeEach
+    void setUp() {
+        fixture.loadPlace(1, 10, "서울역");
+    }
+
+    /**
+     * DB에 쓰는 도중(INSERT/UPDATE 호출 시) duringWrite를 실행하는 세션을 엽니다.
+     */
+    private Supplier<StatelessSession> sessionWriting(Runnable duringWrite) {
+        return () -> {
+            StatelessSession session = mock(StatelessSession.class);
+            when(session.insert(any())).thenAnswer(invocation -> {
+                Place place = invocation.getArgument(0);
+                place.placeId = 500L;
+                duringWrite.run();
+                return place.placeId;
+            });
+            doAnswer(invocation -> {
+                duringWrite.run();
+                return null;
+            }).when(session).update(any());
+            return session;
+        };
+    }
+
+    private PlaceDto edit(long placeId, String name) {
+        return places.save(new PlaceDto(placeId, name, 1L));
+    }
+
+    @Test
+    void editDuringTheWriteIsKeptAndFlushedNextTime() {
+        PlaceDto flushed = edit(10, "서울역 1번 출구");
+        places.clearDirtyUnchecked(10L); // write-behind가 반영 전에 지움
+
+        places.syncToDatabaseStateless(List.of(flushed),
+                sessionWriting(() -> edit(10, "서울역 2번 출구")), 10);
+
+        PlaceDto cached = places.findDtoByIdUnchecked(10L);
+        assertThat(cached.name).isEqualTo("서울역 2번 출구");
+        assertThat(places.isUnchangedSinceSyncUnchecked(cached)).isFalse();
+        assertThat(places.findDirtyIds()).containsExactly(10L);
+
+        StatelessSession next = sessionWriting(() -> {
+        }).get();
+        places.syncToDatabaseStateless(List.of(cached), () -> next, 10);
+
+        ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+        verify(next).update(written.capture());
+        assertThat(((Place) written.getValue()).name).isEqualTo("서울역 2번 출구");
+        assertThat(places.isUnchangedSinceSyncUnchecked(places.findDtoByIdUnchecked(10L))).isTrue();
+    }
+
+    @Test
+    void updateDuringTheWriteIsNotRecordedAsSynced() {
+        PlaceDto flushed = edit(10, "서울역 1번 출구");
+
+        StatelessSession session = sessionWriting(() -> places.update(new PlaceDto(10L, "서울역 2번 출구", null))).get();
+        places.syncToDatabaseStateless(List.of(flushed), () -> session, 10);
+
+        ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+        verify(session).update(written.capture());
+        assertThat(((Place) written.getValue()).name).isEqualTo("서울역 1번 출구");
+
+        PlaceDto cached = places.findDtoByIdUnchecked(10L);
+        assertThat(cached.name).isEqualTo("서울역 2번 출구");
+        assertThat(cached.planId).isEqualTo(1L);
+        // 방을 내릴 때 이 값으로 편집 여부를 보므로, 쓰지 않은 내용이 동기화된 것으로 기록되면 안 됨
+        assertThat(places.isUnchangedSinceSyncUnchecked(cached)).isFalse();
+        assertThat(places.findDirtyIds()).containsExactly(10L);
+    }
+
+    @Test
+    void inPlaceEditDuringTheWriteIsNotRecordedAsSynced() {
+        PlaceDto cached = places.findDtoByIdUnchecked(10L);
+        cached.name = "서울역 1번 출구";
+        places.save(cached);
+
+        StatelessSession session = sessionWriting(() -> {
+            cached.name = "서울역 2번 출구"; // 캐시의 인스턴스를 그대로 고쳐 저장하는 호출자
+            places.save(cached);
+        }).get();
+        places.syncToDatabaseStateless(List.of(cached), () -> session, 10);
+
+        ArgumentCaptor<Object> written = ArgumentCaptor.forClass(Object.class);
+        verify(session).update(written.capture());
+        assertThat(((Place) written.getValue()).name).isEqualTo("서울역 1번 출구");
+        assertThat(places.findDtoByIdUnchecked(10L).name).isEqualTo("서울역 2번 출구");
+        assertThat(places.isUnchangedSinceSyncUnchecked(places.findDtoByIdUnchecked(10L))).isFalse();
+    }
+
+    @Test
+    void editDuringTheInsertMovesToThePersistedId() {
+        PlaceDto created = places.save(new PlaceDto(null, "새 장소", 1L));
+        long temporaryId = created.placeId;
+        assertThat(places.isUnchangedSinceSyncUnchecked(created)).isFalse(); // 임시 ID는 항상 변경분
+
+        places.syncToDatabaseStateless(List.of(created),
+                sessionWriting(() -> places.save(new PlaceDto(temporaryId, "고친 장소", 1L))), 10);
+
+        PlaceDto cached = places.findDtoByIdUnchecked(500L);
+        assertThat(cached.name).isEqualTo("고친 장소");
+        assertThat(cached.placeId).isEqualTo(500L);
+        assertThat(places.resolveIdUnchecked(temporaryId)).isEqualTo(500L);
+        assertThat(places.isUnchangedSinceSyncUnchecked(cached)).isFalse();
+        assertThat(places.findDirtyIds()).contains(500L);
+    }
+
+    @Test
+    void deletionDuringTheWriteIsNotUndone() {
+        PlaceDto flushed = edit(10, "서울역 1번 출구");
+
+        places.syncToDatabaseStateless(List.of(flushed),
+                sessionWriting(() -> places.deleteCacheById(10L)), 10);
+
+        assertThat(places.findDtoByIdUnchecked(10L)).isNull();
+        assertThat(places.isTombstoned(10L)).isTrue();
+        assertThat(places.findDtosByParentId(1L)).isEmpty();
+    }
+}
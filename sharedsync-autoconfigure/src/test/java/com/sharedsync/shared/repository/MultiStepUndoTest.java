@@ -0,0 +1,162 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpAttributes;
+import org.springframework.messaging.simp.SimpAttributesContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sharedsync.shared.history.HistoryAction;
+import com.sharedsync.shared.history.HistoryService;
+import com.sharedsync.shared.history.InMemoryHistoryStore;
+import com.sharedsync.shared.properties.SharedSyncHistoryProperties;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+import com.sharedsync.shared.repository.UpdateHistoryTest.PlaceRequest;
+import com.sharedsync.shared.repository.UpdateHistoryTest.PlaceService;
+import com.sharedsync.shared.sync.RedisSyncService;
+
+/**
+ * 여러 단계를 한 번에 되돌릴 때 적용 순서, 중간에 멈춘 뒤 스택 상태, 엔티티별 전송을 확인합니다.
+ */
+class MultiStepUndoTest {
+
+    private final CacheFixture fixture = new CacheFixture();
+    private final CacheFixture.PlaceCache places = fixture.places;
+    private final HistoryService historyService = new HistoryService();
+    private final RedisSyncService redisSyncService = mock(RedisSyncService.class);
+    private final PlaceService service = new PlaceService(places);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(historyService, "historyStore", new InMemoryHistoryStore(50, Long.MAX_VALUE, Long.MAX_VALUE, 0));
+        ReflectionTestUtils.setField(historyService, "repositories", List.of(fixture.plans, places));
+        ReflectionTestUtils.setField(historyService, "redisSyncService", redisSyncService);
+        ReflectionTestUtils.setField(historyService, "objectMapper",
+                new ObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY));
+        ReflectionTestUtils.setField(historyService, "historyProperties", new SharedSyncHistoryProperties());
+        ReflectionTestUtils.setField(service, "historyService", historyService);
+        SimpAttributesContextHolder.setAttributes(new SimpAttributes("session-1", new HashMap<>()));
+
+        fixture.loadPlace(1, 10, "서울역");
+        fixture.loadPlace(1, 11, "부산역");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SimpAttributesContextHolder.resetAttributes();
+        historyService.shutdown();
+    }
+
+    private void rename(long placeId, String name) {
+        PlaceRequest request = new PlaceRequest();
+        request.setRootId("1");
+        request.places = List.of(new PlaceDto(placeId, name, null));
+        service.update(request);
+    }
+
+    private static List<String> names(List<HistoryAction> actions) {
+        return actions.stream().map(action -> ((PlaceDto) action.getAfterData().get(0)).name).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> published() {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(redisSyncService, atLeast(0)).publish(eq("/topic/1"), payload.capture());
+        return payload.getAllValues().stream().map(value -> (Map<String, Object>) value).toList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void undoAppliesNewestFirstAndBroadcastsEachEntityOnce() {
+        rename(10, "용산역");
+        rename(11, "대전역");
+        rename(10, "수원역");
+        clearInvocations(redisSyncService);
+
+        List<HistoryAction> undone = historyService.undo("1", 3);
+
+        assertThat(names(undone)).containsExactly("수원역", "대전역", "용산역");
+        assertThat(places.findDtoById(10L).name).isEqualTo("서울역");
+        assertThat(places.findDtoById(11L).name).isEqualTo("부산역");
+
+        // 두 번 바뀐 10번도 최종 상태로 한 번만, 같은 동작은 한 메시지로
+        List<Map<String, Object>> messages = published();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0)).containsEntry("action", "update").containsEntry("isUndoRedo", true);
+        assertThat((List<PlaceDto>) messages.get(0).get("places")).extracting(dto -> dto.name)
+                .containsExactly("서울역", "부산역");
+
+        List<HistoryAction> redone = historyService.redo("1", 3);
+        assertThat(names(redone)).containsExactly("용산역", "대전역", "수원역");
+        assertThat(places.findDtoById(10L).name).isEqualTo("수원역");
+        assertThat(places.findDtoById(11L).name).isEqualTo("대전역");
+    }
+
+    @Test
+    void stepsBeyondTheStackStopAtItsBottom() {
+        rename(10, "용산역");
+
+        assertThat(historyService.undo("1", 5)).hasSize(1);
+        assertThat(historyService.undo("1", 5)).isEmpty();
+        assertThat(places.findDtoById(10L).name).isEqualTo("서울역");
+    }
+
+    @Test
+    void conflictDropsThatActionAndRestoresTheUntriedOnes() {
+        rename(10, "용산역"); // 1
+        rename(11, "대전역"); // 2
+        rename(10, "수원역"); // 3
+        // 다른 사용자가 11번을 고쳐 2번 작업은 되돌릴 수 없음
+        AutoCacheRepository.runAsSystemOperation(() -> places.save(new PlaceDto(11L, "광주역", 1L)));
+
+        List<HistoryAction> undone = historyService.undo("1", 3);
+
+        assertThat(names(undone)).containsExactly("수원역");
+        assertThat(places.findDtoById(10L).name).isEqualTo("용산역");
+        assertThat(places.findDtoById(11L).name).isEqualTo("광주역");
+
+        // 시도하지 않은 1번 작업은 undo 스택에 남고, 충돌한 2번 작업은 버려짐
+        assertThat(names(historyService.undo("1", 3))).containsExactly("용산역");
+        assertThat(places.findDtoById(10L).name).isEqualTo("서울역");
+        assertThat(historyService.undo("1", 3)).isEmpty();
+
+        // redo 스택에는 적용한 작업만 남음
+        assertThat(names(historyService.redo("1", 3))).containsExactly("용산역", "수원역");
+        assertThat(places.findDtoById(10L).name).isEqualTo("수원역");
+        assertThat(places.findDtoById(11L).name).isEqualTo("광주역");
+    }
+
+    @Test
+    void conflictOnTheFirstStepChangesNothing() {
+        rename(10, "용산역");
+        rename(10, "수원역");
+        AutoCacheRepository.runAsSystemOperation(() -> places.save(new PlaceDto(10L, "광주역", 1L)));
+        clearInvocations(redisSyncService);
+
+        assertThat(historyService.undo("1", 2)).isEmpty();
+
+        assertThat(places.findDtoById(10L).name).isEqualTo("광주역");
+        verify(redisSyncService, never()).publish(any(), any());
+        // 맨 위 작업만 버려지고 그 아래 작업은 남음 (현재 상태가 "용산역"이 아니라 역시 되돌릴 수 없음)
+        assertThat(historyService.undo("1", 1)).isEmpty();
+        assertThat(historyService.redo("1", 1)).isEmpty();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.repository.CacheFixture.Place;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+
+class ReadThroughTest {
+
+    private final CacheFixture fixture = new CacheFixture();
+    private final CacheFixture.PlaceCache places = fixture.places;
+    private final ExecutorService readers = Executors.newFixedThreadPool(2);
+
+    @BeforeEach
+    void setUp() {
+        fixture.cacheProperties.getReadThrough().setEnabled(true);
+        when(fixture.entityManager.find(Place.class, 5L)).thenAnswer(invocation -> new Place(5L, "서울역", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+    }
+
+    private void expire(long id) {
+        fixture.store.hashSetString("place:READ_THROUGH", String.valueOf(id), "0");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoadButGetTheirOwnCopy() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Place(5L, "서울역", null);
+        }).when(fixture.entityManager).find(Place.class, 5L);
+
+        Future<PlaceDto> leader = readers.submit(() -> places.findDtoById(5L));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<PlaceDto> waiter = readers.submit(() -> places.findDtoById(5L));
+        Thread.sleep(200); // 두 번째 요청이 진행 중인 로딩을 기다리도록
+        release.countDown();
+
+        PlaceDto first = leader.get(5, TimeUnit.SECONDS);
+        PlaceDto second = waiter.get(5, TimeUnit.SECONDS);
+
+        verify(fixture.entityManager, times(1)).find(Place.class, 5L);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.name).isEqualTo(first.name);
+        assertThat(second.tags).isNotSameAs(first.tags);
+
+        second.name = "용산역";
+        second.tags.add("환승");
+        PlaceDto cached = places.findDtoByIdUnchecked(5L);
+        assertThat(cached.name).isEqualTo("서울역");
+        assertThat(cached.tags).isEmpty();
+    }
+
+    @Test
+    void loadedEntryIsEvictedAfterItsTtl() {
+        places.findDtoById(5L);
+        assertThat(places.findExpiredReadThroughIds()).isEmpty();
+
+        expire(5L);
+
+        assertThat(places.findExpiredReadThroughIds()).containsExactly(5L);
+        assertThat(places.findReadThroughRootId(5L)).isNull(); // 부모가 캐시에 없음
+        assertThat(places.evictReadThrough(5L)).isTrue();
+        assertThat(places.findDtoByIdUnchecked(5L)).isNull();
+        assertThat(places.findExpiredReadThroughIds()).isEmpty();
+        assertThat(places.isTombstoned(5L)).isFalse();
+    }
+
+    @Test
+    void editedEntryStaysUntilItIsSynced() {
+        places.findDtoById(5L);
+        places.save(new PlaceDto(5L, "용산역", null));
+        expire(5L);
+
+        assertThat(places.evictReadThrough(5L)).isFalse();
+
+        assertThat(places.findDtoByIdUnchecked(5L).name).isEqualTo("용산역");
+        assertThat(places.findExpiredReadThroughIds()).containsExactly(5L); // 다음 주기에 다시 확인
+    }
+
+    @Test
+    void entryAlreadyDroppedIsForgotten() {
+        places.findDtoById(5L);
+        AutoCacheRepository.runAsSystemOperation(() -> places.deleteCacheById(5L));
+        expire(5L);
+
+        assertThat(places.evictReadThrough(5L)).isFalse();
+
+        assertThat(places.findExpiredReadThroughIds()).isEmpty();
+    }
+
+    @Test
+    void entryInsideARoomReportsItsRoot() {
+        fixture.loadPlace(1, 10, "부산역");
+        AutoCacheRepository.runAsSystemOperation(() -> places.save(new PlaceDto(5L, "서울역", 1L)));
+
+        assertThat(places.findReadThroughRootId(5L)).isEqualTo("1");
+    }
+}
@@ -0,0 +1,92 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+
+class RoomTombstoneTest {
+
+    private final CacheFixture fixture = new CacheFixture();
+    private final CacheFixture.PlaceCache places = fixture.places;
+
+    @BeforeEach
+    void setUp() {
+        fixture.loadPlace(1, 10, "서울역");
+        fixture.loadPlace(2, 20, "부산역");
+    }
+
+    @Test
+    void deletionIsRecordedUnderItsRoom() {
+        places.deleteCacheById(10L);
+
+        assertThat(places.findTombstones()).containsExactly(10L);
+        assertThat(places.findRoomTombstones("1")).containsExactly(10L);
+        assertThat(places.findRoomTombstones("2")).isEmpty();
+    }
+
+    @Test
+    void deletingTheRoomTombstonesChildrenInThatRoom() {
+        fixture.plans.deleteCacheById(1L);
+
+        assertThat(places.findRoomTombstones("1")).containsExactly(10L);
+        assertThat(fixture.plans.findRoomTombstones("1")).containsExactly(1L);
+        assertThat(places.findDtoByIdUnchecked(20L)).isNotNull();
+    }
+
+    @Test
+    void undoneDeletionLeavesTheRoom() {
+        places.deleteCacheById(10L);
+
+        places.save(new PlaceDto(10L, "서울역", 1L));
+
+        assertThat(places.isTombstoned(10L)).isFalse();
+        assertThat(places.findRoomTombstones("1")).isEmpty();
+    }
+
+    @Test
+    void staleRoomEntryIsDroppedOnRead() {
+        places.deleteCacheById(10L);
+        places.clearTombstoneUnchecked(10L); // 전체 집합에서만 지워짐
+
+        assertThat(places.findRoomTombstones("1")).isEmpty();
+        assertThat(fixture.store.getSet("place:TOMBSTONE:1")).isEmpty();
+    }
+
+    @Test
+    void clearingRemovesBothEntries() {
+        places.deleteCacheById(10L);
+
+        places.clearRoomTombstonesUnchecked("1", List.of(10L));
+
+        assertThat(places.findTombstones()).isEmpty();
+        assertThat(fixture.store.getSet("place:TOMBSTONE:1")).isEmpty();
+    }
+
+    @Test
+    void deletionWithoutCachedParentIsUnscoped() {
+        AutoCacheRepository.runAsSystemOperation(() -> places.save(new PlaceDto(30L, "대전역", 3L)));
+
+        places.deleteCacheById(30L);
+
+        assertThat(places.findRoomTombstones(null)).containsExactly(30L);
+        assertThat(places.findRoomTombstones("3")).isEmpty();
+    }
+
+    @Test
+    void temporaryAndSystemDeletionsLeaveNoTombstone() {
+        PlaceDto created = places.save(new PlaceDto(null, "새 장소", 1L));
+        assertThat(created.placeId).isNegative();
+
+        places.deleteCacheById(created.placeId);
+        AutoCacheRepository.runAsSystemOperation(() -> places.deleteCacheById(20L));
+
+        assertThat(places.findTombstones()).isEmpty();
+        assertThat(places.findRoomTombstones("1")).isEmpty();
+        assertThat(places.findRoomTombstones("2")).isEmpty();
+    }
+}
@@ -0,0 +1,107 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.hibernate.StatelessSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.repository.CacheFixture.Place;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+
+class StatelessSyncTest {
+
+    private final CacheFixture fixture = new CacheFixture();
+    private final CacheFixture.PlaceCache places = fixture.places;
+    private final List<StatelessSession> sessions = new ArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(500);
+
+    @BeforeEach
+    void setUp() {
+        fixture.loadPlace(1, 10, "서울역");
+        fixture.loadPlace(1, 11, "부산역");
+        fixture.loadPlace(1, 12, "대전역");
+    }
+
+    /**
+     * INSERT 시 생성 ID를 채워 주는 세션을 엽니다.
+     */
+    private Supplier<StatelessSession> sessionSupplier() {
+        return () -> {
+            StatelessSession session = mock(StatelessSession.class);
+            when(session.insert(any())).thenAnswer(invocation -> {
+                Place place = invocation.getArgument(0);
+                place.placeId = nextId.getAndIncrement();
+                return place.placeId;
+            });
+            sessions.add(session);
+            return session;
+        };
+    }
+
+    private PlaceDto edit(long placeId, String name) {
+        return places.save(new PlaceDto(placeId, name, 1L));
+    }
+
+    @Test
+    void eachChunkIsWrittenInItsOwnSessionAsBatches() {
+        PlaceDto first = edit(10, "서울역 1번 출구");
+        PlaceDto second = edit(11, "부산역 2번 출구");
+        PlaceDto created = places.save(new PlaceDto(null, "새 장소", 1L));
+        PlaceDto unchanged = places.findDtoById(12L);
+
+        List<PlaceDto> synced = places.syncToDatabaseStateless(List.of(first, second, unchanged, created),
+                sessionSupplier(), 2);
+
+        assertThat(synced).hasSize(3);
+        assertThat(sessions).hasSize(2);
+
+        StatelessSession updates = sessions.get(0);
+        verify(updates).setJdbcBatchSize(2);
+        verify(updates, times(2)).update(any());
+        verify(updates, never()).insert(any());
+        verify(updates).close();
+
+        StatelessSession inserts = sessions.get(1);
+        verify(inserts).setJdbcBatchSize(1);
+        verify(inserts).insert(any());
+        verify(inserts, never()).update(any());
+        verify(inserts).close();
+    }
+
+    @Test
+    void insertedEntitySwitchesToItsPersistedId() {
+        PlaceDto created = places.save(new PlaceDto(null, "새 장소", 1L));
+        long temporaryId = created.placeId;
+
+        places.syncToDatabaseStateless(List.of(created), sessionSupplier(), 10);
+
+        PlaceDto persisted = places.findDtoByIdUnchecked(500L);
+        assertThat(persisted.name).isEqualTo("새 장소");
+        assertThat(places.resolveIdUnchecked(temporaryId)).isEqualTo(500L);
+        assertThat(places.findDtosByParentId(1L)).extracting(dto -> dto.placeId).contains(500L).doesNotContain(temporaryId);
+        assertThat(places.isUnchangedSinceSyncUnchecked(persisted)).isTrue();
+    }
+
+    @Test
+    void syncedEntitiesAreSkippedNextTime() {
+        places.syncToDatabaseStateless(List.of(edit(10, "서울역 1번 출구")), sessionSupplier(), 10);
+        assertThat(sessions).hasSize(1);
+
+        List<PlaceDto> synced = places.syncToDatabaseStateless(List.of(places.findDtoById(10L)), sessionSupplier(), 10);
+
+        assertThat(synced).isEmpty();
+        assertThat(sessions).hasSize(1); // 바뀐 것이 없으면 세션도 열지 않음
+    }
+}
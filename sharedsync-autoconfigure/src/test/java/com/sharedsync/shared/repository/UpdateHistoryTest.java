@@ -0,0 +1,113 @@
+package com.sharedsync.shared.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpAttributes;
+import org.springframework.messaging.simp.SimpAttributesContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sharedsync.shared.dto.WRequest;
+import com.sharedsync.shared.dto.WResponse;
+import com.sharedsync.shared.history.HistoryService;
+import com.sharedsync.shared.history.InMemoryHistoryStore;
+import com.sharedsync.shared.properties.SharedSyncHistoryProperties;
+import com.sharedsync.shared.repository.CacheFixture.PlaceDto;
+import com.sharedsync.shared.service.AbstractSharedCacheService;
+import com.sharedsync.shared.sync.RedisSyncService;
+
+class UpdateHistoryTest {
+
+    static class PlaceRequest extends WRequest {
+        List<PlaceDto> places;
+    }
+
+    static class PlaceResponse extends WResponse {
+        List<PlaceDto> places;
+    }
+
+    static class PlaceService extends AbstractSharedCacheService<PlaceRequest, PlaceResponse, PlaceDto, Long> {
+        PlaceService(CacheFixture.PlaceCache places) {
+            super(places, "Place", request -> request.places, (response, dtos) -> response.places = dtos,
+                    PlaceResponse::new, dto -> dto.placeId, null, null);
+        }
+    }
+
+    private final CacheFixture fixture = new CacheFixture();
+    private final CacheFixture.PlaceCache places = fixture.places;
+    private final HistoryService historyService = new HistoryService();
+    private final PlaceService service = new PlaceService(places);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(historyService, "historyStore", new InMemoryHistoryStore(50, Long.MAX_VALUE, Long.MAX_VALUE, 0));
+        ReflectionTestUtils.setField(historyService, "repositories", List.of(fixture.plans, places));
+        ReflectionTestUtils.setField(historyService, "redisSyncService", mock(RedisSyncService.class));
+        ReflectionTestUtils.setField(historyService, "objectMapper",
+                new ObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY));
+        ReflectionTestUtils.setField(historyService, "historyProperties", new SharedSyncHistoryProperties());
+        ReflectionTestUtils.setField(service, "historyService", historyService);
+        SimpAttributesContextHolder.setAttributes(new SimpAttributes("session-1", new HashMap<>()));
+
+        fixture.loadPlace(1, 10, "서울역");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SimpAttributesContextHolder.resetAttributes();
+        historyService.shutdown();
+    }
+
+    private PlaceRequest request(PlaceDto place) {
+        PlaceRequest request = new PlaceRequest();
+        request.setRootId("1");
+        request.places = List.of(place);
+        return request;
+    }
+
+    @Test
+    void updateLeavesTheCachedInstanceUntouched() {
+        PlaceDto before = places.findDtoById(10L);
+
+        PlaceDto updated = places.update(new PlaceDto(10L, "용산역", null));
+
+        assertThat(updated).isNotSameAs(before);
+        assertThat(before.name).isEqualTo("서울역");
+        assertThat(updated.name).isEqualTo("용산역");
+        assertThat(updated.planId).isEqualTo(1L); // null 필드는 기존 값 유지
+        assertThat(places.findDtoById(10L).name).isEqualTo("용산역");
+    }
+
+    @Test
+    void recordedUpdateCanBeUndoneAndRedone() {
+        service.update(request(new PlaceDto(10L, "용산역", null)));
+        assertThat(places.findDtoById(10L).name).isEqualTo("용산역");
+
+        assertThat(service.undo("1")).isNotNull();
+        assertThat(places.findDtoById(10L).name).isEqualTo("서울역");
+        assertThat(places.findDtosByParentId(1L)).extracting(dto -> dto.placeId).containsExactly(10L);
+
+        assertThat(service.redo("1")).isNotNull();
+        assertThat(places.findDtoById(10L).name).isEqualTo("용산역");
+    }
+
+    @Test
+    void undoStepsBackThroughSuccessiveUpdates() {
+        service.update(request(new PlaceDto(10L, "용산역", null)));
+        service.update(request(new PlaceDto(10L, "부산역", null)));
+
+        service.undo("1");
+        assertThat(places.findDtoById(10L).name).isEqualTo("용산역");
+        service.undo("1");
+        assertThat(places.findDtoById(10L).name).isEqualTo("서울역");
+    }
+}
@@ -0,0 +1,139 @@
+package com.sharedsync.shared.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+
+/**
+ * 스레드 하나짜리 실행기로 대기 중인 요청 합치기와 종료 시 마감 시간까지의 대기를 확인합니다.
+ */
+class DatabaseFlushExecutorTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DatabaseFlushExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        SharedSyncDatabaseSyncProperties properties = new SharedSyncDatabaseSyncProperties();
+        properties.getFlush().setParallelism(1);
+        properties.getFlush().setShutdownTimeout(5);
+        executor = new DatabaseFlushExecutor(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    /**
+     * release 될 때까지 하나뿐인 플러시 스레드를 붙잡습니다.
+     */
+    private CompletableFuture<Void> occupy(String rootId) throws InterruptedException {
+        CompletableFuture<Void> future = executor.submit(rootId, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return future;
+    }
+
+    @Test
+    void requestsForAQueuedRoomAreMergedIntoOneFlush() throws Exception {
+        CompletableFuture<Void> running = occupy("A");
+        AtomicInteger flushesOfB = new AtomicInteger();
+
+        CompletableFuture<Void> first = executor.submit("B", flushesOfB::incrementAndGet);
+        CompletableFuture<Void> second = executor.submit("B", flushesOfB::incrementAndGet);
+        assertThat(second).isSameAs(first);
+        assertThat(executor.getPendingCount()).isEqualTo(1);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(flushesOfB).hasValue(1);
+        assertThat(executor.getCompletedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void requestForARunningRoomIsQueuedAgain() throws Exception {
+        CompletableFuture<Void> running = occupy("A");
+        AtomicInteger flushesOfA = new AtomicInteger();
+
+        // 이미 시작된 플러시는 요청 이후의 변경을 못 볼 수 있으므로 합치지 않음
+        CompletableFuture<Void> again = executor.submit("A", flushesOfA::incrementAndGet);
+        assertThat(again).isNotSameAs(running);
+
+        release.countDown();
+        again.get(5, TimeUnit.SECONDS);
+        assertThat(flushesOfA).hasValue(1);
+    }
+
+    @Test
+    void failedFlushIsCountedAndReportedToTheCaller() throws Exception {
+        CompletableFuture<Void> future = executor.submit("A", () -> {
+            throw new IllegalStateException("db down");
+        });
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(executor.getFailedCount()).isEqualTo(1);
+        assertThat(executor.awaitIdle(System.currentTimeMillis() + 1000)).isTrue();
+    }
+
+    @Test
+    void drainGivesUpAtTheDeadline() throws Exception {
+        occupy("A");
+        executor.submit("B", () -> {
+        });
+
+        long deadline = System.currentTimeMillis() + 200;
+        assertThat(executor.awaitIdle(deadline)).isFalse();
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(deadline);
+        assertThat(executor.getRunningCount()).isEqualTo(1);
+        assertThat(executor.getPendingCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(executor.awaitIdle(System.currentTimeMillis() + 5000)).isTrue();
+        assertThat(executor.getFinishedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shutdownRunsQueuedFlushesBeforeReturning() throws Exception {
+        occupy("A");
+        AtomicInteger flushesOfB = new AtomicInteger();
+        executor.submit("B", flushesOfB::incrementAndGet);
+
+        Thread stopping = new Thread(executor::shutdown);
+        stopping.start();
+        Thread.sleep(100);
+        assertThat(stopping.isAlive()).isTrue(); // A가 끝나기를 기다리는 중
+
+        release.countDown();
+        stopping.join(5000);
+        assertThat(stopping.isAlive()).isFalse();
+        assertThat(flushesOfB).hasValue(1);
+
+        // 종료 후 요청은 호출한 스레드에서 바로 실행
+        AtomicInteger late = new AtomicInteger();
+        assertThat(executor.submit("C", late::incrementAndGet)).isDone();
+        assertThat(late).hasValue(1);
+    }
+}
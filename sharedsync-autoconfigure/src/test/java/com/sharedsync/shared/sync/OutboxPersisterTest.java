@@ -0,0 +1,156 @@
+package com.sharedsync.shared.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.repository.AutoCacheRepository;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+class OutboxPersisterTest {
+
+    static class PlanDto {
+    }
+
+    static class PlaceDto {
+    }
+
+    private final SharedSyncDatabaseSyncProperties properties = new SharedSyncDatabaseSyncProperties();
+    private final CacheOutbox outbox = mock(CacheOutbox.class);
+    private final CacheSyncService cacheSyncService = mock(CacheSyncService.class);
+    private final DatabaseFlushExecutor databaseFlushExecutor = new DatabaseFlushExecutor(properties);
+    private final RoomFlushRouter roomFlushRouter = mock(RoomFlushRouter.class);
+    private final OutboxPersister persister = new OutboxPersister(outbox, cacheSyncService, databaseFlushExecutor,
+            roomFlushRouter, mock(PlatformTransactionManager.class), properties);
+
+    private final AutoCacheRepository plans = mock(AutoCacheRepository.class);
+    private final AutoCacheRepository places = mock(AutoCacheRepository.class);
+    private final Object plan = new Object();
+    private final Object place7 = new Object();
+    private final Object place8 = new Object();
+
+    @BeforeEach
+    void setUp() {
+        List<AutoCacheRepository<?, ?, ?>> ordered = List.of(plans, places);
+        when(cacheSyncService.orderParentFirst()).thenReturn(ordered);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        }).when(cacheSyncService).runExclusive(anyCollection(), any(Runnable.class));
+        when(plans.getDtoClass()).thenReturn(PlanDto.class);
+        when(places.getDtoClass()).thenReturn(PlaceDto.class);
+        when(plans.findDtoByIdUnchecked("1")).thenReturn(plan);
+        when(places.findDtoByIdUnchecked("7")).thenReturn(place7);
+        when(places.findDtoByIdUnchecked("8")).thenReturn(place8);
+        when(plans.findRootIdUnchecked(any())).thenReturn("1");
+        when(places.findRootIdUnchecked(any())).thenReturn("1");
+        when(plans.flushToDatabaseInBatchUnchecked(anyList(), anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(places.flushToDatabaseInBatchUnchecked(anyList(), anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static CacheOutbox.Delivery upsert(String deliveryId, Class<?> dtoClass, String id) {
+        return new CacheOutbox.Delivery(deliveryId, OutboxEvent.upsert(dtoClass.getName(), id));
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseFlushExecutor.shutdown();
+    }
+
+    /**
+     * 아웃박스에 남은 이벤트를 처리하고 예약된 방 플러시가 끝날 때까지 기다립니다.
+     */
+    private void drain(CacheOutbox.Delivery... deliveries) {
+        when(outbox.poll(anyInt(), anyLong())).thenReturn(List.of(deliveries)).thenReturn(List.of());
+        persister.drain(System.currentTimeMillis() + 5_000);
+        assertThat(databaseFlushExecutor.awaitIdle(System.currentTimeMillis() + 5_000)).isTrue();
+    }
+
+    @Test
+    void roomFlushIsAcknowledgedOnceTheRoomIsWritten() {
+        CacheOutbox.Delivery flush = new CacheOutbox.Delivery("d1", OutboxEvent.roomFlush("1"));
+
+        drain(flush);
+
+        verify(cacheSyncService).syncToDatabaseIfVacant("1");
+        verify(outbox).acknowledge(List.of(flush));
+        verify(outbox, never()).release(List.of(flush));
+    }
+
+    @Test
+    void roomFlushBlockedByAnotherLeaseHolderIsReleasedForRedelivery() {
+        CacheOutbox.Delivery flush = new CacheOutbox.Delivery("d1", OutboxEvent.roomFlush("1"));
+        doThrow(new IllegalStateException("lease busy")).when(cacheSyncService).syncToDatabaseIfVacant("1");
+
+        drain(flush);
+
+        verify(outbox).release(List.of(flush));
+        verify(outbox, never()).acknowledge(List.of(flush));
+    }
+
+    @Test
+    void upsertsAreWrittenOneBatchPerTypeParentFirst() {
+        // 자식 이벤트가 먼저 왔고 같은 엔티티가 두 번 전달됨
+        List<CacheOutbox.Delivery> batch = List.of(upsert("d1", PlaceDto.class, "7"), upsert("d2", PlanDto.class, "1"),
+                upsert("d3", PlaceDto.class, "8"), upsert("d4", PlaceDto.class, "7"));
+
+        drain(batch.toArray(CacheOutbox.Delivery[]::new));
+
+        InOrder order = inOrder(plans, places);
+        order.verify(plans).flushToDatabaseInBatchUnchecked(List.of(plan), properties.getBatchSize());
+        order.verify(places).flushToDatabaseInBatchUnchecked(List.of(place7, place8), properties.getBatchSize());
+        verify(places, never()).flushToDatabaseByDtoUnchecked(any());
+        verify(outbox).acknowledge(batch);
+    }
+
+    @Test
+    void upsertOfAnEntityNoLongerCachedIsSkipped() {
+        when(places.findDtoByIdUnchecked("8")).thenReturn(null);
+        CacheOutbox.Delivery gone = upsert("d1", PlaceDto.class, "8");
+
+        drain(gone);
+
+        verify(places, never()).flushToDatabaseInBatchUnchecked(anyList(), anyInt());
+        verify(outbox).acknowledge(List.of(gone));
+    }
+
+    @Test
+    void failedBatchIsReleasedAndAcknowledgedOnRedelivery() {
+        CacheOutbox.Delivery first = upsert("d1", PlaceDto.class, "7");
+        when(places.flushToDatabaseInBatchUnchecked(anyList(), anyInt()))
+                .thenThrow(new IllegalStateException("deadlock"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        drain(first);
+
+        verify(outbox).release(List.of(first));
+        verify(outbox, never()).acknowledge(any());
+
+        CacheOutbox.Delivery redelivered = upsert("d1", PlaceDto.class, "7");
+        drain(redelivered);
+
+        verify(places, times(2)).flushToDatabaseInBatchUnchecked(eq(List.of(place7)), anyInt());
+        verify(outbox).acknowledge(List.of(redelivered));
+    }
+}
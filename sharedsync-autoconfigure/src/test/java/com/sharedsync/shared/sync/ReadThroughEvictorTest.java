@@ -0,0 +1,95 @@
+package com.sharedsync.shared.sync;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.storage.InMemoryPresenceStorage;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+class ReadThroughEvictorTest {
+
+    private final CacheSyncService cacheSyncService = mock(CacheSyncService.class);
+    private final RoomFlushRouter roomFlushRouter = mock(RoomFlushRouter.class);
+    private final InMemoryPresenceStorage presenceStorage = new InMemoryPresenceStorage();
+    private final AutoCacheRepository repository = mock(AutoCacheRepository.class);
+    private final ReadThroughEvictor evictor = new ReadThroughEvictor(cacheSyncService, roomFlushRouter, presenceStorage);
+
+    @BeforeEach
+    void setUp() {
+        List<AutoCacheRepository<?, ?, ?>> repositories = List.of(repository);
+        when(cacheSyncService.orderParentFirst()).thenReturn(repositories);
+        when(repository.getEntityType()).thenReturn((Class) Object.class);
+        when(repository.findExpiredReadThroughIds()).thenReturn(List.of(5L));
+        when(cacheSyncService.runIfVacant(anyString(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return true;
+        });
+    }
+
+    @Test
+    void entryOutsideAnyRoomIsEvictedDirectly() {
+        when(repository.findReadThroughRootId(5L)).thenReturn(null);
+
+        evictor.evictExpired();
+
+        verify(repository).evictReadThrough(5L);
+        verify(cacheSyncService, never()).runIfVacant(anyString(), any());
+    }
+
+    @Test
+    void entryOfAnOpenRoomIsLeftToTheRoom() {
+        when(repository.findReadThroughRootId(5L)).thenReturn("1");
+        presenceStorage.insertTracker("1", "s1", "user-s1", "0");
+
+        evictor.evictExpired();
+
+        verify(repository).forgetReadThrough(5L);
+        verify(repository, never()).evictReadThrough(any());
+    }
+
+    @Test
+    void entryOfAClosedRoomIsEvictedUnderTheRoomLock() {
+        when(repository.findReadThroughRootId(5L)).thenReturn("1");
+        when(roomFlushRouter.isLocalOwner("1")).thenReturn(true);
+
+        evictor.evictExpired();
+
+        verify(cacheSyncService).runIfVacant(eq("1"), any());
+        verify(repository).evictReadThrough(5L);
+    }
+
+    @Test
+    void entryOfARoomOwnedElsewhereIsSkipped() {
+        when(repository.findReadThroughRootId(5L)).thenReturn("1");
+        when(roomFlushRouter.isLocalOwner("1")).thenReturn(false);
+
+        evictor.evictExpired();
+
+        verify(repository, never()).evictReadThrough(any());
+        verify(repository, never()).forgetReadThrough(any());
+    }
+
+    @Test
+    void failingRepositoryDoesNotStopTheSweep() {
+        AutoCacheRepository other = mock(AutoCacheRepository.class);
+        List<AutoCacheRepository<?, ?, ?>> repositories = List.of(repository, other); // 자식(other)부터 정리
+        when(cacheSyncService.orderParentFirst()).thenReturn(repositories);
+        when(other.getEntityType()).thenReturn((Class) Object.class);
+        when(other.findExpiredReadThroughIds()).thenThrow(new IllegalStateException("store down"));
+
+        evictor.evictExpired();
+
+        verify(repository).evictReadThrough(5L);
+    }
+}
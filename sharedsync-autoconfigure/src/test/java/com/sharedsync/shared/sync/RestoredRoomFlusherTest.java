@@ -0,0 +1,76 @@
+package com.sharedsync.shared.sync;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.sharedsync.shared.repository.AutoCacheRepository;
+import com.sharedsync.shared.repository.CacheRecovery;
+import com.sharedsync.shared.storage.InMemoryPresenceStorage;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+class RestoredRoomFlusherTest {
+
+    private final CacheRecovery recovery = mock(CacheRecovery.class);
+    private final ObjectProvider<CacheRecovery> recoveries = mock(ObjectProvider.class);
+    private final CacheSyncService cacheSyncService = mock(CacheSyncService.class);
+    private final RoomFlushRouter roomFlushRouter = mock(RoomFlushRouter.class);
+    private final InMemoryPresenceStorage presenceStorage = new InMemoryPresenceStorage();
+    private final AutoCacheRepository rootRepository = mock(AutoCacheRepository.class);
+    private final AutoCacheRepository childRepository = mock(AutoCacheRepository.class);
+    private final RestoredRoomFlusher flusher =
+            new RestoredRoomFlusher(recoveries, cacheSyncService, roomFlushRouter, presenceStorage);
+
+    @BeforeEach
+    void setUp() {
+        when(recoveries.stream()).thenAnswer(invocation -> Stream.of(recovery));
+        List<AutoCacheRepository<?, ?, ?>> repositories = List.of(rootRepository, childRepository);
+        when(cacheSyncService.orderParentFirst()).thenReturn(repositories);
+        when(rootRepository.isParentIdFieldPresent()).thenReturn(false);
+        when(childRepository.isParentIdFieldPresent()).thenReturn(true);
+        Object first = new Object();
+        Object second = new Object();
+        when(rootRepository.findAllDtos()).thenReturn(List.of(first, second));
+        when(rootRepository.extractIdUnchecked(first)).thenReturn(1L);
+        when(rootRepository.extractIdUnchecked(second)).thenReturn(2L);
+    }
+
+    @Test
+    void everyRestoredRoomIsFlushed() {
+        when(recovery.isRestored()).thenReturn(true);
+
+        flusher.flushRestoredRooms();
+
+        verify(roomFlushRouter).requestFlush("1");
+        verify(roomFlushRouter).requestFlush("2");
+    }
+
+    @Test
+    void roomSomeoneAlreadyRejoinedIsLeftToItsSession() {
+        when(recovery.isRestored()).thenReturn(true);
+        presenceStorage.insertTracker("2", "s1", "user-s1", "0");
+
+        flusher.flushRestoredRooms();
+
+        verify(roomFlushRouter).requestFlush("1");
+        verify(roomFlushRouter, never()).requestFlush("2");
+    }
+
+    @Test
+    void nothingIsFlushedWithoutRestoredState() {
+        when(recovery.isRestored()).thenReturn(false);
+
+        flusher.flushRestoredRooms();
+
+        verify(roomFlushRouter, never()).requestFlush(anyString());
+    }
+}
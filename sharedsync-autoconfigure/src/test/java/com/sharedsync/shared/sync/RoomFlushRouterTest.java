@@ -0,0 +1,161 @@
+package com.sharedsync.shared.sync;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.storage.InMemoryPresenceStorage;
+
+class RoomFlushRouterTest {
+
+    private final InMemoryPresenceStorage presenceStorage = new InMemoryPresenceStorage();
+    private final CacheSyncService cacheSyncService = mock(CacheSyncService.class);
+    private final List<DatabaseFlushExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(DatabaseFlushExecutor::shutdown);
+    }
+
+    private RoomFlushRouter node(String nodeId) {
+        return node(nodeId, cacheSyncService);
+    }
+
+    private RoomFlushRouter node(String nodeId, CacheSyncService cacheSyncService) {
+        SharedSyncDatabaseSyncProperties properties = new SharedSyncDatabaseSyncProperties();
+        properties.getFlush().setNodeId(nodeId);
+        properties.getFlush().setSweepInterval(1);
+        properties.getFlush().setRetryMaxBackoff(1);
+        DatabaseFlushExecutor executor = new DatabaseFlushExecutor(properties);
+        executors.add(executor);
+        RoomFlushRouter router = new RoomFlushRouter(presenceStorage, executor, cacheSyncService, properties);
+        router.join();
+        return router;
+    }
+
+    private void awaitFlushes() {
+        long deadline = System.currentTimeMillis() + 5_000;
+        executors.forEach(executor -> assertThat(executor.awaitIdle(deadline)).isTrue());
+    }
+
+    private static String roomOwnedBy(RoomFlushRouter owner) {
+        for (int room = 1; ; room++) {
+            if (owner.isLocalOwner(String.valueOf(room))) {
+                return String.valueOf(room);
+            }
+        }
+    }
+
+    @Test
+    void everyRoomHasExactlyOneOwner() {
+        RoomFlushRouter first = node("n1");
+        RoomFlushRouter second = node("n2");
+        first.sweep(); // n2 합류 반영
+
+        int ownedByFirst = 0;
+        for (int room = 1; room <= 200; room++) {
+            String rootId = String.valueOf(room);
+            assertThat(first.ownerOf(rootId)).isEqualTo(second.ownerOf(rootId));
+            assertThat(first.isLocalOwner(rootId)).isNotEqualTo(second.isLocalOwner(rootId));
+            if (first.isLocalOwner(rootId)) {
+                ownedByFirst++;
+            }
+        }
+        assertThat(ownedByFirst).isBetween(40, 160);
+    }
+
+    @Test
+    void requestIsHandedOffToTheOwner() {
+        RoomFlushRouter first = node("n1");
+        RoomFlushRouter second = node("n2");
+        first.sweep();
+        String rootId = roomOwnedBy(second);
+
+        first.requestFlush(rootId);
+
+        assertThat(presenceStorage.getPendingFlushes()).containsExactly(rootId);
+        verify(cacheSyncService, never()).syncToDatabaseIfVacant(rootId);
+
+        second.sweep();
+        awaitFlushes();
+
+        verify(cacheSyncService).syncToDatabaseIfVacant(rootId);
+        assertThat(presenceStorage.getPendingFlushes()).isEmpty();
+    }
+
+    @Test
+    void failedFlushStaysPendingAndIsRetriedAfterBackoff() throws InterruptedException {
+        RoomFlushRouter router = node("n1");
+        doThrow(new IllegalStateException("db down")).doNothing()
+                .when(cacheSyncService).syncToDatabaseIfVacant("1");
+
+        router.requestFlush("1");
+        awaitFlushes();
+
+        assertThat(presenceStorage.getPendingFlushes()).containsExactly("1");
+
+        router.sweep(); // 아직 대기 시간 전
+        awaitFlushes();
+        verify(cacheSyncService, times(1)).syncToDatabaseIfVacant("1");
+
+        Thread.sleep(1_100);
+        router.sweep();
+        awaitFlushes();
+
+        verify(cacheSyncService, times(2)).syncToDatabaseIfVacant("1");
+        assertThat(presenceStorage.getPendingFlushes()).isEmpty();
+    }
+
+    @Test
+    void flushBlockedByAnotherLeaseHolderStaysPending() throws InterruptedException {
+        CacheSyncService syncService = new CacheSyncService(List.of(), new SharedSyncDatabaseSyncProperties(),
+                mock(PlatformTransactionManager.class), presenceStorage);
+        RoomFlushRouter router = node("n1", syncService);
+        long token = presenceStorage.acquireSyncLease("1", 60_000); // write-behind 플러시가 잡고 있음
+
+        router.requestFlush("1");
+        awaitFlushes();
+
+        assertThat(presenceStorage.getPendingFlushes()).containsExactly("1");
+
+        presenceStorage.releaseSyncLease("1", token);
+        presenceStorage.insertTracker("1", "s1", "user-s1", "0"); // 다시 들어와 반영할 것이 없는 방
+        Thread.sleep(1_100);
+        router.sweep();
+        awaitFlushes();
+
+        assertThat(presenceStorage.getPendingFlushes()).isEmpty();
+        syncService.shutdown();
+    }
+
+    @Test
+    void leavingNodeFlushesLocallyAndDropsOutOfTheRing() {
+        RoomFlushRouter first = node("n1");
+        RoomFlushRouter second = node("n2");
+        first.sweep();
+        String rootId = roomOwnedBy(second);
+
+        first.leave();
+        first.requestFlush(rootId);
+        awaitFlushes();
+
+        verify(cacheSyncService).syncToDatabaseIfVacant(rootId);
+        assertThat(presenceStorage.getPendingFlushes()).isEmpty();
+
+        second.sweep();
+        for (int room = 1; room <= 50; room++) {
+            assertThat(second.isLocalOwner(String.valueOf(room))).isTrue();
+        }
+    }
+}
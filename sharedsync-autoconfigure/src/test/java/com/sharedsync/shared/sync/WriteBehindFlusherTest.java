@@ -0,0 +1,129 @@
+package com.sharedsync.shared.sync;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sharedsync.shared.annotation.CacheId;
+import com.sharedsync.shared.dto.CacheDto;
+import com.sharedsync.shared.properties.SharedSyncDatabaseSyncProperties;
+import com.sharedsync.shared.repository.AutoCacheRepository;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+class WriteBehindFlusherTest {
+
+    private static final long TOKEN = 7L;
+
+    static class PlaceDto extends CacheDto<Long> {
+        @CacheId
+        Long placeId;
+
+        PlaceDto(Long placeId) {
+            this.placeId = placeId;
+        }
+    }
+
+    private final CacheSyncService cacheSyncService = mock(CacheSyncService.class);
+    private final RoomFlushRouter roomFlushRouter = mock(RoomFlushRouter.class);
+    private final AutoCacheRepository repository = mock(AutoCacheRepository.class);
+    private final PlaceDto inRoomA = new PlaceDto(1L);
+    private final PlaceDto inRoomB = new PlaceDto(2L);
+    private WriteBehindFlusher flusher;
+
+    @BeforeEach
+    void setUp() {
+        flusher = new WriteBehindFlusher(cacheSyncService, roomFlushRouter,
+                mock(PlatformTransactionManager.class), new SharedSyncDatabaseSyncProperties());
+
+        List<AutoCacheRepository<?, ?, ?>> repositories = List.of(repository);
+        when(cacheSyncService.orderParentFirst()).thenReturn(repositories);
+        when(repository.getEntityType()).thenReturn((Class) Object.class);
+        when(repository.findDirtyIds()).thenReturn(List.of(1L, 2L));
+        when(repository.findDtoByIdUnchecked(1L)).thenReturn(inRoomA);
+        when(repository.findDtoByIdUnchecked(2L)).thenReturn(inRoomB);
+        when(repository.findRootIdUnchecked(inRoomA)).thenReturn("A");
+        when(repository.findRootIdUnchecked(inRoomB)).thenReturn("B");
+        when(repository.flushToDatabaseByDtoUnchecked(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(roomFlushRouter.isLocalOwner("A")).thenReturn(true);
+        when(roomFlushRouter.isLocalOwner("B")).thenReturn(false);
+    }
+
+    private void grantLeases() {
+        when(cacheSyncService.runWithFencedSyncLease(any(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, LongConsumer.class).accept(TOKEN);
+            return true;
+        });
+    }
+
+    @Test
+    void flushesOnlyOwnedRoomsUnderTheirLease() {
+        grantLeases();
+
+        flusher.flush();
+
+        verify(cacheSyncService).runWithFencedSyncLease(eq("A"), any());
+        verify(cacheSyncService, never()).runWithFencedSyncLease(eq("B"), any());
+        verify(cacheSyncService).fenceTransaction("A", TOKEN);
+        verify(repository).clearDirtyUnchecked(1L);
+        verify(repository).flushToDatabaseByDtoUnchecked(inRoomA);
+        // 다른 노드가 맡은 방은 표시를 그대로 둠
+        verify(repository, never()).clearDirtyUnchecked(2L);
+        verify(repository, never()).flushToDatabaseByDtoUnchecked(inRoomB);
+    }
+
+    @Test
+    void roomLeasedElsewhereIsDeferred() {
+        when(cacheSyncService.runWithFencedSyncLease(any(), any())).thenReturn(false);
+
+        flusher.flush();
+
+        verify(repository, never()).clearDirtyUnchecked(any());
+        verify(repository, never()).flushToDatabaseByDtoUnchecked(any());
+    }
+
+    @Test
+    void rejectedFenceKeepsTheChunkDirty() {
+        grantLeases();
+        doThrow(new IllegalStateException("lease lost")).when(cacheSyncService).fenceTransaction("A", TOKEN);
+
+        flusher.flush();
+
+        verify(repository, never()).flushToDatabaseByDtoUnchecked(any());
+        verify(repository).markDirtyUnchecked(1L);
+    }
+
+    @Test
+    void entityWaitingForItsParentStaysDirty() {
+        grantLeases();
+        when(repository.flushToDatabaseByDtoUnchecked(inRoomA)).thenReturn(null);
+
+        flusher.flush();
+
+        verify(repository).clearDirtyUnchecked(1L);
+        verify(repository).markDirtyUnchecked(1L);
+    }
+
+    @Test
+    void entityWithoutRoomIsLeftForTheRoomFlush() {
+        grantLeases();
+        when(repository.findRootIdUnchecked(inRoomA)).thenReturn(null);
+
+        flusher.flush();
+
+        verify(cacheSyncService, never()).runWithFencedSyncLease(any(), any());
+        verify(repository, never()).clearDirtyUnchecked(1L);
+        verify(cacheSyncService, never()).fenceTransaction(any(), anyLong());
+    }
+}